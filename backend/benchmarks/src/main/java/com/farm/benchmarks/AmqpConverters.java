@@ -0,0 +1,57 @@
+package com.farm.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Message converters for the event benchmarks.
+ * <p>
+ * Mirrors the services' RabbitMQ configuration: converters are built on Spring Boot's
+ * ObjectMapper (java.time support, ISO-8601 timestamps), the equipment service publishes
+ * in one wire format and the supervision listener picks its decoder by content-type.
+ */
+final class AmqpConverters {
+
+    private AmqpConverters() {
+    }
+
+    static Jackson2JsonMessageConverter jsonConverter() {
+        return new Jackson2JsonMessageConverter(objectMapper());
+    }
+
+    /**
+     * Publishing converter of the equipment service for a wire format (json or smile)
+     */
+    static MessageConverter producerConverter(String wireFormat) {
+        return "smile".equals(wireFormat)
+                ? new com.farm.equipment.config.SmileMessageConverter(objectMapper())
+                : jsonConverter();
+    }
+
+    /**
+     * Listener converter of the supervision service
+     */
+    static MessageConverter consumerConverter() {
+        return new com.farm.supervision.config.RabbitMQConfig().messageConverter(objectMapper());
+    }
+
+    /**
+     * Listener converter of the supervision service without the streaming event reader:
+     * equipment events are bound by Jackson databind
+     */
+    static MessageConverter databindConsumerConverter() {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(jsonConverter());
+        converter.addDelegate(com.farm.supervision.config.SmileMessageConverter.CONTENT_TYPE,
+                new com.farm.supervision.config.SmileMessageConverter(objectMapper()));
+        return new com.farm.supervision.config.UpcastingMessageConverter(converter, objectMapper());
+    }
+
+    static ObjectMapper objectMapper() {
+        // Spring Boot disables numeric timestamps on its mapper
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+}
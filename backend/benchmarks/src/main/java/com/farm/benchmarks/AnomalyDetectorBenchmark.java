@@ -0,0 +1,77 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.anomaly.AnomalyDetector;
+import com.farm.equipment.model.SensorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anomaly detection on a stream of readings spread over many sensors, one reading per operation,
+ * on one thread. Scores are updates per second; {@code -prof gc} should show no allocation per update.
+ * Readings are noisy values around a level per sensor, with an occasional spike.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AnomalyDetectorBenchmark {
+
+    private static final int VALUES = 1 << 16;
+    private static final long MINUTE = 60_000;
+
+    @Param({"1000", "100000"})
+    private int sensors;
+
+    private AnomalyDetector detector;
+    private UUID[] sensorIds;
+    private final UUID farmId = UUID.randomUUID();
+    private final double[] values = new double[VALUES];
+    private long timestamp;
+    private int next;
+    private long detected;
+
+    @Setup
+    public void setUp() {
+        detector = new AnomalyDetector(new AnomalyDetector.Settings(0.05, 6, 30, 60, 6 * 60 * MINUTE, 15 * MINUTE,
+                1_000_000, 24 * 60 * MINUTE, 10, 3),
+                (sensor, farm, type, anomaly, value, expected, score, since, report) -> detected++);
+        Random random = new Random(42);
+        sensorIds = new UUID[sensors];
+        for (int i = 0; i < sensors; i++) {
+            sensorIds[i] = UUID.randomUUID();
+        }
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = 20 + random.nextGaussian() * 0.5 + (random.nextInt(1000) == 0 ? 15 : 0);
+        }
+        // One reading per sensor per minute
+        for (int i = 0; i < sensors * 50; i++) {
+            onReading();
+        }
+    }
+
+    @Benchmark
+    public long onReading() {
+        int i = next++;
+        int sensor = i % sensors;
+        if (sensor == 0) {
+            timestamp += MINUTE;
+        }
+        detector.onReading(sensorIds[sensor], farmId, SensorType.TEMPERATURE, timestamp, values[i & (VALUES - 1)]);
+        return detected;
+    }
+}
@@ -0,0 +1,99 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.coldstore.GorillaDecoder;
+import com.farm.equipment.coldstore.Segment;
+import com.farm.equipment.coldstore.SegmentWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range scan of a sealed cold readings segment: one sensor reporting every second for a day.
+ * Scores are readings per second, and {@code -prof gc} should show no allocation per reading.
+ * The {@code regular} shape reports on the second with a slowly changing 0.1-resolution value;
+ * {@code jittered} adds up to ±50 ms of jitter to every timestamp. Bytes per reading are printed at setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ColdStoreBenchmark {
+
+    private static final int POINTS = 86_400;
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+
+    @Param({"regular", "jittered"})
+    private String shape;
+
+    private Path directory;
+    private Segment segment;
+    private UUID sensorId;
+    private long dayStart;
+    private final GorillaDecoder decoder = new GorillaDecoder();
+    private double sum;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cold-readings");
+        sensorId = UUID.randomUUID();
+        dayStart = DAY.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        Random random = new Random(42);
+        double value = 21.5;
+        try (SegmentWriter writer = new SegmentWriter(directory, DAY)) {
+            for (int i = 0; i < POINTS; i++) {
+                if (random.nextInt(8) == 0) {
+                    value = Math.round((value + (random.nextBoolean() ? 0.1 : -0.1)) * 10) / 10.0;
+                }
+                long jitter = "jittered".equals(shape) ? random.nextInt(101) - 50 : 0;
+                writer.add(sensorId, Math.max(dayStart, dayStart + i * 1000L + jitter), value);
+            }
+            segment = Segment.open(writer.finish());
+        }
+        System.out.printf("%n%s: %d readings in %d bytes, %.2f bytes per reading%n", shape, segment.getPointCount(),
+                segment.getSizeBytes(), (double) segment.getSizeBytes() / segment.getPointCount());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(segment.getPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double scanDay() {
+        sum = 0;
+        segment.scan(sensorId, dayStart, dayStart + 86_400_000L, decoder, (epochMillis, value) -> sum += value);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(3_600)
+    public double scanHour() {
+        sum = 0;
+        long from = dayStart + 12 * 3_600_000L;
+        segment.scan(sensorId, from, from + 3_600_000L, decoder, (epochMillis, value) -> sum += value);
+        return sum;
+    }
+}
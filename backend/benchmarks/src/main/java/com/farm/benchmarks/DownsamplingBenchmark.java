@@ -0,0 +1,62 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.series.Downsampling;
+import com.farm.equipment.series.ReadingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downsampling a reading series to 1000 points for a chart: a year of hourly buckets (8760)
+ * or a day of readings every second (86,400). Each run selects the indexes into a reused array;
+ * building the 1000 DTOs afterwards is the same for both methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DownsamplingBenchmark {
+
+    private static final int MAX_POINTS = 1000;
+    private static final long START = 1_717_200_000_000L;
+
+    @Param({"8760", "86400"})
+    private int size;
+
+    private ReadingBuffer buffer;
+    private final int[] selected = new int[MAX_POINTS];
+    private long end;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        buffer = new ReadingBuffer(size);
+        for (int i = 0; i < size; i++) {
+            buffer.accept(START + i * 1000L, 20 + 5 * Math.sin(i / 500.0) + random.nextGaussian());
+        }
+        end = START + size * 1000L;
+    }
+
+    @Benchmark
+    public int lttb() {
+        return Downsampling.LTTB.select(buffer, START, end, MAX_POINTS, selected);
+    }
+
+    @Benchmark
+    public int m4() {
+        return Downsampling.M4.select(buffer, START, end, MAX_POINTS, selected);
+    }
+}
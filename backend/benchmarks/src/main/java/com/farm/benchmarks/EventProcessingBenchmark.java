@@ -0,0 +1,112 @@
+package com.farm.benchmarks;
+
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.farm.supervision.dto.EventDTO;
+import com.farm.supervision.model.EquipmentEvent;
+import com.farm.supervision.model.EventSeverity;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.service.EquipmentEventConsumer;
+import com.farm.supervision.service.EventService;
+import com.farm.supervision.service.StatisticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.lang.invoke.MethodHandle;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message work in the supervision service: mapping the consumed message onto an entity,
+ * picking its severity and the entity-to-DTO conversions duplicated across services.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventProcessingBenchmark {
+
+    private static final MethodHandle PARSE_EVENT_MESSAGE =
+            PrivateAccess.method(EquipmentEventConsumer.class, "parseEventMessage", EquipmentEvent.class, EquipmentEventMessage.class);
+    private static final MethodHandle CONSUMER_CONVERT_TO_DTO =
+            PrivateAccess.method(EquipmentEventConsumer.class, "convertToDTO", EventDTO.class, EquipmentEvent.class);
+    private static final MethodHandle EVENT_SERVICE_CONVERT_TO_DTO =
+            PrivateAccess.method(EventService.class, "convertToDTO", EventDTO.class, EquipmentEvent.class);
+    private static final MethodHandle STATISTICS_SERVICE_CONVERT_TO_DTO =
+            PrivateAccess.method(StatisticsService.class, "convertToDTO", EventDTO.class, EquipmentEvent.class);
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private EquipmentEventConsumer consumer;
+    private EventService eventService;
+    private StatisticsService statisticsService;
+    private EquipmentEventMessage message;
+    private EquipmentEvent entity;
+    private int nextType;
+
+    @Setup
+    public void setUp() {
+        consumer = PrivateAccess.withNullDependencies(EquipmentEventConsumer.class);
+        eventService = PrivateAccess.withNullDependencies(EventService.class);
+        statisticsService = PrivateAccess.withNullDependencies(StatisticsService.class);
+
+        // The message exactly as the listener receives it from the equipment service
+        com.farm.equipment.event.EquipmentEvent published = com.farm.equipment.event.EquipmentEvent.createBatteryLow(
+                UUID.randomUUID(), UUID.randomUUID(), 12);
+        var amqpMessage = AmqpConverters.producerConverter("smile").toMessage(published, new MessageProperties());
+        amqpMessage.getMessageProperties().setInferredArgumentType(EquipmentEventMessage.class);
+        message = (EquipmentEventMessage) AmqpConverters.consumerConverter().fromMessage(amqpMessage);
+
+        entity = EquipmentEvent.builder()
+                .id(UUID.randomUUID())
+                .eventType(EventType.BATTERY_LOW)
+                .equipmentId(UUID.randomUUID())
+                .equipmentType("SENSOR")
+                .farmId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .payload(new BatteryLowPayload(12))
+                .message("Battery level is low: 12%")
+                .severity(EventSeverity.CRITICAL)
+                .receivedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public EquipmentEvent parseEventMessage() throws Throwable {
+        return (EquipmentEvent) PARSE_EVENT_MESSAGE.invokeExact(consumer, message);
+    }
+
+    @Benchmark
+    public EventSeverity determineSeverity() {
+        EventType type = EVENT_TYPES[nextType];
+        nextType = (nextType + 1) % EVENT_TYPES.length;
+        return EquipmentEvent.determineSeverity(type);
+    }
+
+    @Benchmark
+    public EventDTO consumerConvertToDTO() throws Throwable {
+        return (EventDTO) CONSUMER_CONVERT_TO_DTO.invokeExact(consumer, entity);
+    }
+
+    @Benchmark
+    public EventDTO eventServiceConvertToDTO() throws Throwable {
+        return (EventDTO) EVENT_SERVICE_CONVERT_TO_DTO.invokeExact(eventService, entity);
+    }
+
+    @Benchmark
+    public EventDTO statisticsServiceConvertToDTO() throws Throwable {
+        return (EventDTO) STATISTICS_SERVICE_CONVERT_TO_DTO.invokeExact(statisticsService, entity);
+    }
+}
@@ -0,0 +1,144 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.events.EventSchema;
+import com.farm.events.payload.SensorCreatedPayload;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RabbitMQ message conversion of equipment events, as configured in both services, per wire format.
+ * The equipment service writes {@link EquipmentEvent}; the supervision listener reads it as
+ * {@link EquipmentEventMessage}, inferred from its method signature.
+ * {@code deserializeAsEvent} uses the streaming reader, {@code deserializeWithDatabind} the bean
+ * deserializer it replaced, and {@code deserializeAsMap} the untyped form the listener consumed before that;
+ * {@code deserializeUpcastFromVersion1} reads a schema version 1 message through the upcasters.
+ * Encoded sizes are printed by {@link WireFormatSizes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+
+    private static final Type MAP_TYPE = ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class).getType();
+
+    @Param({"json", "smile"})
+    private String wireFormat;
+
+    private MessageConverter producerConverter;
+    private MessageConverter consumerConverter;
+    private MessageConverter databindConverter;
+    private EquipmentEvent event;
+    private Message eventMessage;
+    private Message mapMessage;
+    private Message version1Message;
+
+    @Setup
+    public void setUp() {
+        producerConverter = AmqpConverters.producerConverter(wireFormat);
+        consumerConverter = AmqpConverters.consumerConverter();
+        databindConverter = AmqpConverters.databindConsumerConverter();
+
+        event = sampleEvent();
+        Message published = producerConverter.toMessage(event, new MessageProperties());
+        eventMessage = new Message(published.getBody(), inferredAs(published.getMessageProperties(), EquipmentEventMessage.class));
+        mapMessage = new Message(published.getBody(), inferredAs(published.getMessageProperties(), MAP_TYPE));
+        version1Message = version1(event);
+    }
+
+    static EquipmentEvent sampleEvent() {
+        EquipmentEvent event = EquipmentEvent.createEquipmentCreated(UUID.randomUUID(), "SENSOR", UUID.randomUUID(),
+                new SensorCreatedPayload("HUMIDITY", "HX-200", 18));
+        event.setTimestamp(LocalDateTime.of(2024, 6, 1, 12, 30));
+        return event;
+    }
+
+    @Benchmark
+    public Message serializeEvent() {
+        return producerConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeAsEvent() {
+        return consumerConverter.fromMessage(eventMessage);
+    }
+
+    @Benchmark
+    public Object deserializeWithDatabind() {
+        return databindConverter.fromMessage(eventMessage);
+    }
+
+    @Benchmark
+    public Object deserializeAsMap() {
+        return consumerConverter.fromMessage(mapMessage);
+    }
+
+    @Benchmark
+    public Object deserializeUpcastFromVersion1() {
+        return consumerConverter.fromMessage(version1Message);
+    }
+
+    @Benchmark
+    public Object roundTripAsEvent() {
+        Message message = producerConverter.toMessage(event, new MessageProperties());
+        return consumerConverter.fromMessage(new Message(message.getBody(),
+                inferredAs(message.getMessageProperties(), EquipmentEventMessage.class)));
+    }
+
+    /**
+     * The event as a publisher without the schema version header sent it: untyped metadata map
+     */
+    private Message version1(EquipmentEvent event) {
+        EquipmentEvent v1 = EquipmentEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .equipmentId(event.getEquipmentId())
+                .equipmentType(event.getEquipmentType())
+                .farmId(event.getFarmId())
+                .timestamp(event.getTimestamp())
+                .message(event.getMessage())
+                .build();
+        Map<String, Object> body = AmqpConverters.objectMapper().convertValue(v1, new TypeReference<LinkedHashMap<String, Object>>() { });
+        body.remove("payload");
+        body.put("metadata", Map.of("type", "HUMIDITY", "model", "HX-200", "battery", 18));
+        Message message = producerConverter.toMessage(body, new MessageProperties());
+        MessageProperties properties = inferredAs(message.getMessageProperties(), EquipmentEventMessage.class);
+        properties.getHeaders().remove(EventSchema.VERSION_HEADER);
+        return new Message(message.getBody(), properties);
+    }
+
+    static MessageProperties inferredAs(MessageProperties source, Type type) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(source.getContentType());
+        properties.setContentEncoding(source.getContentEncoding());
+        source.getHeaders().forEach(properties::setHeader);
+        properties.setHeader(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+        properties.setInferredArgumentType(type);
+        return properties;
+    }
+}
@@ -0,0 +1,147 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.gateway.FrameBatch;
+import com.farm.equipment.gateway.FrameFormat;
+import com.farm.equipment.gateway.FrameServer;
+import com.sun.management.OperatingSystemMXBean;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates field devices sending readings to the device ingestion gateway over TCP, and prints
+ * the frames acknowledged per second.
+ * <p>
+ * With no host, it starts an in-process {@link FrameServer} whose store accepts every reading
+ * without a database, to measure the gateway alone; the CPU time printed is then that of the
+ * gateway and the simulator together. Against a running service, the devices must exist, and
+ * the rate limit ({@code equipment.gateway.rate-limit}) caps each device.
+ * <pre>
+ * java -cp target/benchmarks.jar com.farm.benchmarks.GatewaySimulator [host port [sensorId...]]
+ *     -Dconnections=64 -Ddevices=10000 -Dwindow=256 -Dinflight=4 -Dseconds=20
+ * </pre>
+ */
+public final class GatewaySimulator {
+
+    private static final int CONNECTIONS = Integer.getInteger("connections", 64);
+    private static final int DEVICES = Integer.getInteger("devices", 10_000);
+    private static final int WINDOW = Integer.getInteger("window", 256);
+    private static final int INFLIGHT = Integer.getInteger("inflight", 4);
+    private static final int SECONDS = Integer.getInteger("seconds", 20);
+
+    private static final LongAdder acknowledged = new LongAdder();
+    private static final LongAdder accepted = new LongAdder();
+    private static volatile boolean running = true;
+
+    private GatewaySimulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        FrameServer server = null;
+        String host;
+        int port;
+        UUID[] sensorIds;
+        if (args.length >= 2) {
+            host = args[0];
+            port = Integer.parseInt(args[1]);
+            sensorIds = new UUID[args.length > 2 ? args.length - 2 : DEVICES];
+            for (int i = 0; i < sensorIds.length; i++) {
+                sensorIds[i] = args.length > 2 ? UUID.fromString(args[i + 2]) : UUID.randomUUID();
+            }
+        } else {
+            server = new FrameServer(new FrameServer.Settings("127.0.0.1", 0, -1, 4096, 8, 4, 20, 1e9, 1e9,
+                    900_000, 100_000, 1_000_000, 600_000, 300_000), GatewaySimulator::acceptAll);
+            server.start();
+            host = "127.0.0.1";
+            port = server.getTcpPort();
+            sensorIds = new UUID[DEVICES];
+            for (int i = 0; i < sensorIds.length; i++) {
+                sensorIds[i] = UUID.randomUUID();
+            }
+        }
+        System.out.printf("%d connections, %d devices, windows of %d frames, %d in flight, %d s against %s:%d%n",
+                CONNECTIONS, sensorIds.length, WINDOW, INFLIGHT, SECONDS, host, port);
+
+        for (int c = 0; c < CONNECTIONS; c++) {
+            int connection = c;
+            Thread thread = new Thread(() -> simulate(host, port, sensorIds, connection), "device-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        var os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long lastFrames = 0;
+        long lastCpu = os.getProcessCpuTime();
+        for (int second = 1; second <= SECONDS; second++) {
+            Thread.sleep(1000);
+            long frames = acknowledged.sum();
+            long cpu = os.getProcessCpuTime();
+            long delta = frames - lastFrames;
+            System.out.printf("%3d s %,12d frames/s  %6.2f us CPU/frame  (%,d accepted in total)%n", second, delta,
+                    delta > 0 ? (cpu - lastCpu) / 1000.0 / delta : 0, accepted.sum());
+            lastFrames = frames;
+            lastCpu = cpu;
+        }
+        running = false;
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private static void acceptAll(FrameBatch batch) {
+        Arrays.fill(batch.getAccepted(), 0, batch.size(), true);
+    }
+
+    /**
+     * One connection sending windows of frames round-robin over its share of the devices,
+     * with up to {@code INFLIGHT} windows not acknowledged yet
+     */
+    private static void simulate(String host, int port, UUID[] sensorIds, int connection) {
+        ByteBuffer frames = ByteBuffer.allocateDirect(WINDOW * FrameFormat.FRAME_BYTES);
+        ByteBuffer acks = ByteBuffer.allocateDirect(1024 * FrameFormat.ACK_BYTES);
+        long baseMillis = System.currentTimeMillis() - 3_600_000;
+        int sequence = 0;
+        long sent = 0;
+        long acked = 0;
+        int device = connection % sensorIds.length;
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port))) {
+            while (running) {
+                while (sent - acked < (long) INFLIGHT * WINDOW) {
+                    frames.clear();
+                    for (int i = 0; i < WINDOW; i++) {
+                        // Distinct times across connections, so that every reading is a new one
+                        sequence++;
+                        FrameFormat.writeFrame(frames, sequence, sensorIds[device], 90,
+                                baseMillis + (long) sequence * CONNECTIONS + connection, 20 + (sequence % 100) / 10.0);
+                        device = (device + CONNECTIONS) % sensorIds.length;
+                    }
+                    frames.flip();
+                    while (frames.hasRemaining()) {
+                        channel.write(frames);
+                    }
+                    sent += WINDOW;
+                }
+                channel.read(acks);
+                acks.flip();
+                while (acks.remaining() >= FrameFormat.ACK_BYTES) {
+                    int at = acks.position();
+                    int acceptedFrames = FrameFormat.ackAccepted(acks, at);
+                    int frameCount = acceptedFrames + FrameFormat.ackRejected(acks, at);
+                    acked += frameCount;
+                    acknowledged.add(frameCount);
+                    accepted.add(acceptedFrames);
+                    acks.position(at + FrameFormat.ACK_BYTES);
+                }
+                acks.compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection " + connection + " failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.dto.request.CreatePumpRequest;
+import com.farm.equipment.dto.request.CreateSensorRequest;
+import com.farm.equipment.dto.response.PumpDTO;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.mapper.PumpMapper;
+import com.farm.equipment.mapper.PumpMapperImpl;
+import com.farm.equipment.mapper.SensorMapper;
+import com.farm.equipment.mapper.SensorMapperImpl;
+import com.farm.equipment.model.ConnectedPump;
+import com.farm.equipment.model.ConnectedSensor;
+import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.model.SensorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mappers of the equipment service, called on every sensor and pump request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private SensorMapper sensorMapper;
+    private PumpMapper pumpMapper;
+    private ConnectedSensor sensor;
+    private ConnectedPump pump;
+    private CreateSensorRequest createSensorRequest;
+    private CreatePumpRequest createPumpRequest;
+
+    @Setup
+    public void setUp() {
+        sensorMapper = new SensorMapperImpl();
+        pumpMapper = new PumpMapperImpl();
+
+        UUID farmId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        sensor = ConnectedSensor.builder()
+                .id(UUID.randomUUID())
+                .type(SensorType.HUMIDITY)
+                .farmId(farmId)
+                .battery(18)
+                .lastCommunication(now.minusMinutes(5))
+                .location("North field, row 3")
+                .model("HX-200")
+                .installationDate(now.minusMonths(6))
+                .active(true)
+                .alertThreshold(20)
+                .build();
+        sensor.setCreatedAt(now.minusMonths(6));
+        sensor.setUpdatedAt(now);
+
+        pump = ConnectedPump.builder()
+                .id(UUID.randomUUID())
+                .farmId(farmId)
+                .model("AquaMax 3000")
+                .status(EquipmentStatus.ACTIVE)
+                .maxFlow(new BigDecimal("125.50"))
+                .location("Well 2")
+                .installationDate(now.minusYears(1))
+                .lastMaintenanceDate(now.minusMonths(2))
+                .nextMaintenanceDate(now.plusMonths(1))
+                .build();
+        pump.setCreatedAt(now.minusYears(1));
+        pump.setUpdatedAt(now);
+
+        createSensorRequest = CreateSensorRequest.builder()
+                .type(SensorType.TEMPERATURE)
+                .farmId(farmId)
+                .battery(95)
+                .location("Greenhouse 1")
+                .model("TX-10")
+                .installationDate(now)
+                .build();
+
+        createPumpRequest = CreatePumpRequest.builder()
+                .farmId(farmId)
+                .model("AquaMax 3000")
+                .status(EquipmentStatus.ACTIVE)
+                .maxFlow(new BigDecimal("125.50"))
+                .location("Well 3")
+                .installationDate(now)
+                .build();
+    }
+
+    @Benchmark
+    public SensorDTO sensorToDTO() {
+        return sensorMapper.toDTO(sensor);
+    }
+
+    @Benchmark
+    public ConnectedSensor sensorToEntity() {
+        return sensorMapper.toEntity(createSensorRequest);
+    }
+
+    @Benchmark
+    public PumpDTO pumpToDTO() {
+        return pumpMapper.toDTO(pump);
+    }
+
+    @Benchmark
+    public ConnectedPump pumpToEntity() {
+        return pumpMapper.toEntity(createPumpRequest);
+    }
+}
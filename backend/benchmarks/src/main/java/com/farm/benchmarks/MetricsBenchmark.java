@@ -0,0 +1,126 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.event.EquipmentEventType;
+import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.supervision.model.EventSeverity;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.monitoring.SupervisionMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording metrics on the per-event path, against the Prometheus registry used in production.
+ * Run with {@code -prof gc}: the facade methods should show a {@code gc.alloc.rate.norm} of 0 B/op.
+ * {@code builderPerCall} is the former pattern of building and registering the meter on every call,
+ * for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final EventSeverity[] SEVERITIES = EventSeverity.values();
+    private static final EquipmentEventType[] EQUIPMENT_EVENT_TYPES = EquipmentEventType.values();
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
+    private PrometheusMeterRegistry registry;
+    private SupervisionMetrics supervisionMetrics;
+    private EquipmentMetrics equipmentMetrics;
+    private UUID[] farmIds;
+    private LocalDateTime eventTimestamp;
+    private LocalDateTime receivedAt;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        supervisionMetrics = new SupervisionMetrics(registry);
+        supervisionMetrics.init();
+        equipmentMetrics = new EquipmentMetrics(registry);
+        equipmentMetrics.init();
+
+        farmIds = new UUID[16];
+        for (int i = 0; i < farmIds.length; i++) {
+            farmIds[i] = UUID.randomUUID();
+            equipmentMetrics.recordBatteryLevel(farmIds[i], 50);
+        }
+        receivedAt = LocalDateTime.now();
+        eventTimestamp = receivedAt.minusNanos(37_000_000);
+    }
+
+    @Benchmark
+    public void builderPerCall() {
+        EventType type = EVENT_TYPES[next++ % EVENT_TYPES.length];
+        Counter.builder("supervision.messages.consumed")
+                .description("Number of messages consumed from RabbitMQ")
+                .tag("type", type.name())
+                .tag("success", String.valueOf(true))
+                .register(registry)
+                .increment();
+    }
+
+    @Benchmark
+    public void recordMessageConsumed() {
+        supervisionMetrics.recordMessageConsumed(EVENT_TYPES[next++ % EVENT_TYPES.length], true);
+    }
+
+    @Benchmark
+    public void recordEventCreated() {
+        int i = next++;
+        supervisionMetrics.recordEventCreated(EVENT_TYPES[i % EVENT_TYPES.length], SEVERITIES[i % SEVERITIES.length]);
+    }
+
+    @Benchmark
+    public void recordStage() {
+        supervisionMetrics.recordStage(SupervisionMetrics.Stage.PERSIST, 1_250_000L);
+    }
+
+    @Benchmark
+    public void recordEventLatency() {
+        supervisionMetrics.recordEventLatency(eventTimestamp, receivedAt);
+    }
+
+    @Benchmark
+    public void recordMessagePublished() {
+        equipmentMetrics.recordMessagePublished(EQUIPMENT_EVENT_TYPES[next++ % EQUIPMENT_EVENT_TYPES.length], true);
+    }
+
+    @Benchmark
+    public void recordStatusChange() {
+        int i = next++;
+        equipmentMetrics.recordStatusChange(EquipmentMetrics.EquipmentKind.PUMP,
+                STATUSES[i % STATUSES.length], STATUSES[(i + 1) % STATUSES.length]);
+    }
+
+    @Benchmark
+    public void recordBatteryLevel() {
+        int i = next++;
+        equipmentMetrics.recordBatteryLevel(farmIds[i & (farmIds.length - 1)], i % 100);
+    }
+
+    @Benchmark
+    public void recordFarmersServiceCall() {
+        equipmentMetrics.recordFarmersServiceCall(EquipmentMetrics.FarmersCall.CHECK_PERMISSION,
+                EquipmentMetrics.CallOutcome.SUCCESS, 3_400_000L);
+    }
+}
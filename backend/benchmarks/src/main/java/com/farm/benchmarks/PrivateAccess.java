@@ -0,0 +1,41 @@
+package com.farm.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Reflection helpers for benchmarking private service methods without a Spring context.
+ */
+final class PrivateAccess {
+
+    private PrivateAccess() {
+    }
+
+    /**
+     * Instantiate a constructor-injected service with every dependency set to null.
+     * Only suitable for benchmarking methods that do not touch those dependencies.
+     */
+    static <T> T withNullDependencies(Class<T> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructors()[0];
+            constructor.setAccessible(true);
+            return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Look up a private instance method
+     */
+    static MethodHandle method(Class<?> type, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .findVirtual(type, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + type.getName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.farm.benchmarks;
+
+import com.farm.common.id.UuidV7Generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes the CSV rows loaded by {@code scripts/benchmark-uuid-keys.sh}, in the shape of the
+ * equipment_events table: key, equipment id, creation time and message.
+ * <p>
+ * Keys are generated here for both variants, so that the database only stores them: UUIDv7 keys
+ * by the services' {@link UuidV7Generator}, and random UUIDv4 keys from the same random source
+ * as its random bits.
+ * <pre>
+ * java -cp target/benchmarks.jar com.farm.benchmarks.UuidKeyRows v4|v7 rows
+ * </pre>
+ */
+public final class UuidKeyRows {
+
+    private UuidKeyRows() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(args[0].equals("v4") || args[0].equals("v7"))) {
+            System.err.println("Usage: UuidKeyRows v4|v7 rows");
+            System.exit(2);
+        }
+        boolean timeOrdered = args[0].equals("v7");
+        long rows = Long.parseLong(args[1]);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+            for (long row = 1; row <= rows; row++) {
+                UUID key = timeOrdered ? UuidV7Generator.next() : randomUuid();
+                out.write(key.toString());
+                out.write(',');
+                out.write(randomUuid().toString());
+                out.write(',');
+                out.write(LocalDateTime.now(ZoneOffset.UTC).toString());
+                out.write(",benchmark row ");
+                out.write(Long.toString(row));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
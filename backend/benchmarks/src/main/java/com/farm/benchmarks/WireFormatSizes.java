@@ -0,0 +1,43 @@
+package com.farm.benchmarks;
+
+import com.farm.equipment.event.EquipmentEvent;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Prints the encoded size of each kind of equipment event per wire format.
+ * Complements {@link EventSerializationBenchmark}, which measures time only.
+ * <pre>
+ * java -cp target/benchmarks.jar com.farm.benchmarks.WireFormatSizes
+ * </pre>
+ */
+public final class WireFormatSizes {
+
+    private WireFormatSizes() {
+    }
+
+    public static void main(String[] args) {
+        UUID farmId = UUID.randomUUID();
+        Map<String, EquipmentEvent> events = new LinkedHashMap<>();
+        events.put("EQUIPMENT_CREATED", EventSerializationBenchmark.sampleEvent());
+        events.put("STATUS_CHANGED", EquipmentEvent.createStatusChanged(UUID.randomUUID(), "PUMP", farmId, "INACTIVE", "ACTIVE"));
+        events.put("BATTERY_LOW", EquipmentEvent.createBatteryLow(UUID.randomUUID(), farmId, 12));
+        events.put("SENSOR_OFFLINE", EquipmentEvent.createSensorOffline(UUID.randomUUID(), farmId, LocalDateTime.now().minusHours(1)));
+        events.put("MAINTENANCE_SCHEDULED", EquipmentEvent.createMaintenanceScheduled(UUID.randomUUID(), farmId, LocalDateTime.now().plusDays(7)));
+
+        System.out.printf("%-22s %8s %8s %8s%n", "event", "json", "smile", "ratio");
+        events.forEach((name, event) -> {
+            int json = size("json", event);
+            int smile = size("smile", event);
+            System.out.printf("%-22s %8d %8d %8.2f%n", name, json, smile, (double) smile / json);
+        });
+    }
+
+    private static int size(String wireFormat, EquipmentEvent event) {
+        return AmqpConverters.producerConverter(wireFormat).toMessage(event, new MessageProperties()).getBody().length;
+    }
+}
@@ -0,0 +1,40 @@
+package com.farm.events;
+
+/**
+ * Version of the equipment event contract.
+ * <p>
+ * Publishers stamp every message with {@link #VERSION_HEADER}; consumers read the current
+ * version directly and pass older ones through the upcasters first. Messages without the
+ * header come from publishers that predate it and are version 1.
+ * <ul>
+ *   <li>1: untyped {@code metadata} map</li>
+ *   <li>2: typed {@code payload} record per event, discriminated by {@code @type}</li>
+ * </ul>
+ */
+public final class EventSchema {
+
+    public static final int CURRENT_VERSION = 2;
+
+    public static final String VERSION_HEADER = "x-schema-version";
+
+    /**
+     * Header carrying the equipment id; consumers hash on it so each device's events stay in order
+     */
+    public static final String PARTITION_KEY_HEADER = "x-equipment-id";
+
+    private EventSchema() {
+    }
+
+    /**
+     * Schema version carried by a message header value
+     */
+    public static int versionOf(Object headerValue) {
+        if (headerValue instanceof Number number) {
+            return number.intValue();
+        }
+        if (headerValue != null) {
+            return Integer.parseInt(headerValue.toString());
+        }
+        return 1;
+    }
+}
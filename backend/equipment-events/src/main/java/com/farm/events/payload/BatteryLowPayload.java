@@ -0,0 +1,9 @@
+package com.farm.events.payload;
+
+/**
+ * BATTERY_LOW; batteryLevel in percent
+ */
+public record BatteryLowPayload(int batteryLevel) implements EventPayload {
+
+    public static final String TYPE = "BATTERY_LOW";
+}
@@ -0,0 +1,12 @@
+package com.farm.events.payload;
+
+import java.util.UUID;
+
+/**
+ * EQUIPMENT_CREATED summarising one farm's share of a bulk import.
+ * lowBattery is only set for sensor imports.
+ */
+public record EquipmentBatchCreatedPayload(UUID batchId, int count, Long lowBattery) implements EventPayload {
+
+    public static final String TYPE = "EQUIPMENT_BATCH_CREATED";
+}
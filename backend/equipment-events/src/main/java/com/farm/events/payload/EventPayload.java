@@ -0,0 +1,32 @@
+package com.farm.events.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * Typed payload of an equipment event.
+ * The concrete record is named by an {@code @type} property, so payloads deserialize straight
+ * into their record, both from RabbitMQ and from the supervision service's jsonb column.
+ * Payloads without a known {@code @type} (rows stored before schema version 2) are read as {@link LegacyPayload}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "@type", defaultImpl = LegacyPayload.class)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = SensorCreatedPayload.class, name = SensorCreatedPayload.TYPE),
+        @JsonSubTypes.Type(value = PumpCreatedPayload.class, name = PumpCreatedPayload.TYPE),
+        @JsonSubTypes.Type(value = EquipmentBatchCreatedPayload.class, name = EquipmentBatchCreatedPayload.TYPE),
+        @JsonSubTypes.Type(value = StatusChangedPayload.class, name = StatusChangedPayload.TYPE),
+        @JsonSubTypes.Type(value = MaintenanceScheduledPayload.class, name = MaintenanceScheduledPayload.TYPE),
+        @JsonSubTypes.Type(value = MaintenanceCompletedPayload.class, name = MaintenanceCompletedPayload.TYPE),
+        @JsonSubTypes.Type(value = BatteryLowPayload.class, name = BatteryLowPayload.TYPE),
+        @JsonSubTypes.Type(value = SensorOfflinePayload.class, name = SensorOfflinePayload.TYPE),
+        @JsonSubTypes.Type(value = ThresholdViolatedPayload.class, name = ThresholdViolatedPayload.TYPE),
+        @JsonSubTypes.Type(value = ThresholdClearedPayload.class, name = ThresholdClearedPayload.TYPE),
+        @JsonSubTypes.Type(value = SensorAnomalyPayload.class, name = SensorAnomalyPayload.TYPE),
+        @JsonSubTypes.Type(value = LegacyPayload.class, name = LegacyPayload.TYPE)
+})
+@JsonIgnoreProperties(ignoreUnknown = true)
+public sealed interface EventPayload permits SensorCreatedPayload, PumpCreatedPayload, EquipmentBatchCreatedPayload,
+        StatusChangedPayload, MaintenanceScheduledPayload, MaintenanceCompletedPayload, BatteryLowPayload,
+        SensorOfflinePayload, ThresholdViolatedPayload, ThresholdClearedPayload, SensorAnomalyPayload, LegacyPayload {
+}
@@ -0,0 +1,47 @@
+package com.farm.events.payload;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Untyped payload kept as-is: rows stored before schema version 2 and payloads
+ * a version 1 message carried for an event type without a typed record.
+ */
+public final class LegacyPayload implements EventPayload {
+
+    public static final String TYPE = "LEGACY";
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> values() {
+        return values;
+    }
+
+    @JsonAnySetter
+    void put(String name, Object value) {
+        values.put(name, value);
+    }
+
+    public Object get(String name) {
+        return values.get(name);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LegacyPayload legacy && values.equals(legacy.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LegacyPayload" + values;
+    }
+}
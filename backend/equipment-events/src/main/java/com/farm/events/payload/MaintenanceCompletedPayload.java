@@ -0,0 +1,9 @@
+package com.farm.events.payload;
+
+/**
+ * MAINTENANCE_COMPLETED; notes may be null
+ */
+public record MaintenanceCompletedPayload(String notes) implements EventPayload {
+
+    public static final String TYPE = "MAINTENANCE_COMPLETED";
+}
@@ -0,0 +1,11 @@
+package com.farm.events.payload;
+
+import java.time.LocalDateTime;
+
+/**
+ * MAINTENANCE_SCHEDULED
+ */
+public record MaintenanceScheduledPayload(LocalDateTime scheduledDate) implements EventPayload {
+
+    public static final String TYPE = "MAINTENANCE_SCHEDULED";
+}
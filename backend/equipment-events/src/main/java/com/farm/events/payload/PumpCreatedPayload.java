@@ -0,0 +1,11 @@
+package com.farm.events.payload;
+
+import java.math.BigDecimal;
+
+/**
+ * EQUIPMENT_CREATED for a single pump; maxFlow in L/min
+ */
+public record PumpCreatedPayload(String model, String status, BigDecimal maxFlow) implements EventPayload {
+
+    public static final String TYPE = "PUMP_CREATED";
+}
@@ -0,0 +1,16 @@
+package com.farm.events.payload;
+
+import java.time.LocalDateTime;
+
+/**
+ * SENSOR_ANOMALY; anomaly is SPIKE, OUT_OF_RANGE, FLATLINE or BATTERY_DRAIN.
+ * For a spike, expected is the usual level and score the robust z-score (0 if only the rate of
+ * change was implausible); out of range, expected is the nearest plausible value; for a flatline,
+ * score is the number of identical readings since {@code since}; for a battery drain, value and
+ * expected are the drain and the usual drain in percent per day, over the period since {@code since}
+ */
+public record SensorAnomalyPayload(String anomaly, double value, double expected, double score,
+                                   LocalDateTime since) implements EventPayload {
+
+    public static final String TYPE = "SENSOR_ANOMALY";
+}
@@ -0,0 +1,9 @@
+package com.farm.events.payload;
+
+/**
+ * EQUIPMENT_CREATED for a single sensor
+ */
+public record SensorCreatedPayload(String sensorType, String model, int battery) implements EventPayload {
+
+    public static final String TYPE = "SENSOR_CREATED";
+}
@@ -0,0 +1,11 @@
+package com.farm.events.payload;
+
+import java.time.LocalDateTime;
+
+/**
+ * SENSOR_OFFLINE; lastCommunication is null if the sensor never reported
+ */
+public record SensorOfflinePayload(LocalDateTime lastCommunication) implements EventPayload {
+
+    public static final String TYPE = "SENSOR_OFFLINE";
+}
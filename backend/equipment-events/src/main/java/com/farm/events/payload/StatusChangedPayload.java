@@ -0,0 +1,9 @@
+package com.farm.events.payload;
+
+/**
+ * STATUS_CHANGED
+ */
+public record StatusChangedPayload(String oldStatus, String newStatus) implements EventPayload {
+
+    public static final String TYPE = "STATUS_CHANGED";
+}
@@ -0,0 +1,13 @@
+package com.farm.events.payload;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * THRESHOLD_CLEARED; value is the reading back within the rule's hysteresis, since the start of the violation
+ */
+public record ThresholdClearedPayload(UUID ruleId, String ruleName, double value, LocalDateTime since)
+        implements EventPayload {
+
+    public static final String TYPE = "THRESHOLD_CLEARED";
+}
@@ -0,0 +1,14 @@
+package com.farm.events.payload;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * THRESHOLD_VIOLATED; operator is ABOVE or BELOW, since is the time of the first reading of the
+ * violation, value the reading that made it last the rule's duration
+ */
+public record ThresholdViolatedPayload(UUID ruleId, String ruleName, String operator, double threshold,
+                                       double value, LocalDateTime since, boolean critical) implements EventPayload {
+
+    public static final String TYPE = "THRESHOLD_VIOLATED";
+}
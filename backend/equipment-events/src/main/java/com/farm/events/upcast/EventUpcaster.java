@@ -0,0 +1,16 @@
+package com.farm.events.upcast;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Rewrites a serialized event from one schema version to the next, in place.
+ */
+public interface EventUpcaster {
+
+    /**
+     * Version this upcaster reads; it produces {@code fromVersion() + 1}
+     */
+    int fromVersion();
+
+    void upcast(ObjectNode event);
+}
@@ -0,0 +1,42 @@
+package com.farm.events.upcast;
+
+import com.farm.events.EventSchema;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+/**
+ * Chain of upcasters bringing a serialized event of any older schema version to
+ * {@link EventSchema#CURRENT_VERSION}. Only messages from older publishers pay for the
+ * tree round-trip; current messages are read straight into their types.
+ */
+public final class EventUpcasters {
+
+    private static final List<EventUpcaster> CHAIN = List.of(new MetadataToPayloadUpcaster());
+
+    private EventUpcasters() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the version is newer than this contract or has no upcaster
+     */
+    public static ObjectNode upcast(ObjectNode event, int version) {
+        if (version > EventSchema.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Event schema version " + version
+                    + " is newer than supported version " + EventSchema.CURRENT_VERSION);
+        }
+        for (int current = version; current < EventSchema.CURRENT_VERSION; current++) {
+            upcasterFor(current).upcast(event);
+        }
+        return event;
+    }
+
+    private static EventUpcaster upcasterFor(int version) {
+        for (EventUpcaster upcaster : CHAIN) {
+            if (upcaster.fromVersion() == version) {
+                return upcaster;
+            }
+        }
+        throw new IllegalArgumentException("No upcaster from event schema version " + version);
+    }
+}
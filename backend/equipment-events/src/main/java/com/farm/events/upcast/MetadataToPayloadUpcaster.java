@@ -0,0 +1,94 @@
+package com.farm.events.upcast;
+
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.EquipmentBatchCreatedPayload;
+import com.farm.events.payload.MaintenanceCompletedPayload;
+import com.farm.events.payload.MaintenanceScheduledPayload;
+import com.farm.events.payload.PumpCreatedPayload;
+import com.farm.events.payload.SensorCreatedPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+
+/**
+ * Version 1 to 2: the untyped {@code metadata} map becomes a typed {@code payload}.
+ * Values that version 1 carried as strings (battery levels, "never", "50.00 L/min") are
+ * normalised to the record field types. Event types without a record keep their map as a legacy payload.
+ */
+public class MetadataToPayloadUpcaster implements EventUpcaster {
+
+    @Override
+    public int fromVersion() {
+        return 1;
+    }
+
+    @Override
+    public void upcast(ObjectNode event) {
+        JsonNode metadata = event.remove("metadata");
+        ObjectNode source = metadata instanceof ObjectNode object ? object : event.objectNode();
+        ObjectNode payload = event.objectNode();
+
+        switch (event.path("eventType").asText()) {
+            case "EQUIPMENT_CREATED" -> created(event, source, payload);
+            case "STATUS_CHANGED" -> payload.put("@type", StatusChangedPayload.TYPE)
+                    .put("oldStatus", textOrNull(source, "oldStatus"))
+                    .put("newStatus", textOrNull(source, "newStatus"));
+            case "MAINTENANCE_SCHEDULED" -> payload.put("@type", MaintenanceScheduledPayload.TYPE)
+                    .put("scheduledDate", textOrNull(source, "scheduledDate"));
+            case "MAINTENANCE_COMPLETED" -> payload.put("@type", MaintenanceCompletedPayload.TYPE)
+                    .put("notes", textOrNull(source, "notes"));
+            case "BATTERY_LOW" -> payload.put("@type", BatteryLowPayload.TYPE)
+                    .put("batteryLevel", source.path("batteryLevel").asInt());
+            case "SENSOR_OFFLINE" -> {
+                String lastCommunication = textOrNull(source, "lastCommunication");
+                payload.put("@type", SensorOfflinePayload.TYPE)
+                        .put("lastCommunication", "never".equals(lastCommunication) ? null : lastCommunication);
+            }
+            default -> payload.setAll(source);
+        }
+        event.set("payload", payload);
+    }
+
+    private static void created(ObjectNode event, ObjectNode source, ObjectNode payload) {
+        if (source.path("batch").asBoolean(false)) {
+            payload.put("@type", EquipmentBatchCreatedPayload.TYPE)
+                    .put("batchId", textOrNull(source, "batchId"))
+                    .put("count", source.path("count").asInt());
+            if (source.hasNonNull("lowBattery")) {
+                payload.put("lowBattery", source.get("lowBattery").asLong());
+            }
+        } else if ("PUMP".equals(event.path("equipmentType").asText())) {
+            payload.put("@type", PumpCreatedPayload.TYPE)
+                    .put("model", textOrNull(source, "model"))
+                    .put("status", textOrNull(source, "status"))
+                    .put("maxFlow", flow(textOrNull(source, "maxFlow")));
+        } else {
+            payload.put("@type", SensorCreatedPayload.TYPE)
+                    .put("sensorType", textOrNull(source, "type"))
+                    .put("model", textOrNull(source, "model"))
+                    .put("battery", source.path("battery").asInt());
+        }
+    }
+
+    /**
+     * Version 1 sent the pump's formatted flow, e.g. "50.00 L/min"
+     */
+    private static BigDecimal flow(String formatted) {
+        if (formatted == null || formatted.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(formatted.trim().split("\\s+")[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String textOrNull(ObjectNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
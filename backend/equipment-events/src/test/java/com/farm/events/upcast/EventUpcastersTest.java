@@ -0,0 +1,79 @@
+package com.farm.events.upcast;
+
+import com.farm.events.EventSchema;
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.EventPayload;
+import com.farm.events.payload.LegacyPayload;
+import com.farm.events.payload.PumpCreatedPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Event Upcaster Tests")
+class EventUpcastersTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private EventPayload upcastPayload(String v1Event) throws Exception {
+        ObjectNode event = (ObjectNode) mapper.readTree(v1Event);
+        EventUpcasters.upcast(event, 1);
+        assertThat(event.has("metadata")).isFalse();
+        return mapper.treeToValue(event.get("payload"), EventPayload.class);
+    }
+
+    @Test
+    @DisplayName("Should turn version 1 metadata into typed payloads")
+    void testUpcastVersion1() throws Exception {
+        assertThat(upcastPayload("{\"eventType\":\"BATTERY_LOW\",\"metadata\":{\"batteryLevel\":\"12\"}}"))
+                .isEqualTo(new BatteryLowPayload(12));
+        assertThat(upcastPayload("{\"eventType\":\"STATUS_CHANGED\",\"metadata\":{\"oldStatus\":\"ACTIVE\",\"newStatus\":\"INACTIVE\"}}"))
+                .isEqualTo(new StatusChangedPayload("ACTIVE", "INACTIVE"));
+        assertThat(upcastPayload("{\"eventType\":\"SENSOR_OFFLINE\",\"metadata\":{\"lastCommunication\":\"never\"}}"))
+                .isEqualTo(new SensorOfflinePayload(null));
+        assertThat(upcastPayload("{\"eventType\":\"EQUIPMENT_CREATED\",\"equipmentType\":\"PUMP\","
+                + "\"metadata\":{\"model\":\"P-1\",\"status\":\"ACTIVE\",\"maxFlow\":\"50.00 L/min\"}}"))
+                .isEqualTo(new PumpCreatedPayload("P-1", "ACTIVE", new BigDecimal("50.00")));
+    }
+
+    @Test
+    @DisplayName("Should keep payloads without a typed record as legacy maps")
+    void testLegacyPayloads() throws Exception {
+        EventPayload failure = upcastPayload("{\"eventType\":\"EQUIPMENT_FAILURE\",\"metadata\":{\"code\":\"E42\"}}");
+        assertThat(failure).isInstanceOf(LegacyPayload.class);
+        assertThat(((LegacyPayload) failure).get("code")).isEqualTo("E42");
+
+        // A version 1 row from the jsonb column, with a "type" key of its own
+        EventPayload stored = mapper.readValue("{\"type\":\"HUMIDITY\",\"battery\":80}", EventPayload.class);
+        assertThat(((LegacyPayload) stored).get("type")).isEqualTo("HUMIDITY");
+    }
+
+    @Test
+    @DisplayName("Should round-trip current payloads and reject newer versions")
+    void testCurrentVersion() throws Exception {
+        EventPayload payload = new SensorOfflinePayload(LocalDateTime.of(2024, 6, 1, 12, 0));
+        String json = mapper.writeValueAsString(payload);
+
+        assertThat(json).contains("\"@type\":\"SENSOR_OFFLINE\"");
+        assertThat(mapper.readValue(json, EventPayload.class)).isEqualTo(payload);
+
+        ObjectNode current = mapper.createObjectNode().put("eventType", "BATTERY_LOW");
+        assertThat(EventUpcasters.upcast(current, EventSchema.CURRENT_VERSION)).isSameAs(current);
+        assertThatThrownBy(() -> EventUpcasters.upcast(current, EventSchema.CURRENT_VERSION + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(EventSchema.versionOf(null)).isEqualTo(1);
+        assertThat(EventSchema.versionOf("2")).isEqualTo(2);
+    }
+}
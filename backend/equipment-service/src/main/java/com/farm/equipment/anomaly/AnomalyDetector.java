@@ -0,0 +1,364 @@
+package com.farm.equipment.anomaly;
+
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics.Anomaly;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming anomaly detection over the readings and battery levels of every sensor, in constant
+ * memory per sensor.
+ * <p>
+ * Each sensor gets a dense slot on first sight; its state lives in primitive arrays in pages of
+ * {@value #PAGE_SIZE} slots, so an update is a map lookup and a few array reads and writes, with
+ * no allocation. Per reading it checks:
+ * <ul>
+ *   <li>{@code OUT_OF_RANGE}: a value the sensor type cannot measure</li>
+ *   <li>{@code SPIKE}: a robust z-score against an EWMA mean and variance above {@code zThreshold},
+ *       or a change faster than the type allows while moving away from the mean. The baseline is
+ *       updated with the value clipped to three standard deviations, so a spike barely moves it</li>
+ *   <li>{@code FLATLINE}: the same value repeated {@code flatlineReadings} times over at least
+ *       {@code flatlineMillis}, reported once per run</li>
+ * </ul>
+ * and per battery level, {@code BATTERY_DRAIN}: a drain over a window of {@code drainWindowMillis}
+ * (or a drop of {@code maxDrainPerDay} points before it ends) above {@code maxDrainPerDay}, or above
+ * {@code drainFactor} times the sensor's usual drain.
+ * <p>
+ * Detections are passed to the {@link Listener} outside any lock, with {@code report} set at most
+ * once per {@code reportIntervalMillis} per sensor and anomaly. Readings not newer than the last one
+ * of their sensor are skipped. Updates of different sensors of a page serialize on the page.
+ */
+@Slf4j
+public final class AnomalyDetector {
+
+    /**
+     * Receives the anomalies detected
+     */
+    public interface Listener {
+
+        /**
+         * @param report whether this detection should be reported, as opposed to only counted
+         */
+        void onAnomaly(UUID sensorId, UUID farmId, SensorType type, Anomaly anomaly, double value, double expected,
+                       double score, long sinceMillis, boolean report);
+    }
+
+    /**
+     * Detection parameters
+     */
+    public record Settings(double alpha, double zThreshold, int warmup, int flatlineReadings, long flatlineMillis,
+                           long reportIntervalMillis, int maxSensors, long drainWindowMillis, double maxDrainPerDay,
+                           double drainFactor) {
+    }
+
+    static final int PAGE_SIZE = 1024;
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final Anomaly[] ANOMALIES = Anomaly.values();
+    private static final long NONE = Long.MIN_VALUE;
+    private static final long MINUTE = 60_000;
+    private static final double DAY = 86_400_000;
+    /** Values further than this many standard deviations are clipped before updating the baseline */
+    private static final double CLIP = 3;
+    /** Drain windows before a sensor's usual drain is trusted, and its EWMA weight after that */
+    private static final int DRAIN_WARMUP = 3;
+    private static final double DRAIN_ALPHA = 0.2;
+    /** Drains below this are never abnormal, whatever the usual drain */
+    private static final double MIN_DRAIN_PER_DAY = 2;
+    /** A level this much above the previous one is a new or recharged battery */
+    private static final int RECHARGE = 5;
+
+    // Plausible range, largest credible change per minute and noise floor of each sensor type
+    private static final double[] MIN_VALUE = new double[SensorType.values().length];
+    private static final double[] MAX_VALUE = new double[MIN_VALUE.length];
+    private static final double[] MAX_STEP_PER_MINUTE = new double[MIN_VALUE.length];
+    private static final double[] MIN_SIGMA = new double[MIN_VALUE.length];
+
+    static {
+        for (SensorType type : SensorType.values()) {
+            int t = type.ordinal();
+            switch (type) {
+                case TEMPERATURE -> limits(t, -40, 85, 5, 0.2);
+                case HUMIDITY -> limits(t, 0, 100, 20, 1);
+                case SOIL_MOISTURE -> limits(t, 0, 100, 20, 0.5);
+            }
+        }
+    }
+
+    private static void limits(int type, double min, double max, double maxStepPerMinute, double minSigma) {
+        MIN_VALUE[type] = min;
+        MAX_VALUE[type] = max;
+        MAX_STEP_PER_MINUTE[type] = maxStepPerMinute;
+        MIN_SIGMA[type] = minSigma;
+    }
+
+    private final Settings settings;
+    private final Listener listener;
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private volatile Page[] pages = new Page[0];
+
+    // Guarded by this
+    private int nextSlot;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private boolean fullLogged;
+
+    public AnomalyDetector(Settings settings, Listener listener) {
+        this.settings = settings;
+        this.listener = listener;
+    }
+
+    /**
+     * State of {@value #PAGE_SIZE} sensors
+     */
+    private static final class Page {
+        final long[] lastTimestamp = new long[PAGE_SIZE];
+        final int[] count = new int[PAGE_SIZE];
+        final double[] mean = new double[PAGE_SIZE];
+        final double[] variance = new double[PAGE_SIZE];
+        final double[] last = new double[PAGE_SIZE];
+        final long[] flatSince = new long[PAGE_SIZE];
+        final int[] flatCount = new int[PAGE_SIZE];
+        final boolean[] flatReported = new boolean[PAGE_SIZE];
+        final long[] reportedAt = new long[PAGE_SIZE * ANOMALIES.length];
+        final int[] batteryLast = new int[PAGE_SIZE];
+        final int[] drainAnchor = new int[PAGE_SIZE];
+        final long[] drainAnchorAt = new long[PAGE_SIZE];
+        final double[] usualDrain = new double[PAGE_SIZE];
+        final int[] drainWindows = new int[PAGE_SIZE];
+
+        Page() {
+            Arrays.fill(lastTimestamp, NONE);
+            Arrays.fill(reportedAt, NONE);
+            Arrays.fill(drainAnchorAt, NONE);
+        }
+
+        void reset(int i) {
+            lastTimestamp[i] = NONE;
+            count[i] = 0;
+            mean[i] = 0;
+            variance[i] = 0;
+            last[i] = 0;
+            flatSince[i] = 0;
+            flatCount[i] = 0;
+            flatReported[i] = false;
+            Arrays.fill(reportedAt, i * ANOMALIES.length, (i + 1) * ANOMALIES.length, NONE);
+            batteryLast[i] = 0;
+            drainAnchor[i] = 0;
+            drainAnchorAt[i] = NONE;
+            usualDrain[i] = 0;
+            drainWindows[i] = 0;
+        }
+    }
+
+    /**
+     * Check a reading of a sensor
+     * @param epochMillis reading time, as UTC epoch milliseconds
+     */
+    public void onReading(UUID sensorId, UUID farmId, SensorType type, long epochMillis, double value) {
+        int slot = slotOf(sensorId);
+        if (slot < 0) {
+            return;
+        }
+        Page page = pages[slot >>> PAGE_BITS];
+        int i = slot & PAGE_MASK;
+        int t = type.ordinal();
+        Anomaly found = null;
+        double expected = 0;
+        double score = 0;
+        long since = epochMillis;
+        boolean report;
+        synchronized (page) {
+            long previous = page.lastTimestamp[i];
+            if (epochMillis <= previous) {
+                return;
+            }
+            page.lastTimestamp[i] = epochMillis;
+            if (value < MIN_VALUE[t] || value > MAX_VALUE[t]) {
+                found = Anomaly.OUT_OF_RANGE;
+                expected = value < MIN_VALUE[t] ? MIN_VALUE[t] : MAX_VALUE[t];
+            } else if (page.count[i] == 0) {
+                page.count[i] = 1;
+                page.mean[i] = value;
+                page.variance[i] = 0;
+                page.last[i] = value;
+                page.flatSince[i] = epochMillis;
+                page.flatCount[i] = 1;
+                return;
+            } else {
+                int n = page.count[i];
+                double mean = page.mean[i];
+                double sigma = Math.max(Math.sqrt(page.variance[i]), MIN_SIGMA[t]);
+                double last = page.last[i];
+                double z = Math.abs(value - mean) / sigma;
+                boolean warm = n >= settings.warmup();
+                // Faster than the type can change, unless on the way back to the mean
+                long elapsed = Math.max(epochMillis - previous, MINUTE);
+                boolean jump = Math.abs(value - last) > MAX_STEP_PER_MINUTE[t] * elapsed / MINUTE
+                        && Math.abs(value - mean) > Math.abs(last - mean);
+                if (jump || warm && z > settings.zThreshold()) {
+                    found = Anomaly.SPIKE;
+                    expected = mean;
+                    score = warm ? z : 0;
+                }
+
+                double alpha = warm ? settings.alpha() : Math.max(settings.alpha(), 1.0 / (n + 1));
+                double x = warm ? Math.max(mean - CLIP * sigma, Math.min(mean + CLIP * sigma, value)) : value;
+                double delta = x - mean;
+                double increment = alpha * delta;
+                page.mean[i] = mean + increment;
+                page.variance[i] = (1 - alpha) * (page.variance[i] + delta * increment);
+                if (n < Integer.MAX_VALUE) {
+                    page.count[i] = n + 1;
+                }
+
+                if (value != last) {
+                    page.flatSince[i] = epochMillis;
+                    page.flatCount[i] = 1;
+                    page.flatReported[i] = false;
+                } else if (page.flatCount[i] < Integer.MAX_VALUE && ++page.flatCount[i] >= settings.flatlineReadings()
+                        && epochMillis - page.flatSince[i] >= settings.flatlineMillis()
+                        && !page.flatReported[i] && found == null) {
+                    page.flatReported[i] = true;
+                    found = Anomaly.FLATLINE;
+                    expected = value;
+                    score = page.flatCount[i];
+                    since = page.flatSince[i];
+                }
+                page.last[i] = value;
+            }
+            report = found != null && due(page, i, found, epochMillis);
+        }
+        if (found != null) {
+            listener.onAnomaly(sensorId, farmId, type, found, value, expected, score, since, report);
+        }
+    }
+
+    /**
+     * Check a battery level of a sensor
+     * @param epochMillis when the level was reported
+     */
+    public void onBattery(UUID sensorId, UUID farmId, SensorType type, long epochMillis, int level) {
+        int slot = slotOf(sensorId);
+        if (slot < 0) {
+            return;
+        }
+        Page page = pages[slot >>> PAGE_BITS];
+        int i = slot & PAGE_MASK;
+        double drain;
+        double usual;
+        long since;
+        boolean report;
+        synchronized (page) {
+            long anchorAt = page.drainAnchorAt[i];
+            int previous = page.batteryLast[i];
+            page.batteryLast[i] = level;
+            if (anchorAt == NONE || level > previous + RECHARGE || epochMillis < anchorAt) {
+                page.drainAnchor[i] = level;
+                page.drainAnchorAt[i] = epochMillis;
+                page.usualDrain[i] = 0;
+                page.drainWindows[i] = 0;
+                return;
+            }
+            long elapsed = epochMillis - anchorAt;
+            int dropped = page.drainAnchor[i] - level;
+            if (elapsed < settings.drainWindowMillis() && dropped < settings.maxDrainPerDay() || elapsed == 0) {
+                return;
+            }
+            drain = Math.max(dropped, 0) * DAY / elapsed;
+            usual = page.usualDrain[i];
+            int windows = page.drainWindows[i];
+            boolean warm = windows >= DRAIN_WARMUP;
+            boolean abnormal = drain > settings.maxDrainPerDay()
+                    || warm && drain > MIN_DRAIN_PER_DAY && drain > settings.drainFactor() * usual;
+
+            double x = warm ? Math.min(drain, Math.max(settings.drainFactor() * usual, MIN_DRAIN_PER_DAY)) : drain;
+            page.usualDrain[i] = usual + (warm ? DRAIN_ALPHA : 1.0 / (windows + 1)) * (x - usual);
+            if (windows < Integer.MAX_VALUE) {
+                page.drainWindows[i] = windows + 1;
+            }
+            page.drainAnchor[i] = level;
+            page.drainAnchorAt[i] = epochMillis;
+            since = anchorAt;
+            if (!abnormal) {
+                return;
+            }
+            report = due(page, i, Anomaly.BATTERY_DRAIN, epochMillis);
+        }
+        listener.onAnomaly(sensorId, farmId, type, Anomaly.BATTERY_DRAIN, drain, usual,
+                usual > 0 ? drain / usual : 0, since, report);
+    }
+
+    /**
+     * Whether an anomaly of a sensor was not reported for the report interval; if so, it is now
+     */
+    private boolean due(Page page, int i, Anomaly anomaly, long epochMillis) {
+        int index = i * ANOMALIES.length + anomaly.ordinal();
+        long reported = page.reportedAt[index];
+        if (reported != NONE && epochMillis - reported < settings.reportIntervalMillis()) {
+            return false;
+        }
+        page.reportedAt[index] = epochMillis;
+        return true;
+    }
+
+    /**
+     * Drop the state of a sensor, freeing its slot
+     */
+    public synchronized void forget(UUID sensorId) {
+        Integer slot = slots.remove(sensorId);
+        if (slot != null) {
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Number of sensors with state
+     */
+    public int getSensorCount() {
+        return slots.size();
+    }
+
+    private int slotOf(UUID sensorId) {
+        Integer slot = slots.get(sensorId);
+        return slot != null ? slot : allocate(sensorId);
+    }
+
+    private synchronized int allocate(UUID sensorId) {
+        Integer existing = slots.get(sensorId);
+        if (existing != null) {
+            return existing;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+            Page page = pages[slot >>> PAGE_BITS];
+            synchronized (page) {
+                page.reset(slot & PAGE_MASK);
+            }
+        } else if (nextSlot >= settings.maxSensors()) {
+            if (!fullLogged) {
+                fullLogged = true;
+                log.warn("Anomaly detection is tracking its maximum of {} sensors; new sensors are not checked", nextSlot);
+            }
+            return -1;
+        } else {
+            slot = nextSlot++;
+            if (slot >>> PAGE_BITS == pages.length) {
+                Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+                grown[pages.length] = new Page();
+                pages = grown;
+            }
+        }
+        slots.put(sensorId, slot);
+        return slot;
+    }
+}
@@ -0,0 +1,126 @@
+package com.farm.equipment.anomaly;
+
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.monitoring.EquipmentMetrics.Anomaly;
+import com.farm.equipment.service.EquipmentEventPublisher;
+import com.farm.events.payload.SensorAnomalyPayload;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Runs the {@link AnomalyDetector} on the readings and battery levels received by this service:
+ * every anomaly detected is counted in {@code sensor.anomalies}, and a {@code SENSOR_ANOMALY}
+ * event is published at most once per {@code equipment.anomaly.report-interval} per sensor and
+ * kind of anomaly.
+ * <p>
+ * State is per replica, kept from the readings this replica receives, and starts empty.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SensorAnomalyMonitor implements AnomalyDetector.Listener {
+
+    private final EquipmentEventPublisher eventPublisher;
+    private final EquipmentMetrics equipmentMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${equipment.anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${equipment.anomaly.alpha:0.05}")
+    private double alpha;
+
+    @Value("${equipment.anomaly.z-threshold:6}")
+    private double zThreshold;
+
+    @Value("${equipment.anomaly.warmup:30}")
+    private int warmup;
+
+    @Value("${equipment.anomaly.flatline-readings:60}")
+    private int flatlineReadings;
+
+    @Value("${equipment.anomaly.flatline-duration:6h}")
+    private Duration flatlineDuration;
+
+    @Value("${equipment.anomaly.report-interval:15m}")
+    private Duration reportInterval;
+
+    @Value("${equipment.anomaly.max-sensors:1000000}")
+    private int maxSensors;
+
+    @Value("${equipment.anomaly.battery.window:24h}")
+    private Duration drainWindow;
+
+    @Value("${equipment.anomaly.battery.max-drain-per-day:10}")
+    private double maxDrainPerDay;
+
+    @Value("${equipment.anomaly.battery.drain-factor:3}")
+    private double drainFactor;
+
+    private AnomalyDetector detector;
+
+    @PostConstruct
+    public void init() {
+        detector = new AnomalyDetector(new AnomalyDetector.Settings(alpha, zThreshold, warmup, flatlineReadings,
+                flatlineDuration.toMillis(), reportInterval.toMillis(), maxSensors, drainWindow.toMillis(),
+                maxDrainPerDay, drainFactor), this);
+        Gauge.builder("equipment.anomaly.sensors", detector, AnomalyDetector::getSensorCount)
+                .description("Number of sensors whose readings are checked for anomalies")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check a batch of readings of one sensor, in order
+     * @param epochMillis reading times, as UTC epoch milliseconds
+     */
+    public void onReadings(UUID sensorId, UUID farmId, SensorType type, long[] epochMillis, double[] values) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < epochMillis.length; i++) {
+            detector.onReading(sensorId, farmId, type, epochMillis[i], values[i]);
+        }
+    }
+
+    /**
+     * Check a battery level just reported by a sensor
+     */
+    public void onBattery(UUID sensorId, UUID farmId, SensorType type, int batteryLevel) {
+        if (enabled) {
+            detector.onBattery(sensorId, farmId, type, System.currentTimeMillis(), batteryLevel);
+        }
+    }
+
+    /**
+     * Drop the state of a deleted sensor
+     */
+    public void forget(UUID sensorId) {
+        detector.forget(sensorId);
+    }
+
+    @Override
+    public void onAnomaly(UUID sensorId, UUID farmId, SensorType type, Anomaly anomaly, double value, double expected,
+                          double score, long sinceMillis, boolean report) {
+        equipmentMetrics.recordSensorAnomaly(type, anomaly);
+        if (!report) {
+            return;
+        }
+        log.info("Sensor {} anomaly {}: value {}, expected {}", sensorId, anomaly, value, expected);
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneOffset.UTC);
+        eventPublisher.publishSensorAnomaly(EquipmentEvent.createSensorAnomaly(sensorId, farmId,
+                new SensorAnomalyPayload(anomaly.name(), value, expected, score, since)));
+    }
+}
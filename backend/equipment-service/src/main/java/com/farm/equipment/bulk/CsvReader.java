@@ -0,0 +1,118 @@
+package com.farm.equipment.bulk;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal RFC 4180 CSV reader: comma separated, double-quote escaping, quoted fields may span lines.
+ * The first record is treated as the header; each subsequent record is returned as a header-to-value map.
+ */
+public class CsvReader implements Closeable {
+    
+    private final Reader reader;
+    private final List<String> header;
+    private int pushedBack = -2;
+    
+    public CsvReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 65536);
+        List<String> first = readRecord();
+        if (first == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        this.header = first.stream().map(String::trim).toList();
+    }
+    
+    public List<String> getHeader() {
+        return header;
+    }
+    
+    /**
+     * Read the next record
+     * @return the record keyed by header name, or null at end of input
+     */
+    public Map<String, String> next() throws IOException {
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty()); // skip blank lines
+        
+        Map<String, String> row = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < header.size(); i++) {
+            String value = i < values.size() ? values.get(i).trim() : "";
+            row.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return row;
+    }
+    
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted CSV field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+    
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.farm.equipment.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consumes cache invalidations broadcast by any equipment-service replica, including this one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final EquipmentCache equipmentCache;
+
+    @RabbitListener(queues = "#{equipmentCacheInvalidationQueue.name}")
+    public void onInvalidation(Map<String, Object> message) {
+        Object equipmentId = message.get("equipmentId");
+        if (equipmentId == null) {
+            log.warn("Ignoring cache invalidation without equipmentId: {}", message);
+            return;
+        }
+        equipmentCache.evict(UUID.fromString(equipmentId.toString()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.farm.equipment.cache;
+
+/**
+ * A cached DTO together with the strong ETag of its JSON representation.
+ */
+public record CachedDTO<T>(T body, String etag) {
+}
@@ -0,0 +1,93 @@
+package com.farm.equipment.cache;
+
+import com.farm.equipment.dto.response.PumpDTO;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.service.PumpService;
+import com.farm.equipment.service.SensorService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-through near cache for sensor and pump lookups by id.
+ * <p>
+ * Entries are bounded in size and expire after a fixed time, so derived fields such as
+ * {@code online} or {@code maintenanceOverdue} are never older than the configured TTL.
+ * Changes are evicted by {@link EquipmentCacheInvalidator} on this instance and broadcast
+ * to the other replicas through the equipment-events exchange.
+ */
+@Service
+@Slf4j
+public class EquipmentCache {
+
+    private final SensorService sensorService;
+    private final PumpService pumpService;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, CachedDTO<SensorDTO>> sensors;
+    private final Cache<UUID, CachedDTO<PumpDTO>> pumps;
+
+    public EquipmentCache(SensorService sensorService,
+                          PumpService pumpService,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${equipment.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${equipment.cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        this.sensorService = sensorService;
+        this.pumpService = pumpService;
+        this.objectMapper = objectMapper;
+        this.sensors = buildCache(maximumSize, expireAfterWrite);
+        this.pumps = buildCache(maximumSize, expireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, sensors, "equipment.sensors");
+        CaffeineCacheMetrics.monitor(meterRegistry, pumps, "equipment.pumps");
+    }
+
+    /**
+     * Get a sensor by id, loading it from the database on a miss
+     */
+    public CachedDTO<SensorDTO> getSensor(UUID sensorId) {
+        return sensors.get(sensorId, id -> withETag(sensorService.getSensorById(id)));
+    }
+
+    /**
+     * Get a pump by id, loading it from the database on a miss
+     */
+    public CachedDTO<PumpDTO> getPump(UUID pumpId) {
+        return pumps.get(pumpId, id -> withETag(pumpService.getPumpById(id)));
+    }
+
+    /**
+     * Drop any cached entry for the given equipment id.
+     * Sensor and pump ids are both UUIDs, so both caches are checked.
+     */
+    public void evict(UUID equipmentId) {
+        sensors.invalidate(equipmentId);
+        pumps.invalidate(equipmentId);
+        log.debug("Evicted equipment {} from cache", equipmentId);
+    }
+
+    private <T> CachedDTO<T> withETag(T dto) {
+        try {
+            return new CachedDTO<>(dto, "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(dto)) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + dto.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static <V> Cache<UUID, V> buildCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
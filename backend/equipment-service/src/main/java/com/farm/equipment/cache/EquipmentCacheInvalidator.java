@@ -0,0 +1,61 @@
+package com.farm.equipment.cache;
+
+import com.farm.equipment.model.ConnectedPump;
+import com.farm.equipment.model.ConnectedSensor;
+import com.farm.equipment.service.EquipmentEventPublisher;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener that evicts changed or deleted equipment from the near cache.
+ * <p>
+ * Eviction happens after the transaction commits, so a concurrent read cannot reload and
+ * re-cache the old row. Each eviction is also published so the other replicas drop their copy.
+ * Dependencies are resolved lazily because Hibernate creates entity listeners while the
+ * EntityManagerFactory, which the cache itself depends on, is still being built.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EquipmentCacheInvalidator {
+
+    private final ObjectProvider<EquipmentCache> equipmentCache;
+    private final ObjectProvider<EquipmentEventPublisher> eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        UUID equipmentId;
+        if (entity instanceof ConnectedSensor sensor) {
+            equipmentId = sensor.getId();
+        } else if (entity instanceof ConnectedPump pump) {
+            equipmentId = pump.getId();
+        } else {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(equipmentId);
+                }
+            });
+        } else {
+            invalidate(equipmentId);
+        }
+    }
+
+    private void invalidate(UUID equipmentId) {
+        equipmentCache.getObject().evict(equipmentId);
+        eventPublisher.getObject().publishCacheInvalidation(equipmentId);
+    }
+}
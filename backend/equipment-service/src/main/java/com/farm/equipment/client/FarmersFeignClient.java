@@ -37,4 +37,13 @@ public interface FarmersFeignClient {
     @GetMapping("/api/farmers/{farmerId}/exists")
     @CircuitBreaker(name = "farmersService", fallbackMethod = "farmerExistsFallback")
     Boolean farmerExists(@PathVariable UUID farmerId);
+    
+    /**
+     * Check if a farm exists
+     * @param farmId the farm ID
+     * @return true if farm exists
+     */
+    @GetMapping("/api/farms/{farmId}/exists")
+    @CircuitBreaker(name = "farmersService", fallbackMethod = "farmExistsFallback")
+    Boolean farmExists(@PathVariable UUID farmId);
 }
@@ -31,4 +31,11 @@ public class FarmersFeignClientFallback implements FarmersFeignClient {
         // Conservative approach: assume farmer doesn't exist when service is down
         return false;
     }
+    
+    @Override
+    public Boolean farmExists(UUID farmId) {
+        log.warn("Farmers service unavailable, using fallback for farm existence check");
+        // Conservative approach: assume farm doesn't exist when service is down
+        return false;
+    }
 }
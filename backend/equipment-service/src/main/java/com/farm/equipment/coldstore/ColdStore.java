@@ -0,0 +1,232 @@
+package com.farm.equipment.coldstore;
+
+import com.farm.equipment.repository.SensorReadingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cold tier of the raw sensor readings.
+ * <p>
+ * Once a UTC day is older than {@code seal-after}, its raw readings are read from the hot table
+ * in one ordered pass and sealed into a compressed, memory-mapped {@link Segment}; from then on
+ * raw queries read that day from the segment, and the hot table only has to keep readings until
+ * they are sealed. Segments are sealed day after day with no gaps, so everything before
+ * {@link #sealedUntil()} and after {@link #coveredSince()} is cold.
+ * <p>
+ * Readings arriving for a day once it is being sealed are rejected by {@code SensorReadingService}: they
+ * could not be added to the segment. An insert holds {@link #insertLock()} from checking its readings
+ * against {@link #acceptsFrom()} until they are stored, and sealing a day moves {@code acceptsFrom()}
+ * past it under the matching write lock, so every reading accepted for the day is in the hot table
+ * before the day is read. Each replica seals into its own directory unless the directory is shared.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ColdStore {
+
+    private final SensorReadingRepository readingRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final NavigableMap<LocalDate, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ThreadLocal<GorillaDecoder> decoders = ThreadLocal.withInitial(GorillaDecoder::new);
+    private final ReentrantReadWriteLock insertLock = new ReentrantReadWriteLock();
+
+    /** Day being sealed, or last sealed, by this replica */
+    private volatile LocalDate sealing;
+
+    @Value("${equipment.readings.cold.enabled:true}")
+    private boolean enabled;
+
+    @Value("${equipment.readings.cold.dir:data/cold-readings}")
+    private String directory;
+
+    @Value("${equipment.readings.cold.seal-after:2d}")
+    private Duration sealAfter;
+
+    @Value("${equipment.readings.cold.retention:1825d}")
+    private Duration retention;
+
+    @Value("${equipment.readings.cold.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${equipment.readings.retention.raw:7d}")
+    private Duration rawRetention;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Gauge.builder("equipment.readings.cold.segments", segments, Map::size)
+                .description("Number of sealed segments of cold sensor readings")
+                .register(meterRegistry);
+        Gauge.builder("equipment.readings.cold.bytes", this, store -> store.totalBytes())
+                .description("Size of the sealed segments of cold sensor readings")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("equipment.readings.cold.points", this, store -> store.totalPoints())
+                .description("Number of sensor readings in sealed segments")
+                .register(meterRegistry);
+        if (enabled) {
+            Files.createDirectories(Paths.get(directory));
+            loadSegments();
+            log.info("Cold readings store at {}: {} segments, {} readings", directory, segments.size(), totalPoints());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * End of the sealed range, or null if nothing is sealed
+     */
+    public LocalDateTime sealedUntil() {
+        Map.Entry<LocalDate, Segment> last = segments.lastEntry();
+        return last != null ? last.getKey().plusDays(1).atStartOfDay() : null;
+    }
+
+    /**
+     * Earliest time a reading may still be stored at: the end of the sealed range, or of the day being
+     * sealed; null if nothing is sealed or being sealed
+     */
+    public LocalDateTime acceptsFrom() {
+        LocalDateTime sealedUntil = sealedUntil();
+        LocalDate sealing = this.sealing;
+        if (sealing == null) {
+            return sealedUntil;
+        }
+        LocalDateTime sealingUntil = sealing.plusDays(1).atStartOfDay();
+        return sealedUntil == null || sealingUntil.isAfter(sealedUntil) ? sealingUntil : sealedUntil;
+    }
+
+    /**
+     * Lock to hold, shared with other inserts, from checking readings against {@link #acceptsFrom()}
+     * until they are stored
+     */
+    public Lock insertLock() {
+        return insertLock.readLock();
+    }
+
+    /**
+     * Start of the sealed range, or null if nothing is sealed
+     */
+    public LocalDateTime coveredSince() {
+        Map.Entry<LocalDate, Segment> first = segments.firstEntry();
+        return first != null ? first.getKey().atStartOfDay() : null;
+    }
+
+    /**
+     * Pass the sealed readings of a sensor in [from, to) to the consumer, oldest first
+     * @return the number of readings passed
+     */
+    public int scan(UUID sensorId, LocalDateTime from, LocalDateTime to, ReadingConsumer consumer) {
+        if (segments.isEmpty() || !from.isBefore(to)) {
+            return 0;
+        }
+        long fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long toMillis = to.toInstant(ZoneOffset.UTC).toEpochMilli();
+        GorillaDecoder decoder = decoders.get();
+        int emitted = 0;
+        for (Segment segment : segments.subMap(from.toLocalDate(), true, to.minusNanos(1).toLocalDate(), true).values()) {
+            emitted += segment.scan(sensorId, fromMillis, toMillis, decoder, consumer);
+        }
+        return emitted;
+    }
+
+    /**
+     * Seal every day that is now older than {@code seal-after}, then delete the segments past the cold retention
+     */
+    @Scheduled(fixedDelayString = "${equipment.readings.cold.seal-interval-ms:3600000}",
+               initialDelayString = "${equipment.readings.cold.seal-initial-delay-ms:30000}")
+    public void seal() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Pick up segments sealed by other replicas sharing the directory
+            loadSegments();
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            LocalDate lastSealable = now.minus(sealAfter).toLocalDate().minusDays(1);
+            LocalDateTime sealedUntil = sealedUntil();
+            // Starting from scratch: the oldest day the hot table still has entirely
+            LocalDate day = sealedUntil != null
+                    ? sealedUntil.toLocalDate()
+                    : now.minus(rawRetention).toLocalDate().plusDays(1);
+            for (; !day.isAfter(lastSealable); day = day.plusDays(1)) {
+                sealDay(day);
+            }
+            deleteExpired(now.minus(retention).toLocalDate());
+        } catch (IOException e) {
+            log.error("Failed to seal cold readings: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sealDay(LocalDate day) throws IOException {
+        // Readings of the day are rejected from now on, and those already accepted are stored before it is read
+        Lock lock = insertLock.writeLock();
+        lock.lock();
+        try {
+            sealing = day;
+        } finally {
+            lock.unlock();
+        }
+        long started = System.nanoTime();
+        Path path;
+        try (SegmentWriter writer = new SegmentWriter(Paths.get(directory), day)) {
+            readingRepository.streamRaw(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), fetchSize, writer::add);
+            path = writer.finish();
+        }
+        Segment segment = Segment.open(path);
+        segments.put(day, segment);
+        log.info("Sealed {} readings of {} into {} bytes in {} ms", segment.getPointCount(), day,
+                segment.getSizeBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void deleteExpired(LocalDate before) throws IOException {
+        for (Segment segment : segments.headMap(before, false).values()) {
+            segments.remove(segment.getDay());
+            // Scans in progress keep reading the mapping; it is released when no longer referenced
+            Files.deleteIfExists(segment.getPath());
+            log.info("Deleted cold readings of {}", segment.getDay());
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "readings-*.seg")) {
+            for (Path file : files) {
+                LocalDate day = Segment.parseDay(file.getFileName().toString());
+                if (day != null && !segments.containsKey(day)) {
+                    segments.put(day, Segment.open(file));
+                }
+            }
+        }
+    }
+
+    private double totalBytes() {
+        return segments.values().stream().mapToLong(Segment::getSizeBytes).sum();
+    }
+
+    private double totalPoints() {
+        return segments.values().stream().mapToLong(Segment::getPointCount).sum();
+    }
+}
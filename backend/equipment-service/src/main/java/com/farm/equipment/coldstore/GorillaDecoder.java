@@ -0,0 +1,110 @@
+package com.farm.equipment.coldstore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes blocks written by {@link GorillaEncoder}, straight from a (memory-mapped) buffer,
+ * reading the payload a 64-bit word at a time. Decoding keeps its state in primitive fields and
+ * hands each reading to a {@link ReadingConsumer}: nothing is allocated per point.
+ * <p>
+ * A decoder is reused across the blocks of one scan; it is not thread-safe.
+ */
+public final class GorillaDecoder {
+
+    private ByteBuffer buffer;
+    private int position;
+    private long word;
+    private int available;
+
+    /**
+     * Decode a block, passing the readings in [fromMillis, toMillis) to the consumer
+     * @param offset position of the payload in the buffer
+     * @param count number of readings in the block
+     * @param firstTimestamp timestamp of the first reading, from the block header
+     * @return the number of readings passed to the consumer
+     */
+    public int decode(ByteBuffer buffer, int offset, int count, long firstTimestamp,
+                      long fromMillis, long toMillis, ReadingConsumer consumer) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.word = 0;
+        this.available = 0;
+
+        long timestamp = firstTimestamp;
+        long delta = 0;
+        long bits = readBits(64);
+        int leading = 0;
+        int trailing = 0;
+        int emitted = 0;
+
+        for (int i = 0; ; ) {
+            if (timestamp >= toMillis) {
+                break;
+            }
+            if (timestamp >= fromMillis) {
+                consumer.accept(timestamp, Double.longBitsToDouble(bits));
+                emitted++;
+            }
+            if (++i == count) {
+                break;
+            }
+
+            // Timestamp: delta of delta
+            long dod;
+            if (readBit() == 0) {
+                dod = 0;
+            } else if (readBit() == 0) {
+                dod = readBits(7) - 63;
+            } else if (readBit() == 0) {
+                dod = readBits(9) - 255;
+            } else if (readBit() == 0) {
+                dod = readBits(12) - 2047;
+            } else {
+                dod = readBits(64);
+            }
+            delta += dod;
+            timestamp += delta;
+
+            // Value: XOR with the previous one
+            if (readBit() != 0) {
+                if (readBit() != 0) {
+                    leading = (int) readBits(5);
+                    int significant = (int) readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                int significant = 64 - leading - trailing;
+                bits ^= readBits(significant) << trailing;
+            }
+        }
+        return emitted;
+    }
+
+    private int readBit() {
+        if (available == 0) {
+            word = buffer.getLong(position);
+            position += Long.BYTES;
+            available = 64;
+        }
+        available--;
+        return (int) (word >>> available) & 1;
+    }
+
+    /**
+     * Read {@code n} bits, most significant first; 1 &lt;= n &lt;= 64
+     */
+    private long readBits(int n) {
+        if (n <= available) {
+            available -= n;
+            long value = word >>> available;
+            return n == 64 ? value : value & ((1L << n) - 1);
+        }
+        // The bits left in this word are the high part, the next word gives the rest
+        int rest = n - available;
+        long high = available == 0 ? 0 : word & ((1L << available) - 1);
+        word = buffer.getLong(position);
+        position += Long.BYTES;
+        available = 64 - rest;
+        long low = word >>> available;
+        return rest == 64 ? low : (high << rest) | low;
+    }
+}
@@ -0,0 +1,190 @@
+package com.farm.equipment.coldstore;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Encodes the readings of one sensor, in time order, into a compressed block
+ * (Pelkonen et al., "Gorilla: A Fast, Scalable, In-Memory Time Series Database", VLDB 2015):
+ * <ul>
+ *   <li>timestamps as delta-of-delta: a reading every minute with no jitter costs 1 bit</li>
+ *   <li>values XORed with the previous one: an unchanged value costs 1 bit, a small change
+ *       only its meaningful bits, usually within the previous leading/trailing-zero window</li>
+ * </ul>
+ * The first timestamp goes in the block header, the first value in full at the start of the
+ * payload. The payload is a sequence of big-endian 64-bit words, which is what lets
+ * {@link GorillaDecoder} read it a word at a time.
+ * <p>
+ * An encoder is reused for every block written by a {@link SegmentWriter}; it is not thread-safe.
+ */
+public final class GorillaEncoder {
+
+    private long[] words = new long[256];
+    private int wordCount;
+    private long current;
+    private int used;
+
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private long previousDelta;
+    private long previousBits;
+    private int previousLeading;
+    private int previousTrailing;
+    private double min;
+    private double max;
+
+    public GorillaEncoder() {
+        reset();
+    }
+
+    /**
+     * Start a new block
+     */
+    public void reset() {
+        wordCount = 0;
+        current = 0;
+        used = 0;
+        count = 0;
+        previousDelta = 0;
+        previousLeading = -1;
+        previousTrailing = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Append a reading; timestamps must not decrease
+     */
+    public void add(long epochMillis, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            firstTimestamp = epochMillis;
+            writeBits(bits, 64);
+        } else {
+            if (epochMillis < lastTimestamp) {
+                throw new IllegalArgumentException("Readings must be added in time order");
+            }
+            long delta = epochMillis - lastTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            previousDelta = delta;
+            writeXor(bits ^ previousBits);
+        }
+        lastTimestamp = epochMillis;
+        previousBits = bits;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        count++;
+    }
+
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0) {
+            writeBits(0, 1);
+        } else if (dod >= -63 && dod <= 64) {
+            writeBits(0b10, 2);
+            writeBits(dod + 63, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            writeBits(0b110, 3);
+            writeBits(dod + 255, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            writeBits(0b1110, 4);
+            writeBits(dod + 2047, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(dod, 64);
+        }
+    }
+
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            // Fits the previous window: no need to repeat its position
+            writeBits(0b10, 2);
+            writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+            int significant = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 5);
+            writeBits(significant - 1, 6);
+            writeBits(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+
+    /**
+     * Write the low {@code n} bits of {@code value}, most significant first; 1 &lt;= n &lt;= 64
+     */
+    private void writeBits(long value, int n) {
+        if (n < 64) {
+            value &= (1L << n) - 1;
+        }
+        int free = 64 - used;
+        if (n <= free) {
+            current |= value << (free - n);
+            used += n;
+            if (used == 64) {
+                flushWord();
+            }
+        } else {
+            int rest = n - free;
+            current |= value >>> rest;
+            flushWord();
+            current = value << (64 - rest);
+            used = rest;
+        }
+    }
+
+    private void flushWord() {
+        if (wordCount == words.length) {
+            words = Arrays.copyOf(words, wordCount * 2);
+        }
+        words[wordCount++] = current;
+        current = 0;
+        used = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Size of the payload written by {@link #writePayload}, a multiple of 8 bytes
+     */
+    public int payloadBytes() {
+        return (wordCount + (used > 0 ? 1 : 0)) * Long.BYTES;
+    }
+
+    /**
+     * Write the encoded payload at the buffer's position
+     */
+    public void writePayload(ByteBuffer buffer) {
+        for (int i = 0; i < wordCount; i++) {
+            buffer.putLong(words[i]);
+        }
+        if (used > 0) {
+            buffer.putLong(current);
+        }
+    }
+}
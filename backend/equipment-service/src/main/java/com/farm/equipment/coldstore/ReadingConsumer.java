@@ -0,0 +1,13 @@
+package com.farm.equipment.coldstore;
+
+/**
+ * Receives decoded readings one at a time, as primitives, so that scans allocate nothing per point.
+ */
+@FunctionalInterface
+public interface ReadingConsumer {
+
+    /**
+     * @param epochMillis reading time, as UTC epoch milliseconds
+     */
+    void accept(long epochMillis, double value);
+}
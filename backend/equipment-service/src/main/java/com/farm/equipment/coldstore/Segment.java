@@ -0,0 +1,179 @@
+package com.farm.equipment.coldstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A sealed, immutable segment file holding the readings of every sensor over one UTC day,
+ * memory-mapped read-only.
+ * <p>
+ * File layout, all big-endian:
+ * <pre>
+ *   block*      header (56 bytes): sensor msb, lsb, first ts, last ts, count (int), payload bytes (int), min, max
+ *               followed by the {@link GorillaEncoder} payload
+ *   directory   one entry (32 bytes) per block: sensor msb, lsb, first ts, block offset;
+ *               sorted by sensor (as unsigned msb, lsb) then time, which makes it the sparse time index
+ *   trailer     (40 bytes): directory offset, chunk start, chunk end, point count, entry count (int), magic (int)
+ * </pre>
+ * Timestamps are UTC epoch milliseconds. Blocks hold at most {@link SegmentWriter#BLOCK_POINTS}
+ * readings, so a scan over part of a day decodes only the blocks overlapping it.
+ * <p>
+ * Scans use absolute reads only and can run concurrently, each with its own {@link GorillaDecoder}.
+ */
+public final class Segment {
+
+    static final int MAGIC = 0x47534731;
+    static final int HEADER_BYTES = 56;
+    static final int DIRECTORY_ENTRY_BYTES = 32;
+    static final int TRAILER_BYTES = 40;
+
+    private static final String PREFIX = "readings-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path path;
+    private final LocalDate day;
+    private final ByteBuffer buffer;
+    private final int directoryOffset;
+    private final int entryCount;
+    private final long chunkStart;
+    private final long chunkEnd;
+    private final long pointCount;
+
+    private Segment(Path path, LocalDate day, ByteBuffer buffer) {
+        this.path = path;
+        this.day = day;
+        this.buffer = buffer;
+        int trailer = buffer.capacity() - TRAILER_BYTES;
+        if (trailer < 0 || buffer.getInt(trailer + 36) != MAGIC) {
+            throw new IllegalStateException("Not a readings segment: " + path);
+        }
+        this.directoryOffset = (int) buffer.getLong(trailer);
+        this.chunkStart = buffer.getLong(trailer + 8);
+        this.chunkEnd = buffer.getLong(trailer + 16);
+        this.pointCount = buffer.getLong(trailer + 24);
+        this.entryCount = buffer.getInt(trailer + 32);
+    }
+
+    /**
+     * Map a segment file
+     */
+    public static Segment open(Path path) throws IOException {
+        LocalDate day = parseDay(path.getFileName().toString());
+        if (day == null) {
+            throw new IllegalArgumentException("Not a segment file name: " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping outlives the channel
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Segment(path, day, buffer);
+        }
+    }
+
+    /**
+     * Pass the readings of a sensor in [fromMillis, toMillis) to the consumer, oldest first
+     * @return the number of readings passed
+     */
+    public int scan(UUID sensorId, long fromMillis, long toMillis, GorillaDecoder decoder, ReadingConsumer consumer) {
+        if (fromMillis >= chunkEnd || toMillis <= chunkStart) {
+            return 0;
+        }
+        long msb = sensorId.getMostSignificantBits();
+        long lsb = sensorId.getLeastSignificantBits();
+        int emitted = 0;
+        for (int i = firstEntry(msb, lsb); i < entryCount; i++) {
+            int entry = directoryOffset + i * DIRECTORY_ENTRY_BYTES;
+            if (buffer.getLong(entry) != msb || buffer.getLong(entry + 8) != lsb) {
+                break;
+            }
+            long firstTimestamp = buffer.getLong(entry + 16);
+            if (firstTimestamp >= toMillis) {
+                break;
+            }
+            int block = (int) buffer.getLong(entry + 24);
+            if (buffer.getLong(block + 24) < fromMillis) {
+                continue;
+            }
+            emitted += decoder.decode(buffer, block + HEADER_BYTES, buffer.getInt(block + 32), firstTimestamp,
+                    fromMillis, toMillis, consumer);
+        }
+        return emitted;
+    }
+
+    /**
+     * Index of the first directory entry of the sensor, or of the first entry after where it would be
+     */
+    private int firstEntry(long msb, long lsb) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int entry = directoryOffset + mid * DIRECTORY_ENTRY_BYTES;
+            if (compare(buffer.getLong(entry), buffer.getLong(entry + 8), msb, lsb) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Order of sensors in a segment: unsigned, which is also how PostgreSQL sorts uuids
+     */
+    static int compare(long msbA, long lsbA, long msbB, long lsbB) {
+        int result = Long.compareUnsigned(msbA, msbB);
+        return result != 0 ? result : Long.compareUnsigned(lsbA, lsbB);
+    }
+
+    static String fileName(LocalDate day) {
+        return PREFIX + day + SUFFIX;
+    }
+
+    /**
+     * @return the day of a segment file name, or null if it is not one
+     */
+    static LocalDate parseDay(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+        } catch (java.time.format.DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getChunkStart() {
+        return chunkStart;
+    }
+
+    public long getChunkEnd() {
+        return chunkEnd;
+    }
+
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    public int getBlockCount() {
+        return entryCount;
+    }
+
+    public long getSizeBytes() {
+        return buffer.capacity();
+    }
+}
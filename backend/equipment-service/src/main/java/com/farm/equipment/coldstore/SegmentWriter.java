@@ -0,0 +1,156 @@
+package com.farm.equipment.coldstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes the {@link Segment} of one UTC day from readings given in (sensor, time) order,
+ * the order of the hot table's primary key.
+ * <p>
+ * The file is written under a unique temporary name, forced to disk and then renamed, so a segment
+ * file is either complete or absent, even when replicas sharing the directory write the same day.
+ * Closing a writer that was not finished deletes the temporary file.
+ */
+public final class SegmentWriter implements AutoCloseable {
+
+    /** Readings per block: bounds what a scan of part of a day decodes for nothing */
+    public static final int BLOCK_POINTS = 2048;
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final GorillaEncoder encoder = new GorillaEncoder();
+    private final long chunkStart;
+    private final long chunkEnd;
+
+    private long position;
+    private long pointCount;
+    private boolean hasSensor;
+    private long msb;
+    private long lsb;
+    private boolean finished;
+
+    private long[] directory = new long[4 * 1024];
+    private int entryCount;
+
+    public SegmentWriter(Path directory, LocalDate day) throws IOException {
+        this.target = directory.resolve(Segment.fileName(day));
+        this.temporary = Files.createTempFile(directory, Segment.fileName(day) + ".", ".tmp");
+        this.chunkStart = day.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        this.chunkEnd = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Append a reading; sensors must come in {@link Segment#compare} order, and each sensor's readings in time order
+     */
+    public void add(UUID sensorId, long epochMillis, double value) throws IOException {
+        if (epochMillis < chunkStart || epochMillis >= chunkEnd) {
+            throw new IllegalArgumentException("Reading at " + epochMillis + " is outside of the segment's day");
+        }
+        long sensorMsb = sensorId.getMostSignificantBits();
+        long sensorLsb = sensorId.getLeastSignificantBits();
+        if (!hasSensor || sensorMsb != msb || sensorLsb != lsb) {
+            if (hasSensor && Segment.compare(sensorMsb, sensorLsb, msb, lsb) < 0) {
+                throw new IllegalArgumentException("Readings must be added in sensor order");
+            }
+            flushBlock();
+            hasSensor = true;
+            msb = sensorMsb;
+            lsb = sensorLsb;
+        } else if (encoder.getCount() == BLOCK_POINTS) {
+            flushBlock();
+        }
+        encoder.add(epochMillis, value);
+        pointCount++;
+    }
+
+    /**
+     * Write the directory and trailer and move the segment in place
+     * @return the segment file
+     */
+    public Path finish() throws IOException {
+        flushBlock();
+        long directoryOffset = position + buffer.position();
+        for (int i = 0; i < entryCount * 4; i += 4) {
+            ensureRemaining(Segment.DIRECTORY_ENTRY_BYTES);
+            buffer.putLong(directory[i]).putLong(directory[i + 1]).putLong(directory[i + 2]).putLong(directory[i + 3]);
+        }
+        ensureRemaining(Segment.TRAILER_BYTES);
+        buffer.putLong(directoryOffset)
+                .putLong(chunkStart)
+                .putLong(chunkEnd)
+                .putLong(pointCount)
+                .putInt(entryCount)
+                .putInt(Segment.MAGIC);
+        drain();
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Segment " + target + " is over 2 GB and could not be mapped");
+        }
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        finished = true;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        int count = encoder.getCount();
+        if (count == 0) {
+            return;
+        }
+        int payloadBytes = encoder.payloadBytes();
+        if (entryCount * 4 == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+        }
+        int entry = entryCount++ * 4;
+        directory[entry] = msb;
+        directory[entry + 1] = lsb;
+        directory[entry + 2] = encoder.getFirstTimestamp();
+        directory[entry + 3] = position + buffer.position();
+
+        ensureRemaining(Segment.HEADER_BYTES + payloadBytes);
+        buffer.putLong(msb)
+                .putLong(lsb)
+                .putLong(encoder.getFirstTimestamp())
+                .putLong(encoder.getLastTimestamp())
+                .putInt(count)
+                .putInt(payloadBytes)
+                .putDouble(encoder.getMin())
+                .putDouble(encoder.getMax());
+        encoder.writePayload(buffer);
+        encoder.reset();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,8 +1,10 @@
 package com.farm.equipment.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +26,12 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.routing.key:equipment.#}")
     private String routingKey;
     
+    @Value("${rabbitmq.cache-invalidation.routing-key:cache.equipment.invalidate}")
+    private String cacheInvalidationRoutingKey;
+    
+    @Value("${rabbitmq.wire-format:json}")
+    private String wireFormat;
+    
     /**
      * Create the equipment events exchange
      */
@@ -54,20 +62,50 @@ public class RabbitMQConfig {
     }
     
     /**
-     * JSON message converter for RabbitMQ
+     * Per-instance queue receiving equipment cache invalidations.
+     * Exclusive and auto-deleted, so each replica gets its own copy of every invalidation.
+     */
+    @Bean
+    public Queue equipmentCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("equipment-cache-invalidation."));
+    }
+    
+    /**
+     * Bind the cache invalidation queue to the equipment events exchange
+     */
+    @Bean
+    public Binding equipmentCacheInvalidationBinding(Queue equipmentCacheInvalidationQueue, TopicExchange equipmentExchange) {
+        return BindingBuilder
+                .bind(equipmentCacheInvalidationQueue)
+                .to(equipmentExchange)
+                .with(cacheInvalidationRoutingKey);
+    }
+    
+    /**
+     * Message converter for listeners, chosen by the content-type of each message:
+     * Smile for {@value SmileMessageConverter#CONTENT_TYPE}, JSON otherwise
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        // Spring Boot's mapper: java.time support, ISO-8601 timestamps
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, new SmileMessageConverter(objectMapper));
+        return converter;
     }
     
     /**
-     * RabbitTemplate with JSON converter
+     * RabbitTemplate publishing in the configured wire format.
+     * Keep it on json until every consumer of the exchange reads Smile.
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, ObjectMapper objectMapper) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        if ("smile".equalsIgnoreCase(wireFormat)) {
+            rabbitTemplate.setMessageConverter(new SmileMessageConverter(objectMapper));
+        } else {
+            rabbitTemplate.setMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        }
         return rabbitTemplate;
     }
 }
@@ -0,0 +1,54 @@
+package com.farm.equipment.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * RabbitMQ message converter for the binary Smile encoding of Jackson.
+ * <p>
+ * Uses the same modules and settings as the given JSON mapper, so every type that round-trips
+ * as JSON round-trips as Smile. Messages are read into the listener's parameter type when it is
+ * known, otherwise into a Map.
+ */
+public class SmileMessageConverter extends AbstractMessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper;
+
+    public SmileMessageConverter(ObjectMapper objectMapper) {
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        try {
+            byte[] body = smileMapper.writeValueAsBytes(object);
+            messageProperties.setContentType(CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode " + object.getClass().getSimpleName() + " as Smile", e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        Type inferred = message.getMessageProperties().getInferredArgumentType();
+        JavaType targetType = smileMapper.constructType(inferred != null ? inferred : Map.class);
+        try {
+            return smileMapper.readValue(message.getBody(), targetType);
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decode Smile message as " + targetType, e);
+        }
+    }
+}
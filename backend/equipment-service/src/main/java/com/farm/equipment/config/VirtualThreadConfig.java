@@ -0,0 +1,30 @@
+package com.farm.equipment.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+/**
+ * Extra wiring for the virtual-threads profile.
+ * <p>
+ * Spring Boot already moves Tomcat, {@code @Async}/MVC async tasks and the
+ * {@code @RabbitListener} containers onto virtual threads when
+ * {@code spring.threads.virtual.enabled} is set on a Java 21 runtime. The Feign circuit breaker
+ * is not covered: its time limiter runs each Farmers call on a bounded platform thread pool,
+ * which would cap concurrency again. This hands it a virtual thread per call instead.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+    
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> virtualThreadCircuitBreakerCustomizer() {
+        return factory -> factory.configureExecutorService(
+                new ExecutorServiceAdapter(new VirtualThreadTaskExecutor("feign-circuitbreaker-")));
+    }
+}
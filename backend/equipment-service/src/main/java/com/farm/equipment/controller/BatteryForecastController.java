@@ -0,0 +1,87 @@
+package com.farm.equipment.controller;
+
+import com.farm.equipment.dto.response.BatteryForecastDTO;
+import com.farm.equipment.dto.response.BatteryReadingDTO;
+import com.farm.equipment.service.BatteryForecastService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for sensor battery history and depletion forecasts.
+ */
+@RestController
+@RequestMapping("/api/sensors")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Sensor Batteries", description = "Battery history, depletion forecasts and replacement planning")
+public class BatteryForecastController {
+    
+    private final BatteryForecastService batteryForecastService;
+    
+    @Operation(summary = "Get battery forecast",
+               description = "Get the fitted battery drain of a sensor and when it is predicted to reach the replacement threshold")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Forecast retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatteryForecastDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Sensor not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/{id}/battery/forecast")
+    public ResponseEntity<BatteryForecastDTO> getForecast(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Sensor ID", required = true) @PathVariable UUID id) {
+        
+        log.debug("GET /api/sensors/{}/battery/forecast - farmerId: {}", id, farmerId);
+        return ResponseEntity.ok(batteryForecastService.getForecast(farmerId, id));
+    }
+    
+    @Operation(summary = "Get battery history", description = "Get the battery levels reported by a sensor, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "404", description = "Sensor not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/{id}/battery/history")
+    public ResponseEntity<Page<BatteryReadingDTO>> getHistory(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Sensor ID", required = true) @PathVariable UUID id,
+            @PageableDefault(size = 50) Pageable pageable) {
+        
+        log.debug("GET /api/sensors/{}/battery/history - farmerId: {}", id, farmerId);
+        return ResponseEntity.ok(batteryForecastService.getHistory(farmerId, id, pageable));
+    }
+    
+    @Operation(summary = "Get battery replacements",
+               description = "Get the sensors of a farm predicted to reach the battery replacement threshold within the given days, soonest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sensors retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid number of days"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/farm/{farmId}/battery/replacements")
+    public ResponseEntity<Page<BatteryForecastDTO>> getReplacements(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Farm ID", required = true) @PathVariable UUID farmId,
+            @Parameter(description = "Horizon in days (default 30)") @RequestParam(defaultValue = "30") int days,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("GET /api/sensors/farm/{}/battery/replacements - farmerId: {}, days: {}", farmId, farmerId, days);
+        return ResponseEntity.ok(batteryForecastService.getReplacements(farmerId, farmId, days, pageable));
+    }
+}
@@ -1,10 +1,17 @@
 package com.farm.equipment.controller;
 
+import com.farm.common.export.ExportFormat;
+import com.farm.common.export.ExportResponses;
+import com.farm.equipment.cache.CachedDTO;
+import com.farm.equipment.cache.EquipmentCache;
 import com.farm.equipment.dto.request.CreatePumpRequest;
 import com.farm.equipment.dto.request.MaintenanceRequest;
 import com.farm.equipment.dto.request.UpdatePumpRequest;
+import com.farm.equipment.dto.response.BulkImportResultDTO;
 import com.farm.equipment.dto.response.PumpDTO;
 import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.service.BulkImportService;
+import com.farm.equipment.service.ExportService;
 import com.farm.equipment.service.PumpService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,10 +26,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,6 +49,9 @@ import java.util.UUID;
 public class PumpController {
     
     private final PumpService pumpService;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
+    private final EquipmentCache equipmentCache;
     
     @Operation(summary = "Create a new pump", description = "Create a new connected pump for a farm")
     @ApiResponses(value = {
@@ -54,6 +70,41 @@ public class PumpController {
         return ResponseEntity.status(HttpStatus.CREATED).body(pump);
     }
     
+    @Operation(summary = "Bulk import pumps",
+               description = "Create many pumps from a JSON array. Rows are validated first, each farm is authorized once, " +
+                             "valid rows are batch-inserted and invalid rows are reported with their row number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see the per-row error report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many rows or malformed body")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> bulkImportPumps(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @RequestBody List<CreatePumpRequest> requests) {
+        
+        log.info("POST /api/pumps/bulk - farmerId: {}, rows: {}", farmerId, requests.size());
+        BulkImportResultDTO result = bulkImportService.importPumps(farmerId, requests);
+        return ResponseEntity.ok(result);
+    }
+    
+    @Operation(summary = "Bulk import pumps from CSV",
+               description = "Create many pumps from CSV whose header names CreatePumpRequest fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see the per-row error report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many rows or malformed CSV")
+    })
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> bulkImportPumpsCsv(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            InputStream csv) {
+        
+        log.info("POST /api/pumps/bulk (csv) - farmerId: {}", farmerId);
+        BulkImportResultDTO result = bulkImportService.importPumpsCsv(farmerId, csv);
+        return ResponseEntity.ok(result);
+    }
+    
     @Operation(summary = "Get all pumps", description = "Retrieve all pumps with pagination")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pumps retrieved successfully",
@@ -72,6 +123,7 @@ public class PumpController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pump found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = PumpDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Pump unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Pump not found")
     })
     @GetMapping("/{id}")
@@ -79,8 +131,12 @@ public class PumpController {
             @Parameter(description = "Pump ID", required = true) @PathVariable UUID id) {
         
         log.info("GET /api/pumps/{}", id);
-        PumpDTO pump = pumpService.getPumpById(id);
-        return ResponseEntity.ok(pump);
+        CachedDTO<PumpDTO> pump = equipmentCache.getPump(id);
+        // Spring answers 304 Not Modified when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+                .eTag(pump.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(pump.body());
     }
     
     @Operation(summary = "Get pumps by farm", description = "Retrieve all pumps for a specific farm")
@@ -99,6 +155,27 @@ public class PumpController {
         return ResponseEntity.ok(pumps);
     }
     
+    @Operation(summary = "Export pumps by farm",
+               description = "Stream all pumps of a farm as NDJSON or CSV. The body is gzip-compressed when the client sends Accept-Encoding: gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/farm/{farmId}/export")
+    public ResponseEntity<StreamingResponseBody> exportPumpsByFarm(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Farm ID", required = true) @PathVariable UUID farmId,
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        log.info("GET /api/pumps/farm/{}/export - farmerId: {}, format: {}", farmId, farmerId, format);
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportPumpsByFarm(farmerId, farmId, exportFormat);
+        return ExportResponses.stream(exportFormat, "pumps-" + farmId, ExportResponses.acceptsGzip(acceptEncoding), body);
+    }
+    
     @Operation(summary = "Get pumps by status", description = "Retrieve pumps filtered by status")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pumps retrieved successfully",
@@ -1,9 +1,16 @@
 package com.farm.equipment.controller;
 
+import com.farm.common.export.ExportFormat;
+import com.farm.common.export.ExportResponses;
+import com.farm.equipment.cache.CachedDTO;
+import com.farm.equipment.cache.EquipmentCache;
 import com.farm.equipment.dto.request.CreateSensorRequest;
 import com.farm.equipment.dto.request.UpdateSensorRequest;
+import com.farm.equipment.dto.response.BulkImportResultDTO;
 import com.farm.equipment.dto.response.SensorDTO;
 import com.farm.equipment.model.SensorType;
+import com.farm.equipment.service.BulkImportService;
+import com.farm.equipment.service.ExportService;
 import com.farm.equipment.service.SensorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,10 +25,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -35,6 +48,9 @@ import java.util.UUID;
 public class SensorController {
     
     private final SensorService sensorService;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
+    private final EquipmentCache equipmentCache;
     
     @Operation(summary = "Create a new sensor", description = "Create a new connected sensor for a farm")
     @ApiResponses(value = {
@@ -53,6 +69,41 @@ public class SensorController {
         return ResponseEntity.status(HttpStatus.CREATED).body(sensor);
     }
     
+    @Operation(summary = "Bulk import sensors",
+               description = "Create many sensors from a JSON array. Rows are validated first, each farm is authorized once, " +
+                             "valid rows are batch-inserted and invalid rows are reported with their row number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see the per-row error report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many rows or malformed body")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> bulkImportSensors(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @RequestBody List<CreateSensorRequest> requests) {
+        
+        log.info("POST /api/sensors/bulk - farmerId: {}, rows: {}", farmerId, requests.size());
+        BulkImportResultDTO result = bulkImportService.importSensors(farmerId, requests);
+        return ResponseEntity.ok(result);
+    }
+    
+    @Operation(summary = "Bulk import sensors from CSV",
+               description = "Create many sensors from CSV whose header names CreateSensorRequest fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed; see the per-row error report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many rows or malformed CSV")
+    })
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> bulkImportSensorsCsv(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            InputStream csv) {
+        
+        log.info("POST /api/sensors/bulk (csv) - farmerId: {}", farmerId);
+        BulkImportResultDTO result = bulkImportService.importSensorsCsv(farmerId, csv);
+        return ResponseEntity.ok(result);
+    }
+    
     @Operation(summary = "Get all sensors", description = "Retrieve all sensors with pagination")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sensors retrieved successfully",
@@ -71,6 +122,7 @@ public class SensorController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sensor found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = SensorDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sensor unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Sensor not found")
     })
     @GetMapping("/{id}")
@@ -78,8 +130,12 @@ public class SensorController {
             @Parameter(description = "Sensor ID", required = true) @PathVariable UUID id) {
         
         log.info("GET /api/sensors/{}", id);
-        SensorDTO sensor = sensorService.getSensorById(id);
-        return ResponseEntity.ok(sensor);
+        CachedDTO<SensorDTO> sensor = equipmentCache.getSensor(id);
+        // Spring answers 304 Not Modified when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+                .eTag(sensor.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(sensor.body());
     }
     
     @Operation(summary = "Get sensors by farm", description = "Retrieve all sensors for a specific farm")
@@ -98,6 +154,27 @@ public class SensorController {
         return ResponseEntity.ok(sensors);
     }
     
+    @Operation(summary = "Export sensors by farm",
+               description = "Stream all sensors of a farm as NDJSON or CSV. The body is gzip-compressed when the client sends Accept-Encoding: gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/farm/{farmId}/export")
+    public ResponseEntity<StreamingResponseBody> exportSensorsByFarm(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Farm ID", required = true) @PathVariable UUID farmId,
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        log.info("GET /api/sensors/farm/{}/export - farmerId: {}, format: {}", farmId, farmerId, format);
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportSensorsByFarm(farmerId, farmId, exportFormat);
+        return ExportResponses.stream(exportFormat, "sensors-" + farmId, ExportResponses.acceptsGzip(acceptEncoding), body);
+    }
+    
     @Operation(summary = "Get sensors by type", description = "Retrieve sensors filtered by type")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Sensors retrieved successfully",
@@ -0,0 +1,86 @@
+package com.farm.equipment.controller;
+
+import com.farm.equipment.dto.request.RecordReadingsRequest;
+import com.farm.equipment.dto.response.ReadingSeriesDTO;
+import com.farm.equipment.dto.response.RecordReadingsResultDTO;
+import com.farm.equipment.series.Downsampling;
+import com.farm.equipment.service.SensorReadingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * REST Controller for sensor readings.
+ */
+@RestController
+@RequestMapping("/api/sensors/{id}/readings")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Sensor Readings", description = "Sensor measurement ingestion and range queries")
+public class SensorReadingController {
+    
+    private final SensorReadingService readingService;
+    
+    @Operation(summary = "Record sensor readings",
+               description = "Store a batch of readings (UTC timestamps) and merge them into the 1-minute, 1-hour " +
+                             "and 1-day rollups. Readings repeating a stored timestamp are ignored")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Readings recorded",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RecordReadingsResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid reading or batch too large"),
+            @ApiResponse(responseCode = "404", description = "Sensor not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @PostMapping
+    public ResponseEntity<RecordReadingsResultDTO> recordReadings(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Sensor ID", required = true) @PathVariable UUID id,
+            @Valid @RequestBody RecordReadingsRequest request) {
+        
+        log.debug("POST /api/sensors/{}/readings - farmerId: {}, count: {}", id, farmerId, request.getReadings().size());
+        return ResponseEntity.ok(readingService.recordReadings(farmerId, id, request));
+    }
+    
+    @Operation(summary = "Get sensor readings",
+               description = "Get the readings of a sensor over [from, to) (UTC), from the coarsest resolution " +
+                             "(raw, 1 minute, 1 hour, 1 day) still retained that gives at least the requested number of points. " +
+                             "With maxPoints, a larger series is downsampled to that many points (LTTB or M4)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Readings retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReadingSeriesDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid range or point count"),
+            @ApiResponse(responseCode = "404", description = "Sensor not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping
+    public ResponseEntity<ReadingSeriesDTO> getReadings(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Sensor ID", required = true) @PathVariable UUID id,
+            @Parameter(description = "Range start (inclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Range end (exclusive)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Minimum number of points wanted (default maxPoints, else 300)")
+            @RequestParam(required = false) Integer points,
+            @Parameter(description = "Maximum number of points returned (default: all points read)")
+            @RequestParam(required = false) Integer maxPoints,
+            @Parameter(description = "Downsampling method when there are more than maxPoints (default LTTB)")
+            @RequestParam(required = false) Downsampling downsampling) {
+        
+        log.debug("GET /api/sensors/{}/readings - farmerId: {}, from: {}, to: {}, maxPoints: {}", id, farmerId, from, to, maxPoints);
+        return ResponseEntity.ok(readingService.getReadings(farmerId, id, from, to, points, maxPoints, downsampling));
+    }
+}
@@ -0,0 +1,123 @@
+package com.farm.equipment.controller;
+
+import com.farm.equipment.dto.request.ThresholdRuleRequest;
+import com.farm.equipment.dto.response.ThresholdRuleDTO;
+import com.farm.equipment.service.ThresholdRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for threshold rules on sensor readings.
+ */
+@RestController
+@RequestMapping("/api/rules")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Threshold Rules", description = "Alert rules evaluated on incoming sensor readings")
+public class ThresholdRuleController {
+    
+    private final ThresholdRuleService ruleService;
+    
+    @Operation(summary = "Create a threshold rule",
+               description = "Create a rule for one sensor (sensorId), or for every sensor of a type on a farm (farmId and sensorType). " +
+                             "The rule is violated once readings stay past the threshold for durationSeconds, and cleared " +
+                             "once a reading is back past it by the hysteresis")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Rule created successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ThresholdRuleDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Sensor not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @PostMapping
+    public ResponseEntity<ThresholdRuleDTO> createRule(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Valid @RequestBody ThresholdRuleRequest request) {
+        
+        log.info("POST /api/rules - farmerId: {}, farmId: {}, sensorId: {}", farmerId, request.getFarmId(), request.getSensorId());
+        ThresholdRuleDTO rule = ruleService.createRule(farmerId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(rule);
+    }
+    
+    @Operation(summary = "Get threshold rule by ID", description = "Retrieve a specific threshold rule")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rule found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ThresholdRuleDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Rule not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ThresholdRuleDTO> getRule(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Rule ID", required = true) @PathVariable UUID id) {
+        
+        log.info("GET /api/rules/{} - farmerId: {}", id, farmerId);
+        return ResponseEntity.ok(ruleService.getRule(farmerId, id));
+    }
+    
+    @Operation(summary = "Get threshold rules by farm", description = "Retrieve the rules of a farm, sensor rules included")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rules retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @GetMapping("/farm/{farmId}")
+    public ResponseEntity<Page<ThresholdRuleDTO>> getRulesByFarm(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Farm ID", required = true) @PathVariable UUID farmId,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("GET /api/rules/farm/{} - farmerId: {}", farmId, farmerId);
+        return ResponseEntity.ok(ruleService.getRulesByFarm(farmerId, farmId, pageable));
+    }
+    
+    @Operation(summary = "Update threshold rule", description = "Replace an existing rule; its evaluation starts over")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rule updated successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ThresholdRuleDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Rule not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<ThresholdRuleDTO> updateRule(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Rule ID", required = true) @PathVariable UUID id,
+            @Valid @RequestBody ThresholdRuleRequest request) {
+        
+        log.info("PUT /api/rules/{} - farmerId: {}", id, farmerId);
+        return ResponseEntity.ok(ruleService.updateRule(farmerId, id, request));
+    }
+    
+    @Operation(summary = "Delete threshold rule", description = "Delete a rule")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Rule deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Rule not found"),
+            @ApiResponse(responseCode = "403", description = "Permission denied")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(
+            @Parameter(description = "Farmer ID", required = true) @RequestHeader("X-Farmer-Id") UUID farmerId,
+            @Parameter(description = "Rule ID", required = true) @PathVariable UUID id) {
+        
+        log.info("DELETE /api/rules/{} - farmerId: {}", id, farmerId);
+        ruleService.deleteRule(farmerId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
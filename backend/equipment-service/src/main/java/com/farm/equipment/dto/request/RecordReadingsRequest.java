@@ -0,0 +1,40 @@
+package com.farm.equipment.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for recording a batch of readings of one sensor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordReadingsRequest implements Serializable {
+    
+    @NotEmpty(message = "At least one reading is required")
+    @Valid
+    private List<Reading> readings;
+    
+    /**
+     * One measurement, in the unit of the sensor's type.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Reading implements Serializable {
+        
+        @NotNull(message = "Timestamp is required")
+        private LocalDateTime timestamp;
+        
+        @NotNull(message = "Value is required")
+        private Double value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.farm.equipment.dto.request;
+
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.model.ThresholdOperator;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * DTO for creating or replacing a threshold rule.
+ * A rule names either a sensor, or a farm and a sensor type for every sensor of that type on the farm.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThresholdRuleRequest implements Serializable {
+    
+    @NotBlank(message = "Rule name is required")
+    @Size(max = 100, message = "Rule name must be at most 100 characters")
+    private String name;
+    
+    /** Required for farm rules; for a sensor rule, taken from the sensor */
+    private UUID farmId;
+    
+    private UUID sensorId;
+    
+    /** Required for farm rules; for a sensor rule, taken from the sensor */
+    private SensorType sensorType;
+    
+    @NotNull(message = "Operator is required")
+    private ThresholdOperator operator;
+    
+    @NotNull(message = "Threshold is required")
+    private Double threshold;
+    
+    @PositiveOrZero(message = "Hysteresis must not be negative")
+    private Double hysteresis;
+    
+    @PositiveOrZero(message = "Duration must not be negative")
+    @Max(value = 604800, message = "Duration must be at most 7 days")
+    private Long durationSeconds;
+    
+    private Boolean critical;
+    
+    private Boolean enabled;
+}
@@ -0,0 +1,31 @@
+package com.farm.equipment.dto.response;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for the battery depletion forecast of a sensor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatteryForecastDTO implements Serializable {
+    
+    private UUID sensorId;
+    private UUID farmId;
+    /** Last battery level reported */
+    private Integer batteryLevel;
+    private LocalDateTime measuredAt;
+    /** Level at which the battery needs replacing */
+    private int threshold;
+    /** Fitted drain in points per day; null until a day of history of the current battery */
+    private Double drainPerDay;
+    /** When the battery is predicted to reach the threshold; null if it is not draining */
+    private LocalDateTime depletionAt;
+    /** Days from now until depletionAt, 0 if already reached */
+    private Double daysUntilThreshold;
+}
@@ -0,0 +1,19 @@
+package com.farm.equipment.dto.response;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a battery level in the history of a sensor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatteryReadingDTO implements Serializable {
+    
+    private int level;
+    private LocalDateTime recordedAt;
+}
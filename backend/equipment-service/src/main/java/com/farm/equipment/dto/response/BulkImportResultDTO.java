@@ -0,0 +1,39 @@
+package com.farm.equipment.dto.response;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the result of a bulk equipment import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO implements Serializable {
+    
+    private UUID batchId;
+    private String equipmentType;
+    private int totalRows;
+    private int importedCount;
+    private int failedCount;
+    private List<RowError> errors;
+    
+    /**
+     * A validation or authorization error for a single input row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError implements Serializable {
+        
+        /** 1-based row number in the submitted file or array (CSV header excluded) */
+        private int row;
+        private String field;
+        private String message;
+    }
+}
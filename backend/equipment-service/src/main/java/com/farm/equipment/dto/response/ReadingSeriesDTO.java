@@ -0,0 +1,51 @@
+package com.farm.equipment.dto.response;
+
+import com.farm.equipment.model.ReadingResolution;
+import com.farm.equipment.series.Downsampling;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the readings of a sensor over a time range, at the resolution picked for the range,
+ * possibly downsampled to a maximum number of points.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadingSeriesDTO implements Serializable {
+    
+    private UUID sensorId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private ReadingResolution resolution;
+    private List<Point> points;
+    
+    /** How the points were selected, or null if they are all the points read */
+    private Downsampling downsampling;
+    
+    /** Number of points read at the resolution, before downsampling */
+    private int sourcePoints;
+    
+    /**
+     * One bucket of the series; for raw readings min, max, avg and last are the reading itself.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Point implements Serializable {
+        
+        /** Start of the bucket, or the reading time for raw readings */
+        private LocalDateTime timestamp;
+        private double min;
+        private double max;
+        private double avg;
+        private double last;
+        private long count;
+    }
+}
@@ -0,0 +1,21 @@
+package com.farm.equipment.dto.response;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * DTO for the result of recording a batch of readings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordReadingsResultDTO implements Serializable {
+    
+    private UUID sensorId;
+    private int receivedCount;
+    /** Readings stored; the others repeated a timestamp already stored for the sensor */
+    private int storedCount;
+}
@@ -0,0 +1,33 @@
+package com.farm.equipment.dto.response;
+
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.model.ThresholdOperator;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for threshold rule response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThresholdRuleDTO implements Serializable {
+    
+    private UUID id;
+    private String name;
+    private UUID farmId;
+    private UUID sensorId;
+    private SensorType sensorType;
+    private ThresholdOperator operator;
+    private double threshold;
+    private double hysteresis;
+    private long durationSeconds;
+    private boolean critical;
+    private boolean enabled;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -1,14 +1,24 @@
 package com.farm.equipment.event;
 
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.EquipmentBatchCreatedPayload;
+import com.farm.events.payload.EventPayload;
+import com.farm.events.payload.MaintenanceCompletedPayload;
+import com.farm.events.payload.MaintenanceScheduledPayload;
+import com.farm.events.payload.SensorAnomalyPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.farm.events.payload.ThresholdClearedPayload;
+import com.farm.events.payload.ThresholdViolatedPayload;
 import lombok.*;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 /**
  * Event DTO for equipment-related events published to RabbitMQ.
+ * The payload is one of the typed records of the shared event contract (schema version 2).
  */
 @Data
 @NoArgsConstructor
@@ -22,13 +32,13 @@ public class EquipmentEvent implements Serializable {
     private String equipmentType; // "PUMP" or "SENSOR"
     private UUID farmId;
     private LocalDateTime timestamp;
-    private Map<String, Object> metadata;
+    private EventPayload payload;
     private String message;
     
     /**
      * Create equipment created event
      */
-    public static EquipmentEvent createEquipmentCreated(UUID equipmentId, String equipmentType, UUID farmId, Map<String, Object> metadata) {
+    public static EquipmentEvent createEquipmentCreated(UUID equipmentId, String equipmentType, UUID farmId, EventPayload payload) {
         return EquipmentEvent.builder()
                 .eventId(UUID.randomUUID())
                 .eventType(EquipmentEventType.EQUIPMENT_CREATED)
@@ -36,11 +46,28 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType(equipmentType)
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(metadata)
+                .payload(payload)
                 .message(String.format("%s equipment created for farm %s", equipmentType, farmId))
                 .build();
     }
     
+    /**
+     * Create a single equipment created event summarising a bulk import for one farm.
+     * The equipment ID carries the import batch ID.
+     */
+    public static EquipmentEvent createEquipmentBatchCreated(UUID batchId, String equipmentType, UUID farmId, int count, Long lowBattery) {
+        return EquipmentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(EquipmentEventType.EQUIPMENT_CREATED)
+                .equipmentId(batchId)
+                .equipmentType(equipmentType)
+                .farmId(farmId)
+                .timestamp(LocalDateTime.now())
+                .payload(new EquipmentBatchCreatedPayload(batchId, count, lowBattery))
+                .message(String.format("%d %s equipment imported for farm %s", count, equipmentType, farmId))
+                .build();
+    }
+    
     /**
      * Create status changed event
      */
@@ -52,7 +79,7 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType(equipmentType)
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(Map.of("oldStatus", oldStatus, "newStatus", newStatus))
+                .payload(new StatusChangedPayload(oldStatus, newStatus))
                 .message(String.format("%s status changed from %s to %s", equipmentType, oldStatus, newStatus))
                 .build();
     }
@@ -68,7 +95,7 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType("PUMP")
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(Map.of("scheduledDate", scheduledDate.toString()))
+                .payload(new MaintenanceScheduledPayload(scheduledDate))
                 .message(String.format("Maintenance scheduled for %s", scheduledDate))
                 .build();
     }
@@ -84,7 +111,7 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType("PUMP")
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(Map.of("notes", notes != null ? notes : ""))
+                .payload(new MaintenanceCompletedPayload(notes))
                 .message("Maintenance completed successfully")
                 .build();
     }
@@ -100,7 +127,7 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType("SENSOR")
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(Map.of("batteryLevel", batteryLevel))
+                .payload(new BatteryLowPayload(batteryLevel))
                 .message(String.format("Sensor battery low: %d%%", batteryLevel))
                 .build();
     }
@@ -116,8 +143,58 @@ public class EquipmentEvent implements Serializable {
                 .equipmentType("SENSOR")
                 .farmId(farmId)
                 .timestamp(LocalDateTime.now())
-                .metadata(Map.of("lastCommunication", lastCommunication != null ? lastCommunication.toString() : "never"))
+                .payload(new SensorOfflinePayload(lastCommunication))
                 .message("Sensor is offline")
                 .build();
     }
+    
+    /**
+     * Create threshold violated event
+     */
+    public static EquipmentEvent createThresholdViolated(UUID sensorId, UUID farmId, ThresholdViolatedPayload payload) {
+        return EquipmentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(EquipmentEventType.THRESHOLD_VIOLATED)
+                .equipmentId(sensorId)
+                .equipmentType("SENSOR")
+                .farmId(farmId)
+                .timestamp(LocalDateTime.now())
+                .payload(payload)
+                .message(String.format("%s: reading %s is %s %s since %s", payload.ruleName(), payload.value(),
+                        payload.operator().toLowerCase(), payload.threshold(), payload.since()))
+                .build();
+    }
+    
+    /**
+     * Create threshold cleared event
+     */
+    public static EquipmentEvent createThresholdCleared(UUID sensorId, UUID farmId, ThresholdClearedPayload payload) {
+        return EquipmentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(EquipmentEventType.THRESHOLD_CLEARED)
+                .equipmentId(sensorId)
+                .equipmentType("SENSOR")
+                .farmId(farmId)
+                .timestamp(LocalDateTime.now())
+                .payload(payload)
+                .message(String.format("%s: cleared, reading %s", payload.ruleName(), payload.value()))
+                .build();
+    }
+    
+    /**
+     * Create sensor anomaly event
+     */
+    public static EquipmentEvent createSensorAnomaly(UUID sensorId, UUID farmId, SensorAnomalyPayload payload) {
+        return EquipmentEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(EquipmentEventType.SENSOR_ANOMALY)
+                .equipmentId(sensorId)
+                .equipmentType("SENSOR")
+                .farmId(farmId)
+                .timestamp(LocalDateTime.now())
+                .payload(payload)
+                .message(String.format("Sensor anomaly %s: value %s, expected %s", payload.anomaly(), payload.value(),
+                        payload.expected()))
+                .build();
+    }
 }
@@ -9,5 +9,8 @@ public enum EquipmentEventType {
     MAINTENANCE_SCHEDULED,
     MAINTENANCE_COMPLETED,
     BATTERY_LOW,
-    SENSOR_OFFLINE
+    SENSOR_OFFLINE,
+    THRESHOLD_VIOLATED,
+    THRESHOLD_CLEARED,
+    SENSOR_ANOMALY
 }
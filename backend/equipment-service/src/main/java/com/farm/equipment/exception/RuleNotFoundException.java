@@ -0,0 +1,13 @@
+package com.farm.equipment.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a threshold rule is not found.
+ */
+public class RuleNotFoundException extends RuntimeException {
+    
+    public RuleNotFoundException(UUID ruleId) {
+        super(String.format("Threshold rule not found with ID: %s", ruleId));
+    }
+}
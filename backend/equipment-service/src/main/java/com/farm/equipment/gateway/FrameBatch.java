@@ -0,0 +1,200 @@
+package com.farm.equipment.gateway;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Frames received by the {@link FrameServer} and stored together: the readings of many devices as
+ * parallel arrays, and the windows of frames to acknowledge once they are stored.
+ * <p>
+ * Batches are allocated once and recycled. The I/O thread fills a batch, a writer thread stores
+ * its readings and marks each one accepted or not, then the I/O thread sends the acks and reuses it.
+ */
+public final class FrameBatch {
+
+    private final UUID[] sensorIds;
+    private final long[] epochMillis;
+    private final double[] values;
+    private final int[] batteryLevels;
+    private final boolean[] accepted;
+    private final boolean[] unknownSensors;
+    private int size;
+
+    // Window i covers readings [windowEnds[i - 1], windowEnds[i]) plus the frames rejected on receipt
+    private final Object[] windowSources;
+    private final int[] windowEnds;
+    private final int[] windowFirstSequences;
+    private final int[] windowLastSequences;
+    private final int[] windowRejected;
+    private int windowCount;
+
+    private int rejected;
+    private int rateLimited;
+    private long startedNanos;
+    private boolean failed;
+
+    FrameBatch(int capacity) {
+        sensorIds = new UUID[capacity];
+        epochMillis = new long[capacity];
+        values = new double[capacity];
+        batteryLevels = new int[capacity];
+        accepted = new boolean[capacity];
+        unknownSensors = new boolean[capacity];
+        windowSources = new Object[capacity];
+        windowEnds = new int[capacity];
+        windowFirstSequences = new int[capacity];
+        windowLastSequences = new int[capacity];
+        windowRejected = new int[capacity];
+    }
+
+    /**
+     * Number of readings to store
+     */
+    public int size() {
+        return size;
+    }
+
+    public UUID[] getSensorIds() {
+        return sensorIds;
+    }
+
+    /**
+     * Reading times, as UTC epoch milliseconds
+     */
+    public long[] getEpochMillis() {
+        return epochMillis;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Battery level to record with each reading, or {@link FrameFormat#NO_BATTERY} when there is none:
+     * only a level that changed, at most once per device and battery interval, is passed on
+     */
+    public int[] getBatteryLevels() {
+        return batteryLevels;
+    }
+
+    /**
+     * Set by the store: whether each reading was accepted, that is stored or already stored
+     */
+    public boolean[] getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Set by the store: whether the sensor of each reading not accepted does not exist. The frame server
+     * then forgets the device and rejects its frames on receipt for a while, without storing them.
+     */
+    public boolean[] getUnknownSensors() {
+        return unknownSensors;
+    }
+
+    /**
+     * Frames rejected on receipt as invalid
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Frames rejected on receipt for exceeding their device's rate limit
+     */
+    public int getRateLimited() {
+        return rateLimited;
+    }
+
+    int remaining() {
+        return sensorIds.length - Math.max(size, windowCount);
+    }
+
+    boolean isEmpty() {
+        return windowCount == 0;
+    }
+
+    long getStartedNanos() {
+        return startedNanos;
+    }
+
+    void openWindow(Object source, int firstSequence, long nanos) {
+        if (windowCount == 0) {
+            startedNanos = nanos;
+        }
+        windowSources[windowCount] = source;
+        windowFirstSequences[windowCount] = firstSequence;
+        windowLastSequences[windowCount] = firstSequence;
+        windowRejected[windowCount] = 0;
+        windowEnds[windowCount] = size;
+        windowCount++;
+    }
+
+    void add(UUID sensorId, long time, double value, int batteryLevel, int sequence) {
+        sensorIds[size] = sensorId;
+        epochMillis[size] = time;
+        values[size] = value;
+        batteryLevels[size] = batteryLevel;
+        size++;
+        windowEnds[windowCount - 1] = size;
+        windowLastSequences[windowCount - 1] = sequence;
+    }
+
+    void reject(int sequence, boolean overRateLimit) {
+        windowRejected[windowCount - 1]++;
+        windowLastSequences[windowCount - 1] = sequence;
+        if (overRateLimit) {
+            rateLimited++;
+        } else {
+            rejected++;
+        }
+    }
+
+    int getWindowCount() {
+        return windowCount;
+    }
+
+    Object getWindowSource(int window) {
+        return windowSources[window];
+    }
+
+    int getWindowFirstSequence(int window) {
+        return windowFirstSequences[window];
+    }
+
+    int getWindowLastSequence(int window) {
+        return windowLastSequences[window];
+    }
+
+    int getWindowRejected(int window) {
+        return windowRejected[window];
+    }
+
+    int getWindowStart(int window) {
+        return window == 0 ? 0 : windowEnds[window - 1];
+    }
+
+    int getWindowEnd(int window) {
+        return windowEnds[window];
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    void clear() {
+        Arrays.fill(sensorIds, 0, size, null);
+        Arrays.fill(accepted, 0, size, false);
+        Arrays.fill(unknownSensors, 0, size, false);
+        Arrays.fill(windowSources, 0, windowCount, null);
+        size = 0;
+        windowCount = 0;
+        rejected = 0;
+        rateLimited = 0;
+        failed = false;
+    }
+}
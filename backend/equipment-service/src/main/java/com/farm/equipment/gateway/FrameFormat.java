@@ -0,0 +1,118 @@
+package com.farm.equipment.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Binary frames exchanged with field devices by the {@link FrameServer}; all fields big-endian.
+ * <p>
+ * A device sends one fixed-size frame per reading, back to back on a TCP connection or up to
+ * {@link #MAX_DATAGRAM_FRAMES} in a UDP datagram:
+ * <pre>
+ *   frame (40 bytes)   version (u8), battery level (u8, 0-100 or 255 when not reported), reserved (u16),
+ *                      sequence (u32), sensor id msb (i64), lsb (i64), reading time (i64, UTC epoch ms),
+ *                      value (f64)
+ * </pre>
+ * The server answers every window of frames (what one TCP read or one datagram brought in) once
+ * it is stored, with:
+ * <pre>
+ *   ack (20 bytes)     version (u8), reserved (u8, u16), sequence of the first and of the last frame of
+ *                      the window (u32, u32), frames accepted (u32), frames rejected (u32)
+ * </pre>
+ * Windows are stored concurrently, so their acks may arrive out of order. Sequences must increase
+ * on a connection, a resent frame taking a new one, so that a window is the range it acks.
+ * Accepted frames are stored, or were stored already: a reading repeating a sensor and time is
+ * ignored, so a device resends every frame it got no ack for. Rejected frames (unknown sensor,
+ * invalid reading, over the device's rate limit) are dropped and must not be resent.
+ */
+public final class FrameFormat {
+
+    public static final int VERSION = 1;
+    public static final int FRAME_BYTES = 40;
+    public static final int ACK_BYTES = 20;
+    /** Battery byte of a frame that reports no battery level */
+    public static final int NO_BATTERY = 255;
+    /** Frames in a datagram of at most 1400 bytes, below the usual path MTU */
+    public static final int MAX_DATAGRAM_FRAMES = 35;
+
+    private FrameFormat() {
+    }
+
+    /**
+     * Append a frame at the buffer's position
+     */
+    public static void writeFrame(ByteBuffer buffer, int sequence, UUID sensorId, int batteryLevel,
+                                  long epochMillis, double value) {
+        buffer.put((byte) VERSION)
+                .put((byte) batteryLevel)
+                .putShort((short) 0)
+                .putInt(sequence)
+                .putLong(sensorId.getMostSignificantBits())
+                .putLong(sensorId.getLeastSignificantBits())
+                .putLong(epochMillis)
+                .putDouble(value);
+    }
+
+    /**
+     * Append an ack at the buffer's position
+     */
+    public static void writeAck(ByteBuffer buffer, int firstSequence, int lastSequence, int accepted, int rejected) {
+        buffer.put((byte) VERSION)
+                .put((byte) 0)
+                .putShort((short) 0)
+                .putInt(firstSequence)
+                .putInt(lastSequence)
+                .putInt(accepted)
+                .putInt(rejected);
+    }
+
+    static int version(ByteBuffer buffer, int frame) {
+        return buffer.get(frame) & 0xFF;
+    }
+
+    static int batteryLevel(ByteBuffer buffer, int frame) {
+        return buffer.get(frame + 1) & 0xFF;
+    }
+
+    static int sequence(ByteBuffer buffer, int frame) {
+        return buffer.getInt(frame + 4);
+    }
+
+    static long sensorMsb(ByteBuffer buffer, int frame) {
+        return buffer.getLong(frame + 8);
+    }
+
+    static long sensorLsb(ByteBuffer buffer, int frame) {
+        return buffer.getLong(frame + 16);
+    }
+
+    static long epochMillis(ByteBuffer buffer, int frame) {
+        return buffer.getLong(frame + 24);
+    }
+
+    static double value(ByteBuffer buffer, int frame) {
+        return buffer.getDouble(frame + 32);
+    }
+
+    /**
+     * Sequence of the first frame acknowledged by the ack at the given index
+     */
+    public static int ackFirstSequence(ByteBuffer buffer, int ack) {
+        return buffer.getInt(ack + 4);
+    }
+
+    /**
+     * Sequence of the last frame acknowledged by the ack at the given index
+     */
+    public static int ackLastSequence(ByteBuffer buffer, int ack) {
+        return buffer.getInt(ack + 8);
+    }
+
+    public static int ackAccepted(ByteBuffer buffer, int ack) {
+        return buffer.getInt(ack + 12);
+    }
+
+    public static int ackRejected(ByteBuffer buffer, int ack) {
+        return buffer.getInt(ack + 16);
+    }
+}
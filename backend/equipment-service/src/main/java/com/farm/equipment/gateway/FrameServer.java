@@ -0,0 +1,636 @@
+package com.farm.equipment.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.farm.equipment.gateway.FrameFormat.FRAME_BYTES;
+
+/**
+ * Non-blocking TCP and UDP server for the binary device frames of {@link FrameFormat}.
+ * <p>
+ * One I/O thread accepts connections, reads frames straight from the sockets into a direct buffer it
+ * reuses, applies a token bucket rate limit per device, and appends the readings to a {@link FrameBatch}.
+ * A batch is handed to the writer threads when full or {@code maxDelayMillis} after its first frame;
+ * once stored, the I/O thread acknowledges each window of frames it holds and reuses it. When every
+ * batch is being stored, the I/O thread waits for one instead of reading, so slow storage pushes back
+ * on the devices through the TCP windows (and drops datagrams, which their devices resend).
+ * <p>
+ * Device state (rate limit and last battery level) lives on the I/O thread, capped at
+ * {@code maxDevices} and dropped after {@code idleTimeoutMillis} without frames. The state of a device
+ * the store finds unknown is dropped as soon as its batch is stored, and its frames are then rejected on
+ * receipt for {@code unknownSensorMillis}: made-up sensor ids hold state only while their frames are
+ * being stored, and cannot fill the devices of the real ones.
+ */
+@Slf4j
+public final class FrameServer {
+
+    /**
+     * Stores the readings of a batch
+     */
+    public interface Store {
+
+        /**
+         * Store the readings of a batch, setting {@link FrameBatch#getAccepted()} for each one stored
+         * or already stored, and {@link FrameBatch#getUnknownSensors()} for each one of a sensor that does
+         * not exist. Runs on a writer thread; if it throws, no frame of the batch is acknowledged.
+         */
+        void store(FrameBatch batch) throws Exception;
+    }
+
+    /**
+     * Server parameters; a negative port disables that transport
+     */
+    public record Settings(String host, int tcpPort, int udpPort, int batchSize, int batches, int writers,
+                           long maxDelayMillis, double framesPerSecond, double burst, long batteryIntervalMillis,
+                           int maxConnections, int maxDevices, long idleTimeoutMillis, long unknownSensorMillis) {
+    }
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int UDP_RECEIVE_BUFFER_BYTES = 4 * 1024 * 1024;
+    private static final int BACKLOG = 1024;
+    /** Datagrams read per readiness, so that one busy socket does not starve the others */
+    private static final int MAX_DATAGRAMS_PER_SELECT = 256;
+    /** Acks queued for a device that does not read them, before its connection is closed */
+    private static final int MAX_PENDING_ACKS = 256;
+    private static final long IDLE_SELECT_MILLIS = 100;
+    private static final long SWEEP_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Settings settings;
+    private final Store store;
+    private final long maxDelayNanos;
+    private final double tokensPerNano;
+    private final long batteryIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final long unknownSensorNanos;
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    private final ByteBuffer ackBuffer = ByteBuffer.allocateDirect(FrameFormat.ACK_BYTES);
+    private final ArrayDeque<FrameBatch> freeBatches = new ArrayDeque<>();
+    private final BlockingQueue<FrameBatch> toStore;
+    private final BlockingQueue<FrameBatch> stored;
+    private final Set<Connection> connections = new HashSet<>();
+    private final Map<UUID, Device> devices = new HashMap<>();
+    /** Sensors the store found unknown -> until when their frames are rejected on receipt, in nanos */
+    private final Map<UUID, Long> unknownSensors = new HashMap<>();
+    private final List<Thread> writerThreads = new ArrayList<>();
+
+    private Selector selector;
+    private ServerSocketChannel tcp;
+    private DatagramChannel udp;
+    private Thread ioThread;
+    private FrameBatch batch;
+    private volatile boolean running;
+    private volatile int connectionCount;
+    private volatile int deviceCount;
+
+    public FrameServer(Settings settings, Store store) {
+        if (settings.batchSize() < FrameFormat.MAX_DATAGRAM_FRAMES) {
+            throw new IllegalArgumentException("batchSize must be at least " + FrameFormat.MAX_DATAGRAM_FRAMES);
+        }
+        if (settings.batches() < 2 || settings.writers() < 1) {
+            throw new IllegalArgumentException("At least 2 batches and 1 writer are needed");
+        }
+        this.settings = settings;
+        this.store = store;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.maxDelayMillis());
+        this.tokensPerNano = settings.framesPerSecond() / 1e9;
+        this.batteryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.batteryIntervalMillis());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMillis());
+        this.unknownSensorNanos = TimeUnit.MILLISECONDS.toNanos(settings.unknownSensorMillis());
+        this.toStore = new ArrayBlockingQueue<>(settings.batches());
+        this.stored = new ArrayBlockingQueue<>(settings.batches());
+    }
+
+    /**
+     * Bind the listeners and start the I/O and writer threads
+     */
+    public synchronized void start() throws IOException {
+        selector = Selector.open();
+        if (settings.tcpPort() >= 0) {
+            tcp = ServerSocketChannel.open();
+            tcp.bind(new InetSocketAddress(settings.host(), settings.tcpPort()), BACKLOG);
+            tcp.configureBlocking(false);
+            tcp.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        if (settings.udpPort() >= 0) {
+            udp = DatagramChannel.open();
+            udp.setOption(StandardSocketOptions.SO_RCVBUF, UDP_RECEIVE_BUFFER_BYTES);
+            udp.bind(new InetSocketAddress(settings.host(), settings.udpPort()));
+            udp.configureBlocking(false);
+            udp.register(selector, SelectionKey.OP_READ);
+        }
+        for (int i = 0; i < settings.batches(); i++) {
+            freeBatches.push(new FrameBatch(settings.batchSize()));
+        }
+        batch = freeBatches.pop();
+        running = true;
+        ioThread = new Thread(this::runIo, "gateway-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+        for (int i = 0; i < settings.writers(); i++) {
+            Thread writer = new Thread(this::runWriter, "gateway-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writerThreads.add(writer);
+        }
+    }
+
+    /**
+     * Close the listeners and connections and wait for the batches being stored.
+     * Frames not stored yet are dropped without an ack; their devices resend them.
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        ioThread.join();
+        for (Thread writer : writerThreads) {
+            writer.join();
+        }
+        writerThreads.clear();
+    }
+
+    public int getTcpPort() throws IOException {
+        return tcp != null ? ((InetSocketAddress) tcp.getLocalAddress()).getPort() : -1;
+    }
+
+    public int getUdpPort() throws IOException {
+        return udp != null ? ((InetSocketAddress) udp.getLocalAddress()).getPort() : -1;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public int getDeviceCount() {
+        return deviceCount;
+    }
+
+    private void runIo() {
+        long nextSweep = System.nanoTime() + SWEEP_NANOS;
+        try {
+            while (running) {
+                selector.select(this::onReady, selectTimeoutMillis());
+                completeStored();
+                long now = System.nanoTime();
+                if (!batch.isEmpty() && now - batch.getStartedNanos() >= maxDelayNanos) {
+                    handOff();
+                }
+                if (now - nextSweep >= 0) {
+                    sweep(now);
+                    nextSweep = now + SWEEP_NANOS;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Device gateway stopped: {}", e.getMessage(), e);
+            running = false;
+        } finally {
+            closeAll();
+        }
+    }
+
+    private long selectTimeoutMillis() {
+        if (batch.isEmpty()) {
+            return IDLE_SELECT_MILLIS;
+        }
+        long left = maxDelayNanos - (System.nanoTime() - batch.getStartedNanos());
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(left));
+    }
+
+    private void onReady(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.channel() == udp) {
+            try {
+                receiveDatagrams();
+            } catch (IOException e) {
+                log.warn("Could not receive device datagram: {}", e.getMessage());
+            }
+            return;
+        }
+        if (key.isAcceptable()) {
+            try {
+                accept();
+            } catch (IOException e) {
+                log.warn("Could not accept device connection: {}", e.getMessage());
+            }
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (connection.open && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            log.debug("Closing device connection {}: {}", connection.remote, e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = tcp.accept()) != null) {
+            if (connections.size() >= settings.maxConnections()) {
+                log.debug("Refusing device connection from {}: {} connections open", channel.getRemoteAddress(),
+                        connections.size());
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel, channel.getRemoteAddress(), System.nanoTime());
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+            connectionCount = connections.size();
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        if (batch.remaining() < 1) {
+            handOff();
+        }
+        // The partial frame left by the previous read, then at most as many frames as the batch can take
+        readBuffer.clear();
+        readBuffer.put(connection.partial, 0, connection.partialLength);
+        readBuffer.limit(Math.min(readBuffer.capacity(), batch.remaining() * FRAME_BYTES));
+        int read = connection.channel.read(readBuffer);
+        if (read < 0) {
+            close(connection);
+            return;
+        }
+        long now = System.nanoTime();
+        connection.activeNanos = now;
+        int end = readBuffer.position();
+        int complete = end - end % FRAME_BYTES;
+        if (!decode(complete, connection, now)) {
+            log.debug("Closing device connection {}: unsupported frame version", connection.remote);
+            close(connection);
+            return;
+        }
+        connection.partialLength = end - complete;
+        readBuffer.get(complete, connection.partial, 0, connection.partialLength);
+    }
+
+    private void receiveDatagrams() throws IOException {
+        for (int i = 0; i < MAX_DATAGRAMS_PER_SELECT; i++) {
+            readBuffer.clear();
+            SocketAddress address = udp.receive(readBuffer);
+            if (address == null) {
+                return;
+            }
+            int bytes = readBuffer.position();
+            if (bytes == 0 || bytes % FRAME_BYTES != 0 || bytes > FrameFormat.MAX_DATAGRAM_FRAMES * FRAME_BYTES) {
+                log.debug("Dropping device datagram of {} bytes from {}", bytes, address);
+                continue;
+            }
+            if (batch.remaining() < bytes / FRAME_BYTES) {
+                handOff();
+            }
+            if (!decode(bytes, address, System.nanoTime())) {
+                log.debug("Dropping device datagram from {}: unsupported frame version", address);
+            }
+        }
+    }
+
+    /**
+     * Add the frames in the first {@code bytes} of the read buffer to the batch, as one window
+     * @return false, adding nothing, if a frame has an unsupported version
+     */
+    private boolean decode(int bytes, Object source, long now) {
+        for (int frame = 0; frame < bytes; frame += FRAME_BYTES) {
+            if (FrameFormat.version(readBuffer, frame) != FrameFormat.VERSION) {
+                return false;
+            }
+        }
+        for (int frame = 0; frame < bytes; frame += FRAME_BYTES) {
+            int sequence = FrameFormat.sequence(readBuffer, frame);
+            if (frame == 0) {
+                batch.openWindow(source, sequence, now);
+            }
+            int batteryLevel = FrameFormat.batteryLevel(readBuffer, frame);
+            UUID sensorId = new UUID(FrameFormat.sensorMsb(readBuffer, frame), FrameFormat.sensorLsb(readBuffer, frame));
+            Device device = isUnknown(sensorId, now) ? null : device(sensorId, now);
+            if (device == null || (batteryLevel > 100 && batteryLevel != FrameFormat.NO_BATTERY)) {
+                batch.reject(sequence, false);
+            } else if (!device.tryAcquire(now)) {
+                batch.reject(sequence, true);
+            } else {
+                batch.add(sensorId, FrameFormat.epochMillis(readBuffer, frame), FrameFormat.value(readBuffer, frame),
+                        device.batteryToRecord(batteryLevel, now), sequence);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the store recently found the sensor unknown
+     */
+    private boolean isUnknown(UUID sensorId, long now) {
+        Long until = unknownSensors.get(sensorId);
+        if (until == null) {
+            return false;
+        }
+        if (now - until < 0) {
+            return true;
+        }
+        unknownSensors.remove(sensorId);
+        return false;
+    }
+
+    /**
+     * @return the state of a device, or null if there are too many devices to track a new one
+     */
+    private Device device(UUID sensorId, long now) {
+        Device device = devices.get(sensorId);
+        if (device == null) {
+            if (devices.size() >= settings.maxDevices()) {
+                return null;
+            }
+            device = new Device(settings.burst(), now);
+            devices.put(sensorId, device);
+            deviceCount = devices.size();
+        }
+        return device;
+    }
+
+    /**
+     * Hand the current batch to the writers and take a free one, waiting for one to be stored if needed
+     */
+    private void handOff() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        toStore.add(batch);
+        while ((batch = freeBatches.poll()) == null) {
+            try {
+                FrameBatch done = stored.poll(IDLE_SELECT_MILLIS, TimeUnit.MILLISECONDS);
+                if (done != null) {
+                    complete(done);
+                } else if (!running) {
+                    batch = new FrameBatch(settings.batchSize());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                batch = new FrameBatch(settings.batchSize());
+            }
+        }
+    }
+
+    private void completeStored() {
+        FrameBatch done;
+        while ((done = stored.poll()) != null) {
+            complete(done);
+        }
+    }
+
+    /**
+     * Acknowledge the windows of a stored batch and make it free again
+     */
+    private void complete(FrameBatch done) {
+        if (!done.isFailed()) {
+            forgetUnknown(done);
+            boolean[] accepted = done.getAccepted();
+            for (int window = 0; window < done.getWindowCount(); window++) {
+                int start = done.getWindowStart(window);
+                int end = done.getWindowEnd(window);
+                int acceptedCount = 0;
+                for (int i = start; i < end; i++) {
+                    if (accepted[i]) {
+                        acceptedCount++;
+                    }
+                }
+                ackBuffer.clear();
+                FrameFormat.writeAck(ackBuffer, done.getWindowFirstSequence(window), done.getWindowLastSequence(window),
+                        acceptedCount, end - start - acceptedCount + done.getWindowRejected(window));
+                ackBuffer.flip();
+                sendAck(done.getWindowSource(window));
+            }
+        }
+        done.clear();
+        freeBatches.push(done);
+    }
+
+    /**
+     * Drop the state of the devices the store found unknown, and reject their frames on receipt for a while
+     */
+    private void forgetUnknown(FrameBatch done) {
+        boolean[] unknown = done.getUnknownSensors();
+        UUID[] sensorIds = done.getSensorIds();
+        long until = System.nanoTime() + unknownSensorNanos;
+        for (int i = 0; i < done.size(); i++) {
+            if (!unknown[i]) {
+                continue;
+            }
+            devices.remove(sensorIds[i]);
+            if (unknownSensors.size() < settings.maxDevices()) {
+                unknownSensors.put(sensorIds[i], until);
+            }
+        }
+        deviceCount = devices.size();
+    }
+
+    private void sendAck(Object source) {
+        if (!(source instanceof Connection connection)) {
+            try {
+                // Dropped if the socket buffer is full: the device resends and gets the next ack
+                udp.send(ackBuffer, (SocketAddress) source);
+            } catch (IOException e) {
+                log.debug("Could not send ack to {}: {}", source, e.getMessage());
+            }
+            return;
+        }
+        if (!connection.open) {
+            return;
+        }
+        try {
+            if (connection.pending == null || connection.pending.position() == 0) {
+                connection.channel.write(ackBuffer);
+            }
+            if (ackBuffer.hasRemaining()) {
+                if (connection.pending == null) {
+                    connection.pending = ByteBuffer.allocate(MAX_PENDING_ACKS * FrameFormat.ACK_BYTES);
+                }
+                if (connection.pending.remaining() < ackBuffer.remaining()) {
+                    throw new IOException("device is not reading its acks");
+                }
+                connection.pending.put(ackBuffer);
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            log.debug("Closing device connection {}: {}", connection.remote, e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        connection.pending.flip();
+        connection.channel.write(connection.pending);
+        connection.pending.compact();
+        if (connection.pending.position() == 0) {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(Connection connection) {
+        if (!connection.open) {
+            return;
+        }
+        connection.open = false;
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            log.debug("Could not close device connection {}: {}", connection.remote, e.getMessage());
+        }
+        connections.remove(connection);
+        connectionCount = connections.size();
+    }
+
+    /**
+     * Close idle connections, forget idle devices, and stop rejecting the unknown sensors whose time is up
+     */
+    private void sweep(long now) {
+        List<Connection> idle = new ArrayList<>();
+        for (Connection connection : connections) {
+            if (now - connection.activeNanos > idleTimeoutNanos) {
+                idle.add(connection);
+            }
+        }
+        idle.forEach(this::close);
+        devices.values().removeIf(device -> now - device.seenNanos > idleTimeoutNanos);
+        deviceCount = devices.size();
+        unknownSensors.values().removeIf(until -> now - until >= 0);
+    }
+
+    private void closeAll() {
+        for (Connection connection : new ArrayList<>(connections)) {
+            close(connection);
+        }
+        try {
+            if (tcp != null) {
+                tcp.close();
+            }
+            if (udp != null) {
+                udp.close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Could not close device gateway listeners: {}", e.getMessage());
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            FrameBatch next;
+            try {
+                next = toStore.poll(IDLE_SELECT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (next == null) {
+                continue;
+            }
+            try {
+                store.store(next);
+            } catch (Exception e) {
+                next.setFailed(true);
+                log.warn("Could not store {} device readings, their devices will resend them: {}", next.size(),
+                        e.getMessage());
+            }
+            stored.add(next);
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * A TCP connection of a device, used by the I/O thread only
+     */
+    private static final class Connection {
+
+        final SocketChannel channel;
+        final SocketAddress remote;
+        final byte[] partial = new byte[FRAME_BYTES];
+        SelectionKey key;
+        int partialLength;
+        ByteBuffer pending;
+        long activeNanos;
+        boolean open = true;
+
+        Connection(SocketChannel channel, SocketAddress remote, long now) {
+            this.channel = channel;
+            this.remote = remote;
+            this.activeNanos = now;
+        }
+    }
+
+    /**
+     * Rate limit and battery level of a device, used by the I/O thread only
+     */
+    private final class Device {
+
+        double tokens;
+        long refilledNanos;
+        long seenNanos;
+        int batteryLevel = -1;
+        long batteryNanos;
+
+        Device(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledNanos = now;
+            this.seenNanos = now;
+        }
+
+        boolean tryAcquire(long now) {
+            tokens = Math.min(settings.burst(), tokens + (now - refilledNanos) * tokensPerNano);
+            refilledNanos = now;
+            seenNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        /**
+         * @return the level to record with this frame: a changed level, at most once per battery interval
+         */
+        int batteryToRecord(int level, long now) {
+            if (level == FrameFormat.NO_BATTERY || level == batteryLevel
+                    || (batteryLevel >= 0 && now - batteryNanos < batteryIntervalNanos)) {
+                return FrameFormat.NO_BATTERY;
+            }
+            batteryLevel = level;
+            batteryNanos = now;
+            return level;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.farm.equipment.gateway;
+
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.monitoring.EquipmentMetrics.FrameOutcome;
+import com.farm.equipment.service.SensorReadingService;
+import com.farm.equipment.service.SensorService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Device ingestion gateway: a {@link FrameServer} taking the binary frames of {@link FrameFormat}
+ * over TCP and UDP, for field devices that cannot afford HTTP, TLS and JSON.
+ * <p>
+ * Batches of frames from many devices are stored through {@link SensorReadingService#recordDeviceReadings},
+ * the write path of the REST API, and changed battery levels through {@link SensorService#reportBattery}.
+ * Devices are identified by their sensor id alone, with no farmer or credentials: the gateway is off
+ * by default, and meant to listen on a network only field devices can reach.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionGateway implements FrameServer.Store {
+
+    private final SensorReadingService readingService;
+    private final SensorService sensorService;
+    private final EquipmentMetrics equipmentMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${equipment.gateway.enabled:false}")
+    private boolean enabled;
+
+    @Value("${equipment.gateway.host:0.0.0.0}")
+    private String host;
+
+    @Value("${equipment.gateway.tcp-port:7070}")
+    private int tcpPort;
+
+    @Value("${equipment.gateway.udp-port:7071}")
+    private int udpPort;
+
+    @Value("${equipment.gateway.batch-size:4096}")
+    private int batchSize;
+
+    @Value("${equipment.gateway.max-delay:20ms}")
+    private Duration maxDelay;
+
+    @Value("${equipment.gateway.writers:4}")
+    private int writers;
+
+    @Value("${equipment.gateway.rate-limit.frames-per-second:10}")
+    private double framesPerSecond;
+
+    @Value("${equipment.gateway.rate-limit.burst:600}")
+    private double burst;
+
+    @Value("${equipment.gateway.battery-interval:15m}")
+    private Duration batteryInterval;
+
+    @Value("${equipment.gateway.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${equipment.gateway.max-devices:1000000}")
+    private int maxDevices;
+
+    @Value("${equipment.gateway.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    @Value("${equipment.readings.unknown-sensor-ttl:5m}")
+    private Duration unknownSensorTtl;
+
+    private FrameServer server;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        // Two batches per writer: one being stored while the next one fills
+        server = new FrameServer(new FrameServer.Settings(host, tcpPort, udpPort, batchSize, 2 * writers, writers,
+                maxDelay.toMillis(), framesPerSecond, burst, batteryInterval.toMillis(), maxConnections, maxDevices,
+                idleTimeout.toMillis(), unknownSensorTtl.toMillis()), this);
+        server.start();
+        Gauge.builder("equipment.gateway.connections", server, FrameServer::getConnectionCount)
+                .description("Number of open device connections to the ingestion gateway")
+                .register(meterRegistry);
+        Gauge.builder("equipment.gateway.devices", server, FrameServer::getDeviceCount)
+                .description("Number of devices rate limited by the ingestion gateway")
+                .register(meterRegistry);
+        log.info("Device ingestion gateway listening on {}, TCP port {}, UDP port {}", host,
+                server.getTcpPort(), server.getUdpPort());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Override
+    public void store(FrameBatch batch) {
+        int size = batch.size();
+        int accepted = 0;
+        if (size > 0) {
+            readingService.recordDeviceReadings(batch.getSensorIds(), batch.getEpochMillis(), batch.getValues(), size,
+                    batch.getAccepted());
+            UUID[] sensorIds = batch.getSensorIds();
+            int[] batteryLevels = batch.getBatteryLevels();
+            boolean[] acceptedReadings = batch.getAccepted();
+            boolean[] unknownSensors = batch.getUnknownSensors();
+            for (int i = 0; i < size; i++) {
+                if (!acceptedReadings[i]) {
+                    unknownSensors[i] = readingService.isUnknownSensor(sensorIds[i]);
+                    continue;
+                }
+                accepted++;
+                if (batteryLevels[i] != FrameFormat.NO_BATTERY) {
+                    reportBattery(sensorIds[i], batteryLevels[i]);
+                }
+            }
+        }
+        equipmentMetrics.recordGatewayFrames(FrameOutcome.ACCEPTED, accepted);
+        equipmentMetrics.recordGatewayFrames(FrameOutcome.REJECTED, size - accepted + batch.getRejected());
+        equipmentMetrics.recordGatewayFrames(FrameOutcome.RATE_LIMITED, batch.getRateLimited());
+    }
+
+    private void reportBattery(UUID sensorId, int batteryLevel) {
+        try {
+            sensorService.reportBattery(sensorId, batteryLevel);
+        } catch (RuntimeException e) {
+            // The readings are stored; the next change of level will be reported
+            log.warn("Could not record battery level {}% of sensor {}: {}", batteryLevel, sensorId, e.getMessage());
+        }
+    }
+}
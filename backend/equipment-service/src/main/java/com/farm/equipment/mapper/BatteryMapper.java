@@ -0,0 +1,25 @@
+package com.farm.equipment.mapper;
+
+import com.farm.equipment.dto.response.BatteryForecastDTO;
+import com.farm.equipment.dto.response.BatteryReadingDTO;
+import com.farm.equipment.model.BatteryForecast;
+import com.farm.equipment.model.BatteryReading;
+import org.mapstruct.*;
+
+/**
+ * MapStruct mapper for battery history and forecasts.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BatteryMapper {
+    
+    BatteryReadingDTO toDTO(BatteryReading reading);
+    
+    /**
+     * Map a forecast; the threshold and days left are set by the caller
+     */
+    @Mapping(target = "batteryLevel", source = "lastLevel")
+    @Mapping(target = "measuredAt", source = "lastAt")
+    @Mapping(target = "threshold", ignore = true)
+    @Mapping(target = "daysUntilThreshold", ignore = true)
+    BatteryForecastDTO toDTO(BatteryForecast forecast);
+}
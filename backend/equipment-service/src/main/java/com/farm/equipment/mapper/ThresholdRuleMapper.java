@@ -0,0 +1,28 @@
+package com.farm.equipment.mapper;
+
+import com.farm.equipment.dto.request.ThresholdRuleRequest;
+import com.farm.equipment.dto.response.ThresholdRuleDTO;
+import com.farm.equipment.model.ThresholdRule;
+import org.mapstruct.*;
+
+/**
+ * MapStruct mapper for ThresholdRule entity and DTOs.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ThresholdRuleMapper {
+    
+    ThresholdRuleDTO toDTO(ThresholdRule rule);
+    
+    /**
+     * Copy a request onto a new or existing rule; the scope (farm, sensor, type) is set by the caller
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "farmId", ignore = true)
+    @Mapping(target = "sensorId", ignore = true)
+    @Mapping(target = "sensorType", ignore = true)
+    @Mapping(target = "hysteresis", defaultValue = "0")
+    @Mapping(target = "durationSeconds", defaultValue = "0L")
+    @Mapping(target = "critical", defaultValue = "false")
+    @Mapping(target = "enabled", defaultValue = "true")
+    void updateEntityFromRequest(ThresholdRuleRequest request, @MappingTarget ThresholdRule rule);
+}
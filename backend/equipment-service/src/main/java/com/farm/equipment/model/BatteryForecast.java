@@ -0,0 +1,136 @@
+package com.farm.equipment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity holding the battery depletion forecast of a sensor: a least-squares line through its
+ * battery levels over time, kept as running weighted sums so that each new level updates it in O(1)
+ * without reading the history again.
+ * <p>
+ * Older levels weigh less, halving every {@code halfLife}, so the line follows a drain that speeds
+ * up as the battery ages. A level more than {@link #RECHARGE} points above the previous one is a new
+ * battery and starts a new line. Times are in days since {@link #originAt}, the first level of the
+ * current battery, which keeps the sums small.
+ */
+@Entity
+@Table(name = "battery_forecasts", indexes = {
+    // The farm's replacement list: sensors by predicted depletion time
+    @Index(name = "idx_battery_forecast_farm_depletion", columnList = "farm_id, depletion_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode(of = "sensorId", callSuper = false)
+public class BatteryForecast extends BaseEntity {
+    
+    /** A level this many points above the previous one is a new battery */
+    public static final int RECHARGE = 5;
+    
+    private static final double DAY_SECONDS = 86_400;
+    /** Depletion further out than this is not forecast */
+    private static final double MAX_HORIZON_DAYS = 3650;
+    
+    @Id
+    @Column(name = "sensor_id", updatable = false, nullable = false)
+    private UUID sensorId;
+    
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+    
+    @Column(name = "origin_at", nullable = false)
+    private LocalDateTime originAt;
+    
+    @Column(name = "last_at", nullable = false)
+    private LocalDateTime lastAt;
+    
+    @Column(name = "last_level", nullable = false)
+    private int lastLevel;
+    
+    // Weighted sums of 1, t, level, t², t·level
+    @Column(name = "sum_weight", nullable = false)
+    private double sumWeight;
+    
+    @Column(name = "sum_t", nullable = false)
+    private double sumT;
+    
+    @Column(name = "sum_level", nullable = false)
+    private double sumLevel;
+    
+    @Column(name = "sum_tt", nullable = false)
+    private double sumTT;
+    
+    @Column(name = "sum_t_level", nullable = false)
+    private double sumTLevel;
+    
+    /** Fitted drain in points per day, or null until the line can be fitted */
+    @Column(name = "drain_per_day")
+    private Double drainPerDay;
+    
+    /** When the battery is predicted to reach the threshold, or null if not draining */
+    @Column(name = "depletion_at")
+    private LocalDateTime depletionAt;
+    
+    /**
+     * Add a battery level to the line and update the forecast
+     * @param at when the level was reported; a level older than the last one is ignored
+     * @param threshold level at which the battery needs replacing
+     * @param halfLife how fast older levels lose weight
+     * @param minSpan how much history of the current battery is needed to forecast
+     */
+    public void record(LocalDateTime at, int level, int threshold, Duration halfLife, Duration minSpan) {
+        if (lastAt != null && at.isBefore(lastAt)) {
+            return;
+        }
+        if (lastAt == null || level > lastLevel + RECHARGE) {
+            originAt = at;
+            lastAt = at;
+            sumWeight = 0;
+            sumT = 0;
+            sumLevel = 0;
+            sumTT = 0;
+            sumTLevel = 0;
+        }
+        double t = days(originAt, at);
+        double decay = Math.pow(0.5, (t - days(originAt, lastAt)) / days(halfLife));
+        sumWeight = sumWeight * decay + 1;
+        sumT = sumT * decay + t;
+        sumLevel = sumLevel * decay + level;
+        sumTT = sumTT * decay + t * t;
+        sumTLevel = sumTLevel * decay + t * level;
+        lastAt = at;
+        lastLevel = level;
+        
+        drainPerDay = null;
+        depletionAt = level <= threshold ? at : null;
+        double denominator = sumWeight * sumTT - sumT * sumT;
+        if (t < days(minSpan) || denominator <= 0) {
+            return;
+        }
+        double slope = (sumWeight * sumTLevel - sumT * sumLevel) / denominator;
+        drainPerDay = -slope;
+        if (slope >= 0 || level <= threshold) {
+            return;
+        }
+        double fitted = (sumLevel - slope * sumT) / sumWeight + slope * t;
+        double daysLeft = Math.max(0, (fitted - threshold) / -slope);
+        if (daysLeft <= MAX_HORIZON_DAYS) {
+            depletionAt = at.plusSeconds(Math.round(daysLeft * DAY_SECONDS));
+        }
+    }
+    
+    private static double days(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis() / (DAY_SECONDS * 1000);
+    }
+    
+    private static double days(Duration duration) {
+        return duration.toMillis() / (DAY_SECONDS * 1000);
+    }
+}
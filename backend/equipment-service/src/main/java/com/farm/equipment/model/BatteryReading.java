@@ -0,0 +1,42 @@
+package com.farm.equipment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity recording a battery level reported by a sensor; the battery history of the sensor.
+ * Rows are only inserted, and deleted with their sensor.
+ */
+@Entity
+@Table(name = "battery_readings", indexes = {
+    @Index(name = "idx_battery_reading_sensor_time", columnList = "sensor_id, recorded_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode(of = "id")
+public class BatteryReading implements Serializable {
+    
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+    
+    @Column(name = "sensor_id", nullable = false, updatable = false)
+    private UUID sensorId;
+    
+    @Column(name = "level", nullable = false, updatable = false)
+    private int level;
+    
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+}
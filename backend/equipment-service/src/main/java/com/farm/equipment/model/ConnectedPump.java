@@ -1,5 +1,6 @@
 package com.farm.equipment.model;
 
+import com.farm.equipment.cache.EquipmentCacheInvalidator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -13,6 +14,7 @@ import java.util.UUID;
  * Entity representing a connected pump equipment.
  */
 @Entity
+@EntityListeners(EquipmentCacheInvalidator.class)
 @Table(name = "connected_pumps", indexes = {
     @Index(name = "idx_pump_farm_id", columnList = "farm_id"),
     @Index(name = "idx_pump_status", columnList = "status")
@@ -28,7 +30,7 @@ public class ConnectedPump extends BaseEntity {
     
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
@@ -0,0 +1,77 @@
+package com.farm.equipment.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Resolutions at which sensor readings are stored: the raw readings, and min/max/avg/count/last
+ * rollups per 1-minute, 1-hour and 1-day bucket. Each one has its own retention.
+ */
+public enum ReadingResolution {
+    RAW(Duration.ZERO, null, null),
+    MINUTE(Duration.ofMinutes(1), ChronoUnit.MINUTES, "minute"),
+    HOUR(Duration.ofHours(1), ChronoUnit.HOURS, "hour"),
+    DAY(Duration.ofDays(1), ChronoUnit.DAYS, "day");
+
+    private static final ReadingResolution[] COARSEST_FIRST = {DAY, HOUR, MINUTE, RAW};
+
+    private final Duration width;
+    private final ChronoUnit unit;
+    private final String sqlUnit;
+
+    ReadingResolution(Duration width, ChronoUnit unit, String sqlUnit) {
+        this.width = width;
+        this.unit = unit;
+        this.sqlUnit = sqlUnit;
+    }
+
+    /**
+     * Width of one bucket; zero for raw readings
+     */
+    public Duration getWidth() {
+        return width;
+    }
+
+    /**
+     * Field name of the bucket for PostgreSQL's {@code date_trunc}; null for raw readings
+     */
+    public String getSqlUnit() {
+        return sqlUnit;
+    }
+
+    public boolean isRollup() {
+        return this != RAW;
+    }
+
+    /**
+     * Start of the bucket holding the given time
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return isRollup() ? time.truncatedTo(unit) : time;
+    }
+
+    /**
+     * Pick the resolution to serve a range query from: the coarsest one giving at least
+     * {@code points} buckets over the range whose retention still covers {@code from}.
+     * When none does, the finest one still covering {@code from} (as many points as are kept),
+     * and when even the daily rollups have expired there, {@link #DAY}.
+     * @param retention how long each resolution is kept
+     */
+    public static ReadingResolution select(LocalDateTime from, LocalDateTime to, int points,
+                                           LocalDateTime now, Map<ReadingResolution, Duration> retention) {
+        Duration bucket = Duration.between(from, to).dividedBy(Math.max(points, 1));
+        ReadingResolution finestRetained = null;
+        for (ReadingResolution resolution : COARSEST_FIRST) {
+            if (from.isBefore(now.minus(retention.get(resolution)))) {
+                continue;
+            }
+            if (resolution.width.compareTo(bucket) <= 0) {
+                return resolution;
+            }
+            finestRetained = resolution;
+        }
+        return finestRetained != null ? finestRetained : DAY;
+    }
+}
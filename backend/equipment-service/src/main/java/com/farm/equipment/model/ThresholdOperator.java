@@ -0,0 +1,11 @@
+package com.farm.equipment.model;
+
+/**
+ * Direction of a threshold rule.
+ */
+public enum ThresholdOperator {
+    /** Violated by readings above the threshold; cleared at or below threshold - hysteresis */
+    ABOVE,
+    /** Violated by readings below the threshold; cleared at or above threshold + hysteresis */
+    BELOW
+}
@@ -0,0 +1,74 @@
+package com.farm.equipment.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.util.UUID;
+
+/**
+ * Entity representing a threshold rule evaluated on incoming sensor readings, such as
+ * "soil moisture below 15% for 10 minutes". A rule applies either to one sensor, or to every
+ * sensor of a type on a farm.
+ */
+@Entity
+@Table(name = "threshold_rules", indexes = {
+    @Index(name = "idx_rule_farm_id", columnList = "farm_id"),
+    @Index(name = "idx_rule_sensor_id", columnList = "sensor_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode(of = "id", callSuper = false)
+public class ThresholdRule extends BaseEntity {
+    
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+    
+    @NotBlank(message = "Rule name is required")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+    
+    @NotNull(message = "Farm ID is required")
+    @Column(name = "farm_id", nullable = false)
+    private UUID farmId;
+    
+    /** The one sensor the rule applies to, or null for every sensor of {@link #sensorType} on the farm */
+    @Column(name = "sensor_id")
+    private UUID sensorId;
+    
+    @NotNull(message = "Sensor type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sensor_type", nullable = false, length = 20)
+    private SensorType sensorType;
+    
+    @NotNull(message = "Operator is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operator", nullable = false, length = 10)
+    private ThresholdOperator operator;
+    
+    @Column(name = "threshold", nullable = false)
+    private double threshold;
+    
+    /** How far back past the threshold a reading must be to clear a violation */
+    @Column(name = "hysteresis", nullable = false)
+    private double hysteresis;
+    
+    /** How long readings must stay past the threshold before the rule is violated; 0 for the first reading */
+    @Column(name = "duration_seconds", nullable = false)
+    private long durationSeconds;
+    
+    @Column(name = "critical", nullable = false)
+    private boolean critical;
+    
+    @Column(name = "enabled", nullable = false)
+    @Builder.Default
+    private boolean enabled = true;
+}
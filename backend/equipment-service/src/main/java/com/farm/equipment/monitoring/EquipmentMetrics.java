@@ -1,128 +1,335 @@
 package com.farm.equipment.monitoring;
 
+import com.farm.equipment.event.EquipmentEventType;
+import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.model.SensorType;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Custom metrics for Equipment Service
- * Tracks business-specific metrics for monitoring and alerting
+ * Tracks business-specific metrics for monitoring and alerting.
+ * <p>
+ * Every tag takes its values from an enum, and meters are kept in arrays indexed by the enum ordinals,
+ * so recording is an array lookup: no registry lookup and no allocation per call. A tagged meter is
+ * registered the first time it is recorded, so only the combinations that occur are published; two
+ * threads recording it first both get the one meter the registry holds. Battery levels are a
+ * distribution per farm, not a gauge per device.
  */
 @Component
 @RequiredArgsConstructor
 public class EquipmentMetrics {
 
+    private static final EquipmentKind[] KINDS = EquipmentKind.values();
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
     private final MeterRegistry meterRegistry;
 
+    private Timer publishTimer;
+    private Counter readingsReceived;
+    private Counter readingsStored;
+    private final Timer[] confirmTimers = new Timer[2];
+    private final Counter[][][] statusChanges = new Counter[KINDS.length][STATUSES.length][STATUSES.length];
+    private final Timer[][] operationTimers = new Timer[KINDS.length][Operation.values().length];
+    private final Counter[] maintenanceRequests = new Counter[KINDS.length];
+    private final Counter[] failures = new Counter[KINDS.length];
+    private final Counter[][] sensorAnomalies = new Counter[SensorType.values().length][Anomaly.values().length];
+    private final Counter[][] messagesPublished = new Counter[EquipmentEventType.values().length][2];
+    private final Counter[][] farmersCalls = new Counter[FarmersCall.values().length][CallOutcome.values().length];
+    private final Timer[][] farmersCallTimers = new Timer[FarmersCall.values().length][CallOutcome.values().length];
+    private final Counter[] ruleTransitions = new Counter[2];
+    private final Counter[] gatewayFrames = new Counter[FrameOutcome.values().length];
+
+    // One distribution per farm; farms are few compared to devices
+    private final Map<UUID, DistributionSummary> batteryByFarm = new ConcurrentHashMap<>();
+
+    /**
+     * Kinds of equipment
+     */
+    public enum EquipmentKind {
+        PUMP,
+        SENSOR
+    }
+
+    /**
+     * Timed equipment operations
+     */
+    public enum Operation {
+        CREATE,
+        UPDATE,
+        DELETE,
+        MAINTENANCE,
+        BULK_IMPORT
+    }
+
+    /**
+     * Kinds of anomalous sensor readings
+     */
+    public enum Anomaly {
+        OUT_OF_RANGE,
+        SPIKE,
+        FLATLINE,
+        BATTERY_DRAIN
+    }
+
+    /**
+     * Outcome of a frame received by the device ingestion gateway
+     */
+    public enum FrameOutcome {
+        ACCEPTED,
+        REJECTED,
+        RATE_LIMITED
+    }
+
+    /**
+     * Farmers Service endpoints called by this service
+     */
+    public enum FarmersCall {
+        CHECK_PERMISSION,
+        FARMER_EXISTS,
+        FARM_EXISTS
+    }
+
+    /**
+     * Outcome of a call to the Farmers Service
+     */
+    public enum CallOutcome {
+        SUCCESS,
+        ERROR,
+        FALLBACK
+    }
+
+    @PostConstruct
+    public void init() {
+        // Event publishing timer and reading counters, recorded for every event and batch
+        publishTimer = Timer.builder("equipment.events.publish")
+                .description("Time spent handing an event to the RabbitMQ client")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100))
+                .register(meterRegistry);
+        readingsReceived = Counter.builder("equipment.readings.received")
+                .description("Number of sensor readings received")
+                .register(meterRegistry);
+        readingsStored = Counter.builder("equipment.readings.stored")
+                .description("Number of sensor readings stored; the others were duplicates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Track the time spent publishing an event, up to the client accepting it
+     */
+    public void recordPublishTime(long nanos) {
+        publishTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Track the time until the broker confirmed (ack) or refused (nack) a published event
+     */
+    public void recordConfirmTime(long nanos, boolean ack) {
+        Timer timer = confirmTimers[index(ack)];
+        if (timer == null) {
+            timer = confirmTimers[index(ack)] = Timer.builder("equipment.events.confirm")
+                    .description("Time from publishing an event to the broker confirming it")
+                    .tag("result", ack ? "ack" : "nack")
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100), Duration.ofMillis(500))
+                    .register(meterRegistry);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Track equipment status changes
-     * Usage: equipmentMetrics.recordStatusChange("PUMP", "OPERATIONAL", "FAULTY");
+     * Usage: equipmentMetrics.recordStatusChange(EquipmentKind.PUMP, EquipmentStatus.ACTIVE, EquipmentStatus.MAINTENANCE);
      */
-    public void recordStatusChange(String equipmentType, String oldStatus, String newStatus) {
-        Counter.builder("equipment.status.changes")
-                .description("Number of equipment status changes")
-                .tag("type", equipmentType)
-                .tag("from", oldStatus)
-                .tag("to", newStatus)
-                .register(meterRegistry)
-                .increment();
+    public void recordStatusChange(EquipmentKind kind, EquipmentStatus oldStatus, EquipmentStatus newStatus) {
+        Counter counter = statusChanges[kind.ordinal()][oldStatus.ordinal()][newStatus.ordinal()];
+        if (counter == null) {
+            counter = statusChanges[kind.ordinal()][oldStatus.ordinal()][newStatus.ordinal()] =
+                    Counter.builder("equipment.status.changes")
+                            .description("Number of equipment status changes")
+                            .tag("type", kind.name())
+                            .tag("from", oldStatus.name())
+                            .tag("to", newStatus.name())
+                            .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track equipment operation duration
-     * Usage: Timer.Sample sample = equipmentMetrics.startTimer();
+     * Usage: long started = System.nanoTime();
      *        // ... perform operation ...
-     *        equipmentMetrics.recordOperationTime(sample, "PUMP", "maintenance");
+     *        equipmentMetrics.recordOperationTime(EquipmentKind.PUMP, Operation.MAINTENANCE, System.nanoTime() - started);
      */
-    public Timer.Sample startTimer() {
-        return Timer.start(meterRegistry);
-    }
-
-    public void recordOperationTime(Timer.Sample sample, String equipmentType, String operation) {
-        sample.stop(Timer.builder("equipment.operation.time")
-                .description("Time taken for equipment operations")
-                .tag("type", equipmentType)
-                .tag("operation", operation)
-                .register(meterRegistry));
+    public void recordOperationTime(EquipmentKind kind, Operation operation, long nanos) {
+        Timer timer = operationTimers[kind.ordinal()][operation.ordinal()];
+        if (timer == null) {
+            timer = operationTimers[kind.ordinal()][operation.ordinal()] = Timer.builder("equipment.operation.time")
+                    .description("Time taken for equipment operations")
+                    .tag("type", kind.name())
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
     }
 
     /**
      * Track maintenance requests
      */
-    public void recordMaintenanceRequest(String equipmentType, String priority) {
-        Counter.builder("equipment.maintenance.requests")
-                .description("Number of maintenance requests")
-                .tag("type", equipmentType)
-                .tag("priority", priority)
-                .register(meterRegistry)
-                .increment();
+    public void recordMaintenanceRequest(EquipmentKind kind) {
+        Counter counter = maintenanceRequests[kind.ordinal()];
+        if (counter == null) {
+            counter = maintenanceRequests[kind.ordinal()] = Counter.builder("equipment.maintenance.requests")
+                    .description("Number of maintenance requests")
+                    .tag("type", kind.name())
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track equipment failures
      */
-    public void recordEquipmentFailure(String equipmentType, String failureReason) {
-        Counter.builder("equipment.failures")
-                .description("Number of equipment failures")
-                .tag("type", equipmentType)
-                .tag("reason", failureReason)
-                .register(meterRegistry)
-                .increment();
+    public void recordEquipmentFailure(EquipmentKind kind) {
+        Counter counter = failures[kind.ordinal()];
+        if (counter == null) {
+            counter = failures[kind.ordinal()] = Counter.builder("equipment.failures")
+                    .description("Number of equipment failures")
+                    .tag("type", kind.name())
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track sensor readings anomalies
      */
-    public void recordSensorAnomaly(String sensorType, String anomalyType) {
-        Counter.builder("sensor.anomalies")
-                .description("Number of sensor reading anomalies")
-                .tag("sensor_type", sensorType)
-                .tag("anomaly_type", anomalyType)
-                .register(meterRegistry)
-                .increment();
+    public void recordSensorAnomaly(SensorType sensorType, Anomaly anomaly) {
+        Counter counter = sensorAnomalies[sensorType.ordinal()][anomaly.ordinal()];
+        if (counter == null) {
+            counter = sensorAnomalies[sensorType.ordinal()][anomaly.ordinal()] = Counter.builder("sensor.anomalies")
+                    .description("Number of sensor reading anomalies")
+                    .tag("sensor_type", sensorType.name())
+                    .tag("anomaly_type", tagValue(anomaly))
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
-     * Track battery levels (for battery-powered equipment)
+     * Track a battery level reading (for battery-powered equipment), in the distribution of its farm
      */
-    public void recordBatteryLevel(String equipmentId, double batteryLevel) {
-        meterRegistry.gauge("equipment.battery.level",
-                java.util.List.of(
-                        io.micrometer.core.instrument.Tag.of("equipment_id", equipmentId)
-                ),
-                batteryLevel);
+    public void recordBatteryLevel(UUID farmId, int batteryLevel) {
+        DistributionSummary summary = batteryByFarm.get(farmId);
+        if (summary == null) {
+            summary = batteryByFarm.computeIfAbsent(farmId, this::batterySummary);
+        }
+        summary.record(batteryLevel);
+    }
+
+    private DistributionSummary batterySummary(UUID farmId) {
+        return DistributionSummary.builder("equipment.battery.level")
+                .description("Battery levels reported by the devices of a farm")
+                .baseUnit("percent")
+                .tag("farm_id", farmId.toString())
+                .serviceLevelObjectives(10, 20, 50, 80)
+                .register(meterRegistry);
     }
 
     /**
      * Track RabbitMQ message publishing
      */
-    public void recordMessagePublished(String messageType, boolean success) {
-        Counter.builder("equipment.messages.published")
-                .description("Number of messages published to RabbitMQ")
-                .tag("type", messageType)
-                .tag("success", String.valueOf(success))
-                .register(meterRegistry)
-                .increment();
+    public void recordMessagePublished(EquipmentEventType eventType, boolean success) {
+        Counter counter = messagesPublished[eventType.ordinal()][index(success)];
+        if (counter == null) {
+            counter = messagesPublished[eventType.ordinal()][index(success)] = Counter.builder("equipment.messages.published")
+                    .description("Number of messages published to RabbitMQ")
+                    .tag("type", eventType.name())
+                    .tag("success", String.valueOf(success))
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track API calls to Farmers Service
      */
-    public void recordFarmersServiceCall(String endpoint, String status, long durationMs) {
-        Counter.builder("equipment.farmers_service.calls")
-                .description("Number of calls to Farmers Service")
-                .tag("endpoint", endpoint)
-                .tag("status", status)
-                .register(meterRegistry)
-                .increment();
-
-        meterRegistry.timer("equipment.farmers_service.call.duration",
-                        "endpoint", endpoint,
-                        "status", status)
-                .record(durationMs, TimeUnit.MILLISECONDS);
+    public void recordFarmersServiceCall(FarmersCall call, CallOutcome outcome, long durationNanos) {
+        Counter counter = farmersCalls[call.ordinal()][outcome.ordinal()];
+        if (counter == null) {
+            counter = farmersCalls[call.ordinal()][outcome.ordinal()] = Counter.builder("equipment.farmers_service.calls")
+                    .description("Number of calls to Farmers Service")
+                    .tag("endpoint", tagValue(call))
+                    .tag("status", tagValue(outcome))
+                    .register(meterRegistry);
+        }
+        Timer timer = farmersCallTimers[call.ordinal()][outcome.ordinal()];
+        if (timer == null) {
+            timer = farmersCallTimers[call.ordinal()][outcome.ordinal()] = Timer.builder("equipment.farmers_service.call.duration")
+                    .description("Duration of calls to Farmers Service")
+                    .tag("endpoint", tagValue(call))
+                    .tag("status", tagValue(outcome))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        counter.increment();
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Track a batch of sensor readings
+     */
+    public void recordReadings(int received, int stored) {
+        readingsReceived.increment(received);
+        readingsStored.increment(stored);
+    }
+
+    /**
+     * Track a threshold rule becoming violated, or cleared
+     */
+    public void recordRuleTransition(boolean violated) {
+        Counter counter = ruleTransitions[index(violated)];
+        if (counter == null) {
+            counter = ruleTransitions[index(violated)] = Counter.builder("equipment.rules.transitions")
+                    .description("Number of threshold rules violated or cleared by sensor readings")
+                    .tag("transition", violated ? "violated" : "cleared")
+                    .register(meterRegistry);
+        }
+        counter.increment();
+    }
+
+    /**
+     * Track device frames received by the ingestion gateway
+     */
+    public void recordGatewayFrames(FrameOutcome outcome, int count) {
+        Counter counter = gatewayFrames[outcome.ordinal()];
+        if (counter == null) {
+            counter = gatewayFrames[outcome.ordinal()] = Counter.builder("equipment.gateway.frames")
+                    .description("Number of device frames received by the ingestion gateway")
+                    .tag("outcome", tagValue(outcome))
+                    .register(meterRegistry);
+        }
+        counter.increment(count);
+    }
+
+    private static int index(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,39 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.BatteryForecast;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for BatteryForecast entity.
+ */
+@Repository
+public interface BatteryForecastRepository extends JpaRepository<BatteryForecast, UUID> {
+    
+    /**
+     * Find the forecast of a sensor, locked until the end of the transaction, to add a level to it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM BatteryForecast f WHERE f.sensorId = :sensorId")
+    Optional<BatteryForecast> findForUpdate(@Param("sensorId") UUID sensorId);
+    
+    /**
+     * Find the sensors of a farm predicted to reach the battery threshold by a given time, soonest first.
+     * Served by the (farm_id, depletion_at) index
+     */
+    @Query(value = "SELECT f FROM BatteryForecast f WHERE f.farmId = :farmId AND f.depletionAt <= :before " +
+                   "ORDER BY f.depletionAt, f.sensorId",
+           countQuery = "SELECT COUNT(f) FROM BatteryForecast f WHERE f.farmId = :farmId AND f.depletionAt <= :before")
+    Page<BatteryForecast> findDepletingBefore(@Param("farmId") UUID farmId, @Param("before") LocalDateTime before,
+                                              Pageable pageable);
+}
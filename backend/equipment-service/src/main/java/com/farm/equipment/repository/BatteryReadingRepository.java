@@ -0,0 +1,31 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.BatteryReading;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository interface for BatteryReading entity.
+ */
+@Repository
+public interface BatteryReadingRepository extends JpaRepository<BatteryReading, UUID> {
+    
+    /**
+     * Find the battery history of a sensor, newest first
+     */
+    Page<BatteryReading> findBySensorIdOrderByRecordedAtDesc(UUID sensorId, Pageable pageable);
+    
+    /**
+     * Delete the battery history of a sensor
+     */
+    @Modifying
+    @Query("DELETE FROM BatteryReading r WHERE r.sensorId = :sensorId")
+    int deleteBySensorId(@Param("sensorId") UUID sensorId);
+}
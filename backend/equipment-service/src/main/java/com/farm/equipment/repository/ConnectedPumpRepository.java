@@ -2,16 +2,20 @@ package com.farm.equipment.repository;
 
 import com.farm.equipment.model.ConnectedPump;
 import com.farm.equipment.model.EquipmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for ConnectedPump entity.
@@ -29,6 +33,18 @@ public interface ConnectedPumpRepository extends JpaRepository<ConnectedPump, UU
      */
     Page<ConnectedPump> findByFarmId(UUID farmId, Pageable pageable);
     
+    /**
+     * Stream all pumps for a farm through a forward-only cursor.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM ConnectedPump p WHERE p.farmId = :farmId ORDER BY p.id")
+    Stream<ConnectedPump> streamByFarmId(@Param("farmId") UUID farmId);
+    
     /**
      * Find pumps by status
      */
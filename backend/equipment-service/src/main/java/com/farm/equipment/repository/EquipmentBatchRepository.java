@@ -0,0 +1,94 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.ConnectedPump;
+import com.farm.equipment.model.ConnectedSensor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for bulk equipment imports.
+ * Bypasses the JPA persistence context; combined with reWriteBatchedInserts on the
+ * PostgreSQL driver each batch is sent as a single multi-row INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class EquipmentBatchRepository {
+    
+    private static final String INSERT_SENSOR_SQL =
+            "INSERT INTO connected_sensors (id, type, farm_id, battery, last_communication, location, model, " +
+            "installation_date, is_active, alert_threshold, last_maintenance_date, next_maintenance_date, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_PUMP_SQL =
+            "INSERT INTO connected_pumps (id, farm_id, model, status, max_flow, location, installation_date, " +
+            "last_maintenance_date, next_maintenance_date, maintenance_notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${equipment.bulk-import.batch-size:1000}")
+    private int batchSize;
+    
+    /**
+     * Insert sensors in JDBC batches within a single transaction
+     * @param sensors sensors with pre-assigned IDs and audit timestamps
+     */
+    @Transactional
+    public void insertSensors(List<ConnectedSensor> sensors) {
+        log.debug("Batch inserting {} sensors (batch size {})", sensors.size(), batchSize);
+        jdbcTemplate.batchUpdate(INSERT_SENSOR_SQL, sensors, batchSize, (ps, sensor) -> {
+            ps.setObject(1, sensor.getId());
+            ps.setString(2, sensor.getType().name());
+            ps.setObject(3, sensor.getFarmId());
+            ps.setInt(4, sensor.getBattery());
+            setTimestamp(ps, 5, sensor.getLastCommunication());
+            ps.setString(6, sensor.getLocation());
+            ps.setString(7, sensor.getModel());
+            setTimestamp(ps, 8, sensor.getInstallationDate());
+            ps.setBoolean(9, sensor.isActive());
+            ps.setObject(10, sensor.getAlertThreshold(), Types.INTEGER);
+            setTimestamp(ps, 11, sensor.getLastMaintenanceDate());
+            setTimestamp(ps, 12, sensor.getNextMaintenanceDate());
+            setTimestamp(ps, 13, sensor.getCreatedAt());
+            setTimestamp(ps, 14, sensor.getUpdatedAt());
+        });
+    }
+    
+    /**
+     * Insert pumps in JDBC batches within a single transaction
+     * @param pumps pumps with pre-assigned IDs and audit timestamps
+     */
+    @Transactional
+    public void insertPumps(List<ConnectedPump> pumps) {
+        log.debug("Batch inserting {} pumps (batch size {})", pumps.size(), batchSize);
+        jdbcTemplate.batchUpdate(INSERT_PUMP_SQL, pumps, batchSize, (ps, pump) -> {
+            ps.setObject(1, pump.getId());
+            ps.setObject(2, pump.getFarmId());
+            ps.setString(3, pump.getModel());
+            ps.setString(4, pump.getStatus().name());
+            ps.setBigDecimal(5, pump.getMaxFlow());
+            ps.setString(6, pump.getLocation());
+            setTimestamp(ps, 7, pump.getInstallationDate());
+            setTimestamp(ps, 8, pump.getLastMaintenanceDate());
+            setTimestamp(ps, 9, pump.getNextMaintenanceDate());
+            ps.setString(10, pump.getMaintenanceNotes());
+            setTimestamp(ps, 11, pump.getCreatedAt());
+            setTimestamp(ps, 12, pump.getUpdatedAt());
+        });
+    }
+    
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        ps.setObject(index, value, Types.TIMESTAMP);
+    }
+}
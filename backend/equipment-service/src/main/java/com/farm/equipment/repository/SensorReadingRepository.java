@@ -0,0 +1,179 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.ReadingResolution;
+import com.farm.equipment.series.ReadingBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to raw sensor readings and their rollups (tables in {@code db/sensor-readings.sql}).
+ * <p>
+ * A batch of readings is stored and rolled up by a single statement: the rollups are fed from
+ * the rows the raw insert actually stored, so a repeated reading is neither stored nor counted
+ * twice, and a late reading is merged into the buckets it belongs to whenever it arrives.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SensorReadingRepository {
+    
+    private static final String ROLLUP_RESOLUTIONS = Arrays.stream(ReadingResolution.values())
+            .filter(ReadingResolution::isRollup)
+            .map(resolution -> "('" + resolution.name() + "', '" + resolution.getSqlUnit() + "')")
+            .collect(Collectors.joining(", "));
+    
+    private static final String INSERT_SQL =
+            "WITH input AS (" +
+            "  SELECT * FROM unnest(?::uuid[], ?::bigint[], ?::float8[]) AS i(sensor_id, epoch_ms, value)" +
+            "), inserted AS (" +
+            "  INSERT INTO sensor_readings (sensor_id, ts, value)" +
+            "  SELECT sensor_id, TIMESTAMP 'epoch' + epoch_ms * INTERVAL '1 millisecond', value FROM input" +
+            "  ON CONFLICT (sensor_id, ts) DO NOTHING" +
+            "  RETURNING sensor_id, ts, value" +
+            "), rollups AS (" +
+            "  INSERT INTO sensor_reading_rollups AS r" +
+            "    (sensor_id, resolution, bucket, min_value, max_value, sum_value, count, last_ts, last_value)" +
+            "  SELECT i.sensor_id, res.resolution, date_trunc(res.unit, i.ts), min(i.value), max(i.value)," +
+            "         sum(i.value), count(*), max(i.ts), (array_agg(i.value ORDER BY i.ts DESC))[1]" +
+            "  FROM inserted i CROSS JOIN (VALUES " + ROLLUP_RESOLUTIONS + ") AS res(resolution, unit)" +
+            "  GROUP BY i.sensor_id, res.resolution, date_trunc(res.unit, i.ts)" +
+            // Same lock order in concurrent batches
+            "  ORDER BY 1, 2, 3" +
+            "  ON CONFLICT (sensor_id, resolution, bucket) DO UPDATE SET" +
+            "    min_value = LEAST(r.min_value, EXCLUDED.min_value)," +
+            "    max_value = GREATEST(r.max_value, EXCLUDED.max_value)," +
+            "    sum_value = r.sum_value + EXCLUDED.sum_value," +
+            "    count = r.count + EXCLUDED.count," +
+            "    last_value = CASE WHEN EXCLUDED.last_ts >= r.last_ts THEN EXCLUDED.last_value ELSE r.last_value END," +
+            "    last_ts = GREATEST(r.last_ts, EXCLUDED.last_ts)" +
+            ") " +
+            "SELECT count(*) FROM inserted";
+    
+    private static final String FIND_RAW_SQL =
+            "SELECT (EXTRACT(EPOCH FROM ts) * 1000)::bigint, value FROM sensor_readings " +
+            "WHERE sensor_id = ? AND ts >= ? AND ts < ? ORDER BY ts";
+    
+    private static final String FIND_ROLLUPS_SQL =
+            "SELECT (EXTRACT(EPOCH FROM bucket) * 1000)::bigint, min_value, max_value, sum_value, count, last_value " +
+            "FROM sensor_reading_rollups " +
+            "WHERE sensor_id = ? AND resolution = ? AND bucket >= ? AND bucket < ? ORDER BY bucket";
+    
+    private static final String STREAM_RAW_SQL =
+            "SELECT sensor_id, (EXTRACT(EPOCH FROM ts) * 1000)::bigint, value FROM sensor_readings " +
+            "WHERE ts >= ? AND ts < ? ORDER BY sensor_id, ts";
+    
+    private static final String PURGE_RAW_SQL =
+            "DELETE FROM sensor_readings WHERE ctid = ANY (ARRAY(" +
+            "SELECT ctid FROM sensor_readings WHERE ts < ? LIMIT ?))";
+    
+    private static final String PURGE_ROLLUPS_SQL =
+            "DELETE FROM sensor_reading_rollups WHERE ctid = ANY (ARRAY(" +
+            "SELECT ctid FROM sensor_reading_rollups WHERE resolution = ? AND bucket < ? LIMIT ?))";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Receives streamed raw readings
+     */
+    @FunctionalInterface
+    public interface ReadingSink {
+        void accept(UUID sensorId, long epochMillis, double value) throws IOException;
+    }
+    
+    /**
+     * Store readings and merge them into the rollups of every resolution.
+     * The three arrays are parallel; readings of several sensors may be mixed.
+     * @param epochMillis reading times, as UTC epoch milliseconds
+     * @return the number of readings stored; the others were already stored
+     */
+    public int insert(UUID[] sensorIds, long[] epochMillis, double[] values) {
+        // JDBC arrays take objects only
+        Long[] times = new Long[epochMillis.length];
+        Double[] boxedValues = new Double[values.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = epochMillis[i];
+            boxedValues[i] = values[i];
+        }
+        Integer stored = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", sensorIds));
+            ps.setArray(2, con.createArrayOf("int8", times));
+            ps.setArray(3, con.createArrayOf("float8", boxedValues));
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return stored != null ? stored : 0;
+    }
+    
+    /**
+     * Add the raw readings of a sensor in [from, to) to a buffer, oldest first
+     */
+    public void findRaw(UUID sensorId, LocalDateTime from, LocalDateTime to, ReadingBuffer into) {
+        jdbcTemplate.query(FIND_RAW_SQL, (RowCallbackHandler) rs -> into.accept(rs.getLong(1), rs.getDouble(2)),
+                sensorId, from, to);
+    }
+    
+    /**
+     * Add the rollup buckets of a sensor starting in [from, to) to a buffer, oldest first
+     */
+    public void findRollups(UUID sensorId, ReadingResolution resolution, LocalDateTime from, LocalDateTime to,
+                            ReadingBuffer into) {
+        jdbcTemplate.query(FIND_ROLLUPS_SQL, (RowCallbackHandler) rs -> {
+            long count = rs.getLong(5);
+            into.add(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4) / count, rs.getDouble(6), count);
+        }, sensorId, resolution.name(), from, to);
+    }
+    
+    /**
+     * Stream the raw readings of every sensor in [from, to), ordered by sensor then time, without
+     * holding them in memory: the driver fetches {@code fetchSize} rows at a time, which PostgreSQL
+     * only does inside a transaction.
+     * @return the number of readings streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamRaw(LocalDateTime from, LocalDateTime to, int fetchSize, ReadingSink sink) {
+        long[] count = new long[1];
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_RAW_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                sink.accept(rs.getObject(1, UUID.class), rs.getLong(2), rs.getDouble(3));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Streaming readings aborted", e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+    
+    /**
+     * Delete up to {@code limit} raw readings older than {@code before}
+     * @return the number deleted
+     */
+    public int purgeRaw(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PURGE_RAW_SQL, before, limit);
+    }
+    
+    /**
+     * Delete up to {@code limit} rollup buckets of a resolution starting before {@code before}
+     * @return the number deleted
+     */
+    public int purgeRollups(ReadingResolution resolution, LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PURGE_ROLLUPS_SQL, resolution.name(), before, limit);
+    }
+}
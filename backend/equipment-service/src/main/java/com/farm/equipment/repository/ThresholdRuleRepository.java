@@ -0,0 +1,32 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.ThresholdRule;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for ThresholdRule entity.
+ */
+@Repository
+public interface ThresholdRuleRepository extends JpaRepository<ThresholdRule, UUID> {
+    
+    /**
+     * Find the rules of a farm, sensor rules included
+     */
+    Page<ThresholdRule> findByFarmId(UUID farmId, Pageable pageable);
+    
+    /**
+     * Find the rules of one sensor
+     */
+    List<ThresholdRule> findBySensorId(UUID sensorId);
+    
+    /**
+     * Find the rules to evaluate
+     */
+    List<ThresholdRule> findByEnabledTrue();
+}
@@ -0,0 +1,76 @@
+package com.farm.equipment.rules;
+
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.model.ThresholdOperator;
+import com.farm.equipment.model.ThresholdRule;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable, evaluation-ready copy of a {@link ThresholdRule}. A reload keeps the same instance
+ * for a rule that did not change, which is how per-sensor state survives reloads.
+ */
+final class CompiledRule {
+
+    final UUID id;
+    final String name;
+    final UUID farmId;
+    final UUID sensorId;
+    final SensorType sensorType;
+    final ThresholdOperator operator;
+    final double threshold;
+    final long durationMillis;
+    final boolean critical;
+    private final boolean above;
+    private final double clearLevel;
+    private final double hysteresis;
+    private final LocalDateTime revision;
+
+    CompiledRule(ThresholdRule rule) {
+        this.id = rule.getId();
+        this.name = rule.getName();
+        this.farmId = rule.getFarmId();
+        this.sensorId = rule.getSensorId();
+        this.sensorType = rule.getSensorType();
+        this.operator = rule.getOperator();
+        this.threshold = rule.getThreshold();
+        this.hysteresis = rule.getHysteresis();
+        this.durationMillis = rule.getDurationSeconds() * 1000;
+        this.critical = rule.isCritical();
+        this.above = operator == ThresholdOperator.ABOVE;
+        this.clearLevel = above ? threshold - hysteresis : threshold + hysteresis;
+        this.revision = rule.getUpdatedAt();
+    }
+
+    /**
+     * A reading past the threshold
+     */
+    boolean breaches(double value) {
+        return above ? value > threshold : value < threshold;
+    }
+
+    /**
+     * A reading back past the threshold by at least the hysteresis
+     */
+    boolean clears(double value) {
+        return above ? value <= clearLevel : value >= clearLevel;
+    }
+
+    /**
+     * Whether the rule is still this one; any update of the row counts as a change
+     */
+    boolean isCurrent(ThresholdRule rule) {
+        return Objects.equals(revision, rule.getUpdatedAt())
+                && threshold == rule.getThreshold()
+                && hysteresis == rule.getHysteresis()
+                && operator == rule.getOperator()
+                && durationMillis == rule.getDurationSeconds() * 1000
+                && critical == rule.isCritical()
+                && Objects.equals(sensorId, rule.getSensorId())
+                && sensorType == rule.getSensorType()
+                && Objects.equals(farmId, rule.getFarmId())
+                && Objects.equals(name, rule.getName());
+    }
+}
@@ -0,0 +1,98 @@
+package com.farm.equipment.rules;
+
+import com.farm.equipment.model.SensorType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the enabled rules, indexed by sensor and by (farm, sensor type),
+ * so that finding the rules of a reading costs two hash lookups whatever the number of rules.
+ * A reload builds a new index and swaps it in; each index has a new {@link #version}.
+ */
+final class RuleIndex {
+
+    static final RuleIndex EMPTY = new RuleIndex(0, List.of());
+
+    private static final CompiledRule[] NONE = new CompiledRule[0];
+    private static final int SENSOR_TYPES = SensorType.values().length;
+
+    final long version;
+    private final Map<UUID, CompiledRule> byId = new HashMap<>();
+    private final Map<UUID, CompiledRule[]> bySensor = new HashMap<>();
+    private final Map<UUID, CompiledRule[][]> byFarm = new HashMap<>();
+
+    RuleIndex(long version, Collection<CompiledRule> rules) {
+        this.version = version;
+        Map<UUID, List<CompiledRule>> sensorRules = new HashMap<>();
+        Map<UUID, List<List<CompiledRule>>> farmRules = new HashMap<>();
+        for (CompiledRule rule : rules) {
+            byId.put(rule.id, rule);
+            if (rule.sensorId != null) {
+                sensorRules.computeIfAbsent(rule.sensorId, id -> new ArrayList<>()).add(rule);
+            } else {
+                List<List<CompiledRule>> types = farmRules.computeIfAbsent(rule.farmId, id -> {
+                    List<List<CompiledRule>> lists = new ArrayList<>();
+                    for (int i = 0; i < SENSOR_TYPES; i++) {
+                        lists.add(new ArrayList<>());
+                    }
+                    return lists;
+                });
+                types.get(rule.sensorType.ordinal()).add(rule);
+            }
+        }
+        sensorRules.forEach((sensorId, list) -> bySensor.put(sensorId, list.toArray(NONE)));
+        farmRules.forEach((farmId, types) -> {
+            CompiledRule[][] arrays = new CompiledRule[SENSOR_TYPES][];
+            for (int i = 0; i < SENSOR_TYPES; i++) {
+                arrays[i] = types.get(i).isEmpty() ? NONE : types.get(i).toArray(NONE);
+            }
+            byFarm.put(farmId, arrays);
+        });
+    }
+
+    /**
+     * The rule with this id, if enabled
+     */
+    CompiledRule get(UUID ruleId) {
+        return byId.get(ruleId);
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Whether any rule applies to a sensor; allocates nothing
+     */
+    boolean hasRules(UUID sensorId, UUID farmId, SensorType type) {
+        if (bySensor.containsKey(sensorId)) {
+            return true;
+        }
+        CompiledRule[][] farm = byFarm.get(farmId);
+        return farm != null && farm[type.ordinal()].length > 0;
+    }
+
+    /**
+     * The rules applying to a sensor: its own, then those of its farm for its type
+     */
+    CompiledRule[] rulesFor(UUID sensorId, UUID farmId, SensorType type) {
+        CompiledRule[] own = bySensor.getOrDefault(sensorId, NONE);
+        CompiledRule[][] farm = byFarm.get(farmId);
+        CompiledRule[] shared = farm != null ? farm[type.ordinal()] : NONE;
+        if (shared.length == 0) {
+            return own;
+        }
+        if (own.length == 0) {
+            return shared;
+        }
+        CompiledRule[] all = new CompiledRule[own.length + shared.length];
+        System.arraycopy(own, 0, all, 0, own.length);
+        System.arraycopy(shared, 0, all, own.length, shared.length);
+        return all;
+    }
+}
@@ -0,0 +1,41 @@
+package com.farm.equipment.rules;
+
+/**
+ * Evaluation state of the rules of one sensor, in arrays parallel to its rules:
+ * when each rule's current run of readings past the threshold started ({@link #IDLE} if none),
+ * and whether the rule is violated (an event was published and no clear yet).
+ * Rebuilt against each new {@link RuleIndex}, carrying over the state of unchanged rules.
+ */
+final class SensorRuleState {
+
+    static final long IDLE = Long.MIN_VALUE;
+
+    final long version;
+    final CompiledRule[] rules;
+    final long[] since;
+    final boolean[] violated;
+    /** Time of the last reading evaluated; older readings are skipped */
+    long lastTimestamp = Long.MIN_VALUE;
+
+    SensorRuleState(long version, CompiledRule[] rules, SensorRuleState previous) {
+        this.version = version;
+        this.rules = rules;
+        this.since = new long[rules.length];
+        this.violated = new boolean[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            since[i] = IDLE;
+            if (previous != null) {
+                for (int j = 0; j < previous.rules.length; j++) {
+                    if (previous.rules[j] == rules[i]) {
+                        since[i] = previous.since[j];
+                        violated[i] = previous.violated[j];
+                        break;
+                    }
+                }
+            }
+        }
+        if (previous != null) {
+            lastTimestamp = previous.lastTimestamp;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.farm.equipment.rules;
+
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.model.ThresholdRule;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.repository.ThresholdRuleRepository;
+import com.farm.equipment.service.EquipmentEventPublisher;
+import com.farm.events.payload.ThresholdClearedPayload;
+import com.farm.events.payload.ThresholdViolatedPayload;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates threshold rules on incoming sensor readings.
+ * <p>
+ * A rule is violated once readings have stayed past its threshold for its duration, measured on
+ * the readings' own timestamps, and cleared once a reading is back past the threshold by its
+ * hysteresis; each violation publishes one {@code THRESHOLD_VIOLATED} event and one
+ * {@code THRESHOLD_CLEARED} event. A reading is only checked against the rules of its sensor and
+ * of its farm for its type ({@link RuleIndex}); sensors without rules cost two map lookups.
+ * <p>
+ * Rules are reloaded from the database every {@code equipment.rules.refresh-interval-ms}, and at
+ * once when changed through this replica; unchanged rules keep their state across reloads.
+ * State is per replica, so a violation needing a duration is only seen if the sensor's readings
+ * reach the same replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ThresholdRuleEngine {
+
+    private final ThresholdRuleRepository ruleRepository;
+    private final EquipmentEventPublisher eventPublisher;
+    private final EquipmentMetrics equipmentMetrics;
+
+    private final Map<UUID, SensorRuleState> states = new ConcurrentHashMap<>();
+    private volatile RuleIndex index = RuleIndex.EMPTY;
+
+    /**
+     * Load the enabled rules; keeps the current index if nothing changed
+     */
+    @Scheduled(fixedDelayString = "${equipment.rules.refresh-interval-ms:30000}", initialDelay = 0)
+    public synchronized void reload() {
+        List<ThresholdRule> rules;
+        try {
+            rules = ruleRepository.findByEnabledTrue();
+        } catch (RuntimeException e) {
+            log.warn("Could not reload threshold rules, keeping {} loaded: {}", index.size(), e.getMessage());
+            return;
+        }
+        RuleIndex current = index;
+        boolean changed = rules.size() != current.size();
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (ThresholdRule rule : rules) {
+            CompiledRule existing = current.get(rule.getId());
+            if (existing != null && existing.isCurrent(rule)) {
+                compiled.add(existing);
+            } else {
+                compiled.add(new CompiledRule(rule));
+                changed = true;
+            }
+        }
+        if (changed) {
+            index = new RuleIndex(current.version + 1, compiled);
+            log.info("Loaded {} threshold rules", compiled.size());
+        }
+    }
+
+    /**
+     * Number of rules being evaluated
+     */
+    public int getRuleCount() {
+        return index.size();
+    }
+
+    /**
+     * Evaluate a batch of readings of one sensor, in order; readings older than the last one
+     * evaluated for the sensor are skipped
+     * @param epochMillis reading times, as UTC epoch milliseconds
+     */
+    public void evaluate(UUID sensorId, UUID farmId, SensorType type, long[] epochMillis, double[] values) {
+        RuleIndex current = index;
+        if (!current.hasRules(sensorId, farmId, type)) {
+            if (!states.isEmpty()) {
+                states.remove(sensorId);
+            }
+            return;
+        }
+        List<EquipmentEvent> events = null;
+        while (true) {
+            SensorRuleState state = states.get(sensorId);
+            if (state == null || state.version != current.version) {
+                SensorRuleState rebuilt = new SensorRuleState(current.version,
+                        current.rulesFor(sensorId, farmId, type), state);
+                if (state == null ? states.putIfAbsent(sensorId, rebuilt) != null : !states.replace(sensorId, state, rebuilt)) {
+                    continue;
+                }
+                state = rebuilt;
+            }
+            synchronized (state) {
+                // Replaced by a concurrent batch after a reload: evaluate on the new state
+                if (states.get(sensorId) != state) {
+                    continue;
+                }
+                for (int r = 0; r < epochMillis.length; r++) {
+                    long timestamp = epochMillis[r];
+                    if (timestamp <= state.lastTimestamp) {
+                        continue;
+                    }
+                    state.lastTimestamp = timestamp;
+                    events = evaluate(sensorId, farmId, state, timestamp, values[r], events);
+                }
+            }
+            break;
+        }
+        if (events != null) {
+            for (EquipmentEvent event : events) {
+                eventPublisher.publishThresholdEvent(event);
+            }
+        }
+    }
+
+    private List<EquipmentEvent> evaluate(UUID sensorId, UUID farmId, SensorRuleState state, long timestamp, double value,
+                                          List<EquipmentEvent> events) {
+        CompiledRule[] rules = state.rules;
+        for (int i = 0; i < rules.length; i++) {
+            CompiledRule rule = rules[i];
+            if (state.violated[i]) {
+                if (rule.clears(value)) {
+                    state.violated[i] = false;
+                    events = add(events, EquipmentEvent.createThresholdCleared(sensorId, farmId,
+                            new ThresholdClearedPayload(rule.id, rule.name, value, toDateTime(state.since[i]))));
+                    state.since[i] = SensorRuleState.IDLE;
+                    equipmentMetrics.recordRuleTransition(false);
+                }
+            } else if (rule.breaches(value)) {
+                if (state.since[i] == SensorRuleState.IDLE) {
+                    state.since[i] = timestamp;
+                }
+                if (timestamp - state.since[i] >= rule.durationMillis) {
+                    state.violated[i] = true;
+                    events = add(events, EquipmentEvent.createThresholdViolated(sensorId, farmId,
+                            new ThresholdViolatedPayload(rule.id, rule.name, rule.operator.name(), rule.threshold, value,
+                                    toDateTime(state.since[i]), rule.critical)));
+                    equipmentMetrics.recordRuleTransition(true);
+                }
+            } else {
+                state.since[i] = SensorRuleState.IDLE;
+            }
+        }
+        return events;
+    }
+
+    private static List<EquipmentEvent> add(List<EquipmentEvent> events, EquipmentEvent event) {
+        List<EquipmentEvent> list = events != null ? events : new ArrayList<>(2);
+        list.add(event);
+        return list;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,183 @@
+package com.farm.equipment.series;
+
+/**
+ * Ways of reducing a series to at most a given number of points for charting. Both work on the
+ * {@link ReadingBuffer} arrays, without an object per point, and only return the indexes of the points to keep:
+ * every point returned is a reading or bucket of the series, unchanged.
+ */
+public enum Downsampling {
+
+    /**
+     * Largest-Triangle-Three-Buckets (Steinarsson, "Downsampling Time Series for Visual
+     * Representation", 2013). Splits the series into equal runs of points and keeps from each the
+     * point forming the largest triangle with the point kept before and the average of the next run.
+     * First and last points are always kept. Keeps the visual shape, including isolated spikes, with
+     * exactly {@code maxPoints} points.
+     * <p>
+     * Each point counts as its minimum or maximum, whichever lies further from its average: for a
+     * raw reading that is the reading, and a spike within a rollup bucket still stands out rather
+     * than being averaged away.
+     */
+    LTTB(3) {
+        @Override
+        int downsample(ReadingBuffer buffer, long from, long to, int maxPoints, int[] selected) {
+            int n = buffer.size();
+            long[] timestamps = buffer.timestamps();
+            double[] values = extremes(buffer);
+            long origin = timestamps[0];
+            double every = (double) (n - 2) / (maxPoints - 2);
+
+            int length = 0;
+            int kept = 0;
+            selected[length++] = 0;
+            int rangeStart = 1;
+            for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+                int rangeEnd = (int) ((bucket + 1) * every) + 1;
+                // Average of the next run (the last point for the last run)
+                int nextStart = rangeEnd;
+                int nextEnd = Math.min((int) ((bucket + 2) * every) + 1, n);
+                double nextX = 0;
+                double nextY = 0;
+                for (int i = nextStart; i < nextEnd; i++) {
+                    nextX += timestamps[i] - origin;
+                    nextY += values[i];
+                }
+                int nextCount = nextEnd - nextStart;
+                nextX /= nextCount;
+                nextY /= nextCount;
+
+                double keptX = timestamps[kept] - origin;
+                double keptY = values[kept];
+                double largest = -1;
+                int chosen = rangeStart;
+                for (int i = rangeStart; i < rangeEnd; i++) {
+                    // Twice the triangle's area: the factor does not change which is largest
+                    double area = Math.abs((keptX - nextX) * (values[i] - keptY)
+                            - (keptX - (timestamps[i] - origin)) * (nextY - keptY));
+                    if (area > largest) {
+                        largest = area;
+                        chosen = i;
+                    }
+                }
+                selected[length++] = chosen;
+                kept = chosen;
+                rangeStart = rangeEnd;
+            }
+            selected[length++] = n - 1;
+            return length;
+        }
+
+        /**
+         * The minimum or maximum of each point, whichever lies further from its average
+         */
+        private double[] extremes(ReadingBuffer buffer) {
+            int n = buffer.size();
+            double[] min = buffer.min();
+            double[] max = buffer.max();
+            double[] avg = buffer.avg();
+            double[] extremes = new double[n];
+            for (int i = 0; i < n; i++) {
+                extremes[i] = max[i] - avg[i] >= avg[i] - min[i] ? max[i] : min[i];
+            }
+            return extremes;
+        }
+    },
+
+    /**
+     * M4 (Jugel et al., "M4: A Visualization-Oriented Time Series Data Aggregation", VLDB 2014).
+     * Splits [from, to) into {@code maxPoints / 4} equal time intervals, one per pixel column, and
+     * keeps from each the first and last point and the points with the lowest minimum and highest
+     * maximum. A line chart drawn that many pixels wide is the same as from the whole series, and
+     * every extreme survives; intervals with fewer distinct points return fewer.
+     */
+    M4(4) {
+        @Override
+        int downsample(ReadingBuffer buffer, long from, long to, int maxPoints, int[] selected) {
+            int n = buffer.size();
+            long[] timestamps = buffer.timestamps();
+            double[] min = buffer.min();
+            double[] max = buffer.max();
+            int columns = maxPoints / 4;
+            double width = (double) (to - from) / columns;
+
+            int length = 0;
+            int i = 0;
+            while (i < n) {
+                int column = column(timestamps[i], from, width, columns);
+                // End of the interval, relative to from; the last one takes everything up to the end
+                double end = column == columns - 1 ? Double.POSITIVE_INFINITY : (column + 1) * width;
+                int first = i;
+                int lowest = i;
+                int highest = i;
+                for (i++; i < n && timestamps[i] - from < end; i++) {
+                    if (min[i] < min[lowest]) {
+                        lowest = i;
+                    }
+                    if (max[i] > max[highest]) {
+                        highest = i;
+                    }
+                }
+                int lastIndex = i - 1;
+                // The four indexes in order, without repeats
+                selected[length++] = first;
+                int low = Math.min(lowest, highest);
+                int high = Math.max(lowest, highest);
+                if (low != first) {
+                    selected[length++] = low;
+                }
+                if (high != low && high != first) {
+                    selected[length++] = high;
+                }
+                if (lastIndex != high && lastIndex != first) {
+                    selected[length++] = lastIndex;
+                }
+            }
+            return length;
+        }
+
+        /**
+         * Interval of a timestamp; a rollup bucket starting before {@code from} counts in the first
+         */
+        private int column(long timestamp, long from, double width, int columns) {
+            return (int) Math.max(0, Math.min((long) ((timestamp - from) / width), columns - 1));
+        }
+    };
+
+    private final int minPoints;
+
+    Downsampling(int minPoints) {
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Smallest {@code maxPoints} the method works with
+     */
+    public int getMinPoints() {
+        return minPoints;
+    }
+
+    /**
+     * Select the points of the buffer to keep: at most {@code maxPoints} of them, or all of them
+     * if the buffer is no larger than that
+     * @param from start of the queried range, as UTC epoch milliseconds
+     * @param to end of the queried range
+     * @param selected receives the indexes to keep, in ascending order; needs room for
+     *                 {@code min(buffer.size(), maxPoints)} of them
+     * @return the number of indexes written
+     */
+    public int select(ReadingBuffer buffer, long from, long to, int maxPoints, int[] selected) {
+        if (maxPoints < minPoints) {
+            throw new IllegalArgumentException(name() + " needs maxPoints of at least " + minPoints);
+        }
+        int n = buffer.size();
+        if (n <= maxPoints) {
+            for (int i = 0; i < n; i++) {
+                selected[i] = i;
+            }
+            return n;
+        }
+        return downsample(buffer, from, to, maxPoints, selected);
+    }
+
+    abstract int downsample(ReadingBuffer buffer, long from, long to, int maxPoints, int[] selected);
+}
@@ -0,0 +1,130 @@
+package com.farm.equipment.series;
+
+import com.farm.equipment.coldstore.ReadingConsumer;
+import com.farm.equipment.dto.response.ReadingSeriesDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A series of readings or rollup buckets held in parallel primitive arrays, one per column of
+ * {@link ReadingSeriesDTO.Point}, so a range query can be read and {@link Downsampling downsampled}
+ * without an object per point; only the points returned are built as DTOs.
+ * <p>
+ * Points are added oldest first. Not thread-safe.
+ */
+public final class ReadingBuffer implements ReadingConsumer {
+
+    private long[] timestamps;
+    private double[] min;
+    private double[] max;
+    private double[] avg;
+    private double[] last;
+    private long[] count;
+    private int size;
+
+    public ReadingBuffer() {
+        this(1024);
+    }
+
+    public ReadingBuffer(int capacity) {
+        capacity = Math.max(capacity, 16);
+        timestamps = new long[capacity];
+        min = new double[capacity];
+        max = new double[capacity];
+        avg = new double[capacity];
+        last = new double[capacity];
+        count = new long[capacity];
+    }
+
+    /**
+     * Add a raw reading: min, max, avg and last are the reading itself
+     */
+    @Override
+    public void accept(long epochMillis, double value) {
+        add(epochMillis, value, value, value, value, 1);
+    }
+
+    /**
+     * Add a rollup bucket
+     * @param epochMillis bucket start, as UTC epoch milliseconds
+     */
+    public void add(long epochMillis, double min, double max, double avg, double last, long count) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        this.timestamps[size] = epochMillis;
+        this.min[size] = min;
+        this.max[size] = max;
+        this.avg[size] = avg;
+        this.last[size] = last;
+        this.count[size] = count;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        min = Arrays.copyOf(min, capacity);
+        max = Arrays.copyOf(max, capacity);
+        avg = Arrays.copyOf(avg, capacity);
+        last = Arrays.copyOf(last, capacity);
+        count = Arrays.copyOf(count, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Backing arrays; only the first {@link #size()} elements are points
+     */
+    long[] timestamps() {
+        return timestamps;
+    }
+
+    double[] min() {
+        return min;
+    }
+
+    double[] max() {
+        return max;
+    }
+
+    double[] avg() {
+        return avg;
+    }
+
+    /**
+     * All points, as DTOs
+     */
+    public List<ReadingSeriesDTO.Point> toPoints() {
+        List<ReadingSeriesDTO.Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(point(i));
+        }
+        return points;
+    }
+
+    /**
+     * The points at the given indexes, as DTOs
+     * @param indexes ascending indexes, of which the first {@code length} are used
+     */
+    public List<ReadingSeriesDTO.Point> toPoints(int[] indexes, int length) {
+        List<ReadingSeriesDTO.Point> points = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            points.add(point(indexes[i]));
+        }
+        return points;
+    }
+
+    private ReadingSeriesDTO.Point point(int i) {
+        return new ReadingSeriesDTO.Point(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[i]), ZoneOffset.UTC),
+                min[i], max[i], avg[i], last[i], count[i]);
+    }
+}
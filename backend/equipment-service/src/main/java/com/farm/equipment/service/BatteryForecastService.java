@@ -0,0 +1,153 @@
+package com.farm.equipment.service;
+
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.dto.response.BatteryForecastDTO;
+import com.farm.equipment.dto.response.BatteryReadingDTO;
+import com.farm.equipment.exception.PermissionDeniedException;
+import com.farm.equipment.exception.SensorNotFoundException;
+import com.farm.equipment.mapper.BatteryMapper;
+import com.farm.equipment.model.BatteryForecast;
+import com.farm.equipment.model.BatteryReading;
+import com.farm.equipment.model.ConnectedSensor;
+import com.farm.equipment.repository.BatteryForecastRepository;
+import com.farm.equipment.repository.BatteryReadingRepository;
+import com.farm.equipment.repository.ConnectedSensorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service for sensor battery history and depletion forecasts.
+ * Every battery level reported is stored and added to the sensor's {@link BatteryForecast} in O(1);
+ * a farm's replacement list is read from the (farm, depletion time) index, soonest first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BatteryForecastService {
+    
+    private static final double DAY_SECONDS = 86_400;
+    
+    private final BatteryReadingRepository readingRepository;
+    private final BatteryForecastRepository forecastRepository;
+    private final ConnectedSensorRepository sensorRepository;
+    private final BatteryMapper batteryMapper;
+    private final FarmersFeignClient farmersClient;
+    
+    @Value("${equipment.battery.forecast.threshold:20}")
+    private int threshold;
+    
+    @Value("${equipment.battery.forecast.half-life:30d}")
+    private Duration halfLife;
+    
+    @Value("${equipment.battery.forecast.min-span:1d}")
+    private Duration minSpan;
+    
+    @Value("${equipment.battery.forecast.max-days:365}")
+    private int maxDays;
+    
+    /**
+     * Record the current battery level of a sensor, in the caller's transaction
+     */
+    @Transactional
+    public void recordBattery(ConnectedSensor sensor) {
+        LocalDateTime now = LocalDateTime.now();
+        int level = sensor.getBattery();
+        readingRepository.save(BatteryReading.builder()
+                .sensorId(sensor.getId())
+                .level(level)
+                .recordedAt(now)
+                .build());
+        
+        BatteryForecast forecast = forecastRepository.findForUpdate(sensor.getId())
+                .orElseGet(() -> BatteryForecast.builder().sensorId(sensor.getId()).build());
+        forecast.setFarmId(sensor.getFarmId());
+        forecast.record(now, level, threshold, halfLife, minSpan);
+        forecastRepository.save(forecast);
+    }
+    
+    /**
+     * Get the battery forecast of a sensor
+     */
+    public BatteryForecastDTO getForecast(UUID farmerId, UUID sensorId) {
+        BatteryForecast forecast = forecastRepository.findById(sensorId).orElse(null);
+        if (forecast == null) {
+            // No level recorded since forecasting started: the current one, without a forecast
+            ConnectedSensor sensor = sensorRepository.findById(sensorId)
+                    .orElseThrow(() -> new SensorNotFoundException(sensorId));
+            checkPermission(farmerId, sensor.getFarmId(), "READ");
+            return BatteryForecastDTO.builder()
+                    .sensorId(sensorId)
+                    .farmId(sensor.getFarmId())
+                    .batteryLevel(sensor.getBattery())
+                    .threshold(threshold)
+                    .build();
+        }
+        checkPermission(farmerId, forecast.getFarmId(), "READ");
+        return toDTO(forecast, LocalDateTime.now());
+    }
+    
+    /**
+     * Get the battery history of a sensor, newest first
+     */
+    public Page<BatteryReadingDTO> getHistory(UUID farmerId, UUID sensorId, Pageable pageable) {
+        ConnectedSensor sensor = sensorRepository.findById(sensorId)
+                .orElseThrow(() -> new SensorNotFoundException(sensorId));
+        checkPermission(farmerId, sensor.getFarmId(), "READ");
+        return readingRepository.findBySensorIdOrderByRecordedAtDesc(sensorId,
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(batteryMapper::toDTO);
+    }
+    
+    /**
+     * Get the sensors of a farm whose battery is predicted to reach the threshold within the given
+     * number of days, soonest first; sensors already at the threshold come first
+     */
+    public Page<BatteryForecastDTO> getReplacements(UUID farmerId, UUID farmId, int days, Pageable pageable) {
+        if (days < 0 || days > maxDays) {
+            throw new IllegalArgumentException("days must be between 0 and " + maxDays + ", got " + days);
+        }
+        checkPermission(farmerId, farmId, "READ");
+        LocalDateTime now = LocalDateTime.now();
+        return forecastRepository.findDepletingBefore(farmId, now.plusDays(days),
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(forecast -> toDTO(forecast, now));
+    }
+    
+    /**
+     * Delete the battery history and forecast of a sensor, in the caller's transaction
+     */
+    @Transactional
+    public void deleteBattery(UUID sensorId) {
+        int deleted = readingRepository.deleteBySensorId(sensorId);
+        forecastRepository.deleteById(sensorId);
+        log.debug("Deleted {} battery readings of sensor {}", deleted, sensorId);
+    }
+    
+    private BatteryForecastDTO toDTO(BatteryForecast forecast, LocalDateTime now) {
+        BatteryForecastDTO dto = batteryMapper.toDTO(forecast);
+        dto.setThreshold(threshold);
+        if (forecast.getDepletionAt() != null) {
+            double days = Duration.between(now, forecast.getDepletionAt()).toSeconds() / DAY_SECONDS;
+            dto.setDaysUntilThreshold(Math.max(0, Math.round(days * 10) / 10.0));
+        }
+        return dto;
+    }
+    
+    private void checkPermission(UUID farmerId, UUID farmId, String action) {
+        var response = farmersClient.checkPermission(farmerId, farmId, action);
+        if (!response.isAllowed()) {
+            throw new PermissionDeniedException("Farmer " + farmerId + " is not allowed to " + action + " resources for farm " + farmId);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.farm.equipment.service;
+
+import com.farm.common.id.UuidV7Generator;
+import com.farm.equipment.bulk.CsvReader;
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.dto.request.CreatePumpRequest;
+import com.farm.equipment.dto.request.CreateSensorRequest;
+import com.farm.equipment.dto.response.BulkImportResultDTO;
+import com.farm.equipment.dto.response.BulkImportResultDTO.RowError;
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.mapper.PumpMapper;
+import com.farm.equipment.mapper.SensorMapper;
+import com.farm.equipment.model.ConnectedPump;
+import com.farm.equipment.model.ConnectedSensor;
+import com.farm.equipment.repository.EquipmentBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Service for bulk importing sensors and pumps.
+ * <p>
+ * All rows are validated before anything is written, each distinct farm is authorized once
+ * against the Farmers service, valid rows are inserted through JDBC batching and a single
+ * EQUIPMENT_CREATED event is published per farm instead of one per device.
+ * Invalid rows are skipped and reported back with their row number.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    private final EquipmentBatchRepository batchRepository;
+    private final SensorMapper sensorMapper;
+    private final PumpMapper pumpMapper;
+    private final FarmersFeignClient farmersClient;
+    private final EquipmentEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${equipment.bulk-import.max-rows:100000}")
+    private int maxRows;
+
+    /**
+     * Import sensors from a JSON array
+     */
+    public BulkImportResultDTO importSensors(UUID farmerId, List<CreateSensorRequest> requests) {
+        return importSensorRows(farmerId, requests, new ArrayList<>());
+    }
+
+    /**
+     * Import sensors from CSV with a header line naming CreateSensorRequest fields
+     */
+    public BulkImportResultDTO importSensorsCsv(UUID farmerId, InputStream csv) {
+        List<RowError> errors = new ArrayList<>();
+        List<CreateSensorRequest> requests = parseCsv(csv, CreateSensorRequest.class, errors);
+        return importSensorRows(farmerId, requests, errors);
+    }
+
+    /**
+     * Import pumps from a JSON array
+     */
+    public BulkImportResultDTO importPumps(UUID farmerId, List<CreatePumpRequest> requests) {
+        return importPumpRows(farmerId, requests, new ArrayList<>());
+    }
+
+    /**
+     * Import pumps from CSV with a header line naming CreatePumpRequest fields
+     */
+    public BulkImportResultDTO importPumpsCsv(UUID farmerId, InputStream csv) {
+        List<RowError> errors = new ArrayList<>();
+        List<CreatePumpRequest> requests = parseCsv(csv, CreatePumpRequest.class, errors);
+        return importPumpRows(farmerId, requests, errors);
+    }
+
+    private BulkImportResultDTO importSensorRows(UUID farmerId, List<CreateSensorRequest> requests, List<RowError> errors) {
+        log.info("Bulk importing {} sensors by farmer {}", requests.size(), farmerId);
+        List<CreateSensorRequest> accepted = validateAndAuthorize(farmerId, requests, CreateSensorRequest::getFarmId, errors);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ConnectedSensor> sensors = new ArrayList<>(accepted.size());
+        for (CreateSensorRequest request : accepted) {
+            ConnectedSensor sensor = sensorMapper.toEntity(request);
+            sensor.setId(UuidV7Generator.next());
+            sensor.setCreatedAt(now);
+            sensor.setUpdatedAt(now);
+            sensors.add(sensor);
+        }
+        if (!sensors.isEmpty()) {
+            batchRepository.insertSensors(sensors);
+        }
+
+        UUID batchId = UuidV7Generator.next();
+        publishBatchEvents(batchId, "SENSOR", sensors, ConnectedSensor::getFarmId,
+                farmSensors -> farmSensors.stream().filter(ConnectedSensor::isBatteryLow).count());
+        return buildResult(batchId, "SENSOR", requests.size(), sensors.size(), errors);
+    }
+
+    private BulkImportResultDTO importPumpRows(UUID farmerId, List<CreatePumpRequest> requests, List<RowError> errors) {
+        log.info("Bulk importing {} pumps by farmer {}", requests.size(), farmerId);
+        List<CreatePumpRequest> accepted = validateAndAuthorize(farmerId, requests, CreatePumpRequest::getFarmId, errors);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ConnectedPump> pumps = new ArrayList<>(accepted.size());
+        for (CreatePumpRequest request : accepted) {
+            ConnectedPump pump = pumpMapper.toEntity(request);
+            pump.setId(UuidV7Generator.next());
+            pump.setCreatedAt(now);
+            pump.setUpdatedAt(now);
+            pumps.add(pump);
+        }
+        if (!pumps.isEmpty()) {
+            batchRepository.insertPumps(pumps);
+        }
+
+        UUID batchId = UuidV7Generator.next();
+        publishBatchEvents(batchId, "PUMP", pumps, ConnectedPump::getFarmId, farmPumps -> null);
+        return buildResult(batchId, "PUMP", requests.size(), pumps.size(), errors);
+    }
+
+    /**
+     * Validate every row, then authorize each distinct farm once.
+     * Rows that were already rejected while parsing are null in the list and are skipped.
+     * @return the rows that passed both checks, in input order
+     */
+    private <R> List<R> validateAndAuthorize(UUID farmerId, List<R> rows, Function<R, UUID> farmIdOf, List<RowError> errors) {
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("Bulk import is limited to " + maxRows + " rows per request, got " + rows.size());
+        }
+
+        Set<Integer> rejectedWhileParsing = new HashSet<>();
+        errors.forEach(error -> rejectedWhileParsing.add(error.getRow()));
+
+        List<Integer> validRows = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            R row = rows.get(i);
+            if (row == null) {
+                if (!rejectedWhileParsing.contains(rowNumber(i))) {
+                    errors.add(new RowError(rowNumber(i), null, "Row is empty"));
+                }
+                continue;
+            }
+            var violations = validator.validate(row);
+            if (violations.isEmpty()) {
+                validRows.add(i);
+            } else {
+                for (ConstraintViolation<R> violation : violations) {
+                    errors.add(new RowError(rowNumber(i), violation.getPropertyPath().toString(), violation.getMessage()));
+                }
+            }
+        }
+
+        // One permission check per distinct farm; a null entry means the farm is allowed
+        Map<UUID, String> farmDenials = new HashMap<>();
+        for (int i : validRows) {
+            UUID farmId = farmIdOf.apply(rows.get(i));
+            if (!farmDenials.containsKey(farmId)) {
+                farmDenials.put(farmId, authorizeFarm(farmerId, farmId));
+            }
+        }
+
+        List<R> accepted = new ArrayList<>(validRows.size());
+        for (int i : validRows) {
+            R row = rows.get(i);
+            String denial = farmDenials.get(farmIdOf.apply(row));
+            if (denial == null) {
+                accepted.add(row);
+            } else {
+                errors.add(new RowError(rowNumber(i), "farmId", denial));
+            }
+        }
+        log.info("Bulk import: {} of {} rows accepted across {} farms", accepted.size(), rows.size(), farmDenials.size());
+        return accepted;
+    }
+
+    /**
+     * Check create permission and farm existence for one farm
+     * @return null if allowed, otherwise the reason for rejecting the farm's rows
+     */
+    private String authorizeFarm(UUID farmerId, UUID farmId) {
+        try {
+            var response = farmersClient.checkPermission(farmerId, farmId, "CREATE");
+            if (!response.isAllowed()) {
+                return "Farmer " + farmerId + " is not allowed to CREATE resources for farm " + farmId;
+            }
+            if (!Boolean.TRUE.equals(farmersClient.farmExists(farmId))) {
+                return "Farm not found: " + farmId;
+            }
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("Authorization for farm {} failed: {}", farmId, e.getMessage());
+            return "Could not verify permissions for farm " + farmId;
+        }
+    }
+
+    /**
+     * Publish one aggregated EQUIPMENT_CREATED event per farm
+     * @param lowBatteryCount low-battery devices among a farm's share, or null when not applicable
+     */
+    private <E> void publishBatchEvents(UUID batchId, String equipmentType, List<E> created, Function<E, UUID> farmIdOf,
+                                        Function<List<E>, Long> lowBatteryCount) {
+        Map<UUID, List<E>> byFarm = new LinkedHashMap<>();
+        for (E equipment : created) {
+            byFarm.computeIfAbsent(farmIdOf.apply(equipment), farmId -> new ArrayList<>()).add(equipment);
+        }
+        byFarm.forEach((farmId, farmEquipment) -> eventPublisher.publishEquipmentCreated(
+                EquipmentEvent.createEquipmentBatchCreated(batchId, equipmentType, farmId, farmEquipment.size(),
+                        lowBatteryCount.apply(farmEquipment))));
+    }
+
+    /**
+     * Parse CSV rows into request objects; rows that cannot be converted are recorded as errors and kept as null
+     */
+    private <R> List<R> parseCsv(InputStream csv, Class<R> type, List<RowError> errors) {
+        List<R> rows = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(csv)) {
+            Map<String, String> record;
+            while ((record = reader.next()) != null) {
+                if (rows.size() >= maxRows) {
+                    throw new IllegalArgumentException("Bulk import is limited to " + maxRows + " rows per request");
+                }
+                try {
+                    rows.add(objectMapper.convertValue(record, type));
+                } catch (IllegalArgumentException e) {
+                    rows.add(null);
+                    errors.add(new RowError(rows.size(), null, firstLine(e.getMessage())));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV import", e);
+        }
+        return rows;
+    }
+
+    private static BulkImportResultDTO buildResult(UUID batchId, String equipmentType, int total, int imported, List<RowError> errors) {
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return BulkImportResultDTO.builder()
+                .batchId(imported > 0 ? batchId : null)
+                .equipmentType(equipmentType)
+                .totalRows(total)
+                .importedCount(imported)
+                .failedCount(total - imported)
+                .errors(errors)
+                .build();
+    }
+
+    private static int rowNumber(int index) {
+        return index + 1;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "Invalid row";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
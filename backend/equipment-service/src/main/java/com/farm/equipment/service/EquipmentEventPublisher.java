@@ -1,12 +1,21 @@
 package com.farm.equipment.service;
 
 import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.event.EquipmentEventType;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.events.EventSchema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Service for publishing equipment events to RabbitMQ.
  */
@@ -16,20 +25,42 @@ import org.springframework.stereotype.Service;
 public class EquipmentEventPublisher {
     
     private final RabbitTemplate rabbitTemplate;
+    private final EquipmentMetrics equipmentMetrics;
     
     @Value("${rabbitmq.exchange.name:equipment-events}")
     private String exchangeName;
     
+    @Value("${rabbitmq.cache-invalidation.routing-key:cache.equipment.invalidate}")
+    private String cacheInvalidationRoutingKey;
+    
     /**
-     * Publish an equipment event to RabbitMQ
+     * Publish an equipment event to RabbitMQ.
+     * Records the publish time, and the confirm latency once the broker confirms the event.
      * @param event the event to publish
      */
     public void publishEvent(EquipmentEvent event) {
+        EquipmentEventType type = event.getEventType();
+        long started = System.nanoTime();
         try {
-            String routingKey = "equipment." + event.getEventType().name().toLowerCase();
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, event);
+            String routingKey = "equipment." + type.name().toLowerCase();
+            CorrelationData correlation = new CorrelationData(String.valueOf(event.getEventId()));
+            correlation.getFuture().whenComplete((confirm, failure) -> {
+                if (confirm != null) {
+                    equipmentMetrics.recordConfirmTime(System.nanoTime() - started, confirm.isAck());
+                }
+            });
+            rabbitTemplate.convertAndSend(exchangeName, routingKey, event, message -> {
+                MessageProperties properties = message.getMessageProperties();
+                properties.setHeader(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+                properties.setHeader(EventSchema.PARTITION_KEY_HEADER, event.getEquipmentId().toString());
+                properties.setTimestamp(new Date());
+                return message;
+            }, correlation);
+            equipmentMetrics.recordPublishTime(System.nanoTime() - started);
+            equipmentMetrics.recordMessagePublished(type, true);
             log.info("Published event: {} for equipment: {}", event.getEventType(), event.getEquipmentId());
         } catch (Exception e) {
+            equipmentMetrics.recordMessagePublished(type, false);
             log.error("Failed to publish event: {}", event.getEventType(), e);
             // Don't throw exception - event publishing failure shouldn't break the operation
         }
@@ -76,4 +107,31 @@ public class EquipmentEventPublisher {
     public void publishSensorOffline(EquipmentEvent event) {
         publishEvent(event);
     }
+    
+    /**
+     * Publish threshold violated or cleared event
+     */
+    public void publishThresholdEvent(EquipmentEvent event) {
+        publishEvent(event);
+    }
+    
+    /**
+     * Publish sensor anomaly event
+     */
+    public void publishSensorAnomaly(EquipmentEvent event) {
+        publishEvent(event);
+    }
+    
+    /**
+     * Tell every equipment-service replica to drop its cached copy of a sensor or pump
+     */
+    public void publishCacheInvalidation(UUID equipmentId) {
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, cacheInvalidationRoutingKey, Map.of("equipmentId", equipmentId.toString()));
+            log.debug("Published cache invalidation for equipment: {}", equipmentId);
+        } catch (Exception e) {
+            // Other replicas still expire the entry after the cache TTL
+            log.error("Failed to publish cache invalidation for equipment: {}", equipmentId, e);
+        }
+    }
 }
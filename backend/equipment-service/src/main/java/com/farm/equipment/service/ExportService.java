@@ -0,0 +1,143 @@
+package com.farm.equipment.service;
+
+import com.farm.common.export.ExportColumn;
+import com.farm.common.export.ExportFormat;
+import com.farm.common.export.ExportWriter;
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.dto.response.PumpDTO;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.exception.PermissionDeniedException;
+import com.farm.equipment.mapper.PumpMapper;
+import com.farm.equipment.mapper.SensorMapper;
+import com.farm.equipment.repository.ConnectedPumpRepository;
+import com.farm.equipment.repository.ConnectedSensorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Service for streaming exports of a farm's equipment.
+ * Rows are read through a forward-only cursor and written straight to the response,
+ * so memory use stays flat regardless of how many devices a farm has.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final List<ExportColumn<SensorDTO>> SENSOR_COLUMNS = List.of(
+            ExportColumn.of("id", SensorDTO::getId),
+            ExportColumn.of("type", SensorDTO::getType),
+            ExportColumn.of("farmId", SensorDTO::getFarmId),
+            ExportColumn.of("battery", SensorDTO::getBattery),
+            ExportColumn.of("batteryStatus", SensorDTO::getBatteryStatus),
+            ExportColumn.of("lastCommunication", SensorDTO::getLastCommunication),
+            ExportColumn.of("location", SensorDTO::getLocation),
+            ExportColumn.of("model", SensorDTO::getModel),
+            ExportColumn.of("installationDate", SensorDTO::getInstallationDate),
+            ExportColumn.of("active", SensorDTO::isActive),
+            ExportColumn.of("alertThreshold", SensorDTO::getAlertThreshold),
+            ExportColumn.of("online", SensorDTO::isOnline),
+            ExportColumn.of("createdAt", SensorDTO::getCreatedAt),
+            ExportColumn.of("updatedAt", SensorDTO::getUpdatedAt)
+    );
+
+    private static final List<ExportColumn<PumpDTO>> PUMP_COLUMNS = List.of(
+            ExportColumn.of("id", PumpDTO::getId),
+            ExportColumn.of("farmId", PumpDTO::getFarmId),
+            ExportColumn.of("model", PumpDTO::getModel),
+            ExportColumn.of("status", PumpDTO::getStatus),
+            ExportColumn.of("maxFlow", PumpDTO::getMaxFlow),
+            ExportColumn.of("location", PumpDTO::getLocation),
+            ExportColumn.of("installationDate", PumpDTO::getInstallationDate),
+            ExportColumn.of("lastMaintenanceDate", PumpDTO::getLastMaintenanceDate),
+            ExportColumn.of("nextMaintenanceDate", PumpDTO::getNextMaintenanceDate),
+            ExportColumn.of("maintenanceOverdue", PumpDTO::isMaintenanceOverdue),
+            ExportColumn.of("createdAt", PumpDTO::getCreatedAt),
+            ExportColumn.of("updatedAt", PumpDTO::getUpdatedAt)
+    );
+
+    private final ConnectedSensorRepository sensorRepository;
+    private final ConnectedPumpRepository pumpRepository;
+    private final SensorMapper sensorMapper;
+    private final PumpMapper pumpMapper;
+    private final FarmersFeignClient farmersClient;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Prepare a streaming export of all sensors of a farm.
+     * The permission check runs immediately; rows are read once the body is written.
+     */
+    public StreamingResponseBody exportSensorsByFarm(UUID farmerId, UUID farmId, ExportFormat format) {
+        log.info("Exporting sensors for farm {} as {} by farmer {}", farmId, format, farmerId);
+        checkPermission(farmerId, farmId, "READ");
+
+        return out -> writeRows(out, format, SensorDTO.class, SENSOR_COLUMNS,
+                () -> sensorRepository.streamByFarmId(farmId), sensorMapper::toDTO);
+    }
+
+    /**
+     * Prepare a streaming export of all pumps of a farm.
+     * The permission check runs immediately; rows are read once the body is written.
+     */
+    public StreamingResponseBody exportPumpsByFarm(UUID farmerId, UUID farmId, ExportFormat format) {
+        log.info("Exporting pumps for farm {} as {} by farmer {}", farmId, format, farmerId);
+        checkPermission(farmerId, farmId, "READ");
+
+        return out -> writeRows(out, format, PumpDTO.class, PUMP_COLUMNS,
+                () -> pumpRepository.streamByFarmId(farmId), pumpMapper::toDTO);
+    }
+
+    /**
+     * Drain a repository stream into the output inside a read-only transaction.
+     * Each entity is detached once written so the persistence context does not grow with the result.
+     */
+    private <E, D> void writeRows(OutputStream out, ExportFormat format, Class<D> type, List<ExportColumn<D>> columns,
+                                  Supplier<Stream<E>> query, Function<E, D> toDTO) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            long rows = 0;
+            try (Stream<E> entities = query.get();
+                 ExportWriter<D> writer = ExportWriter.create(format, out, objectMapper, type, columns)) {
+                var iterator = entities.iterator();
+                while (iterator.hasNext()) {
+                    E entity = iterator.next();
+                    writer.write(toDTO.apply(entity));
+                    entityManager.detach(entity);
+                    rows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export aborted after " + rows + " rows", e);
+            }
+            log.info("Exported {} {} rows", rows, type.getSimpleName());
+        });
+    }
+
+    /**
+     * Check permission via Farmers service
+     */
+    private void checkPermission(UUID farmerId, UUID farmId, String action) {
+        var response = farmersClient.checkPermission(farmerId, farmId, action);
+        if (!response.isAllowed()) {
+            throw new PermissionDeniedException("Farmer " + farmerId + " is not allowed to " + action + " resources for farm " + farmId);
+        }
+    }
+}
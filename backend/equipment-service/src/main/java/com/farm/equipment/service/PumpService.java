@@ -12,6 +12,7 @@ import com.farm.equipment.mapper.PumpMapper;
 import com.farm.equipment.model.ConnectedPump;
 import com.farm.equipment.model.EquipmentStatus;
 import com.farm.equipment.repository.ConnectedPumpRepository;
+import com.farm.events.payload.PumpCreatedPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,7 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -48,7 +48,7 @@ public class PumpService {
         checkPermission(farmerId, request.getFarmId(), "CREATE");
         
         // Verify farm exists
-        if (!farmersClient.farmerExists(request.getFarmId())) {
+        if (!farmersClient.farmExists(request.getFarmId())) {
             throw new IllegalArgumentException("Farm not found: " + request.getFarmId());
         }
         
@@ -61,10 +61,10 @@ public class PumpService {
                         savedPump.getId(),
                         "PUMP",
                         savedPump.getFarmId(),
-                        Map.of(
-                                "model", savedPump.getModel(),
-                                "status", savedPump.getStatus().toString(),
-                                "maxFlow", savedPump.getFormattedMaxFlow()
+                        new PumpCreatedPayload(
+                                savedPump.getModel(),
+                                savedPump.getStatus().toString(),
+                                savedPump.getMaxFlow()
                         )
                 )
         );
@@ -0,0 +1,441 @@
+package com.farm.equipment.service;
+
+import com.farm.equipment.cache.EquipmentCache;
+import com.farm.equipment.anomaly.SensorAnomalyMonitor;
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.coldstore.ColdStore;
+import com.farm.equipment.dto.request.RecordReadingsRequest;
+import com.farm.equipment.dto.response.ReadingSeriesDTO;
+import com.farm.equipment.dto.response.RecordReadingsResultDTO;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.exception.PermissionDeniedException;
+import com.farm.equipment.exception.SensorNotFoundException;
+import com.farm.equipment.model.ReadingResolution;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.repository.SensorReadingRepository;
+import com.farm.equipment.rules.ThresholdRuleEngine;
+import com.farm.equipment.series.Downsampling;
+import com.farm.equipment.series.ReadingBuffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Service for recording and querying sensor readings.
+ * Readings are kept raw and as 1-minute, 1-hour and 1-day rollups, each with its own retention;
+ * a range query is served from the coarsest resolution that still gives the requested number
+ * of points, so a 90-day chart reads about two thousand hourly buckets instead of every reading.
+ * <p>
+ * Raw readings older than a couple of days are sealed into the {@link ColdStore}; raw queries read
+ * the sealed part of their range from it and the rest from the hot table.
+ * <p>
+ * A query may cap the points returned: the series is then read into a {@link ReadingBuffer} and
+ * reduced by {@link Downsampling} (LTTB or M4), so a year at 1000 points reads 8760 hourly
+ * buckets and returns a thousand of them, chosen to keep the chart's shape.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SensorReadingService {
+    
+    /** Unknown sensor ids remembered at most, so that made-up ids cannot fill the memory */
+    private static final int MAX_UNKNOWN_SENSORS = 100_000;
+    
+    private final SensorReadingRepository readingRepository;
+    private final EquipmentCache equipmentCache;
+    private final FarmersFeignClient farmersClient;
+    private final EquipmentMetrics equipmentMetrics;
+    private final ColdStore coldStore;
+    private final ThresholdRuleEngine ruleEngine;
+    private final SensorAnomalyMonitor anomalyMonitor;
+    
+    @Value("${equipment.readings.max-batch-size:10000}")
+    private int maxBatchSize;
+    
+    @Value("${equipment.readings.max-clock-skew:5m}")
+    private Duration maxClockSkew;
+    
+    @Value("${equipment.readings.default-points:300}")
+    private int defaultPoints;
+    
+    @Value("${equipment.readings.max-points:5000}")
+    private int maxPoints;
+    
+    @Value("${equipment.readings.purge-batch-size:50000}")
+    private int purgeBatchSize;
+    
+    @Value("${equipment.readings.retention.raw:7d}")
+    private Duration rawRetention;
+    
+    @Value("${equipment.readings.retention.minute:30d}")
+    private Duration minuteRetention;
+    
+    @Value("${equipment.readings.retention.hour:365d}")
+    private Duration hourRetention;
+    
+    @Value("${equipment.readings.retention.day:1825d}")
+    private Duration dayRetention;
+    
+    @Value("${equipment.readings.unknown-sensor-ttl:5m}")
+    private Duration unknownSensorTtl;
+    
+    private final Map<ReadingResolution, Duration> retention = new EnumMap<>(ReadingResolution.class);
+    
+    /**
+     * Sensors that device readings were sent for but that do not exist, so that a device sending a wrong
+     * or made-up id costs no query per batch. Sensor ids are generated on creation, so an id found unknown
+     * does not come to exist later.
+     */
+    private Cache<UUID, Boolean> unknownSensors;
+    
+    @PostConstruct
+    public void init() {
+        retention.put(ReadingResolution.RAW, rawRetention);
+        retention.put(ReadingResolution.MINUTE, minuteRetention);
+        retention.put(ReadingResolution.HOUR, hourRetention);
+        retention.put(ReadingResolution.DAY, dayRetention);
+        unknownSensors = Caffeine.newBuilder()
+                .maximumSize(MAX_UNKNOWN_SENSORS)
+                .expireAfterWrite(unknownSensorTtl)
+                .build();
+    }
+    
+    /**
+     * Record a batch of readings of one sensor. Readings already stored for the same
+     * timestamp are ignored, so a device may resend a batch it got no answer for.
+     * Readings older than {@link #earliestReadingMillis} are rejected.
+     * Once stored, the readings are evaluated against the sensor's threshold rules and checked for anomalies.
+     */
+    public RecordReadingsResultDTO recordReadings(UUID farmerId, UUID sensorId, RecordReadingsRequest request) {
+        List<RecordReadingsRequest.Reading> readings = request.getReadings();
+        if (readings.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " readings per batch, got " + readings.size());
+        }
+        SensorDTO sensor = equipmentCache.getSensor(sensorId).body();
+        UUID farmId = sensor.getFarmId();
+        checkPermission(farmerId, farmId, "UPDATE");
+        
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime latest = now.plus(maxClockSkew);
+        UUID[] sensorIds = new UUID[readings.size()];
+        long[] epochMillis = new long[readings.size()];
+        double[] values = new double[readings.size()];
+        int stored;
+        Lock insertLock = coldStore.insertLock();
+        insertLock.lock();
+        try {
+            long earliest = earliestReadingMillis(toEpochMillis(now));
+            for (int i = 0; i < readings.size(); i++) {
+                RecordReadingsRequest.Reading reading = readings.get(i);
+                if (reading.getTimestamp().isAfter(latest)) {
+                    throw new IllegalArgumentException("Reading " + i + " is in the future: " + reading.getTimestamp());
+                }
+                if (!Double.isFinite(reading.getValue())) {
+                    throw new IllegalArgumentException("Reading " + i + " is not a finite number");
+                }
+                sensorIds[i] = sensorId;
+                epochMillis[i] = toEpochMillis(reading.getTimestamp());
+                if (epochMillis[i] < earliest) {
+                    throw new IllegalArgumentException("Reading " + i + " is too old to be recorded: " + reading.getTimestamp());
+                }
+                values[i] = reading.getValue();
+            }
+            
+            stored = readingRepository.insert(sensorIds, epochMillis, values);
+        } finally {
+            insertLock.unlock();
+        }
+        equipmentMetrics.recordReadings(readings.size(), stored);
+        ruleEngine.evaluate(sensorId, farmId, sensor.getType(), epochMillis, values);
+        anomalyMonitor.onReadings(sensorId, farmId, sensor.getType(), epochMillis, values);
+        log.debug("Stored {} of {} readings for sensor {}", stored, readings.size(), sensorId);
+        return new RecordReadingsResultDTO(sensorId, readings.size(), stored);
+    }
+    
+    /**
+     * Earliest time a reading may be recorded at, as UTC epoch milliseconds. The raw row of an older
+     * reading may have been purged already, so a resent one would be stored and counted in the rollups
+     * a second time; and a reading of a day sealed, or being sealed, into the cold store would never be
+     * returned raw. Called holding {@link ColdStore#insertLock()} until the readings checked are stored.
+     */
+    private long earliestReadingMillis(long nowMillis) {
+        long earliest = nowMillis - rawRetention.toMillis();
+        LocalDateTime acceptsFrom = coldStore.acceptsFrom();
+        return acceptsFrom != null ? Math.max(earliest, toEpochMillis(acceptsFrom)) : earliest;
+    }
+    
+    /**
+     * Record readings of several sensors at once, as received from the devices by the ingestion gateway.
+     * Devices identify themselves by sensor id only, so there is no farmer permission to check: a reading
+     * is accepted if its sensor exists and it is valid, then goes through the same storage, threshold
+     * rules and anomaly checks as {@link #recordReadings}.
+     * <p>
+     * Unlike a REST batch, a batch of device readings is not rejected as a whole for one bad reading:
+     * that reading alone is not accepted. If the batch cannot be stored, the readings of each sensor are
+     * stored apart so that only the sensors failing again are not accepted; the batch fails only when
+     * every sensor does, as when the database is down, for the devices to resend it.
+     * @param count number of readings in the arrays, which may be longer
+     * @param accepted set to whether each reading was accepted: stored, or already stored
+     * @return the number of readings stored
+     */
+    public int recordDeviceReadings(UUID[] sensorIds, long[] epochMillis, double[] values, int count, boolean[] accepted) {
+        long now = System.currentTimeMillis();
+        long latest = now + maxClockSkew.toMillis();
+        Map<UUID, SensorDTO> sensors = new HashMap<>();
+        // Sensor -> {start, count} of its readings once grouped, in order of first appearance
+        Map<UUID, int[]> groups = new LinkedHashMap<>();
+        int kept = 0;
+        long[] keptTimes;
+        double[] keptValues;
+        int stored;
+        Lock insertLock = coldStore.insertLock();
+        insertLock.lock();
+        try {
+            long earliest = earliestReadingMillis(now);
+            for (int i = 0; i < count; i++) {
+                UUID sensorId = sensorIds[i];
+                SensorDTO sensor = sensors.containsKey(sensorId) ? sensors.get(sensorId) : findSensor(sensorId, sensors);
+                accepted[i] = sensor != null && epochMillis[i] >= earliest && epochMillis[i] <= latest
+                        && Double.isFinite(values[i]);
+                if (accepted[i]) {
+                    groups.computeIfAbsent(sensorId, id -> new int[2])[1]++;
+                    kept++;
+                }
+            }
+            if (kept == 0) {
+                return 0;
+            }
+            
+            // The readings of each sensor together, in the order received, for the rules and anomaly checks
+            int offset = 0;
+            for (int[] group : groups.values()) {
+                group[0] = offset;
+                offset += group[1];
+                group[1] = 0;
+            }
+            UUID[] keptIds = new UUID[kept];
+            keptTimes = new long[kept];
+            keptValues = new double[kept];
+            for (int i = 0; i < count; i++) {
+                if (accepted[i]) {
+                    int[] group = groups.get(sensorIds[i]);
+                    int at = group[0] + group[1]++;
+                    keptIds[at] = sensorIds[i];
+                    keptTimes[at] = epochMillis[i];
+                    keptValues[at] = values[i];
+                }
+            }
+            
+            try {
+                stored = readingRepository.insert(keptIds, keptTimes, keptValues);
+            } catch (DataAccessException e) {
+                stored = insertEachSensor(groups, keptIds, keptTimes, keptValues, e);
+                for (int i = 0; i < count; i++) {
+                    accepted[i] = accepted[i] && groups.containsKey(sensorIds[i]);
+                }
+            }
+        } finally {
+            insertLock.unlock();
+        }
+        equipmentMetrics.recordReadings(kept, stored);
+        for (Map.Entry<UUID, int[]> group : groups.entrySet()) {
+            SensorDTO sensor = sensors.get(group.getKey());
+            int start = group.getValue()[0];
+            int end = start + group.getValue()[1];
+            long[] times = Arrays.copyOfRange(keptTimes, start, end);
+            double[] sensorValues = Arrays.copyOfRange(keptValues, start, end);
+            try {
+                ruleEngine.evaluate(sensor.getId(), sensor.getFarmId(), sensor.getType(), times, sensorValues);
+                anomalyMonitor.onReadings(sensor.getId(), sensor.getFarmId(), sensor.getType(), times, sensorValues);
+            } catch (RuntimeException e) {
+                // The readings are stored: failing the batch would only have every device resend them
+                log.warn("Could not check the readings of sensor {}: {}", sensor.getId(), e.getMessage());
+            }
+        }
+        log.debug("Stored {} of {} device readings of {} sensors", stored, count, groups.size());
+        return stored;
+    }
+    
+    /**
+     * Store the readings of each sensor apart, after the whole batch failed, and remove the sensors
+     * that fail again from {@code groups}
+     * @return the number of readings stored
+     * @throws DataAccessException the failure of the whole batch, if the readings of no sensor could be stored
+     */
+    private int insertEachSensor(Map<UUID, int[]> groups, UUID[] sensorIds, long[] epochMillis, double[] values,
+                                 DataAccessException batchFailure) {
+        int stored = 0;
+        for (Iterator<Map.Entry<UUID, int[]>> groupIterator = groups.entrySet().iterator(); groupIterator.hasNext(); ) {
+            Map.Entry<UUID, int[]> group = groupIterator.next();
+            int start = group.getValue()[0];
+            int end = start + group.getValue()[1];
+            try {
+                stored += readingRepository.insert(Arrays.copyOfRange(sensorIds, start, end),
+                        Arrays.copyOfRange(epochMillis, start, end), Arrays.copyOfRange(values, start, end));
+            } catch (DataAccessException e) {
+                log.warn("Could not store {} device readings of sensor {}: {}", end - start, group.getKey(),
+                        e.getMessage());
+                groupIterator.remove();
+            }
+        }
+        if (groups.isEmpty()) {
+            throw batchFailure;
+        }
+        return stored;
+    }
+    
+    /**
+     * Whether device readings were recently sent for this sensor and it was found not to exist
+     */
+    public boolean isUnknownSensor(UUID sensorId) {
+        return unknownSensors.getIfPresent(sensorId) != null;
+    }
+    
+    /**
+     * @return the sensor, remembered in {@code sensors}, or null (also remembered) if it does not exist
+     */
+    private SensorDTO findSensor(UUID sensorId, Map<UUID, SensorDTO> sensors) {
+        SensorDTO sensor = null;
+        if (!isUnknownSensor(sensorId)) {
+            try {
+                sensor = equipmentCache.getSensor(sensorId).body();
+            } catch (SensorNotFoundException e) {
+                unknownSensors.put(sensorId, Boolean.TRUE);
+            }
+        }
+        sensors.put(sensorId, sensor);
+        return sensor;
+    }
+    
+    /**
+     * Get the readings of a sensor over [from, to)
+     * @param points how many points the caller wants at least, used to pick the resolution;
+     *               defaults to {@code maxPoints} when that is given
+     * @param maxPoints how many points to return at most, or null for all the points read
+     * @param downsampling how to pick the points to return when there are more than {@code maxPoints}
+     */
+    public ReadingSeriesDTO getReadings(UUID farmerId, UUID sensorId, LocalDateTime from, LocalDateTime to,
+                                        Integer points, Integer maxPoints, Downsampling downsampling) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        int requested = points != null ? points : maxPoints != null ? maxPoints : defaultPoints;
+        if (requested < 1 || requested > this.maxPoints) {
+            throw new IllegalArgumentException("points must be between 1 and " + this.maxPoints);
+        }
+        Downsampling method = downsampling != null ? downsampling : Downsampling.LTTB;
+        if (maxPoints != null && (maxPoints < method.getMinPoints() || maxPoints > this.maxPoints)) {
+            throw new IllegalArgumentException("maxPoints must be between " + method.getMinPoints() + " and " + this.maxPoints);
+        }
+        UUID farmId = equipmentCache.getSensor(sensorId).body().getFarmId();
+        checkPermission(farmerId, farmId, "READ");
+        
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        ReadingResolution resolution = ReadingResolution.select(from, to, requested, now, queryRetention(now));
+        ReadingBuffer buffer = new ReadingBuffer();
+        if (resolution.isRollup()) {
+            readingRepository.findRollups(sensorId, resolution, resolution.bucketStart(from), to, buffer);
+        } else {
+            findRaw(sensorId, from, to, buffer);
+        }
+        
+        int read = buffer.size();
+        if (maxPoints == null || read <= maxPoints) {
+            return new ReadingSeriesDTO(sensorId, from, to, resolution, buffer.toPoints(), null, read);
+        }
+        int[] selected = new int[maxPoints];
+        int kept = method.select(buffer, toEpochMillis(from), toEpochMillis(to), maxPoints, selected);
+        return new ReadingSeriesDTO(sensorId, from, to, resolution, buffer.toPoints(selected, kept), method, read);
+    }
+    
+    /**
+     * Retention by resolution as seen by queries: raw readings go back as far as the cold store does
+     */
+    private Map<ReadingResolution, Duration> queryRetention(LocalDateTime now) {
+        LocalDateTime coveredSince = coldStore.coveredSince();
+        if (coveredSince == null || !coveredSince.isBefore(now.minus(rawRetention))) {
+            return retention;
+        }
+        Map<ReadingResolution, Duration> extended = new EnumMap<>(retention);
+        extended.put(ReadingResolution.RAW, Duration.between(coveredSince, now));
+        return extended;
+    }
+    
+    private void findRaw(UUID sensorId, LocalDateTime from, LocalDateTime to, ReadingBuffer into) {
+        LocalDateTime sealedUntil = coldStore.sealedUntil();
+        if (sealedUntil == null || !from.isBefore(sealedUntil)) {
+            readingRepository.findRaw(sensorId, from, to, into);
+            return;
+        }
+        coldStore.scan(sensorId, from, to.isBefore(sealedUntil) ? to : sealedUntil, into);
+        if (to.isAfter(sealedUntil)) {
+            readingRepository.findRaw(sensorId, sealedUntil, to, into);
+        }
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    /**
+     * Delete readings and rollup buckets past the retention of their resolution, in bounded batches.
+     * Raw readings are kept past their retention while they are not sealed into the cold store, and
+     * none is purged before the first day is sealed.
+     */
+    @Scheduled(fixedDelayString = "${equipment.readings.purge-interval-ms:3600000}",
+               initialDelayString = "${equipment.readings.purge-initial-delay-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (Map.Entry<ReadingResolution, Duration> entry : retention.entrySet()) {
+            ReadingResolution resolution = entry.getKey();
+            LocalDateTime before = now.minus(entry.getValue());
+            if (!resolution.isRollup() && coldStore.isEnabled()) {
+                // Keep raw readings in the hot table until they are sealed
+                LocalDateTime sealedUntil = coldStore.sealedUntil();
+                if (sealedUntil == null) {
+                    continue;
+                }
+                if (sealedUntil.isBefore(before)) {
+                    before = sealedUntil;
+                }
+            }
+            long purged = 0;
+            int deleted;
+            do {
+                deleted = resolution.isRollup()
+                        ? readingRepository.purgeRollups(resolution, before, purgeBatchSize)
+                        : readingRepository.purgeRaw(before, purgeBatchSize);
+                purged += deleted;
+            } while (deleted == purgeBatchSize);
+            if (purged > 0) {
+                log.info("Purged {} {} readings older than {}", purged, resolution, before);
+            }
+        }
+    }
+    
+    private void checkPermission(UUID farmerId, UUID farmId, String action) {
+        var response = farmersClient.checkPermission(farmerId, farmId, action);
+        if (!response.isAllowed()) {
+            throw new PermissionDeniedException("Farmer " + farmerId + " is not allowed to " + action + " resources for farm " + farmId);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.farm.equipment.service;
 
+import com.farm.equipment.anomaly.SensorAnomalyMonitor;
 import com.farm.equipment.client.FarmersFeignClient;
 import com.farm.equipment.dto.request.CreateSensorRequest;
 import com.farm.equipment.dto.request.UpdateSensorRequest;
@@ -9,7 +10,9 @@ import com.farm.equipment.exception.SensorNotFoundException;
 import com.farm.equipment.mapper.SensorMapper;
 import com.farm.equipment.model.ConnectedSensor;
 import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics;
 import com.farm.equipment.repository.ConnectedSensorRepository;
+import com.farm.events.payload.SensorCreatedPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,7 +21,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -34,6 +36,9 @@ public class SensorService {
     private final SensorMapper sensorMapper;
     private final FarmersFeignClient farmersClient;
     private final EquipmentEventPublisher eventPublisher;
+    private final SensorAnomalyMonitor anomalyMonitor;
+    private final BatteryForecastService batteryForecastService;
+    private final EquipmentMetrics equipmentMetrics;
     
     /**
      * Create a new sensor
@@ -46,12 +51,14 @@ public class SensorService {
         checkPermission(farmerId, request.getFarmId(), "CREATE");
         
         // Verify farm exists
-        if (!farmersClient.farmerExists(request.getFarmId())) {
+        if (!farmersClient.farmExists(request.getFarmId())) {
             throw new IllegalArgumentException("Farm not found: " + request.getFarmId());
         }
         
         ConnectedSensor sensor = sensorMapper.toEntity(request);
         ConnectedSensor savedSensor = sensorRepository.save(sensor);
+        batteryForecastService.recordBattery(savedSensor);
+        recordBatteryLevel(savedSensor);
         
         // Publish event
         eventPublisher.publishEquipmentCreated(
@@ -59,10 +66,10 @@ public class SensorService {
                         savedSensor.getId(),
                         "SENSOR",
                         savedSensor.getFarmId(),
-                        Map.of(
-                                "type", savedSensor.getType().toString(),
-                                "model", savedSensor.getModel(),
-                                "battery", savedSensor.getBattery()
+                        new SensorCreatedPayload(
+                                savedSensor.getType().toString(),
+                                savedSensor.getModel(),
+                                savedSensor.getBattery()
                         )
                 )
         );
@@ -184,6 +191,12 @@ public class SensorService {
         sensorMapper.updateEntityFromRequest(request, sensor);
         ConnectedSensor updatedSensor = sensorRepository.save(sensor);
         
+        if (request.getBattery() != null) {
+            batteryForecastService.recordBattery(updatedSensor);
+            recordBatteryLevel(updatedSensor);
+            anomalyMonitor.onBattery(updatedSensor.getId(), updatedSensor.getFarmId(), updatedSensor.getType(), updatedSensor.getBattery());
+        }
+        
         // Check for battery low event
         if (request.getBattery() != null && !oldBattery.equals(request.getBattery())) {
             if (updatedSensor.isBatteryLow() && !isBatteryLow(oldBattery)) {
@@ -224,9 +237,32 @@ public class SensorService {
         
         checkPermission(farmerId, sensor.getFarmId(), "UPDATE");
         
+        ConnectedSensor updatedSensor = applyBattery(sensor, batteryLevel);
+        log.info("Updated battery for sensor {}", sensorId);
+        return sensorMapper.toDTO(updatedSensor);
+    }
+    
+    /**
+     * Record the battery level reported by a sensor itself through the device ingestion gateway,
+     * which identified the device: there is no farmer to check.
+     */
+    @Transactional
+    public void reportBattery(UUID sensorId, int batteryLevel) {
+        log.debug("Sensor {} reported a battery of {}%", sensorId, batteryLevel);
+        
+        ConnectedSensor sensor = sensorRepository.findById(sensorId)
+                .orElseThrow(() -> new SensorNotFoundException(sensorId));
+        
+        applyBattery(sensor, batteryLevel);
+    }
+    
+    private ConnectedSensor applyBattery(ConnectedSensor sensor, Integer batteryLevel) {
         Integer oldBattery = sensor.getBattery();
         sensor.updateBattery(batteryLevel);
         ConnectedSensor updatedSensor = sensorRepository.save(sensor);
+        batteryForecastService.recordBattery(updatedSensor);
+        recordBatteryLevel(updatedSensor);
+        anomalyMonitor.onBattery(updatedSensor.getId(), updatedSensor.getFarmId(), updatedSensor.getType(), updatedSensor.getBattery());
         
         // Publish battery low event if needed
         if (updatedSensor.isBatteryLow() && !isBatteryLow(oldBattery)) {
@@ -238,9 +274,13 @@ public class SensorService {
                     )
             );
         }
-        
-        log.info("Updated battery for sensor {}", sensorId);
-        return sensorMapper.toDTO(updatedSensor);
+        return updatedSensor;
+    }
+    
+    private void recordBatteryLevel(ConnectedSensor sensor) {
+        if (sensor.getBattery() != null) {
+            equipmentMetrics.recordBatteryLevel(sensor.getFarmId(), sensor.getBattery());
+        }
     }
     
     /**
@@ -280,7 +320,9 @@ public class SensorService {
         
         checkPermission(farmerId, sensor.getFarmId(), "DELETE");
         
+        batteryForecastService.deleteBattery(sensorId);
         sensorRepository.delete(sensor);
+        anomalyMonitor.forget(sensorId);
         log.info("Deleted sensor {}", sensorId);
     }
     
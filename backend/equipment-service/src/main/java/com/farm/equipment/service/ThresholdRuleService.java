@@ -0,0 +1,163 @@
+package com.farm.equipment.service;
+
+import com.farm.equipment.cache.EquipmentCache;
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.dto.request.ThresholdRuleRequest;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.dto.response.ThresholdRuleDTO;
+import com.farm.equipment.exception.PermissionDeniedException;
+import com.farm.equipment.exception.RuleNotFoundException;
+import com.farm.equipment.mapper.ThresholdRuleMapper;
+import com.farm.equipment.model.ThresholdRule;
+import com.farm.equipment.repository.ThresholdRuleRepository;
+import com.farm.equipment.rules.ThresholdRuleEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Service for managing threshold rules.
+ * Changes take effect at once on this replica and within
+ * {@code equipment.rules.refresh-interval-ms} on the others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ThresholdRuleService {
+    
+    private final ThresholdRuleRepository ruleRepository;
+    private final ThresholdRuleMapper ruleMapper;
+    private final EquipmentCache equipmentCache;
+    private final FarmersFeignClient farmersClient;
+    private final ThresholdRuleEngine ruleEngine;
+    
+    /**
+     * Create a rule, for a sensor or for every sensor of a type on a farm
+     */
+    @Transactional
+    public ThresholdRuleDTO createRule(UUID farmerId, ThresholdRuleRequest request) {
+        ThresholdRule rule = new ThresholdRule();
+        applyScope(request, rule);
+        checkPermission(farmerId, rule.getFarmId(), "CREATE");
+        
+        ruleMapper.updateEntityFromRequest(request, rule);
+        ThresholdRule saved = ruleRepository.save(rule);
+        reloadAfterCommit();
+        
+        log.info("Created threshold rule {} for farm {} by farmer {}", saved.getId(), saved.getFarmId(), farmerId);
+        return ruleMapper.toDTO(saved);
+    }
+    
+    /**
+     * Get a rule by ID
+     */
+    public ThresholdRuleDTO getRule(UUID farmerId, UUID ruleId) {
+        ThresholdRule rule = findRule(ruleId);
+        checkPermission(farmerId, rule.getFarmId(), "READ");
+        return ruleMapper.toDTO(rule);
+    }
+    
+    /**
+     * Get the rules of a farm, sensor rules included
+     */
+    public Page<ThresholdRuleDTO> getRulesByFarm(UUID farmerId, UUID farmId, Pageable pageable) {
+        checkPermission(farmerId, farmId, "READ");
+        return ruleRepository.findByFarmId(farmId, pageable)
+                .map(ruleMapper::toDTO);
+    }
+    
+    /**
+     * Replace a rule; a changed rule starts over, so a violated one is evaluated afresh
+     */
+    @Transactional
+    public ThresholdRuleDTO updateRule(UUID farmerId, UUID ruleId, ThresholdRuleRequest request) {
+        ThresholdRule rule = findRule(ruleId);
+        checkPermission(farmerId, rule.getFarmId(), "UPDATE");
+        
+        UUID previousFarmId = rule.getFarmId();
+        applyScope(request, rule);
+        if (!rule.getFarmId().equals(previousFarmId)) {
+            checkPermission(farmerId, rule.getFarmId(), "UPDATE");
+        }
+        
+        ruleMapper.updateEntityFromRequest(request, rule);
+        ThresholdRule saved = ruleRepository.save(rule);
+        reloadAfterCommit();
+        
+        log.info("Updated threshold rule {} by farmer {}", ruleId, farmerId);
+        return ruleMapper.toDTO(saved);
+    }
+    
+    /**
+     * Delete a rule
+     */
+    @Transactional
+    public void deleteRule(UUID farmerId, UUID ruleId) {
+        ThresholdRule rule = findRule(ruleId);
+        checkPermission(farmerId, rule.getFarmId(), "DELETE");
+        
+        ruleRepository.delete(rule);
+        reloadAfterCommit();
+        
+        log.info("Deleted threshold rule {} by farmer {}", ruleId, farmerId);
+    }
+    
+    private ThresholdRule findRule(UUID ruleId) {
+        return ruleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuleNotFoundException(ruleId));
+    }
+    
+    /**
+     * Set the farm, sensor and type of a rule: a sensor rule takes them from its sensor,
+     * a farm rule needs both the farm and the type
+     */
+    private void applyScope(ThresholdRuleRequest request, ThresholdRule rule) {
+        if (request.getSensorId() != null) {
+            SensorDTO sensor = equipmentCache.getSensor(request.getSensorId()).body();
+            if (request.getFarmId() != null && !request.getFarmId().equals(sensor.getFarmId())) {
+                throw new IllegalArgumentException("Sensor " + sensor.getId() + " does not belong to farm " + request.getFarmId());
+            }
+            if (request.getSensorType() != null && request.getSensorType() != sensor.getType()) {
+                throw new IllegalArgumentException("Sensor " + sensor.getId() + " is a " + sensor.getType() + " sensor, not " + request.getSensorType());
+            }
+            rule.setSensorId(sensor.getId());
+            rule.setFarmId(sensor.getFarmId());
+            rule.setSensorType(sensor.getType());
+        } else {
+            if (request.getFarmId() == null || request.getSensorType() == null) {
+                throw new IllegalArgumentException("A rule needs a sensorId, or a farmId and a sensorType");
+            }
+            rule.setSensorId(null);
+            rule.setFarmId(request.getFarmId());
+            rule.setSensorType(request.getSensorType());
+        }
+    }
+    
+    private void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ruleEngine.reload();
+                }
+            });
+        } else {
+            ruleEngine.reload();
+        }
+    }
+    
+    private void checkPermission(UUID farmerId, UUID farmId, String action) {
+        var response = farmersClient.checkPermission(farmerId, farmId, action);
+        if (!response.isAllowed()) {
+            throw new PermissionDeniedException("Farmer " + farmerId + " is not allowed to " + action + " resources for farm " + farmId);
+        }
+    }
+}
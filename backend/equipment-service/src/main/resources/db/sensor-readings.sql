@@ -0,0 +1,28 @@
+-- Raw sensor readings and their 1-minute/1-hour/1-day rollups (/api/sensors/{id}/readings).
+-- Runs at startup; every statement is idempotent.
+-- Rows are written by SensorReadingRepository and purged per resolution by SensorReadingService.
+
+CREATE TABLE IF NOT EXISTS sensor_readings (
+    sensor_id uuid NOT NULL,
+    ts timestamp NOT NULL,
+    value double precision NOT NULL,
+    PRIMARY KEY (sensor_id, ts)
+);
+
+-- Retention deletes by time alone; a BRIN index stays tiny on time-ordered inserts
+CREATE INDEX IF NOT EXISTS idx_sensor_readings_ts ON sensor_readings USING brin (ts);
+
+CREATE TABLE IF NOT EXISTS sensor_reading_rollups (
+    sensor_id uuid NOT NULL,
+    resolution varchar(8) NOT NULL,
+    bucket timestamp NOT NULL,
+    min_value double precision NOT NULL,
+    max_value double precision NOT NULL,
+    sum_value double precision NOT NULL,
+    count bigint NOT NULL,
+    last_ts timestamp NOT NULL,
+    last_value double precision NOT NULL,
+    PRIMARY KEY (sensor_id, resolution, bucket)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sensor_reading_rollups_bucket ON sensor_reading_rollups USING brin (bucket);
@@ -0,0 +1,136 @@
+package com.farm.equipment.anomaly;
+
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics.Anomaly;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Anomaly detector")
+class AnomalyDetectorTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private record Detection(UUID sensorId, Anomaly anomaly, double value, double expected, boolean report) {
+    }
+
+    private final UUID sensorId = UUID.randomUUID();
+    private final UUID farmId = UUID.randomUUID();
+    private final List<Detection> detections = new ArrayList<>();
+    private AnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        AnomalyDetector.Settings settings = new AnomalyDetector.Settings(0.05, 6, 30, 60, 6 * HOUR, 15 * MINUTE,
+                1000, 24 * HOUR, 10, 3);
+        detector = new AnomalyDetector(settings, (sensor, farm, type, anomaly, value, expected, score, since, report) ->
+                detections.add(new Detection(sensor, anomaly, value, expected, report)));
+    }
+
+    @Test
+    @DisplayName("flags a spike in noisy readings, without false positives or poisoning the baseline")
+    void detectsSpikes() {
+        Random random = new Random(7);
+        long t = 0;
+        for (int i = 0; i < 500; i++, t += MINUTE) {
+            detector.onReading(sensorId, farmId, SensorType.TEMPERATURE, t, 20 + random.nextGaussian() * 0.5);
+        }
+        assertThat(detections).isEmpty();
+
+        detector.onReading(sensorId, farmId, SensorType.TEMPERATURE, t, 35);
+        detector.onReading(sensorId, farmId, SensorType.TEMPERATURE, t + MINUTE, 20.2);
+        assertThat(detections).hasSize(1);
+        Detection spike = detections.get(0);
+        assertThat(spike.anomaly()).isEqualTo(Anomaly.SPIKE);
+        assertThat(spike.expected()).isBetween(19.5, 20.5);
+        assertThat(spike.report()).isTrue();
+
+        // A second spike within the report interval is counted, not reported
+        detector.onReading(sensorId, farmId, SensorType.TEMPERATURE, t + 2 * MINUTE, 35);
+        assertThat(detections).hasSize(2);
+        assertThat(detections.get(1).report()).isFalse();
+    }
+
+    @Test
+    @DisplayName("flags implausible values and changes faster than the sensor type allows")
+    void detectsOutOfRangeAndJumps() {
+        detector.onReading(sensorId, farmId, SensorType.HUMIDITY, 0, 105);
+        assertThat(detections).extracting(Detection::anomaly).containsExactly(Anomaly.OUT_OF_RANGE);
+        assertThat(detections.get(0).expected()).isEqualTo(100);
+
+        // Before warmup only the rate of change can reveal a spike
+        detector.onReading(sensorId, farmId, SensorType.HUMIDITY, MINUTE, 50);
+        detector.onReading(sensorId, farmId, SensorType.HUMIDITY, 2 * MINUTE, 90);
+        assertThat(detections).extracting(Detection::anomaly).containsExactly(Anomaly.OUT_OF_RANGE, Anomaly.SPIKE);
+
+        // Readings not newer than the last one are skipped
+        detector.onReading(sensorId, farmId, SensorType.HUMIDITY, 2 * MINUTE, 200);
+        assertThat(detections).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("reports a stuck sensor once per run of identical readings")
+    void detectsFlatline() {
+        long t = 0;
+        for (int i = 0; i < 400; i++, t += MINUTE) {
+            detector.onReading(sensorId, farmId, SensorType.SOIL_MOISTURE, t, 31.5);
+        }
+        assertThat(detections).extracting(Detection::anomaly).containsExactly(Anomaly.FLATLINE);
+
+        detector.onReading(sensorId, farmId, SensorType.SOIL_MOISTURE, t, 31.6);
+        for (int i = 0; i < 10; i++) {
+            t += MINUTE;
+            detector.onReading(sensorId, farmId, SensorType.SOIL_MOISTURE, t, 31.6);
+        }
+        assertThat(detections).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("flags a battery draining much faster than usual, and resets on a new battery")
+    void detectsBatteryDrain() {
+        long t = 0;
+        int level = 100;
+        for (int day = 0; day < 10; day++) {
+            t = day * 24 * HOUR;
+            level -= day % 2;
+            detector.onBattery(sensorId, farmId, SensorType.TEMPERATURE, t, level);
+        }
+        assertThat(detections).isEmpty();
+
+        // 6 points in a day against a usual drain of about half a point
+        detector.onBattery(sensorId, farmId, SensorType.TEMPERATURE, t + 24 * HOUR, level - 6);
+        assertThat(detections).extracting(Detection::anomaly).containsExactly(Anomaly.BATTERY_DRAIN);
+        assertThat(detections.get(0).value()).isEqualTo(6);
+
+        // A large drop is flagged before the window ends; then a new battery starts over
+        detector.onBattery(sensorId, farmId, SensorType.TEMPERATURE, t + 26 * HOUR, level - 20);
+        assertThat(detections).hasSize(2);
+        assertThat(detections.get(1).value()).isEqualTo(14 * 12);
+        detector.onBattery(sensorId, farmId, SensorType.TEMPERATURE, t + 27 * HOUR, 100);
+        detector.onBattery(sensorId, farmId, SensorType.TEMPERATURE, t + 51 * HOUR, 95);
+        assertThat(detections).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("reuses the slot of a forgotten sensor with fresh state")
+    void reusesForgottenSlots() {
+        for (int i = 0; i < 100; i++) {
+            detector.onReading(sensorId, farmId, SensorType.TEMPERATURE, i * MINUTE, 20);
+        }
+        detector.forget(sensorId);
+        UUID other = UUID.randomUUID();
+        detector.onReading(other, farmId, SensorType.TEMPERATURE, 0, 20);
+        detector.onReading(other, farmId, SensorType.TEMPERATURE, MINUTE, 20.5);
+
+        assertThat(detector.getSensorCount()).isEqualTo(1);
+        assertThat(detections).extracting(Detection::sensorId).doesNotContain(other);
+    }
+}
@@ -0,0 +1,57 @@
+package com.farm.equipment.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulk Import CSV Reader Tests")
+class CsvReaderTest {
+
+    private static CsvReader reader(String csv) throws IOException {
+        return new CsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should map records by header and turn empty values into null")
+    void testRecords() throws IOException {
+        try (CsvReader reader = reader("type, farmId ,battery\r\nHUMIDITY,f1,80\r\n\r\nTEMPERATURE,f2,\n")) {
+            assertThat(reader.getHeader()).containsExactly("type", "farmId", "battery");
+
+            assertThat(reader.next()).isEqualTo(
+                    Map.of("type", "HUMIDITY", "farmId", "f1", "battery", "80"));
+
+            Map<String, String> second = reader.next();
+            assertThat(second.get("type")).isEqualTo("TEMPERATURE");
+            assertThat(second.get("battery")).isNull();
+
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle quoted fields with commas, quotes and line breaks")
+    void testQuotedFields() throws IOException {
+        try (CsvReader reader = reader("location,model\n\"North \"\"A\"\", row 3\",\"multi\nline\"\n")) {
+            Map<String, String> row = reader.next();
+            assertThat(row.get("location")).isEqualTo("North \"A\", row 3");
+            assertThat(row.get("model")).isEqualTo("multi\nline");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject empty input and unterminated quotes")
+    void testMalformedInput() throws IOException {
+        assertThatThrownBy(() -> reader("")).isInstanceOf(IllegalArgumentException.class);
+
+        try (CsvReader reader = reader("location\n\"open")) {
+            assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.farm.equipment.cache;
+
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.exception.SensorNotFoundException;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.service.PumpService;
+import com.farm.equipment.service.SensorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Equipment Near Cache Tests")
+class EquipmentCacheTest {
+
+    @Mock
+    private SensorService sensorService;
+
+    @Mock
+    private PumpService pumpService;
+
+    private EquipmentCache equipmentCache;
+    private UUID sensorId;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        equipmentCache = new EquipmentCache(sensorService, pumpService, objectMapper,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        sensorId = UUID.randomUUID();
+    }
+
+    private SensorDTO sensor(int battery) {
+        return SensorDTO.builder()
+                .id(sensorId)
+                .type(SensorType.HUMIDITY)
+                .battery(battery)
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should load a sensor once and serve repeats from the cache")
+    void testReadThrough() {
+        when(sensorService.getSensorById(sensorId)).thenReturn(sensor(80));
+
+        CachedDTO<SensorDTO> first = equipmentCache.getSensor(sensorId);
+        CachedDTO<SensorDTO> second = equipmentCache.getSensor(sensorId);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).matches("\"[0-9a-f]{32}\"");
+        verify(sensorService, times(1)).getSensorById(sensorId);
+    }
+
+    @Test
+    @DisplayName("Should reload and change the ETag after eviction")
+    void testEviction() {
+        when(sensorService.getSensorById(sensorId)).thenReturn(sensor(80), sensor(15));
+
+        String before = equipmentCache.getSensor(sensorId).etag();
+        equipmentCache.evict(sensorId);
+        CachedDTO<SensorDTO> after = equipmentCache.getSensor(sensorId);
+
+        assertThat(after.body().getBattery()).isEqualTo(15);
+        assertThat(after.etag()).isNotEqualTo(before);
+        verify(sensorService, times(2)).getSensorById(sensorId);
+    }
+
+    @Test
+    @DisplayName("Should not cache missing sensors")
+    void testNotFoundIsNotCached() {
+        when(sensorService.getSensorById(sensorId)).thenThrow(new SensorNotFoundException(sensorId));
+
+        assertThatThrownBy(() -> equipmentCache.getSensor(sensorId)).isInstanceOf(SensorNotFoundException.class);
+        assertThatThrownBy(() -> equipmentCache.getSensor(sensorId)).isInstanceOf(SensorNotFoundException.class);
+        verify(sensorService, times(2)).getSensorById(sensorId);
+    }
+}
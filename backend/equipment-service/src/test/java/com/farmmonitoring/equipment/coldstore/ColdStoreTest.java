@@ -0,0 +1,79 @@
+package com.farm.equipment.coldstore;
+
+import com.farm.equipment.repository.SensorReadingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Cold Store Tests")
+class ColdStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private SensorReadingRepository readingRepository;
+    private ColdStore coldStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readingRepository = mock(SensorReadingRepository.class);
+        coldStore = new ColdStore(readingRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coldStore, "enabled", true);
+        ReflectionTestUtils.setField(coldStore, "directory", directory.toString());
+        ReflectionTestUtils.setField(coldStore, "sealAfter", Duration.ofDays(2));
+        ReflectionTestUtils.setField(coldStore, "retention", Duration.ofDays(1825));
+        ReflectionTestUtils.setField(coldStore, "fetchSize", 1000);
+        ReflectionTestUtils.setField(coldStore, "rawRetention", Duration.ofDays(7));
+        coldStore.init();
+    }
+
+    @Test
+    @DisplayName("Should wait for the inserts in progress, then stop accepting a day before reading it to seal")
+    void sealsOnlyOnceInsertsAreStored() throws Exception {
+        // The end of the day read, and the acceptsFrom() seen while reading it
+        List<LocalDateTime[]> reads = new ArrayList<>();
+        when(readingRepository.streamRaw(any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            reads.add(new LocalDateTime[] {invocation.getArgument(1), coldStore.acceptsFrom()});
+            return 0L;
+        });
+
+        Lock insert = coldStore.insertLock();
+        insert.lock();
+        CompletableFuture<Void> seal;
+        try {
+            seal = CompletableFuture.runAsync(coldStore::seal);
+            verify(readingRepository, after(200).never()).streamRaw(any(), any(), anyInt(), any());
+            assertThat(coldStore.acceptsFrom()).isNull();
+        } finally {
+            insert.unlock();
+        }
+        seal.get(10, TimeUnit.SECONDS);
+
+        LocalDate lastSealable = LocalDateTime.now(ZoneOffset.UTC).minusDays(2).toLocalDate().minusDays(1);
+        assertThat(reads).isNotEmpty();
+        for (LocalDateTime[] read : reads) {
+            assertThat(read[1]).as("acceptsFrom() while reading the day ending %s", read[0]).isEqualTo(read[0]);
+        }
+        assertThat(coldStore.sealedUntil()).isEqualTo(lastSealable.plusDays(1).atStartOfDay());
+        assertThat(coldStore.acceptsFrom()).isEqualTo(coldStore.sealedUntil());
+    }
+}
@@ -0,0 +1,174 @@
+package com.farm.equipment.coldstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Cold Segment Tests")
+class SegmentTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+    private static final long START = DAY.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @TempDir
+    Path directory;
+
+    private static List<long[]> decode(GorillaEncoder encoder, long from, long to) {
+        ByteBuffer buffer = ByteBuffer.allocate(encoder.payloadBytes());
+        encoder.writePayload(buffer);
+        List<long[]> points = new ArrayList<>();
+        new GorillaDecoder().decode(buffer, 0, encoder.getCount(), encoder.getFirstTimestamp(), from, to,
+                (epochMillis, value) -> points.add(new long[] {epochMillis, Double.doubleToRawLongBits(value)}));
+        return points;
+    }
+
+    @Test
+    @DisplayName("Should decode exactly what was encoded, whatever the jitter and values")
+    void roundTrip() {
+        Random random = new Random(42);
+        GorillaEncoder encoder = new GorillaEncoder();
+        long[] timestamps = new long[5000];
+        double[] values = new double[timestamps.length];
+        long timestamp = START;
+        for (int i = 0; i < timestamps.length; i++) {
+            // Regular, jittered, large and zero gaps; repeated, close, random and special values
+            timestamp += switch (i % 5) {
+                case 0 -> 60_000;
+                case 1 -> 60_000 + random.nextInt(3000) - 1500;
+                case 2 -> random.nextInt(10_000_000);
+                case 3 -> 0;
+                default -> 60_000 + random.nextInt(200) - 100;
+            };
+            timestamps[i] = timestamp;
+            values[i] = switch (i % 4) {
+                case 0 -> i > 0 ? values[i - 1] : 21.5;
+                case 1 -> 20 + Math.round(random.nextGaussian() * 10) / 10.0;
+                case 2 -> random.nextDouble() * 1e6 - 5e5;
+                default -> i % 8 == 3 ? -0.0 : Double.MAX_VALUE;
+            };
+            encoder.add(timestamps[i], values[i]);
+        }
+
+        List<long[]> points = decode(encoder, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertThat(points).hasSize(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            assertThat(points.get(i)[0]).isEqualTo(timestamps[i]);
+            assertThat(points.get(i)[1]).isEqualTo(Double.doubleToRawLongBits(values[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("Should take under 2 bytes per reading for a regular sensor")
+    void compressesRegularReadings() {
+        GorillaEncoder encoder = new GorillaEncoder();
+        Random random = new Random(7);
+        double value = 21.5;
+        for (int i = 0; i < SegmentWriter.BLOCK_POINTS; i++) {
+            // One reading a minute, a 0.1 resolution value that mostly stays put
+            if (random.nextInt(4) == 0) {
+                value = Math.round((value + (random.nextBoolean() ? 0.1 : -0.1)) * 10) / 10.0;
+            }
+            encoder.add(START + i * 60_000L, value);
+        }
+        assertThat((double) encoder.payloadBytes() / encoder.getCount()).isLessThan(2.0);
+    }
+
+    @Test
+    @DisplayName("Should only emit readings within the range")
+    void decodesRange() {
+        GorillaEncoder encoder = new GorillaEncoder();
+        for (int i = 0; i < 100; i++) {
+            encoder.add(START + i * 1000L, i);
+        }
+        List<long[]> points = decode(encoder, START + 10_000, START + 20_000);
+        assertThat(points).hasSize(10);
+        assertThat(points.get(0)[0]).isEqualTo(START + 10_000);
+        assertThat(points.get(9)[0]).isEqualTo(START + 19_000);
+    }
+
+    @Test
+    @DisplayName("Should write a segment and scan each sensor's readings back")
+    void writesAndScansSegment() throws IOException {
+        UUID[] sensors = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        java.util.Arrays.sort(sensors, (a, b) -> Segment.compare(a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits()));
+        int perSensor = SegmentWriter.BLOCK_POINTS * 2 + 100;
+
+        Path path;
+        try (SegmentWriter writer = new SegmentWriter(directory, DAY)) {
+            for (int s = 0; s < sensors.length; s++) {
+                for (int i = 0; i < perSensor; i++) {
+                    writer.add(sensors[s], START + i * 10_000L, s * 1000 + i);
+                }
+            }
+            path = writer.finish();
+        }
+        assertThat(path.getFileName().toString()).isEqualTo("readings-2024-06-01.seg");
+        assertThat(Files.list(directory)).containsExactly(path);
+
+        Segment segment = Segment.open(path);
+        assertThat(segment.getDay()).isEqualTo(DAY);
+        assertThat(segment.getPointCount()).isEqualTo((long) perSensor * sensors.length);
+        assertThat(segment.getBlockCount()).isEqualTo(3 * sensors.length);
+
+        GorillaDecoder decoder = new GorillaDecoder();
+        List<Double> values = new ArrayList<>();
+        int all = segment.scan(sensors[1], START, START + 86_400_000L, decoder, (t, v) -> values.add(v));
+        assertThat(all).isEqualTo(perSensor);
+        assertThat(values.get(0)).isEqualTo(1000.0);
+        assertThat(values.get(perSensor - 1)).isEqualTo(1000.0 + perSensor - 1);
+
+        // Range spanning a block boundary
+        values.clear();
+        long from = START + (SegmentWriter.BLOCK_POINTS - 5) * 10_000L;
+        assertThat(segment.scan(sensors[2], from, from + 10 * 10_000L, decoder, (t, v) -> values.add(v))).isEqualTo(10);
+        assertThat(values.get(0)).isEqualTo(2000.0 + SegmentWriter.BLOCK_POINTS - 5);
+
+        assertThat(segment.scan(UUID.randomUUID(), START, START + 86_400_000L, decoder, (t, v) -> values.add(v)))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should let two writers of the same day write side by side, the last one finished winning")
+    void writesSameDayConcurrently() throws IOException {
+        UUID sensor = UUID.randomUUID();
+        Path path;
+        try (SegmentWriter first = new SegmentWriter(directory, DAY);
+             SegmentWriter second = new SegmentWriter(directory, DAY)) {
+            first.add(sensor, START, 1);
+            second.add(sensor, START, 2);
+            second.add(sensor, START + 1000, 3);
+            first.finish();
+            path = second.finish();
+        }
+        assertThat(Files.list(directory)).containsExactly(path);
+        assertThat(Segment.open(path).getPointCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject readings out of order and leave no file behind")
+    void rejectsOutOfOrder() throws IOException {
+        UUID sensor = UUID.randomUUID();
+        try (SegmentWriter writer = new SegmentWriter(directory, DAY)) {
+            writer.add(sensor, START + 1000, 1);
+            assertThatThrownBy(() -> writer.add(sensor, START, 2)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> writer.add(sensor, START - 1, 2)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(Files.list(directory)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.farm.equipment.config;
+
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.event.EquipmentEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Smile Message Converter Tests")
+class SmileMessageConverterTest {
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static EquipmentEvent event() {
+        EquipmentEvent event = EquipmentEvent.createStatusChanged(UUID.randomUUID(), "PUMP", UUID.randomUUID(), "INACTIVE", "ACTIVE");
+        event.setTimestamp(LocalDateTime.of(2024, 6, 1, 12, 30, 15));
+        return event;
+    }
+
+    private static Message inferredAs(Message message, Class<?> type) {
+        message.getMessageProperties().setInferredArgumentType(type);
+        return message;
+    }
+
+    @Test
+    @DisplayName("Should round-trip an event into its typed form")
+    void testRoundTrip() {
+        SmileMessageConverter converter = new SmileMessageConverter(objectMapper());
+        EquipmentEvent event = event();
+
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(SmileMessageConverter.CONTENT_TYPE);
+        EquipmentEvent decoded = (EquipmentEvent) converter.fromMessage(inferredAs(message, EquipmentEvent.class));
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getEventType()).isEqualTo(EquipmentEventType.STATUS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("Should encode events smaller than JSON")
+    void testSmallerThanJson() {
+        EquipmentEvent event = event();
+
+        int smile = new SmileMessageConverter(objectMapper()).toMessage(event, new MessageProperties()).getBody().length;
+        int json = new Jackson2JsonMessageConverter(objectMapper()).toMessage(event, new MessageProperties()).getBody().length;
+
+        assertThat(smile).isLessThan(json);
+    }
+
+    @Test
+    @DisplayName("Should decode JSON and Smile messages by content-type")
+    void testContentTypeNegotiation() {
+        RabbitMQConfig config = new RabbitMQConfig();
+        MessageConverter converter = config.messageConverter(objectMapper());
+        EquipmentEvent event = event();
+
+        Message json = new Jackson2JsonMessageConverter(objectMapper()).toMessage(event, new MessageProperties());
+        Message smile = new SmileMessageConverter(objectMapper()).toMessage(event, new MessageProperties());
+
+        assertThat(converter.fromMessage(inferredAs(json, EquipmentEvent.class))).isEqualTo(event);
+        assertThat(converter.fromMessage(inferredAs(smile, EquipmentEvent.class))).isEqualTo(event);
+
+        Message untyped = new SmileMessageConverter(objectMapper()).toMessage(Map.of("equipmentId", "abc"), new MessageProperties());
+        assertThat(converter.fromMessage(untyped)).isEqualTo(Map.of("equipmentId", "abc"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.farm.equipment.controller;
+
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.client.PermissionCheckResponse;
+import com.farm.equipment.model.ConnectedPump;
+import com.farm.equipment.model.ConnectedSensor;
+import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.repository.ConnectedPumpRepository;
+import com.farm.equipment.repository.ConnectedSensorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.farm.query.StatementCount.atMost;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the sensor and pump read endpoints, against the Testcontainers PostgreSQL
+ * of {@code application-test.yml}. Pages hold more rows than the budget, so loading anything per
+ * row fails the test. Skipped where Docker is not available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Controller Statement Count Tests")
+class ControllerStatementCountTest {
+
+    private static final int SENSORS = 25;
+    private static final int PUMPS = 25;
+    private static final String FARMER_HEADER = "X-Farmer-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConnectedSensorRepository sensorRepository;
+
+    @Autowired
+    private ConnectedPumpRepository pumpRepository;
+
+    @MockBean
+    private FarmersFeignClient farmersClient;
+
+    private final UUID farmerId = UUID.randomUUID();
+    private final UUID farmId = UUID.randomUUID();
+    private UUID sensorId;
+    private UUID pumpId;
+
+    @BeforeEach
+    void setUp() {
+        sensorRepository.deleteAll();
+        pumpRepository.deleteAll();
+        when(farmersClient.checkPermission(any(), any(), any()))
+                .thenReturn(PermissionCheckResponse.builder().allowed(true).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < SENSORS; i++) {
+            sensorId = sensorRepository.save(ConnectedSensor.builder()
+                    .type(SensorType.values()[i % SensorType.values().length])
+                    .farmId(farmId)
+                    .battery(i * 4)
+                    .lastCommunication(now.minusMinutes(i * 5L))
+                    .location("Field " + i)
+                    .active(i % 5 != 0)
+                    .build()).getId();
+        }
+        for (int i = 0; i < PUMPS; i++) {
+            pumpId = pumpRepository.save(ConnectedPump.builder()
+                    .farmId(farmId)
+                    .model("Pump " + i)
+                    .status(EquipmentStatus.values()[i % EquipmentStatus.values().length])
+                    .maxFlow(BigDecimal.valueOf(100 + i))
+                    .location("Well " + i)
+                    .nextMaintenanceDate(now.plusDays(i - 10L))
+                    .build()).getId();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/farm/{farmId} - Should read the page and its count only")
+    void getSensorsByFarm() throws Exception {
+        mockMvc.perform(get("/api/sensors/farm/{farmId}", farmId).header(FARMER_HEADER, farmerId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/farm/{farmId}/type/{type} - Should read the page and its count only")
+    void getSensorsByType() throws Exception {
+        mockMvc.perform(get("/api/sensors/farm/{farmId}/type/{type}", farmId, SensorType.TEMPERATURE)
+                        .header(FARMER_HEADER, farmerId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/farm/{farmId}/active - Should read the page and its count only")
+    void getActiveSensors() throws Exception {
+        mockMvc.perform(get("/api/sensors/farm/{farmId}/active", farmId).header(FARMER_HEADER, farmerId)
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/farm/{farmId}/low-battery - Should read the page and its count only")
+    void getSensorsWithLowBattery() throws Exception {
+        mockMvc.perform(get("/api/sensors/farm/{farmId}/low-battery", farmId).header(FARMER_HEADER, farmerId)
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/farm/{farmId}/offline - Should read the page and its count only")
+    void getOfflineSensors() throws Exception {
+        mockMvc.perform(get("/api/sensors/farm/{farmId}/offline", farmId).header(FARMER_HEADER, farmerId)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/sensors/{id} - Should read the sensor at most once")
+    void getSensorById() throws Exception {
+        mockMvc.perform(get("/api/sensors/{id}", sensorId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/pumps/farm/{farmId} - Should read the page and its count only")
+    void getPumpsByFarm() throws Exception {
+        mockMvc.perform(get("/api/pumps/farm/{farmId}", farmId).header(FARMER_HEADER, farmerId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/pumps/farm/{farmId}/status/{status} - Should read the page and its count only")
+    void getPumpsByStatus() throws Exception {
+        mockMvc.perform(get("/api/pumps/farm/{farmId}/status/{status}", farmId, EquipmentStatus.ACTIVE)
+                        .header(FARMER_HEADER, farmerId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/pumps/farm/{farmId}/operational - Should read the page and its count only")
+    void getOperationalPumps() throws Exception {
+        mockMvc.perform(get("/api/pumps/farm/{farmId}/operational", farmId).header(FARMER_HEADER, farmerId)
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/pumps/farm/{farmId}/maintenance-overdue - Should read the page and its count only")
+    void getPumpsWithOverdueMaintenance() throws Exception {
+        mockMvc.perform(get("/api/pumps/farm/{farmId}/maintenance-overdue", farmId).header(FARMER_HEADER, farmerId)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/pumps/{id} - Should read the pump at most once")
+    void getPumpById() throws Exception {
+        mockMvc.perform(get("/api/pumps/{id}", pumpId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+}
@@ -0,0 +1,164 @@
+package com.farm.equipment.gateway;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Device frame server")
+class FrameServerTest {
+
+    private record Stored(UUID sensorId, long epochMillis, double value, int batteryLevel) {
+    }
+
+    private final UUID sensorId = UUID.randomUUID();
+    private final UUID unknownId = UUID.randomUUID();
+    private final List<Stored> stored = new CopyOnWriteArrayList<>();
+    private final List<UUID> offered = new CopyOnWriteArrayList<>();
+    private FrameServer server;
+
+    private void start(double burst) throws IOException {
+        Set<UUID> known = Set.of(sensorId);
+        FrameServer.Settings settings = new FrameServer.Settings("127.0.0.1", 0, 0, 64, 4, 2, 5, 0.001, burst,
+                60_000, 10, 1000, 60_000, 60_000);
+        server = new FrameServer(settings, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                offered.add(batch.getSensorIds()[i]);
+                batch.getUnknownSensors()[i] = !known.contains(batch.getSensorIds()[i]);
+                if (known.contains(batch.getSensorIds()[i])) {
+                    batch.getAccepted()[i] = true;
+                    stored.add(new Stored(batch.getSensorIds()[i], batch.getEpochMillis()[i], batch.getValues()[i],
+                            batch.getBatteryLevels()[i]));
+                }
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        server.stop();
+    }
+
+    private static byte[] frames(int firstSequence, UUID sensorId, int batteryLevel, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * FrameFormat.FRAME_BYTES);
+        for (int i = 0; i < count; i++) {
+            FrameFormat.writeFrame(buffer, firstSequence + i, sensorId, batteryLevel, 1_700_000_000_000L + i, 20.5 + i);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Read acks until they cover the given sequence; returns {accepted, rejected}
+     */
+    private static int[] readAcks(DataInputStream in, int lastSequence) throws IOException {
+        int[] totals = new int[2];
+        int acked;
+        do {
+            byte[] ack = new byte[FrameFormat.ACK_BYTES];
+            in.readFully(ack);
+            ByteBuffer buffer = ByteBuffer.wrap(ack);
+            acked = FrameFormat.ackLastSequence(buffer, 0);
+            totals[0] += FrameFormat.ackAccepted(buffer, 0);
+            totals[1] += FrameFormat.ackRejected(buffer, 0);
+        } while (acked != lastSequence);
+        return totals;
+    }
+
+    @Test
+    @DisplayName("stores TCP frames, split anywhere, and acknowledges them; frames of unknown sensors are rejected")
+    void storesTcpFrames() throws Exception {
+        start(100);
+        try (Socket socket = new Socket("127.0.0.1", server.getTcpPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            byte[] known = frames(1, sensorId, 80, 3);
+            out.write(known, 0, 25);
+            out.flush();
+            Thread.sleep(50);
+            out.write(known, 25, known.length - 25);
+            out.write(frames(4, unknownId, 80, 1));
+            out.flush();
+
+            assertThat(readAcks(in, 4)).containsExactly(3, 1);
+        }
+        assertThat(stored).extracting(Stored::value).containsExactly(20.5, 21.5, 22.5);
+        assertThat(stored.get(0).epochMillis()).isEqualTo(1_700_000_000_000L);
+        // Only the first level is passed on: it does not change, and the battery interval has not elapsed
+        assertThat(stored).extracting(Stored::batteryLevel).containsExactly(80, 255, 255);
+    }
+
+    @Test
+    @DisplayName("forgets a device the store finds unknown, and rejects its frames on receipt afterwards")
+    void forgetsUnknownSensors() throws Exception {
+        start(100);
+        try (Socket socket = new Socket("127.0.0.1", server.getTcpPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            out.write(frames(1, unknownId, FrameFormat.NO_BATTERY, 2));
+            assertThat(readAcks(in, 2)).containsExactly(0, 2);
+            assertThat(server.getDeviceCount()).isZero();
+
+            out.write(frames(3, unknownId, FrameFormat.NO_BATTERY, 2));
+            out.write(frames(5, sensorId, FrameFormat.NO_BATTERY, 1));
+            assertThat(readAcks(in, 5)).containsExactly(1, 2);
+        }
+        assertThat(offered).containsExactly(unknownId, unknownId, sensorId);
+        assertThat(server.getDeviceCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rejects the frames of a device past its burst")
+    void rateLimitsDevices() throws Exception {
+        start(5);
+        try (Socket socket = new Socket("127.0.0.1", server.getTcpPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(frames(1, sensorId, FrameFormat.NO_BATTERY, 8));
+
+            assertThat(readAcks(new DataInputStream(socket.getInputStream()), 8)).containsExactly(5, 3);
+        }
+        assertThat(stored).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("acknowledges a UDP datagram as one window, and drops a malformed one")
+    void storesDatagrams() throws Exception {
+        start(100);
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(5000);
+            InetAddress address = InetAddress.getLoopbackAddress();
+            byte[] malformed = new byte[FrameFormat.FRAME_BYTES + 1];
+            socket.send(new DatagramPacket(malformed, malformed.length, address, server.getUdpPort()));
+            byte[] datagram = frames(10, sensorId, 55, 2);
+            socket.send(new DatagramPacket(datagram, datagram.length, address, server.getUdpPort()));
+
+            DatagramPacket ack = new DatagramPacket(new byte[64], 64);
+            socket.receive(ack);
+            assertThat(ack.getLength()).isEqualTo(FrameFormat.ACK_BYTES);
+            ByteBuffer buffer = ByteBuffer.wrap(ack.getData());
+            assertThat(FrameFormat.ackFirstSequence(buffer, 0)).isEqualTo(10);
+            assertThat(FrameFormat.ackLastSequence(buffer, 0)).isEqualTo(11);
+            assertThat(FrameFormat.ackAccepted(buffer, 0)).isEqualTo(2);
+            assertThat(FrameFormat.ackRejected(buffer, 0)).isZero();
+        }
+        assertThat(stored).extracting(Stored::sensorId).containsOnly(sensorId).hasSize(2);
+    }
+}
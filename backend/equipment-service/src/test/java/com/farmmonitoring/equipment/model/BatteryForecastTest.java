@@ -0,0 +1,92 @@
+package com.farm.equipment.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("Battery forecast")
+class BatteryForecastTest {
+
+    private static final int THRESHOLD = 20;
+    private static final Duration HALF_LIFE = Duration.ofDays(30);
+    private static final Duration MIN_SPAN = Duration.ofDays(1);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final BatteryForecast forecast = new BatteryForecast();
+
+    private void record(double days, int level) {
+        forecast.record(START.plusMinutes(Math.round(days * 24 * 60)), level, THRESHOLD, HALF_LIFE, MIN_SPAN);
+    }
+
+    @Test
+    @DisplayName("forecasts depletion of a steady drain")
+    void forecastsLinearDrain() {
+        // 2 points a day, every 6 hours, from 100 to 80 over 10 days: 30 days left to 20
+        for (int i = 0; i <= 40; i++) {
+            record(i * 0.25, (int) Math.round(100 - i * 0.5));
+        }
+
+        assertThat(forecast.getDrainPerDay()).isCloseTo(2.0, within(0.05));
+        assertThat(Duration.between(START.plusDays(10), forecast.getDepletionAt()).toHours())
+                .isCloseTo(30 * 24L, within(24L));
+    }
+
+    @Test
+    @DisplayName("gives no forecast before the levels span min-span")
+    void waitsForMinSpan() {
+        record(0, 100);
+        record(0.5, 90);
+
+        assertThat(forecast.getDrainPerDay()).isNull();
+        assertThat(forecast.getDepletionAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("starts a new line when the battery is recharged")
+    void resetsOnRecharge() {
+        for (int day = 0; day <= 10; day++) {
+            record(day, 100 - 5 * day);
+        }
+        assertThat(forecast.getDrainPerDay()).isCloseTo(5.0, within(0.01));
+
+        record(10.5, 100);
+        assertThat(forecast.getOriginAt()).isEqualTo(START.plusHours(252));
+        assertThat(forecast.getDrainPerDay()).isNull();
+        assertThat(forecast.getDepletionAt()).isNull();
+
+        for (int day = 1; day <= 5; day++) {
+            record(10.5 + day, 100 - day);
+        }
+        assertThat(forecast.getDrainPerDay()).isCloseTo(1.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("gives no depletion time for a battery that is not draining")
+    void noForecastWhenFlat() {
+        for (int day = 0; day <= 10; day++) {
+            record(day, 80);
+        }
+
+        assertThat(forecast.getDrainPerDay()).isCloseTo(0.0, within(1e-9));
+        assertThat(forecast.getDepletionAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("is depleted now once the level reaches the threshold, and ignores late levels")
+    void depletedAtThreshold() {
+        record(0, 30);
+        record(2, 25);
+        record(4, 20);
+
+        assertThat(forecast.getDepletionAt()).isEqualTo(START.plusDays(4));
+
+        record(3, 50);
+        assertThat(forecast.getLastLevel()).isEqualTo(20);
+        assertThat(forecast.getLastAt()).isEqualTo(START.plusDays(4));
+    }
+}
@@ -0,0 +1,74 @@
+package com.farm.equipment.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Reading Resolution Selection Tests")
+class ReadingResolutionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private static final Map<ReadingResolution, Duration> RETENTION = new EnumMap<>(Map.of(
+            ReadingResolution.RAW, Duration.ofDays(7),
+            ReadingResolution.MINUTE, Duration.ofDays(30),
+            ReadingResolution.HOUR, Duration.ofDays(365),
+            ReadingResolution.DAY, Duration.ofDays(1825)));
+
+    private static ReadingResolution select(Duration ago, Duration range, int points) {
+        LocalDateTime from = NOW.minus(ago);
+        return ReadingResolution.select(from, from.plus(range), points, NOW, RETENTION);
+    }
+
+    @Test
+    @DisplayName("Should read raw readings for a short recent range")
+    void shortRecentRangeIsRaw() {
+        assertThat(select(Duration.ofHours(1), Duration.ofHours(1), 300)).isEqualTo(ReadingResolution.RAW);
+    }
+
+    @Test
+    @DisplayName("Should read minute rollups when raw readings would be more points than needed")
+    void sixHoursIsMinutes() {
+        assertThat(select(Duration.ofHours(6), Duration.ofHours(6), 300)).isEqualTo(ReadingResolution.MINUTE);
+    }
+
+    @Test
+    @DisplayName("Should read hourly rollups for a 90-day chart")
+    void ninetyDaysIsHours() {
+        assertThat(select(Duration.ofDays(90), Duration.ofDays(90), 300)).isEqualTo(ReadingResolution.HOUR);
+    }
+
+    @Test
+    @DisplayName("Should read daily rollups for a multi-year chart")
+    void yearsAreDays() {
+        assertThat(select(Duration.ofDays(1000), Duration.ofDays(1000), 300)).isEqualTo(ReadingResolution.DAY);
+    }
+
+    @Test
+    @DisplayName("Should use the finest resolution still retained when the finer ones have expired")
+    void expiredFineResolutionsFallBack() {
+        assertThat(select(Duration.ofDays(60), Duration.ofHours(1), 300)).isEqualTo(ReadingResolution.HOUR);
+    }
+
+    @Test
+    @DisplayName("Should fall back to daily rollups past every retention")
+    void pastAllRetentionIsDays() {
+        assertThat(select(Duration.ofDays(4000), Duration.ofDays(10), 300)).isEqualTo(ReadingResolution.DAY);
+    }
+
+    @Test
+    @DisplayName("Should truncate to the start of the bucket")
+    void bucketStart() {
+        LocalDateTime time = LocalDateTime.of(2024, 6, 1, 12, 34, 56);
+        assertThat(ReadingResolution.MINUTE.bucketStart(time)).isEqualTo(LocalDateTime.of(2024, 6, 1, 12, 34));
+        assertThat(ReadingResolution.HOUR.bucketStart(time)).isEqualTo(LocalDateTime.of(2024, 6, 1, 12, 0));
+        assertThat(ReadingResolution.DAY.bucketStart(time)).isEqualTo(LocalDateTime.of(2024, 6, 1, 0, 0));
+        assertThat(ReadingResolution.RAW.bucketStart(time)).isEqualTo(time);
+    }
+}
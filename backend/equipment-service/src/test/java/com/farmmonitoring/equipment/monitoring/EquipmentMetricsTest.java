@@ -0,0 +1,120 @@
+package com.farm.equipment.monitoring;
+
+import com.farm.equipment.event.EquipmentEventType;
+import com.farm.equipment.model.EquipmentStatus;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics.Anomaly;
+import com.farm.equipment.monitoring.EquipmentMetrics.CallOutcome;
+import com.farm.equipment.monitoring.EquipmentMetrics.EquipmentKind;
+import com.farm.equipment.monitoring.EquipmentMetrics.FarmersCall;
+import com.farm.equipment.monitoring.EquipmentMetrics.FrameOutcome;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Equipment Metrics Tests")
+class EquipmentMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private EquipmentMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new EquipmentMetrics(registry);
+        metrics.init();
+    }
+
+    private double count(String name, String... tags) {
+        return registry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should register only the meters recorded for every event and batch at startup")
+    void registersOnlyAlwaysRecordedMeters() {
+        // The simple registry adds a gauge per service level objective of the publish timer, under its own name
+        assertThat(registry.getMeters().stream().map(meter -> meter.getId().getName())
+                .filter(name -> !name.endsWith(".histogram")))
+                .containsExactlyInAnyOrder("equipment.events.publish", "equipment.readings.received",
+                        "equipment.readings.stored");
+    }
+
+    @Test
+    @DisplayName("Should count each tag combination in its own counter, registering only those recorded")
+    void countsEachTagCombination() {
+        metrics.recordStatusChange(EquipmentKind.PUMP, EquipmentStatus.ACTIVE, EquipmentStatus.MAINTENANCE);
+        metrics.recordStatusChange(EquipmentKind.PUMP, EquipmentStatus.ACTIVE, EquipmentStatus.MAINTENANCE);
+        metrics.recordStatusChange(EquipmentKind.SENSOR, EquipmentStatus.ACTIVE, EquipmentStatus.MAINTENANCE);
+        metrics.recordSensorAnomaly(SensorType.HUMIDITY, Anomaly.FLATLINE);
+        metrics.recordMessagePublished(EquipmentEventType.BATTERY_LOW, true);
+        metrics.recordMessagePublished(EquipmentEventType.BATTERY_LOW, false);
+        metrics.recordMessagePublished(EquipmentEventType.BATTERY_LOW, true);
+        metrics.recordRuleTransition(true);
+        metrics.recordGatewayFrames(FrameOutcome.ACCEPTED, 40);
+        metrics.recordGatewayFrames(FrameOutcome.ACCEPTED, 2);
+
+        assertThat(count("equipment.status.changes", "type", "PUMP", "from", "ACTIVE", "to", "MAINTENANCE")).isEqualTo(2);
+        assertThat(count("equipment.status.changes", "type", "SENSOR", "from", "ACTIVE", "to", "MAINTENANCE")).isEqualTo(1);
+        assertThat(registry.find("equipment.status.changes").counters()).hasSize(2);
+        assertThat(count("sensor.anomalies", "sensor_type", "HUMIDITY", "anomaly_type", "flatline")).isEqualTo(1);
+        assertThat(registry.find("sensor.anomalies").counters()).hasSize(1);
+        assertThat(count("equipment.messages.published", "type", "BATTERY_LOW", "success", "true")).isEqualTo(2);
+        assertThat(count("equipment.messages.published", "type", "BATTERY_LOW", "success", "false")).isEqualTo(1);
+        assertThat(count("equipment.rules.transitions", "transition", "violated")).isEqualTo(1);
+        assertThat(registry.find("equipment.rules.transitions").tags("transition", "cleared").counter()).isNull();
+        assertThat(count("equipment.gateway.frames", "outcome", "accepted")).isEqualTo(42);
+        assertThat(registry.find("equipment.gateway.frames").counters()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should time Farmers Service calls and broker confirms by their tags")
+    void timesByTags() {
+        metrics.recordFarmersServiceCall(FarmersCall.CHECK_PERMISSION, CallOutcome.SUCCESS, TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordFarmersServiceCall(FarmersCall.CHECK_PERMISSION, CallOutcome.SUCCESS, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordConfirmTime(TimeUnit.MILLISECONDS.toNanos(4), true);
+
+        Timer calls = registry.get("equipment.farmers_service.call.duration")
+                .tags("endpoint", "check_permission", "status", "success").timer();
+        assertThat(calls.count()).isEqualTo(2);
+        assertThat(calls.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(count("equipment.farmers_service.calls", "endpoint", "check_permission", "status", "success"))
+                .isEqualTo(2);
+        assertThat(registry.find("equipment.farmers_service.call.duration").timers()).hasSize(1);
+        assertThat(registry.get("equipment.events.confirm").tags("result", "ack").timer().count()).isEqualTo(1);
+        assertThat(registry.find("equipment.events.confirm").tags("result", "nack").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should record battery levels in one distribution per farm, with buckets at 10, 20, 50 and 80 %")
+    void recordsBatteryPerFarm() {
+        UUID farmId = UUID.randomUUID();
+        UUID otherFarmId = UUID.randomUUID();
+
+        metrics.recordBatteryLevel(farmId, 15);
+        metrics.recordBatteryLevel(farmId, 85);
+        metrics.recordBatteryLevel(farmId, 45);
+        metrics.recordBatteryLevel(otherFarmId, 5);
+
+        DistributionSummary farm = registry.get("equipment.battery.level").tag("farm_id", farmId.toString()).summary();
+        assertThat(farm.count()).isEqualTo(3);
+        assertThat(farm.totalAmount()).isEqualTo(145);
+        assertThat(farm.max()).isEqualTo(85);
+        assertThat(farm.getId().getBaseUnit()).isEqualTo("percent");
+        assertThat(farm.takeSnapshot().histogramCounts())
+                .extracting(CountAtBucket::bucket, CountAtBucket::count)
+                .containsExactly(tuple(10.0, 0.0), tuple(20.0, 1.0), tuple(50.0, 2.0), tuple(80.0, 2.0));
+        assertThat(registry.get("equipment.battery.level").tag("farm_id", otherFarmId.toString()).summary().count())
+                .isEqualTo(1);
+        assertThat(registry.find("equipment.battery.level").summaries()).hasSize(2);
+    }
+}
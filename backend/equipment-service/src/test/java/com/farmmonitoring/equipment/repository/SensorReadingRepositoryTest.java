@@ -0,0 +1,122 @@
+package com.farm.equipment.repository;
+
+import com.farm.equipment.model.ReadingResolution;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The insert statement against PostgreSQL: raw rows and rollups of every resolution in one CTE.
+ * Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Sensor Reading Repository Tests")
+class SensorReadingRepositoryTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2024, 6, 1, 10, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final UUID sensorId = UUID.randomUUID();
+    private SensorReadingRepository repository;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+                postgres.getUsername(), postgres.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/sensor-readings.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new SensorReadingRepository(jdbcTemplate);
+    }
+
+    private int insert(Object... timesAndValues) {
+        int count = timesAndValues.length / 2;
+        UUID[] sensorIds = new UUID[count];
+        long[] epochMillis = new long[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            sensorIds[i] = sensorId;
+            epochMillis[i] = ((LocalDateTime) timesAndValues[2 * i]).toInstant(ZoneOffset.UTC).toEpochMilli();
+            values[i] = ((Number) timesAndValues[2 * i + 1]).doubleValue();
+        }
+        return repository.insert(sensorIds, epochMillis, values);
+    }
+
+    private Map<String, Object> rollup(ReadingResolution resolution, LocalDateTime bucket) {
+        return jdbcTemplate.queryForMap("SELECT min_value, max_value, sum_value, count, last_value " +
+                "FROM sensor_reading_rollups WHERE sensor_id = ? AND resolution = ? AND bucket = ?",
+                sensorId, resolution.name(), bucket);
+    }
+
+    private int rawCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM sensor_readings WHERE sensor_id = ?",
+                Integer.class, sensorId);
+        return count != null ? count : 0;
+    }
+
+    private static Map<String, Object> bucket(double min, double max, double sum, long count, double last) {
+        return Map.of("min_value", min, "max_value", max, "sum_value", sum, "count", count, "last_value", last);
+    }
+
+    @Test
+    @DisplayName("Should store readings and roll them up into every resolution")
+    void storesAndRollsUp() {
+        assertThat(insert(TEN, 1, TEN.plusSeconds(30), 3, TEN.plusSeconds(70), 2)).isEqualTo(3);
+
+        assertThat(rawCount()).isEqualTo(3);
+        assertThat(rollup(ReadingResolution.MINUTE, TEN)).isEqualTo(bucket(1, 3, 4, 2, 3));
+        assertThat(rollup(ReadingResolution.MINUTE, TEN.plusMinutes(1))).isEqualTo(bucket(2, 2, 2, 1, 2));
+        assertThat(rollup(ReadingResolution.HOUR, TEN)).isEqualTo(bucket(1, 3, 6, 3, 2));
+        assertThat(rollup(ReadingResolution.DAY, TEN.toLocalDate().atStartOfDay())).isEqualTo(bucket(1, 3, 6, 3, 2));
+    }
+
+    @Test
+    @DisplayName("Should neither store nor count a repeated reading, within a batch or across batches")
+    void ignoresDuplicates() {
+        insert(TEN, 1, TEN.plusSeconds(30), 3);
+
+        assertThat(insert(TEN, 1, TEN.plusSeconds(30), 3)).isZero();
+        // A resent reading does not count even with another value; a batch repeating a time stores it once
+        assertThat(insert(TEN, 50, TEN.plusSeconds(40), 5, TEN.plusSeconds(40), 5)).isEqualTo(1);
+
+        assertThat(rawCount()).isEqualTo(3);
+        assertThat(rollup(ReadingResolution.MINUTE, TEN)).isEqualTo(bucket(1, 5, 9, 3, 5));
+        assertThat(rollup(ReadingResolution.HOUR, TEN)).isEqualTo(bucket(1, 5, 9, 3, 5));
+    }
+
+    @Test
+    @DisplayName("Should merge late readings into their buckets without taking over the last value")
+    void mergesLateReadings() {
+        insert(TEN.plusSeconds(10), 4, TEN.plusSeconds(50), 6);
+
+        assertThat(insert(TEN.plusSeconds(20), 10, TEN.minusMinutes(1), 0)).isEqualTo(2);
+
+        assertThat(rollup(ReadingResolution.MINUTE, TEN)).isEqualTo(bucket(4, 10, 20, 3, 6));
+        assertThat(rollup(ReadingResolution.MINUTE, TEN.minusMinutes(1))).isEqualTo(bucket(0, 0, 0, 1, 0));
+        assertThat(rollup(ReadingResolution.HOUR, TEN)).isEqualTo(bucket(4, 10, 20, 3, 6));
+        assertThat(rollup(ReadingResolution.HOUR, TEN.minusHours(1))).isEqualTo(bucket(0, 0, 0, 1, 0));
+        assertThat(rollup(ReadingResolution.DAY, TEN.toLocalDate().atStartOfDay())).isEqualTo(bucket(0, 10, 20, 4, 6));
+    }
+}
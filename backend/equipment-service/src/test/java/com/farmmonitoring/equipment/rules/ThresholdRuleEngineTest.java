@@ -0,0 +1,156 @@
+package com.farm.equipment.rules;
+
+import com.farm.equipment.event.EquipmentEvent;
+import com.farm.equipment.event.EquipmentEventType;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.model.ThresholdOperator;
+import com.farm.equipment.model.ThresholdRule;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.repository.ThresholdRuleRepository;
+import com.farm.equipment.service.EquipmentEventPublisher;
+import com.farm.events.payload.ThresholdViolatedPayload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Threshold rule engine")
+class ThresholdRuleEngineTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final UUID farmId = UUID.randomUUID();
+    private final UUID sensorId = UUID.randomUUID();
+    private final List<ThresholdRule> rules = new ArrayList<>();
+
+    private ThresholdRuleRepository repository;
+    private EquipmentEventPublisher publisher;
+    private ThresholdRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ThresholdRuleRepository.class);
+        publisher = mock(EquipmentEventPublisher.class);
+        when(repository.findByEnabledTrue()).thenAnswer(invocation -> List.copyOf(rules));
+        EquipmentMetrics metrics = new EquipmentMetrics(new SimpleMeterRegistry());
+        metrics.init();
+        engine = new ThresholdRuleEngine(repository, publisher, metrics);
+    }
+
+    @Test
+    @DisplayName("violates a rule only once readings stay past the threshold for its duration")
+    void violatesAfterDuration() {
+        rules.add(rule(null, SensorType.SOIL_MOISTURE, ThresholdOperator.BELOW, 15, 2, 10 * 60));
+        engine.reload();
+
+        // Dips below 15 for 5 minutes, recovers, then stays below for 10 minutes
+        evaluate(0, 14.0);
+        evaluate(5 * MINUTE, 14.5);
+        evaluate(6 * MINUTE, 16.0);
+        evaluate(7 * MINUTE, 13.0);
+        evaluate(16 * MINUTE, 12.0);
+        verify(publisher, never()).publishThresholdEvent(any());
+
+        evaluate(17 * MINUTE, 12.5);
+        List<EquipmentEvent> events = published(1);
+        assertThat(events.get(0).getEventType()).isEqualTo(EquipmentEventType.THRESHOLD_VIOLATED);
+        ThresholdViolatedPayload payload = (ThresholdViolatedPayload) events.get(0).getPayload();
+        assertThat(payload.value()).isEqualTo(12.5);
+        assertThat(payload.since()).isEqualTo(LocalDateTime.of(1970, 1, 1, 0, 7));
+
+        // Still violated: no second event
+        evaluate(18 * MINUTE, 11.0);
+        published(1);
+    }
+
+    @Test
+    @DisplayName("clears a violated rule only past the hysteresis")
+    void clearsPastHysteresis() {
+        rules.add(rule(sensorId, SensorType.TEMPERATURE, ThresholdOperator.ABOVE, 30, 2, 0));
+        engine.reload();
+
+        evaluate(0, 31.0);
+        evaluate(MINUTE, 29.0);
+        evaluate(2 * MINUTE, 31.0);
+        published(1);
+
+        evaluate(3 * MINUTE, 27.5);
+        List<EquipmentEvent> events = published(2);
+        assertThat(events.get(1).getEventType()).isEqualTo(EquipmentEventType.THRESHOLD_CLEARED);
+    }
+
+    @Test
+    @DisplayName("keeps the state of unchanged rules across reloads and resets changed ones")
+    void keepsStateAcrossReloads() {
+        ThresholdRule kept = rule(sensorId, SensorType.TEMPERATURE, ThresholdOperator.ABOVE, 30, 0, 0);
+        ThresholdRule changed = rule(null, SensorType.TEMPERATURE, ThresholdOperator.ABOVE, 35, 0, 0);
+        rules.add(kept);
+        rules.add(changed);
+        engine.reload();
+        evaluate(0, 40.0);
+        published(2);
+
+        changed.setThreshold(36);
+        changed.setUpdatedAt(changed.getUpdatedAt().plusSeconds(1));
+        engine.reload();
+        evaluate(MINUTE, 40.0);
+
+        // Only the changed rule starts over, and is violated again
+        List<EquipmentEvent> events = published(3);
+        assertThat(((ThresholdViolatedPayload) events.get(2).getPayload()).ruleId()).isEqualTo(changed.getId());
+    }
+
+    @Test
+    @DisplayName("applies farm rules to sensors of their type only, and skips out-of-order readings")
+    void appliesFarmRulesByType() {
+        rules.add(rule(null, SensorType.HUMIDITY, ThresholdOperator.ABOVE, 90, 0, 0));
+        engine.reload();
+
+        engine.evaluate(sensorId, farmId, SensorType.TEMPERATURE, new long[] {0}, new double[] {95});
+        engine.evaluate(sensorId, UUID.randomUUID(), SensorType.HUMIDITY, new long[] {0}, new double[] {95});
+        verify(publisher, never()).publishThresholdEvent(any());
+
+        engine.evaluate(sensorId, farmId, SensorType.HUMIDITY, new long[] {2 * MINUTE, MINUTE}, new double[] {50, 95});
+        verify(publisher, never()).publishThresholdEvent(any());
+        engine.evaluate(sensorId, farmId, SensorType.HUMIDITY, new long[] {3 * MINUTE}, new double[] {95});
+        published(1);
+    }
+
+    private void evaluate(long epochMillis, double value) {
+        SensorType type = rules.get(0).getSensorType();
+        engine.evaluate(sensorId, farmId, type, new long[] {epochMillis}, new double[] {value});
+    }
+
+    private List<EquipmentEvent> published(int count) {
+        ArgumentCaptor<EquipmentEvent> captor = ArgumentCaptor.forClass(EquipmentEvent.class);
+        verify(publisher, times(count)).publishThresholdEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private ThresholdRule rule(UUID sensor, SensorType type, ThresholdOperator operator, double threshold,
+                               double hysteresis, long durationSeconds) {
+        ThresholdRule rule = ThresholdRule.builder()
+                .id(UUID.randomUUID())
+                .name("rule " + (rules.size() + 1))
+                .farmId(farmId)
+                .sensorId(sensor)
+                .sensorType(type)
+                .operator(operator)
+                .threshold(threshold)
+                .hysteresis(hysteresis)
+                .durationSeconds(durationSeconds)
+                .enabled(true)
+                .build();
+        rule.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        return rule;
+    }
+}
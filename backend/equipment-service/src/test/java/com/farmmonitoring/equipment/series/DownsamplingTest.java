@@ -0,0 +1,106 @@
+package com.farm.equipment.series;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Series Downsampling Tests")
+class DownsamplingTest {
+
+    private static final long START = 1_717_200_000_000L;
+    private static final int N = 100_000;
+    private static final int SPIKE = 54_321;
+
+    /**
+     * A noisy sine with one spike, a reading every second
+     */
+    private static ReadingBuffer series() {
+        Random random = new Random(1);
+        ReadingBuffer buffer = new ReadingBuffer();
+        for (int i = 0; i < N; i++) {
+            double value = i == SPIKE ? 80 : 20 + 5 * Math.sin(i / 5000.0) + random.nextDouble() * 0.2;
+            buffer.accept(START + i * 1000L, value);
+        }
+        return buffer;
+    }
+
+    private static int[] select(Downsampling method, ReadingBuffer buffer, int maxPoints) {
+        int[] selected = new int[maxPoints];
+        int length = method.select(buffer, START, START + N * 1000L, maxPoints, selected);
+        return Arrays.copyOf(selected, length);
+    }
+
+    @Test
+    @DisplayName("LTTB should return exactly maxPoints, first and last included, and keep a spike")
+    void lttbKeepsShape() {
+        int[] selected = select(Downsampling.LTTB, series(), 1000);
+
+        assertThat(selected).hasSize(1000).isSorted().doesNotHaveDuplicates();
+        assertThat(selected[0]).isZero();
+        assertThat(selected[999]).isEqualTo(N - 1);
+        assertThat(selected).contains(SPIKE);
+    }
+
+    @Test
+    @DisplayName("LTTB should keep a rollup bucket holding a spike that its average hides, high or low")
+    void lttbKeepsSpikeWithinBucket() {
+        int buckets = 10_000;
+        int high = 4321;
+        int low = 7654;
+        Random random = new Random(1);
+        ReadingBuffer buffer = new ReadingBuffer();
+        for (int i = 0; i < buckets; i++) {
+            double avg = 20 + 5 * Math.sin(i / 500.0) + random.nextDouble() * 0.2;
+            // One reading of 80 (or -40) among an hour of them barely moves the bucket's average
+            double min = i == low ? -40 : avg - 0.5;
+            double max = i == high ? 80 : avg + 0.5;
+            buffer.add(START + i * 3_600_000L, min, max, avg, avg, 3600);
+        }
+        int[] selected = new int[1000];
+        int length = Downsampling.LTTB.select(buffer, START, START + buckets * 3_600_000L, 1000, selected);
+
+        assertThat(length).isEqualTo(1000);
+        assertThat(Arrays.copyOf(selected, length)).isSorted().contains(high, low);
+    }
+
+    @Test
+    @DisplayName("M4 should keep the lowest and highest points and the first and last of the range")
+    void m4KeepsExtremes() {
+        ReadingBuffer buffer = series();
+        int[] selected = select(Downsampling.M4, buffer, 1000);
+
+        assertThat(selected.length).isLessThanOrEqualTo(1000);
+        assertThat(selected).isSorted().doesNotHaveDuplicates();
+        assertThat(selected).contains(0, N - 1, SPIKE);
+
+        int lowest = 0;
+        for (int i = 1; i < N; i++) {
+            if (buffer.min()[i] < buffer.min()[lowest]) {
+                lowest = i;
+            }
+        }
+        assertThat(selected).contains(lowest);
+    }
+
+    @Test
+    @DisplayName("Should keep every point of a series no larger than maxPoints")
+    void keepsSmallSeries() {
+        ReadingBuffer buffer = new ReadingBuffer();
+        for (int i = 0; i < 10; i++) {
+            buffer.accept(START + i, i);
+        }
+        assertThat(select(Downsampling.LTTB, buffer, 10)).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.toPoints(new int[] {2, 7}, 2)).extracting(p -> p.getAvg()).containsExactly(2.0, 7.0);
+    }
+
+    @Test
+    @DisplayName("Should reject a maxPoints the method cannot work with")
+    void rejectsTooFewPoints() {
+        assertThatThrownBy(() -> select(Downsampling.M4, series(), 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
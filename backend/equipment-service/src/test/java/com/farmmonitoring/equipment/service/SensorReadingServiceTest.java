@@ -0,0 +1,236 @@
+package com.farm.equipment.service;
+
+import com.farm.equipment.anomaly.SensorAnomalyMonitor;
+import com.farm.equipment.cache.CachedDTO;
+import com.farm.equipment.cache.EquipmentCache;
+import com.farm.equipment.client.FarmersFeignClient;
+import com.farm.equipment.client.PermissionCheckResponse;
+import com.farm.equipment.coldstore.ColdStore;
+import com.farm.equipment.dto.request.RecordReadingsRequest;
+import com.farm.equipment.dto.response.SensorDTO;
+import com.farm.equipment.exception.SensorNotFoundException;
+import com.farm.equipment.model.ReadingResolution;
+import com.farm.equipment.model.SensorType;
+import com.farm.equipment.monitoring.EquipmentMetrics;
+import com.farm.equipment.repository.SensorReadingRepository;
+import com.farm.equipment.rules.ThresholdRuleEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Sensor Reading Service Tests")
+class SensorReadingServiceTest {
+
+    private final UUID farmerId = UUID.randomUUID();
+    private final UUID sensorId = UUID.randomUUID();
+    private final UUID otherSensorId = UUID.randomUUID();
+
+    private SensorReadingRepository readingRepository;
+    private ColdStore coldStore;
+    private EquipmentCache equipmentCache;
+    private SensorReadingService service;
+    private final ReentrantReadWriteLock insertLock = new ReentrantReadWriteLock();
+
+    @BeforeEach
+    void setUp() {
+        readingRepository = mock(SensorReadingRepository.class);
+        coldStore = mock(ColdStore.class);
+        when(coldStore.insertLock()).thenReturn(insertLock.readLock());
+        equipmentCache = mock(EquipmentCache.class);
+        FarmersFeignClient farmersClient = mock(FarmersFeignClient.class);
+        SensorDTO sensor = SensorDTO.builder().id(sensorId).farmId(UUID.randomUUID()).type(SensorType.TEMPERATURE).build();
+        when(equipmentCache.getSensor(sensorId)).thenReturn(new CachedDTO<>(sensor, "\"1\""));
+        SensorDTO otherSensor = SensorDTO.builder().id(otherSensorId).farmId(UUID.randomUUID()).type(SensorType.TEMPERATURE).build();
+        when(equipmentCache.getSensor(otherSensorId)).thenReturn(new CachedDTO<>(otherSensor, "\"1\""));
+        when(farmersClient.checkPermission(eq(farmerId), any(), any()))
+                .thenReturn(PermissionCheckResponse.builder().allowed(true).build());
+
+        service = new SensorReadingService(readingRepository, equipmentCache, farmersClient,
+                mock(EquipmentMetrics.class), coldStore, mock(ThresholdRuleEngine.class), mock(SensorAnomalyMonitor.class));
+        ReflectionTestUtils.setField(service, "maxBatchSize", 10_000);
+        ReflectionTestUtils.setField(service, "maxClockSkew", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "rawRetention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "minuteRetention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(service, "hourRetention", Duration.ofDays(365));
+        ReflectionTestUtils.setField(service, "dayRetention", Duration.ofDays(1825));
+        ReflectionTestUtils.setField(service, "purgeBatchSize", 1000);
+        ReflectionTestUtils.setField(service, "unknownSensorTtl", Duration.ofMinutes(5));
+        service.init();
+    }
+
+    private void record(LocalDateTime... timestamps) {
+        List<RecordReadingsRequest.Reading> readings = Arrays.stream(timestamps)
+                .map(timestamp -> new RecordReadingsRequest.Reading(timestamp, 20.0))
+                .toList();
+        service.recordReadings(farmerId, sensorId, new RecordReadingsRequest(readings));
+    }
+
+    @Test
+    @DisplayName("Should store late readings within the raw retention")
+    void storesLateReadings() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        record(now.minusDays(6), now);
+
+        verify(readingRepository).insert(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with a reading older than the raw retention, which may have been purged")
+    void rejectsReadingsPastRetention() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        assertThatThrownBy(() -> record(now, now.minusDays(8)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Reading 1 is too old");
+        verifyNoInteractions(readingRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a reading of a day already sealed, or being sealed, into the cold store")
+    void rejectsSealedReadings() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        when(coldStore.acceptsFrom()).thenReturn(now.toLocalDate().minusDays(2).atStartOfDay());
+
+        assertThatThrownBy(() -> record(now.toLocalDate().minusDays(3).atTime(12, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(readingRepository);
+
+        record(now.toLocalDate().minusDays(2).atStartOfDay());
+        verify(readingRepository).insert(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not accept a device reading that is too old, and store the others of the batch")
+    void rejectsOldDeviceReadings() {
+        long now = System.currentTimeMillis();
+        UUID[] ids = {sensorId, sensorId, otherSensorId};
+        long[] times = {now - Duration.ofDays(8).toMillis(), now, Long.MIN_VALUE};
+        boolean[] accepted = new boolean[3];
+        when(readingRepository.insert(any(), any(), any())).thenReturn(1);
+
+        service.recordDeviceReadings(ids, times, new double[] {1, 2, 3}, 3, accepted);
+
+        assertThat(accepted).containsExactly(false, true, false);
+        verify(readingRepository).insert(new UUID[] {sensorId}, new long[] {now}, new double[] {2});
+    }
+
+    @Test
+    @DisplayName("Should store device readings sensor by sensor when the batch fails, rejecting only the failing sensor")
+    void isolatesFailingSensor() {
+        long now = System.currentTimeMillis();
+        UUID[] ids = {sensorId, otherSensorId, sensorId};
+        boolean[] accepted = new boolean[3];
+        when(readingRepository.insert(any(), any(), any())).thenAnswer(invocation -> {
+            UUID[] batch = invocation.getArgument(0);
+            if (Arrays.asList(batch).contains(otherSensorId)) {
+                throw new DataIntegrityViolationException("bad reading");
+            }
+            return batch.length;
+        });
+
+        int stored = service.recordDeviceReadings(ids, new long[] {now - 2, now - 1, now}, new double[] {1, 2, 3}, 3,
+                accepted);
+
+        assertThat(stored).isEqualTo(2);
+        assertThat(accepted).containsExactly(true, false, true);
+    }
+
+    @Test
+    @DisplayName("Should fail a batch of device readings when no sensor can be stored, for the devices to resend it")
+    void failsWhenDatabaseIsDown() {
+        long now = System.currentTimeMillis();
+        when(readingRepository.insert(any(), any(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> service.recordDeviceReadings(new UUID[] {sensorId, otherSensorId}, new long[] {now, now},
+                new double[] {1, 2}, 2, new boolean[2]))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Should remember a sensor that does not exist, and not look it up again for the next device batches")
+    void remembersUnknownSensors() {
+        long now = System.currentTimeMillis();
+        UUID unknownId = UUID.randomUUID();
+        when(equipmentCache.getSensor(unknownId)).thenThrow(new SensorNotFoundException(unknownId));
+        when(readingRepository.insert(any(), any(), any())).thenReturn(1);
+
+        for (int batch = 0; batch < 3; batch++) {
+            boolean[] accepted = new boolean[2];
+            service.recordDeviceReadings(new UUID[] {unknownId, sensorId}, new long[] {now, now}, new double[] {1, 2}, 2,
+                    accepted);
+            assertThat(accepted).containsExactly(false, true);
+        }
+
+        assertThat(service.isUnknownSensor(unknownId)).isTrue();
+        assertThat(service.isUnknownSensor(sensorId)).isFalse();
+        verify(equipmentCache, times(1)).getSensor(unknownId);
+    }
+
+    @Test
+    @DisplayName("Should check readings against the cold store and store them without letting a seal start in between")
+    void storesUnderInsertLock() {
+        long now = System.currentTimeMillis();
+        // Read locks held when the watermark is read and when the readings are stored
+        List<Integer> held = new ArrayList<>();
+        when(coldStore.acceptsFrom()).thenAnswer(invocation -> {
+            held.add(insertLock.getReadLockCount());
+            return null;
+        });
+        when(readingRepository.insert(any(), any(), any())).thenAnswer(invocation -> {
+            held.add(insertLock.getReadLockCount());
+            return 1;
+        });
+
+        service.recordDeviceReadings(new UUID[] {sensorId}, new long[] {now}, new double[] {1}, 1, new boolean[1]);
+        record(LocalDateTime.now(ZoneOffset.UTC));
+
+        assertThat(held).containsExactly(1, 1, 1, 1);
+        assertThat(insertLock.getReadLockCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not purge raw readings while the cold store has sealed nothing yet")
+    void keepsRawReadingsUntilFirstSeal() {
+        when(coldStore.isEnabled()).thenReturn(true);
+
+        service.purgeExpired();
+
+        verify(readingRepository, never()).purgeRaw(any(), anyInt());
+        verify(readingRepository).purgeRollups(eq(ReadingResolution.MINUTE), any(), eq(1000));
+        verify(readingRepository).purgeRollups(eq(ReadingResolution.HOUR), any(), eq(1000));
+        verify(readingRepository).purgeRollups(eq(ReadingResolution.DAY), any(), eq(1000));
+    }
+
+    @Test
+    @DisplayName("Should purge raw readings past their retention only up to the end of the sealed range")
+    void purgesRawReadingsUpToSealed() {
+        LocalDateTime sealedUntil = LocalDate.now(ZoneOffset.UTC).minusDays(9).atStartOfDay();
+        when(coldStore.isEnabled()).thenReturn(true);
+        when(coldStore.sealedUntil()).thenReturn(sealedUntil);
+
+        service.purgeExpired();
+
+        verify(readingRepository).purgeRaw(sealedUntil, 1000);
+    }
+}
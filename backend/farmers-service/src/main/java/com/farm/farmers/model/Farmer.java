@@ -3,6 +3,7 @@ package com.farm.farmers.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
@@ -31,7 +32,7 @@ public class Farmer extends BaseEntity {
     
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
     
@@ -60,7 +61,9 @@ public class Farmer extends BaseEntity {
     @Column(name = "registration_date", nullable = false)
     private LocalDateTime registrationDate;
     
+    // FarmerDTO.farmCount reads this: load it for a whole page of farmers at once, not per farmer
     @OneToMany(mappedBy = "farmer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<Farm> farms = new ArrayList<>();
     
@@ -3,6 +3,7 @@ package com.farm.farmers.repository;
 import com.farm.farmers.model.Farm;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,10 +17,21 @@ import java.util.UUID;
 /**
  * Repository interface for Farm entity.
  * Provides CRUD operations and custom queries for farm data access.
+ * Paged queries mapped to {@code FarmDTO} fetch the farmer in the same statement, since the
+ * DTO carries the farmer's name.
  */
 @Repository
 public interface FarmRepository extends JpaRepository<Farm, UUID> {
     
+    /**
+     * Find all farms with their farmer (paginated)
+     * @param pageable pagination parameters
+     * @return page of farms
+     */
+    @Override
+    @EntityGraph(attributePaths = "farmer")
+    Page<Farm> findAll(Pageable pageable);
+    
     /**
      * Find all farms belonging to a specific farmer
      * @param farmerId the farmer's UUID
@@ -33,6 +45,7 @@ public interface FarmRepository extends JpaRepository<Farm, UUID> {
      * @param pageable pagination parameters
      * @return page of farms owned by the farmer
      */
+    @EntityGraph(attributePaths = "farmer")
     Page<Farm> findByFarmerId(UUID farmerId, Pageable pageable);
     
     /**
@@ -78,6 +91,7 @@ public interface FarmRepository extends JpaRepository<Farm, UUID> {
      * @param pageable pagination parameters
      * @return page of farms within the area range
      */
+    @EntityGraph(attributePaths = "farmer")
     Page<Farm> findByAreaBetween(BigDecimal minArea, BigDecimal maxArea, Pageable pageable);
     
     /**
@@ -116,6 +130,7 @@ public interface FarmRepository extends JpaRepository<Farm, UUID> {
      * @param pageable pagination parameters
      * @return page of large farms
      */
+    @EntityGraph(attributePaths = "farmer")
     @Query("SELECT f FROM Farm f WHERE f.area >= 100 ORDER BY f.area DESC")
     Page<Farm> findLargeFarms(Pageable pageable);
     
@@ -162,6 +177,7 @@ public interface FarmRepository extends JpaRepository<Farm, UUID> {
      * @param pageable pagination parameters
      * @return page of matching farms
      */
+    @EntityGraph(attributePaths = "farmer")
     @Query("SELECT f FROM Farm f WHERE " +
            "LOWER(f.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(f.location) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
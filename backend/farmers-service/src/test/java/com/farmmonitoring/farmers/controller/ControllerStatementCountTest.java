@@ -0,0 +1,148 @@
+package com.farm.farmers.controller;
+
+import com.farm.farmers.model.Farm;
+import com.farm.farmers.model.Farmer;
+import com.farm.farmers.model.FarmerRole;
+import com.farm.farmers.repository.FarmRepository;
+import com.farm.farmers.repository.FarmerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.farm.query.StatementCount.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the read endpoints, against the Testcontainers PostgreSQL of {@code application-test.yml}.
+ * Pages hold more rows than the budget, so loading an association per row fails the test. Skipped where Docker
+ * is not available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Controller Statement Count Tests")
+class ControllerStatementCountTest {
+
+    private static final int FARMERS = 12;
+    private static final int FARMS_PER_FARMER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FarmerRepository farmerRepository;
+
+    @Autowired
+    private FarmRepository farmRepository;
+
+    private UUID farmerId;
+    private UUID farmId;
+
+    @BeforeEach
+    void setUp() {
+        farmRepository.deleteAll();
+        farmerRepository.deleteAll();
+
+        for (int i = 0; i < FARMERS; i++) {
+            Farmer farmer = farmerRepository.save(Farmer.builder()
+                    .name("Farmer " + i)
+                    .email("farmer" + i + "@example.com")
+                    .phone("+21260000000" + (i % 10))
+                    .role(FarmerRole.values()[i % FarmerRole.values().length])
+                    .registrationDate(LocalDateTime.now())
+                    .build());
+            for (int j = 0; j < FARMS_PER_FARMER; j++) {
+                Farm farm = farmRepository.save(Farm.builder()
+                        .farmerId(farmer.getId())
+                        .name("Farm " + i + "-" + j)
+                        .location("Valley " + j)
+                        .area(BigDecimal.valueOf(40 + 20L * j + i))
+                        .build());
+                farmId = farm.getId();
+            }
+            farmerId = farmer.getId();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/farms - Should load farmers with the page")
+    void getAllFarms() throws Exception {
+        mockMvc.perform(get("/api/farms").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].farmerName").isNotEmpty())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/farms/search - Should load farmers with the page")
+    void searchFarms() throws Exception {
+        mockMvc.perform(get("/api/farms/search").param("searchTerm", "farm").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].farmerName").isNotEmpty())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/farms/farmer/{farmerId} - Should load the farmer with the page")
+    void getFarmsByFarmerId() throws Exception {
+        mockMvc.perform(get("/api/farms/farmer/{farmerId}", farmerId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/farms/area-range - Should load farmers with the page")
+    void getFarmsByAreaRange() throws Exception {
+        mockMvc.perform(get("/api/farms/area-range").param("minArea", "1").param("maxArea", "1000")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/farms/large - Should load farmers with the page")
+    void getLargeFarms() throws Exception {
+        mockMvc.perform(get("/api/farms/large").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/farms/{id} - Should fetch the farm and its farmer at once")
+    void getFarmById() throws Exception {
+        mockMvc.perform(get("/api/farms/{id}", farmId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.farmerName").isNotEmpty())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/farmers - Should count farms for the whole page at once")
+    void getAllFarmers() throws Exception {
+        mockMvc.perform(get("/api/farmers").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].farmCount").value(FARMS_PER_FARMER))
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/farmers/{id} - Should load the farmer and its farms")
+    void getFarmerById() throws Exception {
+        mockMvc.perform(get("/api/farmers/{id}", farmerId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+}
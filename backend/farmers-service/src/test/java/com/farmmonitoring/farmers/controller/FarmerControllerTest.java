@@ -1,7 +1,11 @@
-package com.farmmonitoring.farmers.controller;
-
-import com.farmmonitoring.farmers.dto.FarmerDTO;
-import com.farmmonitoring.farmers.service.FarmerService;
+package com.farm.farmers.controller;
+
+import com.farm.farmers.dto.request.CreateFarmerRequest;
+import com.farm.farmers.dto.request.UpdateFarmerRequest;
+import com.farm.farmers.dto.response.FarmerDTO;
+import com.farm.farmers.exception.FarmerNotFoundException;
+import com.farm.farmers.model.FarmerRole;
+import com.farm.farmers.service.FarmerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,20 +16,24 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FarmerController.class)
+@ActiveProfiles("test")
 @DisplayName("Farmer Controller REST API Tests")
 class FarmerControllerTest {
 
@@ -38,84 +46,113 @@ class FarmerControllerTest {
     @MockBean
     private FarmerService farmerService;
 
+    private UUID farmerId;
     private FarmerDTO farmerDTO;
 
     @BeforeEach
     void setUp() {
-        farmerDTO = new FarmerDTO();
-        farmerDTO.setId(1L);
-        farmerDTO.setFirstName("John");
-        farmerDTO.setLastName("Doe");
-        farmerDTO.setEmail("john.doe@example.com");
-        farmerDTO.setPhone("+1234567890");
-        farmerDTO.setAddress("123 Farm Road");
-        farmerDTO.setCity("FarmVille");
-        farmerDTO.setCountry("USA");
-        farmerDTO.setActive(true);
+        farmerId = UUID.randomUUID();
+        farmerDTO = FarmerDTO.builder()
+                .id(farmerId)
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .farmCount(2)
+                .build();
     }
 
     @Test
     @DisplayName("POST /api/farmers - Should create farmer successfully")
     void testCreateFarmer_Success() throws Exception {
         // Given
-        when(farmerService.createFarmer(any(FarmerDTO.class))).thenReturn(farmerDTO);
+        CreateFarmerRequest request = CreateFarmerRequest.builder()
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .build();
+        when(farmerService.createFarmer(any(CreateFarmerRequest.class))).thenReturn(farmerDTO);
 
         // When & Then
         mockMvc.perform(post("/api/farmers")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(farmerDTO)))
+                        .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.firstName").value("John"))
-                .andExpect(jsonPath("$.lastName").value("Doe"))
-                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+                .andExpect(jsonPath("$.id").value(farmerId.toString()))
+                .andExpect(jsonPath("$.name").value("John Doe"))
+                .andExpect(jsonPath("$.email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.role").value("OWNER"));
 
-        verify(farmerService, times(1)).createFarmer(any(FarmerDTO.class));
+        verify(farmerService, times(1)).createFarmer(any(CreateFarmerRequest.class));
     }
 
     @Test
     @DisplayName("POST /api/farmers - Should return 400 for invalid data")
     void testCreateFarmer_InvalidData() throws Exception {
         // Given
-        FarmerDTO invalidFarmer = new FarmerDTO();
-        invalidFarmer.setFirstName(""); // Invalid: empty name
-        invalidFarmer.setEmail("invalid-email"); // Invalid email format
+        CreateFarmerRequest invalidFarmer = CreateFarmerRequest.builder()
+                .name("") // Invalid: empty name
+                .email("invalid-email") // Invalid email format
+                .build();
 
         // When & Then
         mockMvc.perform(post("/api/farmers")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidFarmer)))
                 .andExpect(status().isBadRequest());
+
+        verify(farmerService, never()).createFarmer(any(CreateFarmerRequest.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/farmers - Should return 400 when the email is already registered")
+    void testCreateFarmer_DuplicateEmail() throws Exception {
+        // Given
+        CreateFarmerRequest request = CreateFarmerRequest.builder()
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .build();
+        when(farmerService.createFarmer(any(CreateFarmerRequest.class)))
+                .thenThrow(new IllegalArgumentException("Email already registered: john.doe@example.com"));
+
+        // When & Then
+        mockMvc.perform(post("/api/farmers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     @DisplayName("GET /api/farmers/{id} - Should return farmer by id")
     void testGetFarmerById_Success() throws Exception {
         // Given
-        when(farmerService.getFarmerById(1L)).thenReturn(farmerDTO);
+        when(farmerService.getFarmerById(farmerId)).thenReturn(farmerDTO);
 
         // When & Then
-        mockMvc.perform(get("/api/farmers/1"))
+        mockMvc.perform(get("/api/farmers/{id}", farmerId))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.firstName").value("John"))
-                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+                .andExpect(jsonPath("$.id").value(farmerId.toString()))
+                .andExpect(jsonPath("$.name").value("John Doe"))
+                .andExpect(jsonPath("$.farmCount").value(2));
 
-        verify(farmerService, times(1)).getFarmerById(1L);
+        verify(farmerService, times(1)).getFarmerById(farmerId);
     }
 
     @Test
     @DisplayName("GET /api/farmers/{id} - Should return 404 when farmer not found")
     void testGetFarmerById_NotFound() throws Exception {
         // Given
-        when(farmerService.getFarmerById(anyLong()))
-                .thenThrow(new ResourceNotFoundException("Farmer not found with id: 999"));
+        UUID unknownId = UUID.randomUUID();
+        when(farmerService.getFarmerById(unknownId)).thenThrow(new FarmerNotFoundException(unknownId));
 
         // When & Then
-        mockMvc.perform(get("/api/farmers/999"))
+        mockMvc.perform(get("/api/farmers/{id}", unknownId))
                 .andExpect(status().isNotFound());
 
-        verify(farmerService, times(1)).getFarmerById(999L);
+        verify(farmerService, times(1)).getFarmerById(unknownId);
     }
 
     @Test
@@ -125,7 +162,7 @@ class FarmerControllerTest {
         List<FarmerDTO> farmers = Arrays.asList(farmerDTO, farmerDTO);
         Page<FarmerDTO> farmerPage = new PageImpl<>(farmers, PageRequest.of(0, 10), 2);
 
-        when(farmerService.getAllFarmers(any(PageRequest.class))).thenReturn(farmerPage);
+        when(farmerService.getAllFarmers(any(Pageable.class))).thenReturn(farmerPage);
 
         // When & Then
         mockMvc.perform(get("/api/farmers")
@@ -134,77 +171,82 @@ class FarmerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(2)))
                 .andExpect(jsonPath("$.totalElements").value(2))
-                .andExpect(jsonPath("$.content[0].firstName").value("John"));
+                .andExpect(jsonPath("$.content[0].name").value("John Doe"));
 
-        verify(farmerService, times(1)).getAllFarmers(any(PageRequest.class));
+        verify(farmerService, times(1)).getAllFarmers(any(Pageable.class));
     }
 
     @Test
     @DisplayName("PUT /api/farmers/{id} - Should update farmer successfully")
     void testUpdateFarmer_Success() throws Exception {
         // Given
-        FarmerDTO updateDTO = new FarmerDTO();
-        updateDTO.setFirstName("Jane");
-        updateDTO.setLastName("Smith");
-        updateDTO.setEmail("jane.smith@example.com");
-
-        when(farmerService.updateFarmer(eq(1L), any(FarmerDTO.class))).thenReturn(updateDTO);
+        UpdateFarmerRequest request = UpdateFarmerRequest.builder()
+                .name("Jane Smith")
+                .email("jane.smith@example.com")
+                .build();
+        FarmerDTO updated = FarmerDTO.builder()
+                .id(farmerId)
+                .name("Jane Smith")
+                .email("jane.smith@example.com")
+                .role(FarmerRole.OWNER)
+                .build();
+
+        when(farmerService.updateFarmer(eq(farmerId), any(UpdateFarmerRequest.class))).thenReturn(updated);
 
         // When & Then
-        mockMvc.perform(put("/api/farmers/1")
+        mockMvc.perform(put("/api/farmers/{id}", farmerId)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updateDTO)))
+                        .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.firstName").value("Jane"))
+                .andExpect(jsonPath("$.name").value("Jane Smith"))
                 .andExpect(jsonPath("$.email").value("jane.smith@example.com"));
 
-        verify(farmerService, times(1)).updateFarmer(eq(1L), any(FarmerDTO.class));
+        verify(farmerService, times(1)).updateFarmer(eq(farmerId), any(UpdateFarmerRequest.class));
     }
 
     @Test
     @DisplayName("DELETE /api/farmers/{id} - Should delete farmer successfully")
     void testDeleteFarmer_Success() throws Exception {
         // Given
-        doNothing().when(farmerService).deleteFarmer(1L);
+        doNothing().when(farmerService).deleteFarmer(farmerId);
 
         // When & Then
-        mockMvc.perform(delete("/api/farmers/1"))
+        mockMvc.perform(delete("/api/farmers/{id}", farmerId))
                 .andExpect(status().isNoContent());
 
-        verify(farmerService, times(1)).deleteFarmer(1L);
+        verify(farmerService, times(1)).deleteFarmer(farmerId);
     }
 
     @Test
     @DisplayName("GET /api/farmers/search - Should search farmers by name")
     void testSearchFarmers() throws Exception {
         // Given
-        List<FarmerDTO> farmers = Arrays.asList(farmerDTO);
-        when(farmerService.searchByName("John")).thenReturn(farmers);
+        Page<FarmerDTO> farmers = new PageImpl<>(List.of(farmerDTO), PageRequest.of(0, 20), 1);
+        when(farmerService.searchFarmersByName(eq("John"), any(Pageable.class))).thenReturn(farmers);
 
         // When & Then
         mockMvc.perform(get("/api/farmers/search")
                         .param("name", "John"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].firstName").value("John"));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("John Doe"));
 
-        verify(farmerService, times(1)).searchByName("John");
+        verify(farmerService, times(1)).searchFarmersByName(eq("John"), any(Pageable.class));
     }
 
     @Test
-    @DisplayName("GET /api/farmers/active - Should return active farmers only")
-    void testGetActiveFarmers() throws Exception {
+    @DisplayName("GET /api/farmers/role/{role} - Should return farmers with the role only")
+    void testGetFarmersByRole() throws Exception {
         // Given
-        List<FarmerDTO> activeFarmers = Arrays.asList(farmerDTO);
-        when(farmerService.findByActiveStatus(true)).thenReturn(activeFarmers);
+        Page<FarmerDTO> owners = new PageImpl<>(List.of(farmerDTO), PageRequest.of(0, 20), 1);
+        when(farmerService.getFarmersByRole(eq(FarmerRole.OWNER), any(Pageable.class))).thenReturn(owners);
 
         // When & Then
-        mockMvc.perform(get("/api/farmers/active")
-                        .param("active", "true"))
+        mockMvc.perform(get("/api/farmers/role/{role}", "OWNER"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].active").value(true));
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].role").value("OWNER"));
 
-        verify(farmerService, times(1)).findByActiveStatus(true);
+        verify(farmerService, times(1)).getFarmersByRole(eq(FarmerRole.OWNER), any(Pageable.class));
     }
 }
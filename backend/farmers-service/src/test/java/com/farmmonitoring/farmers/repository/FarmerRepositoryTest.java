@@ -1,6 +1,7 @@
-package com.farmmonitoring.farmers.repository;
+package com.farm.farmers.repository;
 
-import com.farmmonitoring.farmers.entity.Farmer;
+import com.farm.farmers.model.Farmer;
+import com.farm.farmers.model.FarmerRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,28 +9,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
-import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+/**
+ * Against the Testcontainers PostgreSQL of {@code application-test.yml}. Skipped where Docker is not available.
+ */
 @DataJpaTest
-@Testcontainers
+@Testcontainers(disabledWithoutDocker = true)
 @ActiveProfiles("test")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @DisplayName("Farmer Repository Integration Tests")
 class FarmerRepositoryTest {
 
-    @Container
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
-            .withDatabaseName("testdb")
-            .withUsername("test")
-            .withPassword("test");
-
     @Autowired
     private FarmerRepository farmerRepository;
 
@@ -39,15 +37,17 @@ class FarmerRepositoryTest {
     void setUp() {
         farmerRepository.deleteAll();
 
-        farmer = new Farmer();
-        farmer.setFirstName("John");
-        farmer.setLastName("Doe");
-        farmer.setEmail("john.doe@example.com");
-        farmer.setPhone("+1234567890");
-        farmer.setAddress("123 Farm Road");
-        farmer.setCity("FarmVille");
-        farmer.setCountry("USA");
-        farmer.setActive(true);
+        farmer = farmer("John Doe", "john.doe@example.com", FarmerRole.OWNER);
+    }
+
+    private static Farmer farmer(String name, String email, FarmerRole role) {
+        return Farmer.builder()
+                .name(name)
+                .email(email)
+                .phone("+1234567890")
+                .role(role)
+                .registrationDate(LocalDateTime.now())
+                .build();
     }
 
     @Test
@@ -59,7 +59,7 @@ class FarmerRepositoryTest {
         // Then
         assertThat(savedFarmer).isNotNull();
         assertThat(savedFarmer.getId()).isNotNull();
-        assertThat(savedFarmer.getFirstName()).isEqualTo("John");
+        assertThat(savedFarmer.getName()).isEqualTo("John Doe");
         assertThat(savedFarmer.getEmail()).isEqualTo("john.doe@example.com");
     }
 
@@ -74,29 +74,23 @@ class FarmerRepositoryTest {
 
         // Then
         assertThat(foundFarmer).isPresent();
-        assertThat(foundFarmer.get().getFirstName()).isEqualTo("John");
+        assertThat(foundFarmer.get().getName()).isEqualTo("John Doe");
     }
 
     @Test
-    @DisplayName("Should find all active farmers")
-    void testFindByActive() {
+    @DisplayName("Should find farmers by role")
+    void testFindByRole() {
         // Given
         farmerRepository.save(farmer);
-
-        Farmer inactiveFarmer = new Farmer();
-        inactiveFarmer.setFirstName("Jane");
-        inactiveFarmer.setLastName("Smith");
-        inactiveFarmer.setEmail("jane.smith@example.com");
-        inactiveFarmer.setActive(false);
-        farmerRepository.save(inactiveFarmer);
+        farmerRepository.save(farmer("Jane Smith", "jane.smith@example.com", FarmerRole.WORKER));
 
         // When
-        List<Farmer> activeFarmers = farmerRepository.findByActive(true);
+        List<Farmer> owners = farmerRepository.findByRole(FarmerRole.OWNER);
 
         // Then
-        assertThat(activeFarmers).hasSize(1);
-        assertThat(activeFarmers.get(0).getFirstName()).isEqualTo("John");
-        assertThat(activeFarmers.get(0).isActive()).isTrue();
+        assertThat(owners).hasSize(1);
+        assertThat(owners.get(0).getName()).isEqualTo("John Doe");
+        assertThat(farmerRepository.countByRole(FarmerRole.WORKER)).isEqualTo(1);
     }
 
     @Test
@@ -110,24 +104,20 @@ class FarmerRepositoryTest {
 
         // Then
         assertThat(foundFarmer).isPresent();
-        assertThat(foundFarmer.get().getFirstName()).isEqualTo("John");
+        assertThat(foundFarmer.get().getName()).isEqualTo("John Doe");
+        assertThat(farmerRepository.existsByEmail("john.doe@example.com")).isTrue();
     }
 
     @Test
-    @DisplayName("Should search farmers by name")
+    @DisplayName("Should search farmers by name, ignoring case")
     void testFindByNameContaining() {
         // Given
         farmerRepository.save(farmer);
-
-        Farmer farmer2 = new Farmer();
-        farmer2.setFirstName("Johnny");
-        farmer2.setLastName("Appleseed");
-        farmer2.setEmail("johnny@example.com");
-        farmerRepository.save(farmer2);
+        farmerRepository.save(farmer("Johnny Appleseed", "johnny@example.com", FarmerRole.MANAGER));
+        farmerRepository.save(farmer("Jane Smith", "jane@example.com", FarmerRole.WORKER));
 
         // When
-        List<Farmer> foundFarmers = farmerRepository
-                .findByFirstNameContainingOrLastNameContaining("John", "John");
+        List<Farmer> foundFarmers = farmerRepository.findByNameContainingIgnoreCase("john");
 
         // Then
         assertThat(foundFarmers).hasSize(2);
@@ -140,12 +130,12 @@ class FarmerRepositoryTest {
         Farmer savedFarmer = farmerRepository.save(farmer);
 
         // When
-        savedFarmer.setFirstName("Jane");
+        savedFarmer.setName("Jane Doe");
         savedFarmer.setEmail("jane.doe@example.com");
         Farmer updatedFarmer = farmerRepository.save(savedFarmer);
 
         // Then
-        assertThat(updatedFarmer.getFirstName()).isEqualTo("Jane");
+        assertThat(updatedFarmer.getName()).isEqualTo("Jane Doe");
         assertThat(updatedFarmer.getEmail()).isEqualTo("jane.doe@example.com");
     }
 
@@ -154,7 +144,7 @@ class FarmerRepositoryTest {
     void testDeleteFarmer() {
         // Given
         Farmer savedFarmer = farmerRepository.save(farmer);
-        Long farmerId = savedFarmer.getId();
+        UUID farmerId = savedFarmer.getId();
 
         // When
         farmerRepository.deleteById(farmerId);
@@ -169,12 +159,7 @@ class FarmerRepositoryTest {
     void testCountFarmers() {
         // Given
         farmerRepository.save(farmer);
-
-        Farmer farmer2 = new Farmer();
-        farmer2.setFirstName("Jane");
-        farmer2.setLastName("Smith");
-        farmer2.setEmail("jane@example.com");
-        farmerRepository.save(farmer2);
+        farmerRepository.save(farmer("Jane Smith", "jane@example.com", FarmerRole.WORKER));
 
         // When
         long count = farmerRepository.count();
@@ -1,10 +1,14 @@
-package com.farmmonitoring.farmers.service;
-
-import com.farmmonitoring.farmers.dto.FarmerDTO;
-import com.farmmonitoring.farmers.entity.Farmer;
-import com.farmmonitoring.farmers.exception.ResourceNotFoundException;
-import com.farmmonitoring.farmers.mapper.FarmerMapper;
-import com.farmmonitoring.farmers.repository.FarmerRepository;
+package com.farm.farmers.service;
+
+import com.farm.farmers.dto.request.CreateFarmerRequest;
+import com.farm.farmers.dto.request.UpdateFarmerRequest;
+import com.farm.farmers.dto.response.FarmerDTO;
+import com.farm.farmers.dto.response.PermissionCheckResponse;
+import com.farm.farmers.exception.FarmerNotFoundException;
+import com.farm.farmers.mapper.FarmerMapper;
+import com.farm.farmers.model.Farmer;
+import com.farm.farmers.model.FarmerRole;
+import com.farm.farmers.repository.FarmerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,13 +21,14 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,81 +42,112 @@ class FarmerServiceTest {
     private FarmerMapper farmerMapper;
 
     @InjectMocks
-    private FarmerService farmerService;
+    private FarmerServiceImpl farmerService;
 
+    private UUID farmerId;
     private Farmer farmer;
     private FarmerDTO farmerDTO;
 
     @BeforeEach
     void setUp() {
-        farmer = new Farmer();
-        farmer.setId(1L);
-        farmer.setFirstName("John");
-        farmer.setLastName("Doe");
-        farmer.setEmail("john.doe@example.com");
-        farmer.setPhone("+1234567890");
-        farmer.setActive(true);
-
-        farmerDTO = new FarmerDTO();
-        farmerDTO.setId(1L);
-        farmerDTO.setFirstName("John");
-        farmerDTO.setLastName("Doe");
-        farmerDTO.setEmail("john.doe@example.com");
-        farmerDTO.setPhone("+1234567890");
-        farmerDTO.setActive(true);
+        farmerId = UUID.randomUUID();
+        farmer = Farmer.builder()
+                .id(farmerId)
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .registrationDate(LocalDateTime.now())
+                .build();
+
+        farmerDTO = FarmerDTO.builder()
+                .id(farmerId)
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .build();
     }
 
     @Test
     @DisplayName("Should create farmer successfully")
     void testCreateFarmer_Success() {
         // Given
-        when(farmerMapper.toEntity(any(FarmerDTO.class))).thenReturn(farmer);
+        CreateFarmerRequest request = CreateFarmerRequest.builder()
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .build();
+        when(farmerRepository.existsByEmail("john.doe@example.com")).thenReturn(false);
+        when(farmerMapper.toEntity(request)).thenReturn(farmer);
         when(farmerRepository.save(any(Farmer.class))).thenReturn(farmer);
         when(farmerMapper.toDTO(any(Farmer.class))).thenReturn(farmerDTO);
 
         // When
-        FarmerDTO result = farmerService.createFarmer(farmerDTO);
+        FarmerDTO result = farmerService.createFarmer(request);
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getFirstName()).isEqualTo("John");
+        assertThat(result.getName()).isEqualTo("John Doe");
         assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
-        
+
         verify(farmerRepository, times(1)).save(any(Farmer.class));
-        verify(farmerMapper, times(1)).toEntity(any(FarmerDTO.class));
+        verify(farmerMapper, times(1)).toEntity(request);
         verify(farmerMapper, times(1)).toDTO(any(Farmer.class));
     }
 
+    @Test
+    @DisplayName("Should reject a farmer whose email is already registered")
+    void testCreateFarmer_DuplicateEmail() {
+        // Given
+        CreateFarmerRequest request = CreateFarmerRequest.builder()
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .phone("+1234567890")
+                .role(FarmerRole.OWNER)
+                .build();
+        when(farmerRepository.existsByEmail("john.doe@example.com")).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> farmerService.createFarmer(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Email already registered");
+
+        verify(farmerRepository, never()).save(any(Farmer.class));
+    }
+
     @Test
     @DisplayName("Should get farmer by id successfully")
     void testGetFarmerById_Success() {
         // Given
-        when(farmerRepository.findById(1L)).thenReturn(Optional.of(farmer));
+        when(farmerRepository.findById(farmerId)).thenReturn(Optional.of(farmer));
         when(farmerMapper.toDTO(any(Farmer.class))).thenReturn(farmerDTO);
 
         // When
-        FarmerDTO result = farmerService.getFarmerById(1L);
+        FarmerDTO result = farmerService.getFarmerById(farmerId);
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getFirstName()).isEqualTo("John");
-        
-        verify(farmerRepository, times(1)).findById(1L);
+        assertThat(result.getId()).isEqualTo(farmerId);
+        assertThat(result.getName()).isEqualTo("John Doe");
+
+        verify(farmerRepository, times(1)).findById(farmerId);
     }
 
     @Test
     @DisplayName("Should throw exception when farmer not found")
     void testGetFarmerById_NotFound() {
         // Given
-        when(farmerRepository.findById(anyLong())).thenReturn(Optional.empty());
+        UUID unknownId = UUID.randomUUID();
+        when(farmerRepository.findById(unknownId)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> farmerService.getFarmerById(999L))
-                .isInstanceOf(ResourceNotFoundException.class)
-                .hasMessageContaining("Farmer not found with id: 999");
-        
-        verify(farmerRepository, times(1)).findById(999L);
+        assertThatThrownBy(() -> farmerService.getFarmerById(unknownId))
+                .isInstanceOf(FarmerNotFoundException.class)
+                .hasMessageContaining("Farmer not found with ID: " + unknownId);
+
+        verify(farmerRepository, times(1)).findById(unknownId);
     }
 
     @Test
@@ -132,7 +168,7 @@ class FarmerServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(2);
         assertThat(result.getTotalElements()).isEqualTo(2);
-        
+
         verify(farmerRepository, times(1)).findAll(pageable);
     }
 
@@ -140,100 +176,99 @@ class FarmerServiceTest {
     @DisplayName("Should update farmer successfully")
     void testUpdateFarmer_Success() {
         // Given
-        FarmerDTO updateDTO = new FarmerDTO();
-        updateDTO.setFirstName("Jane");
-        updateDTO.setLastName("Smith");
-        updateDTO.setEmail("jane.smith@example.com");
-
-        Farmer updatedFarmer = new Farmer();
-        updatedFarmer.setId(1L);
-        updatedFarmer.setFirstName("Jane");
-        updatedFarmer.setLastName("Smith");
-        updatedFarmer.setEmail("jane.smith@example.com");
-
-        when(farmerRepository.findById(1L)).thenReturn(Optional.of(farmer));
-        when(farmerRepository.save(any(Farmer.class))).thenReturn(updatedFarmer);
-        when(farmerMapper.toDTO(any(Farmer.class))).thenReturn(updateDTO);
+        UpdateFarmerRequest request = UpdateFarmerRequest.builder()
+                .name("Jane Smith")
+                .email("jane.smith@example.com")
+                .build();
+        FarmerDTO updatedDTO = FarmerDTO.builder()
+                .id(farmerId)
+                .name("Jane Smith")
+                .email("jane.smith@example.com")
+                .build();
+
+        when(farmerRepository.findById(farmerId)).thenReturn(Optional.of(farmer));
+        when(farmerRepository.existsByEmail("jane.smith@example.com")).thenReturn(false);
+        when(farmerRepository.save(farmer)).thenReturn(farmer);
+        when(farmerMapper.toDTO(farmer)).thenReturn(updatedDTO);
 
         // When
-        FarmerDTO result = farmerService.updateFarmer(1L, updateDTO);
+        FarmerDTO result = farmerService.updateFarmer(farmerId, request);
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getFirstName()).isEqualTo("Jane");
+        assertThat(result.getName()).isEqualTo("Jane Smith");
         assertThat(result.getEmail()).isEqualTo("jane.smith@example.com");
-        
-        verify(farmerRepository, times(1)).findById(1L);
-        verify(farmerRepository, times(1)).save(any(Farmer.class));
+
+        verify(farmerRepository, times(1)).findById(farmerId);
+        verify(farmerMapper, times(1)).updateEntityFromRequest(request, farmer);
+        verify(farmerRepository, times(1)).save(farmer);
     }
 
     @Test
     @DisplayName("Should delete farmer successfully")
     void testDeleteFarmer_Success() {
         // Given
-        when(farmerRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(farmerRepository).deleteById(1L);
+        when(farmerRepository.existsById(farmerId)).thenReturn(true);
+        doNothing().when(farmerRepository).deleteById(farmerId);
 
         // When
-        farmerService.deleteFarmer(1L);
+        farmerService.deleteFarmer(farmerId);
 
         // Then
-        verify(farmerRepository, times(1)).existsById(1L);
-        verify(farmerRepository, times(1)).deleteById(1L);
+        verify(farmerRepository, times(1)).existsById(farmerId);
+        verify(farmerRepository, times(1)).deleteById(farmerId);
     }
 
     @Test
     @DisplayName("Should throw exception when deleting non-existent farmer")
     void testDeleteFarmer_NotFound() {
         // Given
-        when(farmerRepository.existsById(anyLong())).thenReturn(false);
+        UUID unknownId = UUID.randomUUID();
+        when(farmerRepository.existsById(unknownId)).thenReturn(false);
 
         // When & Then
-        assertThatThrownBy(() -> farmerService.deleteFarmer(999L))
-                .isInstanceOf(ResourceNotFoundException.class)
-                .hasMessageContaining("Farmer not found with id: 999");
-        
-        verify(farmerRepository, times(1)).existsById(999L);
-        verify(farmerRepository, never()).deleteById(anyLong());
+        assertThatThrownBy(() -> farmerService.deleteFarmer(unknownId))
+                .isInstanceOf(FarmerNotFoundException.class)
+                .hasMessageContaining("Farmer not found with ID: " + unknownId);
+
+        verify(farmerRepository, times(1)).existsById(unknownId);
+        verify(farmerRepository, never()).deleteById(any(UUID.class));
     }
 
     @Test
-    @DisplayName("Should find farmers by active status")
-    void testFindByActiveStatus() {
+    @DisplayName("Should search farmers by name")
+    void testSearchFarmersByName() {
         // Given
-        List<Farmer> activeFarmers = Arrays.asList(farmer);
-        when(farmerRepository.findByActive(true)).thenReturn(activeFarmers);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(farmerRepository.findByNameContainingIgnoreCase("john", pageable))
+                .thenReturn(new PageImpl<>(List.of(farmer)));
         when(farmerMapper.toDTO(any(Farmer.class))).thenReturn(farmerDTO);
 
         // When
-        List<FarmerDTO> result = farmerService.findByActiveStatus(true);
+        Page<FarmerDTO> result = farmerService.searchFarmersByName("john", pageable);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).isActive()).isTrue();
-        
-        verify(farmerRepository, times(1)).findByActive(true);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getName()).isEqualTo("John Doe");
+
+        verify(farmerRepository, times(1)).findByNameContainingIgnoreCase("john", pageable);
     }
 
     @Test
-    @DisplayName("Should search farmers by name")
-    void testSearchFarmersByName() {
+    @DisplayName("Should allow a manager operational actions only")
+    void testCheckPermission_Manager() {
         // Given
-        List<Farmer> foundFarmers = Arrays.asList(farmer);
-        when(farmerRepository.findByFirstNameContainingOrLastNameContaining("John", "John"))
-                .thenReturn(foundFarmers);
-        when(farmerMapper.toDTO(any(Farmer.class))).thenReturn(farmerDTO);
+        UUID resourceId = UUID.randomUUID();
+        farmer.setRole(FarmerRole.MANAGER);
+        when(farmerRepository.findById(farmerId)).thenReturn(Optional.of(farmer));
 
         // When
-        List<FarmerDTO> result = farmerService.searchByName("John");
+        PermissionCheckResponse start = farmerService.checkPermission(farmerId, resourceId, "start");
+        PermissionCheckResponse delete = farmerService.checkPermission(farmerId, resourceId, "delete");
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getFirstName()).isEqualTo("John");
-        
-        verify(farmerRepository, times(1))
-                .findByFirstNameContainingOrLastNameContaining("John", "John");
+        assertThat(start.isAllowed()).isTrue();
+        assertThat(start.getFarmerRole()).isEqualTo("MANAGER");
+        assertThat(delete.isAllowed()).isFalse();
     }
 }
@@ -0,0 +1,87 @@
+package com.farm.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP subscriber on the Supervision service's /topic/events, feeding received events to the tracker.
+ * <p>
+ * Connects to the raw WebSocket transport of the SockJS endpoint ({@code /ws-events/websocket}),
+ * which skips the SockJS /info round trip and works both directly and through the gateway's ws route.
+ */
+public class EventLatencySubscriber implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLatencySubscriber.class);
+
+    private final ObjectMapper objectMapper;
+    private final LatencyTracker tracker;
+    private final WebSocketStompClient stompClient;
+    private StompSession session;
+
+    public EventLatencySubscriber(ObjectMapper objectMapper, LatencyTracker tracker) {
+        this.objectMapper = objectMapper;
+        this.tracker = tracker;
+        this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        this.stompClient.setMessageConverter(new ByteArrayMessageConverter());
+        this.stompClient.setInboundMessageSizeLimit(1024 * 1024);
+    }
+
+    public void connect(String supervisionUrl) throws Exception {
+        String url = supervisionUrl.replaceFirst("^http", "ws") + "/ws-events/websocket";
+        session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                log.error("WebSocket transport error: {}", exception.getMessage());
+            }
+        }).get(30, TimeUnit.SECONDS);
+
+        session.subscribe("/topic/events", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onEvent((byte[]) payload);
+            }
+        });
+        log.info("Subscribed to /topic/events at {}", url);
+    }
+
+    private void onEvent(byte[] payload) {
+        long receivedNanos = System.nanoTime();
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            JsonNode equipmentId = event.get("equipmentId");
+            JsonNode eventType = event.get("eventType");
+            if (equipmentId != null && eventType != null && !equipmentId.isNull()) {
+                tracker.eventReceived(UUID.fromString(equipmentId.asText()), eventType.asText(), receivedNanos);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable event: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+        stompClient.stop();
+    }
+}
@@ -0,0 +1,156 @@
+package com.farm.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thin HTTP client for the Farmers and Equipment REST APIs.
+ * Setup calls are blocking; the calls issued at load are asynchronous and return the status code.
+ */
+public class FarmApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String farmersUrl;
+    private final String equipmentUrl;
+
+    public FarmApiClient(ObjectMapper objectMapper, String farmersUrl, String equipmentUrl) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = objectMapper;
+        this.farmersUrl = farmersUrl;
+        this.equipmentUrl = equipmentUrl;
+    }
+
+    /**
+     * Create an OWNER farmer; owners pass every permission check in the Farmers service
+     */
+    public UUID createOwner(String runId) throws IOException, InterruptedException {
+        JsonNode farmer = post(farmersUrl + "/api/farmers", null, Map.of(
+                "name", "Load Test " + runId,
+                "email", "loadtest-" + runId + "@example.com",
+                "phone", "+33600000000",
+                "role", "OWNER"));
+        return UUID.fromString(farmer.get("id").asText());
+    }
+
+    public UUID createFarm(UUID farmerId, int index) throws IOException, InterruptedException {
+        JsonNode farm = post(farmersUrl + "/api/farms", null, Map.of(
+                "farmerId", farmerId,
+                "name", "Load Test Farm " + index,
+                "location", "Load Test Region " + index,
+                "area", 100));
+        return UUID.fromString(farm.get("id").asText());
+    }
+
+    /**
+     * Create sensors through the bulk import endpoint and return their ids
+     */
+    public List<UUID> createSensors(UUID farmerId, UUID farmId, int count) throws IOException, InterruptedException {
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of(
+                    "type", i % 2 == 0 ? "HUMIDITY" : "TEMPERATURE",
+                    "farmId", farmId,
+                    "battery", 80,
+                    "location", "Plot " + i));
+        }
+        post(equipmentUrl + "/api/sensors/bulk", farmerId, rows);
+        return listIds(equipmentUrl + "/api/sensors/farm/" + farmId + "?size=" + count, farmerId);
+    }
+
+    /**
+     * Create pumps through the bulk import endpoint and return their ids
+     */
+    public List<UUID> createPumps(UUID farmerId, UUID farmId, int count) throws IOException, InterruptedException {
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of(
+                    "farmId", farmId,
+                    "model", "LG-" + i,
+                    "status", "INACTIVE",
+                    "maxFlow", 50));
+        }
+        post(equipmentUrl + "/api/pumps/bulk", farmerId, rows);
+        return listIds(equipmentUrl + "/api/pumps/farm/" + farmId + "?size=" + count, farmerId);
+    }
+
+    /**
+     * PATCH /api/sensors/{id}/communication; produces no event
+     */
+    public CompletableFuture<Integer> heartbeat(UUID farmerId, UUID sensorId) {
+        return send(request(equipmentUrl + "/api/sensors/" + sensorId + "/communication", farmerId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    /**
+     * PATCH /api/sensors/{id}/battery; crossing the low-battery threshold produces BATTERY_LOW
+     */
+    public CompletableFuture<Integer> updateBattery(UUID farmerId, UUID sensorId, int level) {
+        return send(request(equipmentUrl + "/api/sensors/" + sensorId + "/battery?batteryLevel=" + level, farmerId)
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    /**
+     * PUT /api/pumps/{id} with a new status; produces STATUS_CHANGED
+     */
+    public CompletableFuture<Integer> updatePumpStatus(UUID farmerId, UUID pumpId, String status) {
+        return send(request(equipmentUrl + "/api/pumps/" + pumpId, farmerId)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                .build());
+    }
+
+    private CompletableFuture<Integer> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private List<UUID> listIds(String url, UUID farmerId) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request(url, farmerId).GET().build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode page = checked(response, url);
+        List<UUID> ids = new ArrayList<>();
+        page.get("content").forEach(item -> ids.add(UUID.fromString(item.get("id").asText())));
+        return ids;
+    }
+
+    private JsonNode post(String url, UUID farmerId, Object body) throws IOException, InterruptedException {
+        HttpRequest request = request(url, farmerId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return checked(http.send(request, HttpResponse.BodyHandlers.ofString()), url);
+    }
+
+    private JsonNode checked(HttpResponse<String> response, String url) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static HttpRequest.Builder request(String url, UUID farmerId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT);
+        if (farmerId != null) {
+            builder.header("X-Farmer-Id", farmerId.toString());
+        }
+        return builder;
+    }
+}
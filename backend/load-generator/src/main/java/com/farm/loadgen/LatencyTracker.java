@@ -0,0 +1,192 @@
+package com.farm.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records request and end-to-end event latencies.
+ * <p>
+ * All latencies are measured from the intended send time of the operation, not from when the
+ * request was actually issued, so a stalled system shows up as queueing delay instead of
+ * silently lowering the offered load (coordinated omission).
+ * An expected event is matched FIFO against the next event of the same type for the same equipment.
+ */
+public class LatencyTracker {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Recorder endToEnd = new Recorder(HIGHEST_TRACKABLE, 3);
+    private final Map<String, Queue<Long>> expected = new ConcurrentHashMap<>();
+    private final LongAdder eventsMatched = new LongAdder();
+    private final LongAdder eventsUnexpected = new LongAdder();
+    private final LongAdder eventsLost = new LongAdder();
+    private final AtomicLong pendingEvents = new AtomicLong();
+
+    private volatile boolean recording;
+
+    /**
+     * Start counting; samples taken during warmup are discarded
+     */
+    public void startRecording() {
+        operations.values().forEach(operation -> operation.reset());
+        endToEnd.reset();
+        eventsMatched.reset();
+        eventsUnexpected.reset();
+        eventsLost.reset();
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    /**
+     * Register an event the system should deliver for an operation sent at the given intended time
+     */
+    public void expectEvent(UUID equipmentId, String eventType, long intendedNanos) {
+        expected.computeIfAbsent(key(equipmentId, eventType), k -> new ConcurrentLinkedQueue<>()).add(intendedNanos);
+        pendingEvents.incrementAndGet();
+    }
+
+    /**
+     * Withdraw an expectation whose triggering request failed
+     */
+    public void cancelEvent(UUID equipmentId, String eventType, long intendedNanos) {
+        Queue<Long> queue = expected.get(key(equipmentId, eventType));
+        if (queue != null && queue.remove(intendedNanos)) {
+            pendingEvents.decrementAndGet();
+        }
+    }
+
+    /**
+     * Match an event received over the WebSocket against the oldest pending expectation
+     */
+    public void eventReceived(UUID equipmentId, String eventType, long receivedNanos) {
+        Queue<Long> queue = expected.get(key(equipmentId, eventType));
+        Long intended = queue == null ? null : queue.poll();
+        if (intended == null) {
+            if (recording) {
+                eventsUnexpected.increment();
+            }
+            return;
+        }
+        pendingEvents.decrementAndGet();
+        if (recording && intended <= receivedNanos) {
+            endToEnd.recordValue(Math.min(receivedNanos - intended, HIGHEST_TRACKABLE));
+            eventsMatched.increment();
+        }
+    }
+
+    /**
+     * Drop expectations older than the timeout and count them as lost
+     */
+    public void expireEvents(long nowNanos, long timeoutNanos) {
+        for (Queue<Long> queue : expected.values()) {
+            Iterator<Long> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                if (nowNanos - iterator.next() > timeoutNanos) {
+                    iterator.remove();
+                    pendingEvents.decrementAndGet();
+                    if (recording) {
+                        eventsLost.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public void requestCompleted(String operation, long intendedNanos, long completedNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        Operation stats = operation(operation);
+        stats.latency.recordValue(Math.min(Math.max(completedNanos - intendedNanos, 0), HIGHEST_TRACKABLE));
+        (success ? stats.succeeded : stats.failed).increment();
+    }
+
+    /**
+     * Count a send that was skipped because too many requests were outstanding
+     */
+    public void requestDropped(String operation) {
+        if (recording) {
+            operation(operation).dropped.increment();
+        }
+    }
+
+    public long pendingEvents() {
+        return pendingEvents.get();
+    }
+
+    public Map<String, Operation> operations() {
+        return operations;
+    }
+
+    public Histogram endToEndHistogram() {
+        return endToEnd.getIntervalHistogram();
+    }
+
+    public long eventsMatched() {
+        return eventsMatched.sum();
+    }
+
+    public long eventsUnexpected() {
+        return eventsUnexpected.sum();
+    }
+
+    public long eventsLost() {
+        return eventsLost.sum();
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    private static String key(UUID equipmentId, String eventType) {
+        return equipmentId + ":" + eventType;
+    }
+
+    /**
+     * Latency and outcome counters for one REST operation
+     */
+    public static final class Operation {
+
+        private final Recorder latency = new Recorder(HIGHEST_TRACKABLE, 3);
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        private void reset() {
+            latency.reset();
+            succeeded.reset();
+            failed.reset();
+            dropped.reset();
+        }
+
+        public Histogram histogram() {
+            return latency.getIntervalHistogram();
+        }
+
+        public long succeeded() {
+            return succeeded.sum();
+        }
+
+        public long failed() {
+            return failed.sum();
+        }
+
+        public long dropped() {
+            return dropped.sum();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.farm.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load generator: simulated sensor heartbeats, battery updates and pump status changes
+ * are sent through the REST APIs while a WebSocket subscriber measures how long the resulting
+ * events take to travel Equipment → RabbitMQ → Supervision → /topic/events.
+ * <p>
+ * Each operation type runs as an open-loop stream at a fixed rate: sends are scheduled on a
+ * fixed timeline and latencies are taken from the scheduled time, so a slow system cannot
+ * reduce the offered load.
+ */
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int LOW_BATTERY = 10;
+    private static final int HEALTHY_BATTERY = 80;
+
+    private final LoadGeneratorConfig config;
+    private final FarmApiClient api;
+    private final LatencyTracker tracker;
+    private final Semaphore inFlight;
+
+    private UUID farmerId;
+    private final List<UUID> sensors = new ArrayList<>();
+    private final List<UUID> pumps = new ArrayList<>();
+    private AtomicLongArray batteryUpdates;
+    private AtomicLongArray pumpUpdates;
+
+    LoadGenerator(LoadGeneratorConfig config, FarmApiClient api, LatencyTracker tracker) {
+        this.config = config;
+        this.api = api;
+        this.tracker = tracker;
+        this.inFlight = new Semaphore(config.maxInFlight());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorConfig config = LoadGeneratorConfig.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalStack stack = null;
+        if (config.isLocal()) {
+            stack = new LocalStack(config.serviceJarsDir());
+            stack.start();
+            config = config.withUrls(stack.farmersUrl(), stack.equipmentUrl(), stack.supervisionUrl());
+        }
+
+        LatencyTracker tracker = new LatencyTracker();
+        try (EventLatencySubscriber subscriber = new EventLatencySubscriber(objectMapper, tracker)) {
+            LoadGenerator generator = new LoadGenerator(config,
+                    new FarmApiClient(objectMapper, config.farmersUrl(), config.equipmentUrl()), tracker);
+            generator.setUp();
+            subscriber.connect(config.supervisionUrl());
+
+            double seconds = generator.run();
+
+            LoadReport report = new LoadReport(config, tracker, seconds);
+            report.print(System.out);
+            report.write(config.report(), objectMapper);
+            log.info("Report written to {}", config.report().toAbsolutePath());
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Create one owner, the farms and their equipment
+     */
+    void setUp() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        farmerId = api.createOwner(runId);
+        for (int i = 0; i < config.farms(); i++) {
+            UUID farmId = api.createFarm(farmerId, i);
+            sensors.addAll(api.createSensors(farmerId, farmId, config.sensorsPerFarm()));
+            pumps.addAll(api.createPumps(farmerId, farmId, config.pumpsPerFarm()));
+        }
+        if (sensors.size() < config.totalSensors() || pumps.size() < config.totalPumps()) {
+            throw new IllegalStateException("Created " + sensors.size() + " sensors and " + pumps.size()
+                    + " pumps, expected " + config.totalSensors() + " and " + config.totalPumps());
+        }
+        batteryUpdates = new AtomicLongArray(sensors.size());
+        pumpUpdates = new AtomicLongArray(pumps.size());
+        log.info("Set up farmer {} with {} farms, {} sensors and {} pumps",
+                farmerId, config.farms(), sensors.size(), pumps.size());
+    }
+
+    /**
+     * Run warmup and the measured window, then wait for outstanding events
+     * @return measured seconds
+     */
+    double run() throws InterruptedException {
+        long warmupNanos = config.warmup().toNanos();
+        long measuredNanos = config.duration().toNanos();
+        long timeoutNanos = config.eventTimeout().toNanos();
+        long start = System.nanoTime();
+        long end = start + warmupNanos + measuredNanos;
+
+        List<Thread> streams = new ArrayList<>();
+        streams.add(stream("heartbeat", config.heartbeatRate(), start, end, this::heartbeat));
+        streams.add(stream("battery", config.batteryRate(), start, end, this::battery));
+        streams.add(stream("pump-status", config.pumpStatusRate(), start, end, this::pumpStatus));
+
+        ScheduledExecutorService expiry = Executors.newSingleThreadScheduledExecutor();
+        expiry.scheduleAtFixedRate(() -> tracker.expireEvents(System.nanoTime(), timeoutNanos), 1, 1, TimeUnit.SECONDS);
+
+        log.info("Warming up for {}", config.warmup());
+        LockSupport.parkNanos(warmupNanos);
+        tracker.startRecording();
+        log.info("Measuring for {}", config.duration());
+        for (Thread stream : streams) {
+            stream.join();
+        }
+
+        // Let in-flight requests and their events land before closing the window
+        long drainDeadline = System.nanoTime() + timeoutNanos;
+        while ((tracker.pendingEvents() > 0 || inFlight.availablePermits() < config.maxInFlight())
+                && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        tracker.expireEvents(System.nanoTime(), 0);
+        tracker.stopRecording();
+        expiry.shutdownNow();
+        return measuredNanos / 1e9;
+    }
+
+    /**
+     * Start a thread that issues operation {@code n} at {@code start + n / rate}
+     */
+    private Thread stream(String name, double rate, long start, long end, Operation operation) {
+        Thread thread = new Thread(() -> {
+            if (rate <= 0) {
+                return;
+            }
+            double intervalNanos = 1e9 / rate;
+            for (long n = 0; ; n++) {
+                long intended = start + (long) (n * intervalNanos);
+                if (intended >= end) {
+                    return;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    tracker.requestDropped(name);
+                    continue;
+                }
+                operation.send(n, intended)
+                        .exceptionally(e -> false)
+                        .thenAccept(success -> {
+                            inFlight.release();
+                            tracker.requestCompleted(name, intended, System.nanoTime(), success);
+                        });
+            }
+        }, "load-" + name);
+        thread.start();
+        return thread;
+    }
+
+    private CompletableFuture<Boolean> heartbeat(long n, long intended) {
+        UUID sensorId = sensors.get((int) (n % sensors.size()));
+        return api.heartbeat(farmerId, sensorId).thenApply(LoadGenerator::isSuccess);
+    }
+
+    /**
+     * Alternate each sensor between a healthy and a low level; only the drop produces BATTERY_LOW
+     */
+    private CompletableFuture<Boolean> battery(long n, long intended) {
+        int index = (int) (n % sensors.size());
+        UUID sensorId = sensors.get(index);
+        boolean drop = batteryUpdates.getAndIncrement(index) % 2 == 0;
+        if (drop) {
+            tracker.expectEvent(sensorId, "BATTERY_LOW", intended);
+        }
+        return api.updateBattery(farmerId, sensorId, drop ? LOW_BATTERY : HEALTHY_BATTERY)
+                .thenApply(LoadGenerator::isSuccess)
+                .thenApply(success -> {
+                    if (!success && drop) {
+                        tracker.cancelEvent(sensorId, "BATTERY_LOW", intended);
+                    }
+                    return success;
+                });
+    }
+
+    /**
+     * Toggle each pump between ACTIVE and INACTIVE; every change produces STATUS_CHANGED
+     */
+    private CompletableFuture<Boolean> pumpStatus(long n, long intended) {
+        int index = (int) (n % pumps.size());
+        UUID pumpId = pumps.get(index);
+        String status = pumpUpdates.getAndIncrement(index) % 2 == 0 ? "ACTIVE" : "INACTIVE";
+        tracker.expectEvent(pumpId, "STATUS_CHANGED", intended);
+        return api.updatePumpStatus(farmerId, pumpId, status)
+                .thenApply(LoadGenerator::isSuccess)
+                .thenApply(success -> {
+                    if (!success) {
+                        tracker.cancelEvent(pumpId, "STATUS_CHANGED", intended);
+                    }
+                    return success;
+                });
+    }
+
+    private static boolean isSuccess(int status) {
+        return status / 100 == 2;
+    }
+
+    /**
+     * One kind of request, given its sequence number and intended send time
+     */
+    @FunctionalInterface
+    private interface Operation {
+        CompletableFuture<Boolean> send(long n, long intendedNanos);
+    }
+}
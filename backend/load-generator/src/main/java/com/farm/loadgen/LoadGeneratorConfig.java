@@ -0,0 +1,150 @@
+package com.farm.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load generator settings, parsed from {@code --name=value} command line arguments.
+ *
+ * @param mode              {@code external} drives an already running stack (docker-compose),
+ *                          {@code local} starts PostgreSQL and RabbitMQ with Testcontainers and runs the service jars
+ * @param farmersUrl        base URL for /api/farmers and /api/farms
+ * @param equipmentUrl      base URL for /api/sensors and /api/pumps
+ * @param supervisionUrl    base URL of the /ws-events SockJS endpoint
+ * @param farms             number of simulated farms
+ * @param sensorsPerFarm    sensors created per farm
+ * @param pumpsPerFarm      pumps created per farm
+ * @param heartbeatRate     sensor heartbeats per second, across all sensors
+ * @param batteryRate       sensor battery updates per second; every other update of a sensor drops it below the
+ *                          low-battery threshold and produces a BATTERY_LOW event
+ * @param pumpStatusRate    pump status changes per second; each produces a STATUS_CHANGED event
+ * @param warmup            time at full rate before measurements start
+ * @param duration          measured time
+ * @param eventTimeout      how long an expected event may take before it counts as lost
+ * @param maxInFlight       cap on outstanding HTTP requests; further sends are counted as dropped
+ * @param report            JSON report file
+ * @param serviceJarsDir    local mode: the backend directory holding {@code <service>/target/<service>-1.0.0.jar}
+ */
+public record LoadGeneratorConfig(
+        String mode,
+        String farmersUrl,
+        String equipmentUrl,
+        String supervisionUrl,
+        int farms,
+        int sensorsPerFarm,
+        int pumpsPerFarm,
+        double heartbeatRate,
+        double batteryRate,
+        double pumpStatusRate,
+        Duration warmup,
+        Duration duration,
+        Duration eventTimeout,
+        int maxInFlight,
+        Path report,
+        Path serviceJarsDir
+) {
+
+    private static final Set<String> OPTIONS = Set.of(
+            "mode", "gateway-url", "farmers-url", "equipment-url", "supervision-url",
+            "farms", "sensors-per-farm", "pumps-per-farm",
+            "heartbeat-rate", "battery-rate", "pump-status-rate",
+            "warmup", "duration", "event-timeout", "max-in-flight", "report", "service-jars-dir");
+
+    public boolean isLocal() {
+        return "local".equals(mode);
+    }
+
+    public int totalSensors() {
+        return farms * sensorsPerFarm;
+    }
+
+    public int totalPumps() {
+        return farms * pumpsPerFarm;
+    }
+
+    /**
+     * Same settings pointed at other service URLs
+     */
+    public LoadGeneratorConfig withUrls(String farmersUrl, String equipmentUrl, String supervisionUrl) {
+        return new LoadGeneratorConfig(mode, farmersUrl, equipmentUrl, supervisionUrl, farms, sensorsPerFarm,
+                pumpsPerFarm, heartbeatRate, batteryRate, pumpStatusRate, warmup, duration, eventTimeout,
+                maxInFlight, report, serviceJarsDir);
+    }
+
+    public static LoadGeneratorConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known options: " + OPTIONS);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        String mode = values.getOrDefault("mode", "external");
+        if (!mode.equals("external") && !mode.equals("local")) {
+            throw new IllegalArgumentException("--mode must be external or local");
+        }
+        String gatewayUrl = values.getOrDefault("gateway-url", "http://localhost:8080");
+
+        return new LoadGeneratorConfig(
+                mode,
+                values.getOrDefault("farmers-url", gatewayUrl),
+                values.getOrDefault("equipment-url", gatewayUrl),
+                values.getOrDefault("supervision-url", gatewayUrl),
+                positiveInt(values, "farms", 10),
+                positiveInt(values, "sensors-per-farm", 50),
+                positiveInt(values, "pumps-per-farm", 5),
+                rate(values, "heartbeat-rate", 200),
+                rate(values, "battery-rate", 50),
+                rate(values, "pump-status-rate", 10),
+                duration(values, "warmup", Duration.ofSeconds(10)),
+                duration(values, "duration", Duration.ofSeconds(60)),
+                duration(values, "event-timeout", Duration.ofSeconds(30)),
+                positiveInt(values, "max-in-flight", 2000),
+                Path.of(values.getOrDefault("report", "load-report.json")),
+                Path.of(values.getOrDefault("service-jars-dir", "..")));
+    }
+
+    private static int positiveInt(Map<String, String> values, String name, int defaultValue) {
+        int value = values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+
+    private static double rate(Map<String, String> values, String name, double defaultValue) {
+        double value = values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+        if (value < 0) {
+            throw new IllegalArgumentException("--" + name + " must not be negative");
+        }
+        return value;
+    }
+
+    /**
+     * Parse durations such as {@code 500ms}, {@code 30s}, {@code 5m}
+     */
+    static Duration duration(Map<String, String> values, String name, Duration defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("--" + name + " must end in ms, s, m or h");
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.farm.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a run: throughput and latency percentiles per REST operation and end to end,
+ * printed as a table and written as JSON.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final double seconds;
+
+    public LoadReport(LoadGeneratorConfig config, LatencyTracker tracker, double seconds) {
+        this.seconds = seconds;
+
+        Map<String, Object> setup = new LinkedHashMap<>();
+        setup.put("mode", config.mode());
+        setup.put("farms", config.farms());
+        setup.put("sensors", config.totalSensors());
+        setup.put("pumps", config.totalPumps());
+        setup.put("targetRates", Map.of(
+                "heartbeat", config.heartbeatRate(),
+                "battery", config.batteryRate(),
+                "pumpStatus", config.pumpStatusRate()));
+        setup.put("durationSeconds", seconds);
+        summary.put("config", setup);
+
+        Map<String, Object> requests = new TreeMap<>();
+        tracker.operations().forEach((name, operation) -> {
+            Histogram histogram = operation.histogram();
+            histograms.put(name, histogram);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("succeeded", operation.succeeded());
+            stats.put("failed", operation.failed());
+            stats.put("dropped", operation.dropped());
+            stats.put("throughputPerSecond", operation.succeeded() / seconds);
+            stats.put("latencyMs", percentiles(histogram));
+            requests.put(name, stats);
+        });
+        summary.put("requests", requests);
+
+        Histogram endToEnd = tracker.endToEndHistogram();
+        histograms.put("end-to-end", endToEnd);
+        Map<String, Object> events = new LinkedHashMap<>();
+        events.put("matched", tracker.eventsMatched());
+        events.put("lost", tracker.eventsLost());
+        events.put("unexpected", tracker.eventsUnexpected());
+        events.put("throughputPerSecond", tracker.eventsMatched() / seconds);
+        events.put("latencyMs", percentiles(endToEnd));
+        summary.put("events", events);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-16s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((name, histogram) -> {
+            out.printf("%-16s %10d %8s %8.1f", name, histogram.getTotalCount(), failed(name), histogram.getTotalCount() / seconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %10.2f", millis(histogram.getValueAtPercentile(percentile)));
+            }
+            out.printf(" %10.2f%n", millis(histogram.getMaxValue()));
+        });
+    }
+
+    public void write(Path file, ObjectMapper objectMapper) throws IOException {
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String failed(String name) {
+        if ("end-to-end".equals(name)) {
+            return String.valueOf(((Map<String, Object>) summary.get("events")).get("lost"));
+        }
+        Map<String, Object> stats = (Map<String, Object>) ((Map<String, Object>) summary.get("requests")).get(name);
+        return String.valueOf((long) stats.get("failed") + (long) stats.get("dropped"));
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            values.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        values.put("max", millis(histogram.getMaxValue()));
+        return values;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.farm.loadgen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Self-contained stack for {@code --mode=local}: PostgreSQL and RabbitMQ in Testcontainers,
+ * with the Farmers, Equipment and Supervision service jars started as child processes.
+ * Eureka and the config server are disabled, so the load is driven against the services directly.
+ */
+public class LocalStack implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalStack.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path serviceJarsDir;
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    private final RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3.12-management-alpine")
+            .withPluginsEnabled("rabbitmq_consistent_hash_exchange");
+    private final List<Process> services = new ArrayList<>();
+
+    public LocalStack(Path serviceJarsDir) {
+        this.serviceJarsDir = serviceJarsDir;
+    }
+
+    public void start() throws IOException, InterruptedException {
+        postgres.start();
+        rabbitmq.start();
+        for (String database : List.of("farmers_db", "equipment_db", "supervision_db")) {
+            var result = postgres.execInContainer("psql", "-U", postgres.getUsername(), "-c", "CREATE DATABASE " + database);
+            if (result.getExitCode() != 0) {
+                throw new IllegalStateException("Could not create " + database + ": " + result.getStderr());
+            }
+        }
+
+        // Farmers validates its schema and ships no migrations; let Hibernate create it here
+        startService("farmers", 8081, "--spring.jpa.hibernate.ddl-auto=update", "--spring.flyway.enabled=false");
+        startService("equipment", 8082);
+        startService("supervision", 8083);
+
+        for (String url : List.of(farmersUrl(), equipmentUrl(), supervisionUrl())) {
+            awaitHealthy(url);
+        }
+    }
+
+    public String farmersUrl() {
+        return "http://localhost:8081";
+    }
+
+    public String equipmentUrl() {
+        return "http://localhost:8082";
+    }
+
+    public String supervisionUrl() {
+        return "http://localhost:8083";
+    }
+
+    private void startService(String name, int port, String... extraArgs) throws IOException {
+        Path jar = serviceJarsDir.resolve(name + "-service/target/" + name + "-service-1.0.0.jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Missing " + jar + "; run mvn package in " + name + "-service first");
+        }
+
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:postgresql://" + postgres.getHost() + ":"
+                        + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + name + "_db",
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false"));
+        command.addAll(List.of(extraArgs));
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", name + "-service.log").toFile());
+        builder.environment().put("DB_USERNAME", postgres.getUsername());
+        builder.environment().put("DB_PASSWORD", postgres.getPassword());
+        builder.environment().put("RABBITMQ_HOST", rabbitmq.getHost());
+        builder.environment().put("RABBITMQ_PORT", String.valueOf(rabbitmq.getAmqpPort()));
+        builder.environment().put("RABBITMQ_USERNAME", rabbitmq.getAdminUsername());
+        builder.environment().put("RABBITMQ_PASSWORD", rabbitmq.getAdminPassword());
+        builder.environment().put("FARMERS_SERVICE_URL", farmersUrl());
+
+        Files.createDirectories(Path.of("target"));
+        services.add(builder.start());
+        log.info("Started {}-service on port {} (log: target/{}-service.log)", name, port, name);
+    }
+
+    private void awaitHealthy(String baseUrl) throws InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    log.info("{} is up", baseUrl);
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException(baseUrl + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        for (Process service : services) {
+            service.destroy();
+        }
+        for (Process service : services) {
+            try {
+                if (!service.waitFor(30, TimeUnit.SECONDS)) {
+                    service.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                service.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        rabbitmq.stop();
+        postgres.stop();
+    }
+}
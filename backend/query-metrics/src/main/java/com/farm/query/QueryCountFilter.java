@@ -0,0 +1,54 @@
+package com.farm.query;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the statements run while handling each request, records them per route and warns
+ * about requests above {@code <prefix>.query.max-statements-per-request}, the usual sign of
+ * an N+1 load. The count is also left on the request as {@link #STATEMENTS_ATTRIBUTE} for tests,
+ * which check it with {@link StatementCount}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_ATTRIBUTE = QueryCountFilter.class.getName() + ".statements";
+
+    private final QueryMetrics queryMetrics;
+    private final long maxStatements;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Counts are per thread; start from zero on pooled threads
+        QueryCountHolder.clear();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCountHolder.getGrandTotal();
+            QueryCountHolder.clear();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, count.getTotal());
+
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                queryMetrics.recordRequest(route.toString(), count.getTotal(), count.getTime());
+                if (count.getTotal() > maxStatements) {
+                    log.warn("{} {} ran {} statements in {} ms (select={}, insert={}, update={}, delete={})",
+                            request.getMethod(), route, count.getTotal(), count.getTime(),
+                            count.getSelect(), count.getInsert(), count.getUpdate(), count.getDelete());
+                }
+            }
+        }
+    }
+}
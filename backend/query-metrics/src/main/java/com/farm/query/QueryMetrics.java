@@ -0,0 +1,107 @@
+package com.farm.query;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import net.ttddyy.dsproxy.QueryType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database statement metrics of a service, named after its prefix ({@code equipment} below).
+ * <ul>
+ *   <li>{@code equipment.db.statement}: time of each JDBC execution, by statement type</li>
+ *   <li>{@code equipment.db.slow_statements}: executions slower than {@code equipment.query.slow-threshold}</li>
+ *   <li>{@code equipment.request.statements}: statements run while handling one HTTP request, by route</li>
+ *   <li>{@code equipment.request.statement.time}: time spent in those statements, by route</li>
+ * </ul>
+ * Hibernate's own statistics (sessions, entity loads, cache hits, query plans) are exported
+ * as {@code hibernate.*} by Spring Boot.
+ */
+public class QueryMetrics {
+
+    private static final QueryType[] QUERY_TYPES = QueryType.values();
+
+    private final MeterRegistry meterRegistry;
+    private final String prefix;
+
+    private Timer[] statementTimers;
+    private Counter[] slowStatements;
+
+    // One pair per route pattern; routes are a fixed set
+    private final Map<String, RequestMeters> requestMeters = new ConcurrentHashMap<>();
+
+    private record RequestMeters(DistributionSummary statements, Timer time) {
+    }
+
+    /**
+     * @param prefix of the meter names: the service's name, e.g. {@code equipment}
+     */
+    public QueryMetrics(MeterRegistry meterRegistry, String prefix) {
+        this.meterRegistry = meterRegistry;
+        this.prefix = prefix;
+    }
+
+    @PostConstruct
+    public void init() {
+        statementTimers = new Timer[QUERY_TYPES.length];
+        slowStatements = new Counter[QUERY_TYPES.length];
+        for (QueryType type : QUERY_TYPES) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            statementTimers[type.ordinal()] = Timer.builder(prefix + ".db.statement")
+                    .description("Time taken by a JDBC statement execution")
+                    .tag("type", tag)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25),
+                            Duration.ofMillis(100), Duration.ofMillis(500))
+                    .register(meterRegistry);
+            slowStatements[type.ordinal()] = Counter.builder(prefix + ".db.slow_statements")
+                    .description("Number of statement executions slower than the slow-query threshold")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Track one statement execution
+     */
+    public void recordStatement(QueryType type, long millis, boolean slow) {
+        statementTimers[type.ordinal()].record(millis, TimeUnit.MILLISECONDS);
+        if (slow) {
+            slowStatements[type.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Track the statements run while handling one request
+     * @param route the matched route pattern, e.g. {@code /api/farms/{id}}
+     */
+    public void recordRequest(String route, long statements, long millis) {
+        RequestMeters meters = requestMeters.get(route);
+        if (meters == null) {
+            meters = requestMeters.computeIfAbsent(route, this::requestMeters);
+        }
+        meters.statements().record(statements);
+        meters.time().record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private RequestMeters requestMeters(String route) {
+        return new RequestMeters(
+                DistributionSummary.builder(prefix + ".request.statements")
+                        .description("Statements run while handling one HTTP request")
+                        .tag("uri", route)
+                        .serviceLevelObjectives(1, 2, 5, 10, 25)
+                        .register(meterRegistry),
+                Timer.builder(prefix + ".request.statement.time")
+                        .description("Time spent in statements while handling one HTTP request")
+                        .tag("uri", route)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+}
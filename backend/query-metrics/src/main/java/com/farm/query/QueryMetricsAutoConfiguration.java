@@ -0,0 +1,80 @@
+package com.farm.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Query instrumentation of a service. Every DataSource is wrapped in a datasource-proxy so each
+ * statement is counted per thread (read back per request by {@link QueryCountFilter}), timed and,
+ * when slow, logged with its parameters. Replaces {@code show-sql}, which printed every statement
+ * synchronously to stdout.
+ * <p>
+ * {@code query-metrics.prefix} names the service: its meters are {@code <prefix>.db.*} and
+ * {@code <prefix>.request.*} (see {@link QueryMetrics}), and its settings are read from
+ * {@code <prefix>.query} ({@link Settings}).
+ */
+@AutoConfiguration
+public class QueryMetricsAutoConfiguration {
+
+    /**
+     * @param slowThreshold statements at least this slow are logged with their parameters
+     * @param explainSlow also log the plan of slow SELECTs (EXPLAIN without ANALYZE), off by default:
+     *                    PostgreSQL's auto_explain logs the plans the queries actually ran with
+     * @param maxStatementsPerRequest requests running more statements are logged as likely N+1 loads
+     */
+    public record Settings(@DefaultValue("200ms") Duration slowThreshold,
+                           @DefaultValue("false") boolean explainSlow,
+                           @DefaultValue("10") long maxStatementsPerRequest) {
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryMetrics> queryMetrics,
+                                                                 Environment environment) {
+        Settings settings = settings(environment);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .countQuery()
+                            .listener(new QueryMetricsListener(dataSource, queryMetrics, settings.slowThreshold(),
+                                    settings.explainSlow()))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryMetrics queryMetrics(MeterRegistry meterRegistry, Environment environment) {
+        return new QueryMetrics(meterRegistry, prefix(environment));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public QueryCountFilter queryCountFilter(QueryMetrics queryMetrics, Environment environment) {
+        return new QueryCountFilter(queryMetrics, settings(environment).maxStatementsPerRequest());
+    }
+
+    private static String prefix(Environment environment) {
+        return environment.getRequiredProperty("query-metrics.prefix");
+    }
+
+    private static Settings settings(Environment environment) {
+        return Binder.get(environment).bindOrCreate(prefix(environment) + ".query", Settings.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.farm.query;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every statement run through the proxied DataSource and logs the slow ones with their
+ * bound parameters. Slow single SELECTs are also explained (plan only, not {@code EXPLAIN ANALYZE})
+ * on a connection of the target DataSource, so the EXPLAIN itself is neither timed nor counted.
+ * <p>
+ * The EXPLAIN runs on its own thread, one at a time, never on the thread that ran the query:
+ * that thread still holds its pooled connection, and waiting there for a second one could
+ * exhaust the pool, precisely when queries are slow. Slow queries arriving while
+ * {@value #EXPLAIN_QUEUE} are waiting to be explained are only logged.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final int EXPLAIN_QUEUE = 16;
+
+    private final DataSource target;
+    private final ObjectProvider<QueryMetrics> queryMetrics;
+    private final long slowThresholdMillis;
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+    private final ThreadPoolExecutor explainExecutor;
+    private volatile QueryMetrics metrics;
+
+    public QueryMetricsListener(DataSource target, ObjectProvider<QueryMetrics> queryMetrics,
+                                Duration slowThreshold, boolean explainSlow) {
+        this.target = target;
+        this.queryMetrics = queryMetrics;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.explainExecutor = explainSlow ? explainExecutor() : null;
+    }
+
+    // A single daemon thread, stopped when idle; slow queries beyond the queue are dropped
+    private static ThreadPoolExecutor explainExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        QueryType type = QueryUtils.getQueryType(sql);
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= slowThresholdMillis;
+
+        metrics().recordStatement(type, elapsed, slow);
+
+        if (slow) {
+            log.warn("Slow query: {}", logEntryCreator.getLogEntry(execInfo, queryInfoList, false, true, false));
+            if (explainExecutor != null && type == QueryType.SELECT && !execInfo.isBatch() && queryInfoList.size() == 1) {
+                QueryInfo queryInfo = queryInfoList.get(0);
+                // The parameter list is reused by the statement; copy it for the explain thread
+                List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+                List<ParameterSetOperation> bound = parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0));
+                explainExecutor.execute(() -> explain(queryInfo.getQuery(), bound));
+            }
+        }
+    }
+
+    // Resolved on first use: the DataSource is created before the metrics beans
+    private QueryMetrics metrics() {
+        QueryMetrics resolved = metrics;
+        if (resolved == null) {
+            resolved = queryMetrics.getObject();
+            metrics = resolved;
+        }
+        return resolved;
+    }
+
+    private void explain(String sql, List<ParameterSetOperation> parameters) {
+        try (Connection connection = target.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation operation : parameters) {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            log.warn("Plan of slow query {}:\n{}", sql, plan);
+        } catch (Exception e) {
+            log.debug("Could not explain slow query: {}", e.getMessage());
+        }
+    }
+}
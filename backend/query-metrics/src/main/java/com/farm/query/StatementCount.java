@@ -0,0 +1,39 @@
+package com.farm.query;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc expectations on the number of statements a request ran, as counted by
+ * {@link QueryCountFilter}. An N+1 load makes the count grow with the page size, so assert
+ * against a page holding more rows than the limit:
+ * <pre>
+ * mockMvc.perform(get("/api/farms").param("size", "20"))
+ *         .andExpect(status().isOk())
+ *         .andExpect(StatementCount.atMost(2));
+ * </pre>
+ */
+public final class StatementCount {
+
+    private StatementCount() {
+    }
+
+    /**
+     * The request ran at most {@code max} statements
+     */
+    public static ResultMatcher atMost(long max) {
+        return result -> {
+            HttpServletRequest request = result.getRequest();
+            Object count = request.getAttribute(QueryCountFilter.STATEMENTS_ATTRIBUTE);
+            assertThat(count)
+                    .as("statement count of %s %s (is QueryCountFilter in the MockMvc filter chain?)",
+                            request.getMethod(), request.getRequestURI())
+                    .isNotNull();
+            assertThat((Long) count)
+                    .as("statements run by %s %s", request.getMethod(), request.getRequestURI())
+                    .isLessThanOrEqualTo(max);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.farm.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Query metrics auto-configuration")
+class QueryMetricsAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(QueryMetricsAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(DataSource.class, () -> mock(DataSource.class))
+            .withPropertyValues("query-metrics.prefix=farmers");
+
+    @Test
+    @DisplayName("wraps the DataSource and names the meters after the service")
+    void instrumentsDataSource() {
+        runner.run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(ProxyDataSource.class);
+            assertThat(context.getBean(MeterRegistry.class).find("farmers.db.statement").timers()).isNotEmpty();
+            assertThat(context).doesNotHaveBean(QueryCountFilter.class);
+        });
+    }
+
+    @Test
+    @DisplayName("reads the settings under the service's prefix")
+    void readsServiceSettings() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(QueryMetricsAutoConfiguration.class))
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("query-metrics.prefix=equipment", "equipment.query.max-statements-per-request=3")
+                .run(context -> assertThat(ReflectionTestUtils.getField(context.getBean(QueryCountFilter.class),
+                        "maxStatements")).isEqualTo(3L));
+    }
+
+    @Test
+    @DisplayName("fails to start without a prefix, rather than mixing the meters of several services")
+    void requiresPrefix() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(QueryMetricsAutoConfiguration.class))
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> assertThat(context).hasFailed());
+    }
+}
@@ -0,0 +1,76 @@
+package com.farm.query;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Query metrics listener")
+class QueryMetricsListenerTest {
+
+    private final ExecutionInfo slowSelect = new ExecutionInfo();
+    private final List<QueryInfo> query = List.of(new QueryInfo("SELECT * FROM sensors"));
+    private DataSource target;
+    private ObjectProvider<QueryMetrics> queryMetrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        slowSelect.setElapsedTime(500);
+        target = mock(DataSource.class);
+        QueryMetrics metrics = new QueryMetrics(new SimpleMeterRegistry(), "test");
+        metrics.init();
+        queryMetrics = mock(ObjectProvider.class);
+        when(queryMetrics.getObject()).thenReturn(metrics);
+    }
+
+    @Test
+    @DisplayName("explains a slow SELECT on its own thread, without waiting for a connection")
+    void explainsOffQueryThread() throws Exception {
+        CountDownLatch poolExhausted = new CountDownLatch(1);
+        CompletableFuture<String> explainThread = new CompletableFuture<>();
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(target.getConnection()).thenAnswer(invocation -> {
+            explainThread.complete(Thread.currentThread().getName());
+            poolExhausted.await();
+            return connection;
+        });
+        QueryMetricsListener listener = new QueryMetricsListener(target, queryMetrics, Duration.ofMillis(200), true);
+
+        CompletableFuture.runAsync(() -> listener.afterQuery(slowSelect, query)).get(5, TimeUnit.SECONDS);
+
+        assertThat(explainThread.get(5, TimeUnit.SECONDS)).isEqualTo("slow-query-explain");
+        poolExhausted.countDown();
+        verify(connection, timeout(5000)).prepareStatement("EXPLAIN SELECT * FROM sensors");
+    }
+
+    @Test
+    @DisplayName("does not explain slow queries unless explain-slow is set")
+    void explainsOnlyWhenEnabled() throws Exception {
+        QueryMetricsListener listener = new QueryMetricsListener(target, queryMetrics, Duration.ofMillis(200), false);
+
+        listener.afterQuery(slowSelect, query);
+
+        verify(target, after(200).never()).getConnection();
+    }
+}
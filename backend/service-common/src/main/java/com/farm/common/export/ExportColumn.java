@@ -0,0 +1,13 @@
+package com.farm.common.export;
+
+import java.util.function.Function;
+
+/**
+ * A named CSV column and the accessor used to read its value from a row.
+ */
+public record ExportColumn<T>(String header, Function<T, ?> accessor) {
+    
+    public static <T> ExportColumn<T> of(String header, Function<T, ?> accessor) {
+        return new ExportColumn<>(header, accessor);
+    }
+}
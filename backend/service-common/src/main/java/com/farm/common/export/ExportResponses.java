@@ -0,0 +1,81 @@
+package com.farm.common.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds streaming export responses, negotiating gzip from the Accept-Encoding header.
+ */
+public final class ExportResponses {
+    
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    
+    private ExportResponses() {
+    }
+    
+    /**
+     * Check whether the client accepts a gzip-encoded response
+     * @param acceptEncoding value of the Accept-Encoding header (may be null)
+     * @return true if gzip is listed and not refused with q=0
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().toLowerCase(Locale.ROOT).split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equals("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    refused = param.substring(2).trim().matches("0(\\.0*)?");
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Wrap a body writer into a streaming response with the right headers
+     * @param format export format
+     * @param fileName base file name (without extension) for Content-Disposition
+     * @param gzip whether to gzip the body
+     * @param body writes the uncompressed export to the given stream
+     * @return the response entity
+     */
+    public static ResponseEntity<StreamingResponseBody> stream(ExportFormat format, String fileName, boolean gzip,
+                                                               StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(fileName + "." + format.getFileExtension())
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        StreamingResponseBody responseBody = gzip ? out -> writeGzip(out, body) : body;
+        return ResponseEntity.ok().headers(headers).body(responseBody);
+    }
+    
+    private static void writeGzip(OutputStream out, StreamingResponseBody body) throws IOException {
+        GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        body.writeTo(gzipOut);
+        gzipOut.finish();
+    }
+}
@@ -0,0 +1,136 @@
+package com.farm.common.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows one at a time to an output stream.
+ * Nothing is retained between rows, so memory use does not depend on the number of rows written.
+ * Closing the writer flushes buffered output but leaves the underlying stream open.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+    
+    /**
+     * Create a writer for the given format
+     * @param format output format
+     * @param out target stream
+     * @param objectMapper mapper used for NDJSON rows
+     * @param type row type
+     * @param columns columns used for CSV rows
+     * @return a new writer
+     */
+    public static <T> ExportWriter<T> create(ExportFormat format, OutputStream out, ObjectMapper objectMapper,
+                                             Class<T> type, List<ExportColumn<T>> columns) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter<>(out, objectMapper, type);
+            case CSV -> new CsvWriter<>(out, columns);
+        };
+    }
+    
+    /**
+     * Write a single row
+     * @param row the row to write
+     */
+    public abstract void write(T row) throws IOException;
+    
+    /**
+     * One JSON document per line.
+     */
+    private static final class NdjsonWriter<T> extends ExportWriter<T> {
+        
+        private final JsonGenerator generator;
+        private final ObjectWriter rowWriter;
+        
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper, Class<T> type) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.rowWriter = objectMapper.writerFor(type)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(SerializationFeature.INDENT_OUTPUT);
+        }
+        
+        @Override
+        public void write(T row) throws IOException {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+    
+    /**
+     * RFC 4180 CSV with a header line.
+     */
+    private static final class CsvWriter<T> extends ExportWriter<T> {
+        
+        private final Writer writer;
+        private final List<ExportColumn<T>> columns;
+        
+        private CsvWriter(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            this.columns = columns;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).header());
+            }
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).accessor().apply(row);
+                if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+        
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.farm.common.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Streaming Export Writer Tests")
+class ExportWriterTest {
+
+    private static final List<ExportColumn<Row>> COLUMNS = List.of(
+            ExportColumn.of("id", Row::id),
+            ExportColumn.of("type", Row::type),
+            ExportColumn.of("battery", Row::battery),
+            ExportColumn.of("location", Row::location)
+    );
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * A sensor, as the services export them
+     */
+    record Row(UUID id, SensorType type, UUID farmId, int battery, String location,
+               LocalDateTime lastCommunication) {
+    }
+
+    enum SensorType {
+        TEMPERATURE,
+        HUMIDITY,
+        SOIL_MOISTURE
+    }
+
+    private static Row sensor(long i) {
+        return sensor(i, "Field " + (i % 50));
+    }
+
+    private static Row sensor(long i, String location) {
+        return new Row(new UUID(0L, i), SensorType.values()[(int) (i % 3)], new UUID(1L, 1L), (int) (i % 101),
+                location, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should write one JSON document per line")
+    void testNdjson() throws IOException {
+        ObjectMapper mapper = objectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportWriter<Row> writer = ExportWriter.create(ExportFormat.NDJSON, out, mapper, Row.class, COLUMNS)) {
+            writer.write(sensor(1));
+            writer.write(sensor(2));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = mapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo(new UUID(0L, 1L).toString());
+        assertThat(first.get("lastCommunication").asText()).isEqualTo("2024-01-01T00:00:00");
+        assertThat(mapper.readTree(lines[1]).get("battery").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should write CSV header and quote fields that need escaping")
+    void testCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Row row = sensor(7, "North \"A\", row 3");
+
+        try (ExportWriter<Row> writer = ExportWriter.create(ExportFormat.CSV, out, objectMapper(), Row.class, COLUMNS)) {
+            writer.write(row);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,type,battery,location\r\n"
+                        + new UUID(0L, 7L) + ",HUMIDITY,7,\"North \"\"A\"\", row 3\"\r\n");
+    }
+
+    @Test
+    @DisplayName("Should leave the underlying stream open on close")
+    void testDoesNotCloseTarget() throws IOException {
+        ClosingTrackingStream out = new ClosingTrackingStream();
+
+        try (ExportWriter<Row> writer = ExportWriter.create(ExportFormat.NDJSON, out, objectMapper(), Row.class, COLUMNS)) {
+            writer.write(sensor(1));
+        }
+
+        assertThat(out.closed).isFalse();
+        assertThat(out.count).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should parse export formats and negotiate gzip")
+    void testFormatAndEncodingNegotiation() {
+        assertThat(ExportFormat.fromParameter("csv")).isEqualTo(ExportFormat.CSV);
+        assertThat(ExportFormat.fromParameter(null)).isEqualTo(ExportFormat.NDJSON);
+        assertThatThrownBy(() -> ExportFormat.fromParameter("xml")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(ExportResponses.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ExportResponses.acceptsGzip("*")).isTrue();
+        assertThat(ExportResponses.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ExportResponses.acceptsGzip("br")).isFalse();
+        assertThat(ExportResponses.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should export 10M rows within a fixed 32MB heap")
+    void testConstantMemoryExport() throws Exception {
+        String javaBin = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(
+                javaBin, "-Xmx32m", "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"),
+                SyntheticExport.class.getName(), "10000000")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("java.io.tmpdir"), "export-heap-test.log")))
+                .start();
+
+        assertThat(process.waitFor(5, TimeUnit.MINUTES)).isTrue();
+        assertThat(process.exitValue()).isZero();
+    }
+
+    /**
+     * Writes synthetic rows through an NDJSON export into a byte-counting sink.
+     * Run in a separate JVM with a small -Xmx; any per-row retention fails with OutOfMemoryError.
+     */
+    static final class SyntheticExport {
+
+        public static void main(String[] args) throws IOException {
+            long rows = Long.parseLong(args[0]);
+            ClosingTrackingStream sink = new ClosingTrackingStream();
+            try (ExportWriter<Row> writer = ExportWriter.create(ExportFormat.NDJSON, sink, objectMapper(), Row.class, COLUMNS)) {
+                for (long i = 0; i < rows; i++) {
+                    writer.write(sensor(i));
+                }
+            }
+            if (sink.count == 0) {
+                System.exit(2);
+            }
+        }
+    }
+
+    private static final class ClosingTrackingStream extends OutputStream {
+
+        private long count;
+        private boolean closed;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.farm.supervision;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Supervision Service.
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class SupervisionServiceApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,38 @@
+package com.farm.supervision.config;
+
+import java.util.stream.IntStream;
+
+/**
+ * The partition queues equipment events are spread over, named {@code <queuePrefix><partition>}.
+ */
+public record EventPartitions(String queuePrefix, int count) {
+
+    public EventPartitions {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one event partition is required, got " + count);
+        }
+    }
+
+    public String queueName(int partition) {
+        return queuePrefix + partition;
+    }
+
+    public String[] queueNames() {
+        return IntStream.range(0, count).mapToObj(this::queueName).toArray(String[]::new);
+    }
+
+    /**
+     * Partition number of a queue name, or -1 if the queue is not one of the partitions
+     */
+    public int partitionOf(String queueName) {
+        if (queueName == null || !queueName.startsWith(queuePrefix)) {
+            return -1;
+        }
+        try {
+            int partition = Integer.parseInt(queueName.substring(queuePrefix.length()));
+            return partition < count ? partition : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.farm.supervision.config;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Delayed retry queues for events that failed processing, named {@code <queuePrefix><delay>},
+ * e.g. {@code supervision-events.retry-10s}. Retry {@code n} holds an event for {@code delays[n]}
+ * before sending it back to its partition; retries beyond the last delay reuse it.
+ * After {@code maxRetries} retries the event is dead-lettered.
+ */
+public record EventRetryTiers(String queuePrefix, List<Duration> delays, int maxRetries) {
+
+    public EventRetryTiers {
+        if (delays.isEmpty() && maxRetries > 0) {
+            throw new IllegalArgumentException("At least one retry delay is required for " + maxRetries + " retries");
+        }
+        delays = List.copyOf(delays);
+        for (Duration delay : delays) {
+            if (delay.isNegative() || delay.isZero()) {
+                throw new IllegalArgumentException("Retry delays must be positive, got " + delay);
+            }
+        }
+    }
+
+    /**
+     * Number of retry queues
+     */
+    public int size() {
+        return delays.size();
+    }
+
+    /**
+     * Tier holding an event for its given retry, counting from 0
+     */
+    public int tierFor(int retry) {
+        return Math.min(retry, delays.size() - 1);
+    }
+
+    public Duration delay(int tier) {
+        return delays.get(tier);
+    }
+
+    public String queueName(int tier) {
+        return queuePrefix + label(tier);
+    }
+
+    /**
+     * Short label of a tier's delay, used in queue names and metric tags
+     */
+    public String label(int tier) {
+        Duration delay = delays.get(tier);
+        return delay.toMillis() % 1000 == 0 ? delay.toSeconds() + "s" : delay.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,23 @@
+package com.farm.supervision.config;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Leaves message bodies undecoded, for listeners that decode messages themselves.
+ * The listener adapter converts every message before invoking the listener, even one that only
+ * takes the raw {@link Message}; with this converter that step cannot fail.
+ */
+public class PassThroughMessageConverter implements MessageConverter {
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return new Message((byte[]) object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        return message.getBody();
+    }
+}
@@ -1,14 +1,29 @@
 package com.farm.supervision.config;
 
+import com.farm.events.EventSchema;
+import com.farm.supervision.monitoring.PartitionMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.retry.ImmediateRequeueMessageRecoverer;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * RabbitMQ configuration for consuming equipment events.
@@ -16,15 +31,45 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
     
+    public static final String DEAD_LETTER_EXCHANGE = "dlx-equipment-events";
+    
+    public static final String DEAD_LETTER_ROUTING_KEY = "dlq";
+    
+    public static final String EQUIPMENT_STATE_CONTAINER_FACTORY = "equipmentStateListenerContainerFactory";
+    
     @Value("${rabbitmq.exchange.name:equipment-events}")
     private String exchangeName;
     
-    @Value("${rabbitmq.queue.supervision:supervision-events-queue}")
-    private String supervisionQueueName;
+    @Value("${rabbitmq.partitions.exchange:equipment-events.partitioned}")
+    private String partitionExchangeName;
+    
+    @Value("${rabbitmq.partitions.queue-prefix:supervision-events.partition-}")
+    private String partitionQueuePrefix;
+    
+    @Value("${rabbitmq.partitions.count:8}")
+    private int partitionCount;
+    
+    @Value("${rabbitmq.partitions.prefetch:50}")
+    private int partitionPrefetch;
+    
+    @Value("${rabbitmq.retry.queue-prefix:supervision-events.retry-}")
+    private String retryQueuePrefix;
+    
+    @Value("${rabbitmq.retry.delays:1s,10s,60s}")
+    private List<Duration> retryDelays;
+    
+    @Value("${rabbitmq.retry.max-retries:3}")
+    private int maxRetries;
     
     @Value("${rabbitmq.routing.key:equipment.#}")
     private String routingKey;
     
+    @Value("${supervision.projection.exchange:supervision.equipment-state}")
+    private String equipmentStateExchangeName;
+    
+    @Value("${supervision.projection.prefetch:250}")
+    private int equipmentStatePrefetch;
+    
     /**
      * Reference to the equipment events exchange (should already exist)
      */
@@ -34,14 +79,73 @@ public class RabbitMQConfig {
     }
     
     /**
-     * Create supervision queue for consuming events
+     * Partition queues this service consumes from
+     */
+    @Bean
+    public EventPartitions eventPartitions() {
+        return new EventPartitions(partitionQueuePrefix, partitionCount);
+    }
+    
+    /**
+     * Partitioned topology: the equipment exchange forwards every event to a consistent-hash exchange,
+     * which spreads them over the partition queues by equipment id. All events of one device land
+     * in the same queue, and each queue has a single active consumer, so they are processed in order.
+     * <p>
+     * Needs the rabbitmq_consistent_hash_exchange plugin. Messages without the partition key header
+     * (publishers that predate it) go through the alternate exchange to partition 0.
+     * Changing the partition count remaps devices to partitions; drain the queues first.
+     */
+    @Bean
+    public Declarables partitionedEventTopology(TopicExchange equipmentExchange, EventPartitions eventPartitions) {
+        List<Declarable> declarables = new ArrayList<>();
+        
+        FanoutExchange unpartitioned = new FanoutExchange(partitionExchangeName + ".unkeyed");
+        CustomExchange partitioned = new CustomExchange(partitionExchangeName, "x-consistent-hash", true, false, Map.of(
+                "hash-header", EventSchema.PARTITION_KEY_HEADER,
+                "alternate-exchange", unpartitioned.getName()));
+        declarables.add(unpartitioned);
+        declarables.add(partitioned);
+        declarables.add(BindingBuilder.bind(partitioned).to(equipmentExchange).with(routingKey));
+        
+        List<Queue> queues = new ArrayList<>();
+        for (String queueName : eventPartitions.queueNames()) {
+            Queue queue = QueueBuilder.durable(queueName)
+                    .singleActiveConsumer()
+                    .withArgument("x-message-ttl", 86400000) // 24 hours TTL
+                    .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                    .deadLetterRoutingKey(DEAD_LETTER_ROUTING_KEY)
+                    .build();
+            queues.add(queue);
+            declarables.add(queue);
+            // With consistent hashing the routing key is the binding's weight; all partitions weigh the same
+            declarables.add(BindingBuilder.bind(queue).to(partitioned).with("1").noargs());
+        }
+        declarables.add(BindingBuilder.bind(queues.get(0)).to(unpartitioned));
+        return new Declarables(declarables);
+    }
+    
+    /**
+     * Delayed retry tiers for events that failed processing
+     */
+    @Bean
+    public EventRetryTiers eventRetryTiers() {
+        return new EventRetryTiers(retryQueuePrefix, retryDelays, maxRetries);
+    }
+    
+    /**
+     * One queue per retry tier. Nothing consumes them: an event waits for the tier's TTL and is then
+     * dead-lettered into the partitioned exchange, which hashes it back onto its original partition.
      */
     @Bean
-    public Queue supervisionQueue() {
-        return QueueBuilder.durable(supervisionQueueName)
-                .withArgument("x-message-ttl", 86400000) // 24 hours TTL
-                .withArgument("x-dead-letter-exchange", "dlx-equipment-events")
-                .build();
+    public Declarables retryTopology(EventRetryTiers eventRetryTiers) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int tier = 0; tier < eventRetryTiers.size(); tier++) {
+            declarables.add(QueueBuilder.durable(eventRetryTiers.queueName(tier))
+                    .ttl(Math.toIntExact(eventRetryTiers.delay(tier).toMillis()))
+                    .deadLetterExchange(partitionExchangeName)
+                    .build());
+        }
+        return new Declarables(declarables);
     }
     
     /**
@@ -49,7 +153,7 @@ public class RabbitMQConfig {
      */
     @Bean
     public DirectExchange deadLetterExchange() {
-        return new DirectExchange("dlx-equipment-events");
+        return new DirectExchange(DEAD_LETTER_EXCHANGE);
     }
     
     /**
@@ -68,39 +172,119 @@ public class RabbitMQConfig {
         return BindingBuilder
                 .bind(deadLetterQueue)
                 .to(deadLetterExchange)
-                .with("dlq");
+                .with(DEAD_LETTER_ROUTING_KEY);
     }
     
     /**
-     * Bind supervision queue to equipment exchange
+     * Listener container factory draining the DLQ into the database.
+     * While messages cannot be stored (database down) they are retried with backoff and then
+     * put back into the DLQ, instead of being lost or redelivered in a tight loop.
      */
     @Bean
-    public Binding supervisionBinding(Queue supervisionQueue, TopicExchange equipmentExchange) {
-        return BindingBuilder
-                .bind(supervisionQueue)
-                .to(equipmentExchange)
-                .with(routingKey);
+    public SimpleRabbitListenerContainerFactory deadLetterListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                 Environment environment) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setPrefetchCount(50);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(5)
+                .backOffOptions(1000, 2.0, 30000)
+                .recoverer(new ImmediateRequeueMessageRecoverer())
+                .build());
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("dead-letter-listener-"));
+        }
+        return factory;
     }
     
     /**
-     * JSON message converter
+     * Fanout exchange on which stored state-changing events are re-published to every replica's
+     * equipment state projection
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public FanoutExchange equipmentStateExchange() {
+        return new FanoutExchange(equipmentStateExchangeName);
     }
     
     /**
-     * Rabbit listener container factory with error handling
+     * This replica's queue on the equipment state exchange: uniquely named, exclusive and auto-delete,
+     * so it lives as long as the replica's connection
      */
     @Bean
-    public RabbitListenerContainerFactory<?> rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
+    public AnonymousQueue equipmentStateQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(equipmentStateExchangeName + "."));
+    }
+    
+    @Bean
+    public Binding equipmentStateBinding(AnonymousQueue equipmentStateQueue, FanoutExchange equipmentStateExchange) {
+        return BindingBuilder.bind(equipmentStateQueue).to(equipmentStateExchange);
+    }
+    
+    /**
+     * Listener container factory for the equipment state queue. Applying an event is idempotent and a
+     * lost one is read back from the event table, so messages are not acked individually.
+     */
+    @Bean(EQUIPMENT_STATE_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory equipmentStateListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                     MessageConverter messageConverter,
+                                                                                     Environment environment) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(jsonMessageConverter());
+        factory.setMessageConverter(messageConverter);
+        factory.setAcknowledgeMode(AcknowledgeMode.NONE);
+        factory.setConcurrentConsumers(1);
+        factory.setPrefetchCount(equipmentStatePrefetch);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("equipment-state-listener-"));
+        }
+        return factory;
+    }
+    
+    /**
+     * Message converter chosen by the content-type of each message:
+     * Smile for {@value SmileMessageConverter#CONTENT_TYPE}, JSON otherwise.
+     * Equipment events of the current schema version are read with the streaming parser;
+     * events of older schema versions are upcast first.
+     */
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        // Spring Boot's mapper: java.time support, ISO-8601 timestamps
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, new SmileMessageConverter(objectMapper));
+        return new StreamingEventMessageConverter(new UpcastingMessageConverter(converter, objectMapper), objectMapper);
+    }
+    
+    /**
+     * Listener container factory for the partition queues: one consumer per queue, so events of a
+     * partition are handled one after another while different partitions run in parallel.
+     * Which partitions this replica consumes is decided by {@link com.farm.supervision.service.PartitionRebalancer}.
+     * <p>
+     * Acks are manual: the listener acks once an event is stored, or once it has been handed to a
+     * retry tier or the DLQ. The listener decodes each message itself, so messages that cannot be
+     * decoded are dead-lettered by {@link com.farm.supervision.service.EventRetryHandler} and acked too;
+     * the container never holds an unacked message. Queue lag is recorded for every message.
+     */
+    @Bean
+    public RabbitListenerContainerFactory<?> rabbitListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                            PartitionMetrics partitionMetrics,
+                                                                            Environment environment) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(new PassThroughMessageConverter());
         factory.setDefaultRequeueRejected(false); // Don't requeue failed messages
-        factory.setConcurrentConsumers(3);
-        factory.setMaxConcurrentConsumers(10);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConsumersPerQueue(1);
+        factory.setPrefetchCount(partitionPrefetch);
+        factory.setAfterReceivePostProcessors(message -> {
+            partitionMetrics.recordReceived(message);
+            return message;
+        });
+        // This factory replaces Boot's, so apply the virtual-threads profile here as well
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
         return factory;
     }
 }
@@ -0,0 +1,228 @@
+package com.farm.supervision.config;
+
+import com.farm.events.EventSchema;
+import com.farm.events.payload.EventPayload;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.farm.supervision.model.EventType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reads equipment events of the current schema version with Jackson's streaming parser.
+ * <p>
+ * Fields are read token by token straight into {@link EquipmentEventMessage}, without a tree or
+ * bean deserializer in between. Event types and equipment types are matched against pre-built
+ * character tables, and ids and timestamps are parsed from the parser's character buffer, so the
+ * only strings allocated per event are its free-text message and any unexpected values.
+ * Payloads are handed to the mapper for their {@code @type} lookup, and so is any value not in
+ * the expected form (an event type by index, a timestamp with an offset, ...), so that every
+ * message reads exactly as the bean deserializer of the delegate would read it.
+ * <p>
+ * Messages of older schema versions and anything that is not an {@link EquipmentEventMessage}
+ * go to the delegate.
+ */
+public class StreamingEventMessageConverter implements MessageConverter {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final char[][] EVENT_TYPE_NAMES = new char[EVENT_TYPES.length][];
+    private static final String[] EQUIPMENT_TYPES = {"SENSOR", "PUMP"};
+    private static final char[][] EQUIPMENT_TYPE_NAMES = new char[EQUIPMENT_TYPES.length][];
+
+    static {
+        for (int i = 0; i < EVENT_TYPES.length; i++) {
+            EVENT_TYPE_NAMES[i] = EVENT_TYPES[i].name().toCharArray();
+        }
+        for (int i = 0; i < EQUIPMENT_TYPES.length; i++) {
+            EQUIPMENT_TYPE_NAMES[i] = EQUIPMENT_TYPES[i].toCharArray();
+        }
+    }
+
+    private final MessageConverter delegate;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    public StreamingEventMessageConverter(MessageConverter delegate, ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return delegate.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (properties.getInferredArgumentType() != EquipmentEventMessage.class
+                || EventSchema.versionOf(properties.getHeader(EventSchema.VERSION_HEADER)) != EventSchema.CURRENT_VERSION) {
+            return delegate.fromMessage(message);
+        }
+
+        ObjectMapper mapper = SmileMessageConverter.CONTENT_TYPE.equals(properties.getContentType()) ? smileMapper : jsonMapper;
+        try (JsonParser parser = mapper.createParser(message.getBody())) {
+            return readEvent(parser);
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            throw new MessageConversionException("Failed to read equipment event", e);
+        }
+    }
+
+    private static EquipmentEventMessage readEvent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new MessageConversionException("Equipment event is not an object");
+        }
+        EquipmentEventMessage event = new EquipmentEventMessage();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            // Field names are canonicalized by the parser, so the switch compares interned strings
+            switch (field) {
+                case "eventId" -> event.setEventId(readUuid(parser));
+                case "eventType" -> event.setEventType(readEventType(parser));
+                case "equipmentId" -> event.setEquipmentId(readUuid(parser));
+                case "equipmentType" -> event.setEquipmentType(readEquipmentType(parser));
+                case "farmId" -> event.setFarmId(readUuid(parser));
+                case "timestamp" -> event.setTimestamp(readTimestamp(parser));
+                case "payload" -> event.setPayload(parser.readValueAs(EventPayload.class));
+                case "message" -> event.setMessage(token == JsonToken.VALUE_STRING ? parser.getText() : parser.readValueAs(String.class));
+                default -> parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private static EventType readEventType(JsonParser parser) throws IOException {
+        int index = indexOf(parser, EVENT_TYPE_NAMES);
+        return index >= 0 ? EVENT_TYPES[index] : parser.readValueAs(EventType.class);
+    }
+
+    private static String readEquipmentType(JsonParser parser) throws IOException {
+        int index = indexOf(parser, EQUIPMENT_TYPE_NAMES);
+        return index >= 0 ? EQUIPMENT_TYPES[index] : parser.readValueAs(String.class);
+    }
+
+    /**
+     * Position of the current string value in a table of names, or -1 if it is not one of them
+     */
+    private static int indexOf(JsonParser parser, char[][] names) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return -1;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].length == length && regionMatches(names[i], text, offset)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(char[] name, char[] text, int offset) {
+        for (int i = 0; i < name.length; i++) {
+            if (name[i] != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a UUID written as its canonical string (JSON) or as 16 raw bytes (Smile)
+     */
+    private static UUID readUuid(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_EMBEDDED_OBJECT) {
+            byte[] bytes = parser.getBinaryValue();
+            if (bytes.length == 16) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                return new UUID(buffer.getLong(), buffer.getLong());
+            }
+        }
+        if (token == JsonToken.VALUE_STRING && parser.getTextLength() == 36) {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            if (text[offset + 8] == '-' && text[offset + 13] == '-' && text[offset + 18] == '-' && text[offset + 23] == '-') {
+                long most = (hex(text, offset, 8) << 32) | (hex(text, offset + 9, 4) << 16) | hex(text, offset + 14, 4);
+                long least = (hex(text, offset + 19, 4) << 48) | hex(text, offset + 24, 12);
+                return new UUID(most, least);
+            }
+        }
+        return parser.readValueAs(UUID.class);
+    }
+
+    private static long hex(char[] text, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = Character.digit(text[i], 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid UUID: " + new String(text, offset, length));
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Read an ISO-8601 local date-time ({@code 2024-06-01T12:30:00[.fraction]}) from the character buffer;
+     * other forms go through the mapper's java.time support
+     */
+    private static LocalDateTime readTimestamp(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            if (length >= 19 && length != 20 && length <= 29 && isIsoLayout(text, offset, length)) {
+                int nanos = 0;
+                for (int i = 20; i < 29; i++) {
+                    nanos = nanos * 10 + (i < length ? text[offset + i] - '0' : 0);
+                }
+                return LocalDateTime.of(digits(text, offset, 4), digits(text, offset + 5, 2), digits(text, offset + 8, 2),
+                        digits(text, offset + 11, 2), digits(text, offset + 14, 2), digits(text, offset + 17, 2), nanos);
+            }
+        }
+        return parser.readValueAs(LocalDateTime.class);
+    }
+
+    private static boolean isIsoLayout(char[] text, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = text[offset + i];
+            boolean ok = switch (i) {
+                case 4, 7 -> c == '-';
+                case 10 -> c == 'T';
+                case 13, 16 -> c == ':';
+                case 19 -> c == '.';
+                default -> c >= '0' && c <= '9';
+            };
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(char[] text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = value * 10 + (text[i] - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.farm.supervision.config;
+
+import com.farm.events.EventSchema;
+import com.farm.events.upcast.EventUpcasters;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Reads equipment events of older schema versions.
+ * <p>
+ * Messages at {@link EventSchema#CURRENT_VERSION} and anything that is not an
+ * {@link EquipmentEventMessage} go straight to the delegate. Older events are read as a tree
+ * in their wire format (JSON or Smile), upcast and then bound to the typed message.
+ */
+public class UpcastingMessageConverter implements MessageConverter {
+
+    private final MessageConverter delegate;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    public UpcastingMessageConverter(MessageConverter delegate, ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return delegate.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        int version = EventSchema.versionOf(properties.getHeader(EventSchema.VERSION_HEADER));
+        if (version == EventSchema.CURRENT_VERSION || properties.getInferredArgumentType() != EquipmentEventMessage.class) {
+            return delegate.fromMessage(message);
+        }
+
+        ObjectMapper mapper = SmileMessageConverter.CONTENT_TYPE.equals(properties.getContentType()) ? smileMapper : jsonMapper;
+        try {
+            JsonNode event = mapper.readTree(message.getBody());
+            if (!(event instanceof ObjectNode object)) {
+                throw new MessageConversionException("Equipment event is not an object");
+            }
+            return mapper.treeToValue(EventUpcasters.upcast(object, version), EquipmentEventMessage.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MessageConversionException("Failed to read equipment event of schema version " + version, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.farm.supervision.controller;
+
+import com.farm.supervision.dto.DeadLetterDTO;
+import com.farm.supervision.dto.DeadLetterFilterRequest;
+import com.farm.supervision.dto.DeadLetterReplayJobDTO;
+import com.farm.supervision.dto.DeadLetterReplayRequest;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.service.DeadLetterReplayService;
+import com.farm.supervision.service.DeadLetterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * REST Controller for inspecting and replaying dead-lettered events.
+ * Not routed by the API gateway; reachable from inside the cluster only.
+ */
+@RestController
+@RequestMapping("/api/admin/dlq")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dead Letters", description = "Dead-lettered event inspection and replay APIs")
+public class DeadLetterController {
+    
+    private final DeadLetterService deadLetterService;
+    private final DeadLetterReplayService replayService;
+    
+    @Operation(summary = "Get dead letters", description = "Page through dead-lettered events, oldest first, with the reason they failed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dead letters retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
+    })
+    @GetMapping("/messages")
+    public ResponseEntity<Page<DeadLetterDTO>> getDeadLetters(
+            @Parameter(description = "Filter by status") @RequestParam(required = false) DeadLetterStatus status,
+            @Parameter(description = "Filter by event type") @RequestParam(required = false) EventType eventType,
+            @Parameter(description = "Filter by farm ID") @RequestParam(required = false) UUID farmId,
+            @Parameter(description = "Dead-lettered at or after") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Dead-lettered at or before") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("GET /api/admin/dlq/messages - status: {}, eventType: {}, farmId: {}", status, eventType, farmId);
+        
+        DeadLetterFilterRequest filter = DeadLetterFilterRequest.builder()
+                .status(status)
+                .eventType(eventType)
+                .farmId(farmId)
+                .from(from)
+                .to(to)
+                .build();
+        
+        return ResponseEntity.ok(deadLetterService.getDeadLetters(filter, pageable));
+    }
+    
+    @Operation(summary = "Get dead letter by ID", description = "Retrieve a dead-lettered event with its headers and decoded body")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dead letter found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeadLetterDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Dead letter not found")
+    })
+    @GetMapping("/messages/{id}")
+    public ResponseEntity<DeadLetterDTO> getDeadLetter(
+            @Parameter(description = "Dead letter ID", required = true) @PathVariable UUID id) {
+        
+        log.info("GET /api/admin/dlq/messages/{}", id);
+        return ResponseEntity.ok(deadLetterService.getDeadLetter(id));
+    }
+    
+    @Operation(summary = "Replay dead letters",
+               description = "Publish the selected pending dead letters back to the event partitions at a limited rate. "
+                       + "Select by ids, or by filters; with dryRun only the matching messages are counted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dry run completed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeadLetterReplayJobDTO.class))),
+            @ApiResponse(responseCode = "202", description = "Replay queued",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeadLetterReplayJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayJobDTO> replay(@Valid @RequestBody DeadLetterReplayRequest request) {
+        log.info("POST /api/admin/dlq/replay - ids: {}, eventType: {}, farmId: {}, dryRun: {}",
+                 request.getIds() != null ? request.getIds().size() : null, request.getEventType(), request.getFarmId(), request.isDryRun());
+        
+        DeadLetterReplayJobDTO job = replayService.replay(request);
+        return ResponseEntity.status(request.isDryRun() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(job);
+    }
+    
+    @Operation(summary = "Get replay progress", description = "Retrieve the progress of a replay started on this replica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replay found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeadLetterReplayJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Replay not found")
+    })
+    @GetMapping("/replay/{jobId}")
+    public ResponseEntity<DeadLetterReplayJobDTO> getReplay(
+            @Parameter(description = "Replay job ID", required = true) @PathVariable UUID jobId) {
+        
+        log.info("GET /api/admin/dlq/replay/{}", jobId);
+        return ResponseEntity.ok(replayService.getJob(jobId));
+    }
+    
+    @Operation(summary = "Cancel replay", description = "Stop a queued or running replay; messages already published stay replayed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replay cancelled",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeadLetterReplayJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Replay not found")
+    })
+    @DeleteMapping("/replay/{jobId}")
+    public ResponseEntity<DeadLetterReplayJobDTO> cancelReplay(
+            @Parameter(description = "Replay job ID", required = true) @PathVariable UUID jobId) {
+        
+        log.info("DELETE /api/admin/dlq/replay/{}", jobId);
+        return ResponseEntity.ok(replayService.cancelJob(jobId));
+    }
+}
@@ -0,0 +1,58 @@
+package com.farm.supervision.controller;
+
+import com.farm.supervision.dto.EquipmentStateDTO;
+import com.farm.supervision.projection.EquipmentStateProjection;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for the current state of devices, served from the in-memory projection.
+ */
+@RestController
+@RequestMapping("/api/supervision/equipment-state")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Equipment State", description = "Current device state projected from the event stream")
+public class EquipmentStateController {
+
+    private final EquipmentStateProjection stateProjection;
+
+    @Operation(summary = "Get farm equipment state",
+               description = "Retrieve the current state of every device of a farm, most recently active first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "States retrieved successfully"),
+            @ApiResponse(responseCode = "503", description = "Projection is being rebuilt")
+    })
+    @GetMapping("/farm/{farmId}")
+    public ResponseEntity<List<EquipmentStateDTO>> getFarmState(
+            @Parameter(description = "Farm ID") @PathVariable UUID farmId) {
+        log.debug("GET /api/supervision/equipment-state/farm/{}", farmId);
+        return ResponseEntity.ok(stateProjection.getFarmStates(farmId));
+    }
+
+    @Operation(summary = "Get equipment state", description = "Retrieve the current state of one device")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "State retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EquipmentStateDTO.class))),
+            @ApiResponse(responseCode = "404", description = "No event seen for this device"),
+            @ApiResponse(responseCode = "503", description = "Projection is being rebuilt")
+    })
+    @GetMapping("/{equipmentId}")
+    public ResponseEntity<EquipmentStateDTO> getEquipmentState(
+            @Parameter(description = "Equipment ID") @PathVariable UUID equipmentId) {
+        log.debug("GET /api/supervision/equipment-state/{}", equipmentId);
+        return ResponseEntity.ok(stateProjection.getState(equipmentId));
+    }
+}
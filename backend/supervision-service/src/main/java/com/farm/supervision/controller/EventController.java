@@ -1,8 +1,11 @@
 package com.farm.supervision.controller;
 
+import com.farm.common.export.ExportFormat;
+import com.farm.common.export.ExportResponses;
 import com.farm.supervision.dto.AcknowledgeEventRequest;
 import com.farm.supervision.dto.EventDTO;
 import com.farm.supervision.dto.EventFilterRequest;
+import com.farm.supervision.dto.EventSearchResultDTO;
 import com.farm.supervision.model.EventSeverity;
 import com.farm.supervision.model.EventType;
 import com.farm.supervision.service.EventService;
@@ -20,8 +23,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -73,6 +78,82 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
     
+    @Operation(summary = "Export events",
+               description = "Stream all events matching the filters as NDJSON or CSV. The body is gzip-compressed when the client sends Accept-Encoding: gzip")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @Parameter(description = "Filter by farm ID") @RequestParam(required = false) UUID farmId,
+            @Parameter(description = "Filter by equipment ID") @RequestParam(required = false) UUID equipmentId,
+            @Parameter(description = "Filter by event type") @RequestParam(required = false) EventType eventType,
+            @Parameter(description = "Filter by severity") @RequestParam(required = false) EventSeverity severity,
+            @Parameter(description = "Start date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Filter by acknowledgment status") @RequestParam(required = false) Boolean acknowledged,
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        log.info("GET /api/events/export - farmId: {}, eventType: {}, format: {}", farmId, eventType, format);
+        
+        EventFilterRequest filter = EventFilterRequest.builder()
+                .farmId(farmId)
+                .equipmentId(equipmentId)
+                .eventType(eventType)
+                .severity(severity)
+                .startDate(startDate)
+                .endDate(endDate)
+                .acknowledged(acknowledged)
+                .build();
+        
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = eventService.exportEvents(filter, exportFormat);
+        return ExportResponses.stream(exportFormat, "events", ExportResponses.acceptsGzip(acceptEncoding), body);
+    }
+    
+    @Operation(summary = "Search events",
+               description = "Full-text search over event messages and processing notes, most relevant first. "
+                       + "Words are combined with AND; \"quoted phrases\", or and -word are supported. "
+                       + "Matching words are wrapped in <mark> tags in the highlights")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or too long search query")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<Page<EventSearchResultDTO>> searchEvents(
+            @Parameter(description = "Search query", required = true) @RequestParam(required = false) String q,
+            @Parameter(description = "Filter by farm ID") @RequestParam(required = false) UUID farmId,
+            @Parameter(description = "Filter by equipment ID") @RequestParam(required = false) UUID equipmentId,
+            @Parameter(description = "Filter by event type") @RequestParam(required = false) EventType eventType,
+            @Parameter(description = "Filter by severity") @RequestParam(required = false) EventSeverity severity,
+            @Parameter(description = "Start date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date") @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Filter by acknowledgment status") @RequestParam(required = false) Boolean acknowledged,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("GET /api/events/search - q: {}, farmId: {}, eventType: {}, severity: {}", q, farmId, eventType, severity);
+        
+        EventFilterRequest filter = EventFilterRequest.builder()
+                .farmId(farmId)
+                .equipmentId(equipmentId)
+                .eventType(eventType)
+                .severity(severity)
+                .startDate(startDate)
+                .endDate(endDate)
+                .acknowledged(acknowledged)
+                .build();
+        
+        return ResponseEntity.ok(eventService.searchEvents(q, filter, pageable));
+    }
+    
     @Operation(summary = "Get event by ID", description = "Retrieve a specific event by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Event found",
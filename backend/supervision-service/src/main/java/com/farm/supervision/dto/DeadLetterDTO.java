@@ -0,0 +1,40 @@
+package com.farm.supervision.dto;
+
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO for a dead-lettered message.
+ * Headers and body are only filled in when a single message is requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeadLetterDTO implements Serializable {
+    
+    private UUID id;
+    private UUID eventId;
+    private EventType eventType;
+    private UUID equipmentId;
+    private UUID farmId;
+    private LocalDateTime eventTimestamp;
+    private String failureType;
+    private String failureMessage;
+    private int retryCount;
+    private String contentType;
+    private LocalDateTime deadLetteredAt;
+    private DeadLetterStatus status;
+    private LocalDateTime replayedAt;
+    private Map<String, Object> headers;
+    private JsonNode body;
+}
@@ -0,0 +1,25 @@
+package com.farm.supervision.dto;
+
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for filtering dead-lettered messages.
+ * {@code from} and {@code to} bound the time the message was dead-lettered.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterFilterRequest {
+    
+    private DeadLetterStatus status;
+    private EventType eventType;
+    private UUID farmId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
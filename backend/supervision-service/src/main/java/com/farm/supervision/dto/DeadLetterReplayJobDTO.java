@@ -0,0 +1,33 @@
+package com.farm.supervision.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for the progress of a dead letter replay.
+ * For a dry run only {@code total} and {@code estimatedSeconds} are meaningful.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterReplayJobDTO implements Serializable {
+    
+    public enum Status { DRY_RUN, QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+    
+    private UUID id;
+    private Status status;
+    private int total;
+    private int replayed;
+    private int skipped;
+    private int failed;
+    private int ratePerSecond;
+    private long estimatedSeconds;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,38 @@
+package com.farm.supervision.dto;
+
+import com.farm.supervision.model.EventType;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for requesting a replay of dead-lettered messages.
+ * Either lists the messages by id, or selects every pending message matching the filters;
+ * without ids or filters all pending messages are replayed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterReplayRequest {
+    
+    private List<UUID> ids;
+    private EventType eventType;
+    private UUID farmId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    
+    /**
+     * Only count the messages that would be replayed
+     */
+    private boolean dryRun;
+    
+    /**
+     * Messages published per second; defaults to the configured rate and is capped by the configured maximum
+     */
+    @Positive(message = "Rate must be positive")
+    private Integer ratePerSecond;
+}
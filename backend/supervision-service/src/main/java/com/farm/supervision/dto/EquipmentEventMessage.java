@@ -0,0 +1,30 @@
+package com.farm.supervision.dto;
+
+import com.farm.events.payload.EventPayload;
+import com.farm.supervision.model.EventType;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Equipment event as published by the Equipment service on the equipment-events exchange.
+ * Field names and types match the Equipment service's EquipmentEvent, for both the JSON
+ * and the Smile wire format, at the current schema version of the shared event contract.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentEventMessage implements Serializable {
+    
+    private UUID eventId;
+    private EventType eventType;
+    private UUID equipmentId;
+    private String equipmentType;
+    private UUID farmId;
+    private LocalDateTime timestamp;
+    private EventPayload payload;
+    private String message;
+}
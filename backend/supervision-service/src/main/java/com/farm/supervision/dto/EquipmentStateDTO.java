@@ -0,0 +1,30 @@
+package com.farm.supervision.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for the current state of a device, as seen by the event stream.
+ * Fields are null until an event carrying them has been seen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquipmentStateDTO implements Serializable {
+
+    private UUID equipmentId;
+    private UUID farmId;
+    private String equipmentType;
+    private String status;
+    private Integer battery;
+    private boolean offline;
+    private LocalDateTime lastCommunication;
+    private LocalDateTime nextMaintenance;
+    private boolean maintenancePending;
+    private LocalDateTime lastMaintenance;
+    private LocalDateTime lastEventAt;
+}
@@ -1,12 +1,12 @@
 package com.farm.supervision.dto;
 
+import com.farm.events.payload.EventPayload;
 import com.farm.supervision.model.EventSeverity;
 import com.farm.supervision.model.EventType;
 import lombok.*;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -24,7 +24,7 @@ public class EventDTO implements Serializable {
     private String equipmentType;
     private UUID farmId;
     private LocalDateTime timestamp;
-    private Map<String, Object> payload;
+    private EventPayload payload;
     private String message;
     private EventSeverity severity;
     private boolean acknowledged;
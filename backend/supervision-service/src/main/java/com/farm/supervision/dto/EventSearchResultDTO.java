@@ -0,0 +1,22 @@
+package com.farm.supervision.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * DTO for a full-text search hit.
+ * Highlights are fragments of the matched text with the matching words wrapped in {@code <mark>} tags;
+ * the text itself is not HTML-escaped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventSearchResultDTO implements Serializable {
+    
+    private EventDTO event;
+    private double rank;
+    private String messageHighlight;
+    private String processingNotesHighlight;
+}
@@ -1,5 +1,8 @@
 package com.farm.supervision.exception;
 
+import com.farm.supervision.projection.EquipmentStateProjection;
+import com.farm.supervision.service.DeadLetterReplayService;
+import com.farm.supervision.service.DeadLetterService;
 import com.farm.supervision.service.EventService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -38,6 +41,57 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler({DeadLetterService.DeadLetterNotFoundException.class, DeadLetterReplayService.ReplayJobNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleDeadLetterNotFoundException(
+            RuntimeException ex, WebRequest request) {
+        
+        log.error("Dead letter resource not found: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
+    @ExceptionHandler(EquipmentStateProjection.EquipmentStateNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleEquipmentStateNotFoundException(
+            EquipmentStateProjection.EquipmentStateNotFoundException ex, WebRequest request) {
+        
+        log.error("Equipment state not found: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+    
+    @ExceptionHandler(EquipmentStateProjection.ProjectionNotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleProjectionNotReadyException(
+            EquipmentStateProjection.ProjectionNotReadyException ex, WebRequest request) {
+        
+        log.warn("Equipment state not ready: {}", ex.getMessage());
+        
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,83 @@
+package com.farm.supervision.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity holding a message drained from the dead letter queue.
+ * The original body and headers are kept as received so the message can be replayed unchanged;
+ * the event fields are filled in when the body could be decoded.
+ */
+@Entity
+@Table(name = "dead_letter_messages", indexes = {
+    @Index(name = "idx_dead_letter_status_time", columnList = "status, dead_lettered_at"),
+    @Index(name = "idx_dead_letter_farm_id", columnList = "farm_id"),
+    @Index(name = "idx_dead_letter_event_type", columnList = "event_type")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "body")
+@EqualsAndHashCode(of = "id")
+public class DeadLetterMessage {
+    
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+    
+    @Column(name = "event_id")
+    private UUID eventId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50)
+    private EventType eventType;
+    
+    @Column(name = "equipment_id")
+    private UUID equipmentId;
+    
+    @Column(name = "farm_id")
+    private UUID farmId;
+    
+    @Column(name = "event_timestamp")
+    private LocalDateTime eventTimestamp;
+    
+    @Column(name = "failure_type")
+    private String failureType;
+    
+    @Column(name = "failure_message", columnDefinition = "TEXT")
+    private String failureMessage;
+    
+    @Column(name = "retry_count", nullable = false)
+    private int retryCount;
+    
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "headers", columnDefinition = "jsonb")
+    private Map<String, Object> headers;
+    
+    @Column(name = "body", nullable = false)
+    private byte[] body;
+    
+    @Column(name = "dead_lettered_at", nullable = false)
+    private LocalDateTime deadLetteredAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private DeadLetterStatus status;
+    
+    @Column(name = "replayed_at")
+    private LocalDateTime replayedAt;
+}
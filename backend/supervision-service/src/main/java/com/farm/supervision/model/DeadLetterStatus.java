@@ -0,0 +1,9 @@
+package com.farm.supervision.model;
+
+/**
+ * Enum representing the state of a dead-lettered event.
+ */
+public enum DeadLetterStatus {
+    PENDING,
+    REPLAYED
+}
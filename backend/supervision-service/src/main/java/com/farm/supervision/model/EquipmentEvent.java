@@ -1,5 +1,7 @@
 package com.farm.supervision.model;
 
+import com.farm.events.payload.EventPayload;
+import com.farm.events.payload.ThresholdViolatedPayload;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
@@ -7,7 +9,6 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,7 +20,8 @@ import java.util.UUID;
     @Index(name = "idx_event_equipment_id", columnList = "equipment_id"),
     @Index(name = "idx_event_type", columnList = "event_type"),
     @Index(name = "idx_event_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_event_severity", columnList = "severity")
+    @Index(name = "idx_event_severity", columnList = "severity"),
+    @Index(name = "idx_event_received_at", columnList = "received_at")
 })
 @Getter
 @Setter
@@ -32,7 +34,7 @@ public class EquipmentEvent {
     
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", strategy = "com.farm.common.id.UuidV7Generator")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
     
@@ -54,7 +56,7 @@ public class EquipmentEvent {
     
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "payload", columnDefinition = "jsonb")
-    private Map<String, Object> payload;
+    private EventPayload payload;
     
     @Column(name = "message", columnDefinition = "TEXT")
     private String message;
@@ -89,12 +91,25 @@ public class EquipmentEvent {
     public static EventSeverity determineSeverity(EventType eventType) {
         return switch (eventType) {
             case BATTERY_LOW, SENSOR_OFFLINE, EQUIPMENT_FAILURE -> EventSeverity.CRITICAL;
-            case STATUS_CHANGED, MAINTENANCE_SCHEDULED -> EventSeverity.WARNING;
-            case EQUIPMENT_CREATED, MAINTENANCE_COMPLETED -> EventSeverity.INFO;
+            case STATUS_CHANGED, MAINTENANCE_SCHEDULED, THRESHOLD_VIOLATED, SENSOR_ANOMALY -> EventSeverity.WARNING;
+            case EQUIPMENT_CREATED, MAINTENANCE_COMPLETED, THRESHOLD_CLEARED -> EventSeverity.INFO;
             default -> EventSeverity.INFO;
         };
     }
     
+    /**
+     * Determine severity based on event type and payload: a violated rule marked critical is CRITICAL
+     * @param eventType the event type
+     * @param payload the event payload, may be null
+     * @return appropriate severity
+     */
+    public static EventSeverity determineSeverity(EventType eventType, EventPayload payload) {
+        if (payload instanceof ThresholdViolatedPayload violated && violated.critical()) {
+            return EventSeverity.CRITICAL;
+        }
+        return determineSeverity(eventType);
+    }
+    
     /**
      * Acknowledge this event
      * @param acknowledgedBy user who acknowledged
@@ -11,5 +11,8 @@ public enum EventType {
     BATTERY_LOW,
     SENSOR_OFFLINE,
     EQUIPMENT_FAILURE,
-    SYSTEM_ALERT
+    SYSTEM_ALERT,
+    THRESHOLD_VIOLATED,
+    THRESHOLD_CLEARED,
+    SENSOR_ANOMALY
 }
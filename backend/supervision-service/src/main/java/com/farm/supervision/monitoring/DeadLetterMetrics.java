@@ -0,0 +1,99 @@
+package com.farm.supervision.monitoring;
+
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the dead letter store and replays:
+ * <ul>
+ *   <li>{@code supervision.dlq.stored}: messages drained from the DLQ into the database</li>
+ *   <li>{@code supervision.dlq.pending}: stored messages not replayed yet</li>
+ *   <li>{@code supervision.dlq.replay.messages}: messages handled by replays, tagged with the outcome</li>
+ *   <li>{@code supervision.dlq.replay.remaining}: messages still to go in queued and running replays</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final DeadLetterMessageRepository deadLetterRepository;
+
+    private final AtomicLong replayRemaining = new AtomicLong();
+
+    private Counter stored;
+    private Counter replayed;
+    private Counter skipped;
+    private Counter failed;
+
+    @PostConstruct
+    public void init() {
+        stored = Counter.builder("supervision.dlq.stored")
+                .description("Messages drained from the DLQ into the database")
+                .register(meterRegistry);
+
+        Gauge.builder("supervision.dlq.pending", this::pending)
+                .description("Dead-lettered messages not replayed yet")
+                .register(meterRegistry);
+
+        replayed = replayCounter("replayed");
+        skipped = replayCounter("skipped");
+        failed = replayCounter("failed");
+
+        Gauge.builder("supervision.dlq.replay.remaining", replayRemaining, AtomicLong::get)
+                .description("Messages still to go in queued and running replays")
+                .register(meterRegistry);
+    }
+
+    public void recordStored() {
+        stored.increment();
+    }
+
+    public void recordReplayed() {
+        replayed.increment();
+        replayRemaining.decrementAndGet();
+    }
+
+    public void recordSkipped(int messages) {
+        skipped.increment(messages);
+        replayRemaining.addAndGet(-messages);
+    }
+
+    public void recordFailed() {
+        failed.increment();
+        replayRemaining.decrementAndGet();
+    }
+
+    /**
+     * Add messages of a new replay, or remove the unprocessed rest of a stopped one with a negative count
+     */
+    public void addReplayRemaining(long messages) {
+        replayRemaining.addAndGet(messages);
+    }
+
+    private Counter replayCounter(String outcome) {
+        return Counter.builder("supervision.dlq.replay.messages")
+                .description("Messages handled by dead letter replays")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private double pending() {
+        try {
+            return deadLetterRepository.countByStatus(DeadLetterStatus.PENDING);
+        } catch (RuntimeException e) {
+            log.debug("Could not count pending dead letters: {}", e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
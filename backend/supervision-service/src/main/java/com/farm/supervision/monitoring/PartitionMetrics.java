@@ -0,0 +1,99 @@
+package com.farm.supervision.monitoring;
+
+import com.farm.supervision.config.EventPartitions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Per-partition metrics of the equipment event queues:
+ * <ul>
+ *   <li>{@code supervision.partition.backlog}: messages waiting in the partition queue</li>
+ *   <li>{@code supervision.partition.lag}: time from publishing an event to this replica receiving it</li>
+ *   <li>{@code supervision.partition.owned}: 1 if this replica consumes the partition</li>
+ * </ul>
+ * Every replica reports the backlog of every partition, so aggregate it with max, not sum.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final EventPartitions eventPartitions;
+
+    private Timer[] lagTimers;
+    private volatile Set<Integer> ownedPartitions = Set.of();
+
+    @PostConstruct
+    public void init() {
+        lagTimers = new Timer[eventPartitions.count()];
+        for (int partition = 0; partition < eventPartitions.count(); partition++) {
+            String queueName = eventPartitions.queueName(partition);
+            String tag = String.valueOf(partition);
+            int p = partition;
+
+            Gauge.builder("supervision.partition.backlog", () -> backlog(queueName))
+                    .description("Messages waiting in the partition queue")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+
+            Gauge.builder("supervision.partition.owned", () -> ownedPartitions.contains(p) ? 1 : 0)
+                    .description("1 if this replica consumes the partition")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+
+            lagTimers[partition] = Timer.builder("supervision.partition.lag")
+                    .description("Time from publishing an event to receiving it from its partition")
+                    .tag("partition", tag)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1),
+                            Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(1))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Record the lag of a message just received from a partition queue.
+     * Messages without a publish timestamp are skipped.
+     */
+    public void recordReceived(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        int partition = eventPartitions.partitionOf(properties.getConsumerQueue());
+        if (partition < 0 || properties.getTimestamp() == null) {
+            return;
+        }
+        long lagMillis = System.currentTimeMillis() - properties.getTimestamp().getTime();
+        // Clock skew between hosts can make the lag negative
+        lagTimers[partition].record(Duration.ofMillis(Math.max(lagMillis, 0)));
+    }
+
+    /**
+     * Update the partitions this replica consumes
+     */
+    public void updateOwnedPartitions(Set<Integer> partitions) {
+        ownedPartitions = Set.copyOf(partitions);
+    }
+
+    private double backlog(String queueName) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (RuntimeException e) {
+            log.debug("Could not read backlog of {}: {}", queueName, e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.farm.supervision.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the equipment state projection:
+ * <ul>
+ *   <li>{@code supervision.projection.equipment}: devices held in memory</li>
+ *   <li>{@code supervision.projection.ready}: 1 once the projection has been rebuilt and answers queries</li>
+ *   <li>{@code supervision.projection.updates}: events applied from the live stream</li>
+ *   <li>{@code supervision.projection.rebuild}: duration of rebuilds and catch-ups from the event table</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong equipment = new AtomicLong();
+    private final AtomicInteger ready = new AtomicInteger();
+
+    private Counter updates;
+    private Timer rebuild;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("supervision.projection.equipment", equipment, AtomicLong::get)
+                .description("Devices held by the equipment state projection")
+                .register(meterRegistry);
+
+        Gauge.builder("supervision.projection.ready", ready, AtomicInteger::get)
+                .description("1 once the equipment state projection has been rebuilt")
+                .register(meterRegistry);
+
+        updates = Counter.builder("supervision.projection.updates")
+                .description("Events applied to the equipment state projection from the live stream")
+                .register(meterRegistry);
+
+        rebuild = Timer.builder("supervision.projection.rebuild")
+                .description("Duration of equipment state rebuilds and catch-ups from the event table")
+                .register(meterRegistry);
+    }
+
+    public void recordUpdate() {
+        updates.increment();
+    }
+
+    public void recordRebuild(Duration duration) {
+        rebuild.record(duration);
+    }
+
+    public void updateSize(long devices) {
+        equipment.set(devices);
+    }
+
+    public void updateReady(boolean isReady) {
+        ready.set(isReady ? 1 : 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.farm.supervision.monitoring;
+
+import com.farm.supervision.config.EventRetryTiers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Metrics of the event retry tiers:
+ * <ul>
+ *   <li>{@code supervision.events.retried}: events sent to a retry tier, tagged with the tier's delay</li>
+ *   <li>{@code supervision.retry.backlog}: events currently waiting in a retry tier</li>
+ *   <li>{@code supervision.events.dead_lettered}: events sent to the DLQ, tagged with why</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryMetrics {
+
+    public static final String REASON_EXHAUSTED = "retries_exhausted";
+    public static final String REASON_NOT_RETRYABLE = "not_retryable";
+
+    private final MeterRegistry meterRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final EventRetryTiers retryTiers;
+
+    private Counter[] retried;
+    private Map<String, Counter> deadLettered;
+
+    @PostConstruct
+    public void init() {
+        retried = new Counter[retryTiers.size()];
+        for (int tier = 0; tier < retryTiers.size(); tier++) {
+            String queueName = retryTiers.queueName(tier);
+            retried[tier] = Counter.builder("supervision.events.retried")
+                    .description("Events sent to a retry tier")
+                    .tag("tier", retryTiers.label(tier))
+                    .register(meterRegistry);
+
+            Gauge.builder("supervision.retry.backlog", () -> backlog(queueName))
+                    .description("Events waiting in a retry tier")
+                    .tag("tier", retryTiers.label(tier))
+                    .register(meterRegistry);
+        }
+
+        deadLettered = Map.of(
+                REASON_EXHAUSTED, deadLetterCounter(REASON_EXHAUSTED),
+                REASON_NOT_RETRYABLE, deadLetterCounter(REASON_NOT_RETRYABLE));
+    }
+
+    public void recordRetry(int tier) {
+        retried[tier].increment();
+    }
+
+    public void recordDeadLettered(String reason) {
+        deadLettered.get(reason).increment();
+    }
+
+    private Counter deadLetterCounter(String reason) {
+        return Counter.builder("supervision.events.dead_lettered")
+                .description("Events sent to the dead letter queue")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private double backlog(String queueName) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (RuntimeException e) {
+            log.debug("Could not read backlog of {}: {}", queueName, e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -1,28 +1,118 @@
 package com.farm.supervision.monitoring;
 
+import com.farm.supervision.model.EventSeverity;
+import com.farm.supervision.model.EventType;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Custom metrics for Supervision Service
- * Tracks events, alerts, and monitoring statistics
+ * Tracks events, alerts, and monitoring statistics.
+ * <p>
+ * Every tag takes its values from an enum, and meters are kept in arrays indexed by the enum ordinals,
+ * so recording is an array lookup: no registry lookup and no allocation per call. A tagged meter is
+ * registered the first time it is recorded, so only the combinations that occur are published; two
+ * threads recording it first both get the one meter the registry holds.
+ * <p>
+ * Event pipeline timing:
+ * <ul>
+ *   <li>{@code supervision.event.latency}: end to end, from the event's producer timestamp to it being stored</li>
+ *   <li>{@code supervision.event.lag}: end-to-end latency of the last event stored by this replica</li>
+ *   <li>{@code supervision.event.processing}: time spent in each {@link Stage} of handling an event</li>
+ * </ul>
+ * Time spent waiting in the partition queue is {@code supervision.partition.lag} in {@link PartitionMetrics}.
  */
 @Component
 @RequiredArgsConstructor
 public class SupervisionMetrics {
 
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final EventSeverity[] SEVERITIES = EventSeverity.values();
+
     private final MeterRegistry meterRegistry;
     private final AtomicInteger activeAlertsCount = new AtomicInteger(0);
     private final AtomicInteger unacknowledgedEventsCount = new AtomicInteger(0);
+    private final AtomicLong lastLatencyMillis = new AtomicLong();
+
+    private Timer eventLatency;
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter[][] eventsCreated = new Counter[EVENT_TYPES.length][SEVERITIES.length];
+    private final Counter[][] eventsAcknowledged = new Counter[EVENT_TYPES.length][SEVERITIES.length];
+    private final Counter[][] messagesConsumed = new Counter[EVENT_TYPES.length][2];
+    private final Counter[][] notificationsSent = new Counter[Channel.values().length][2];
+    private final Counter[] webSocketConnections = new Counter[2];
+    private final Counter[] eventQueries = new Counter[EventQuery.values().length];
+    private final DistributionSummary[] eventQueryResults = new DistributionSummary[EventQuery.values().length];
+    private final Timer[] eventQueryTimers = new Timer[EventQuery.values().length];
+
+    /**
+     * Stages of handling one event from a partition queue
+     */
+    public enum Stage {
+        /** Decoding the message body */
+        PARSE,
+        /** Mapping and saving the event */
+        PERSIST,
+        /** Raising an alert for it, if needed */
+        ALERT,
+        /** Broadcasting it over WebSocket */
+        BROADCAST
+    }
+
+    /**
+     * WebSocket topics events are broadcast on
+     */
+    public enum Channel {
+        /** {@code /topic/events} */
+        EVENTS,
+        /** {@code /topic/events/farm/{farmId}} */
+        FARM,
+        /** {@code /topic/alerts} */
+        ALERTS
+    }
+
+    /**
+     * Kinds of event queries
+     */
+    public enum EventQuery {
+        FILTER,
+        SEARCH,
+        FARM,
+        EQUIPMENT,
+        UNACKNOWLEDGED_CRITICAL
+    }
 
     @PostConstruct
     public void init() {
+        // End-to-end latency, recorded for every event
+        eventLatency = Timer.builder("supervision.event.latency")
+                .description("Time from an event's producer timestamp to it being stored")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1),
+                        Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5))
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+
+        TimeGauge.builder("supervision.event.lag", lastLatencyMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("End-to-end latency of the last event stored")
+                .register(meterRegistry);
+
         // Register gauges
         Gauge.builder("supervision.active_alerts", activeAlertsCount, AtomicInteger::get)
                 .description("Number of active alerts")
@@ -36,35 +126,56 @@ public class SupervisionMetrics {
     /**
      * Track event creation
      */
-    public void recordEventCreated(String eventType, String severity) {
-        Counter.builder("supervision.events.created")
-                .description("Number of events created")
-                .tag("type", eventType)
-                .tag("severity", severity)
-                .register(meterRegistry)
+    public void recordEventCreated(EventType eventType, EventSeverity severity) {
+        eventCounter(eventsCreated, "supervision.events.created", "Number of events created", eventType, severity)
                 .increment();
 
-        if ("CRITICAL".equals(severity) || "EMERGENCY".equals(severity)) {
+        if (severity.isCritical()) {
             activeAlertsCount.incrementAndGet();
         }
-        
+
         unacknowledgedEventsCount.incrementAndGet();
     }
 
+    /**
+     * Track the end-to-end latency of a stored event
+     * @param eventTimestamp the producer's timestamp of the event
+     * @param receivedAt when it was stored
+     */
+    public void recordEventLatency(LocalDateTime eventTimestamp, LocalDateTime receivedAt) {
+        // Clock skew between hosts can make the latency negative
+        long millis = Math.max(ChronoUnit.MILLIS.between(eventTimestamp, receivedAt), 0);
+        eventLatency.record(millis, TimeUnit.MILLISECONDS);
+        lastLatencyMillis.set(millis);
+    }
+
+    /**
+     * Track the time spent in one stage of handling an event
+     */
+    public void recordStage(Stage stage, long nanos) {
+        Timer timer = stageTimers[stage.ordinal()];
+        if (timer == null) {
+            timer = stageTimers[stage.ordinal()] = Timer.builder("supervision.event.processing")
+                    .description("Time spent in one stage of handling an event")
+                    .tag("stage", tagValue(stage))
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25),
+                            Duration.ofMillis(100), Duration.ofMillis(500))
+                    .register(meterRegistry);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Track event acknowledgment
      */
-    public void recordEventAcknowledged(String eventType, String severity) {
-        Counter.builder("supervision.events.acknowledged")
-                .description("Number of events acknowledged")
-                .tag("type", eventType)
-                .tag("severity", severity)
-                .register(meterRegistry)
-                .increment();
+    public void recordEventAcknowledged(EventType eventType, EventSeverity severity) {
+        eventCounter(eventsAcknowledged, "supervision.events.acknowledged", "Number of events acknowledged",
+                eventType, severity).increment();
 
         unacknowledgedEventsCount.decrementAndGet();
-        
-        if ("CRITICAL".equals(severity) || "EMERGENCY".equals(severity)) {
+
+        if (severity.isCritical()) {
             activeAlertsCount.decrementAndGet();
         }
     }
@@ -73,50 +184,70 @@ public class SupervisionMetrics {
      * Track WebSocket connections
      */
     public void recordWebSocketConnection(boolean connected) {
-        Counter.builder("supervision.websocket.connections")
-                .description("Number of WebSocket connections")
-                .tag("connected", String.valueOf(connected))
-                .register(meterRegistry)
-                .increment();
+        Counter counter = webSocketConnections[index(connected)];
+        if (counter == null) {
+            counter = webSocketConnections[index(connected)] = Counter.builder("supervision.websocket.connections")
+                    .description("Number of WebSocket connections")
+                    .tag("connected", String.valueOf(connected))
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track event notifications sent
      */
-    public void recordNotificationSent(String channel, boolean success) {
-        Counter.builder("supervision.notifications.sent")
-                .description("Number of notifications sent")
-                .tag("channel", channel)
-                .tag("success", String.valueOf(success))
-                .register(meterRegistry)
-                .increment();
+    public void recordNotificationSent(Channel channel, boolean success) {
+        Counter counter = notificationsSent[channel.ordinal()][index(success)];
+        if (counter == null) {
+            counter = notificationsSent[channel.ordinal()][index(success)] = Counter.builder("supervision.notifications.sent")
+                    .description("Number of notifications sent")
+                    .tag("channel", tagValue(channel))
+                    .tag("success", String.valueOf(success))
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track RabbitMQ message consumption
      */
-    public void recordMessageConsumed(String messageType, boolean success) {
-        Counter.builder("supervision.messages.consumed")
-                .description("Number of messages consumed from RabbitMQ")
-                .tag("type", messageType)
-                .tag("success", String.valueOf(success))
-                .register(meterRegistry)
-                .increment();
+    public void recordMessageConsumed(EventType eventType, boolean success) {
+        Counter counter = messagesConsumed[eventType.ordinal()][index(success)];
+        if (counter == null) {
+            counter = messagesConsumed[eventType.ordinal()][index(success)] = Counter.builder("supervision.messages.consumed")
+                    .description("Number of messages consumed from RabbitMQ")
+                    .tag("type", eventType.name())
+                    .tag("success", String.valueOf(success))
+                    .register(meterRegistry);
+        }
+        counter.increment();
     }
 
     /**
      * Track event query performance
      */
-    public void recordEventQuery(String filterType, int resultCount, long durationMs) {
-        Counter.builder("supervision.event_queries")
-                .description("Number of event queries")
-                .tag("filter", filterType)
-                .register(meterRegistry)
-                .increment();
-
-        meterRegistry.summary("supervision.event_query.results",
-                        "filter", filterType)
-                .record(resultCount);
+    public void recordEventQuery(EventQuery query, int resultCount, long durationNanos) {
+        int i = query.ordinal();
+        if (eventQueries[i] == null || eventQueryResults[i] == null || eventQueryTimers[i] == null) {
+            String filter = tagValue(query);
+            eventQueries[i] = Counter.builder("supervision.event_queries")
+                    .description("Number of event queries")
+                    .tag("filter", filter)
+                    .register(meterRegistry);
+            eventQueryResults[i] = DistributionSummary.builder("supervision.event_query.results")
+                    .description("Events returned by an event query")
+                    .tag("filter", filter)
+                    .register(meterRegistry);
+            eventQueryTimers[i] = Timer.builder("supervision.event_query.duration")
+                    .description("Time taken by an event query")
+                    .tag("filter", filter)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        eventQueries[i].increment();
+        eventQueryResults[i].record(resultCount);
+        eventQueryTimers[i].record(durationNanos, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -132,4 +263,25 @@ public class SupervisionMetrics {
     public void updateUnacknowledgedEventsCount(int count) {
         unacknowledgedEventsCount.set(count);
     }
+
+    private Counter eventCounter(Counter[][] counters, String name, String description, EventType type,
+                                 EventSeverity severity) {
+        Counter counter = counters[type.ordinal()][severity.ordinal()];
+        if (counter == null) {
+            counter = counters[type.ordinal()][severity.ordinal()] = Counter.builder(name)
+                    .description(description)
+                    .tag("type", type.name())
+                    .tag("severity", severity.name())
+                    .register(meterRegistry);
+        }
+        return counter;
+    }
+
+    private static int index(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
 }
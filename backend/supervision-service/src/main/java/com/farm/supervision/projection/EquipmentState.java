@@ -0,0 +1,154 @@
+package com.farm.supervision.projection;
+
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.EventPayload;
+import com.farm.events.payload.MaintenanceScheduledPayload;
+import com.farm.events.payload.PumpCreatedPayload;
+import com.farm.events.payload.SensorCreatedPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.farm.supervision.model.EventType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Current state of one device as seen by the event stream.
+ * <p>
+ * Immutable; {@link #apply} returns the updated state. Every field remembers the event time it was
+ * taken from and only a newer event replaces it, so events can be applied in any order and more than
+ * once with the same result. Times are UTC epoch milliseconds, {@link #NONE} when unknown.
+ */
+public record EquipmentState(
+        UUID equipmentId,
+        UUID farmId,
+        String equipmentType,
+        String status,
+        long statusAt,
+        int battery,
+        long batteryAt,
+        long offlineAt,
+        long lastCommunication,
+        long lastSeenAt,
+        long maintenanceScheduledAt,
+        long nextMaintenance,
+        long lastMaintenanceAt) {
+
+    public static final long NONE = 0;
+
+    public static final int UNKNOWN_BATTERY = -1;
+
+    /**
+     * State of a device before any of its events is applied
+     */
+    public static EquipmentState initial(UUID equipmentId, UUID farmId, String equipmentType) {
+        return new EquipmentState(equipmentId, farmId, equipmentType, null, NONE, UNKNOWN_BATTERY, NONE,
+                NONE, NONE, NONE, NONE, NONE, NONE);
+    }
+
+    /**
+     * Apply one event of this device
+     * @param at event time in epoch milliseconds
+     */
+    public EquipmentState apply(EventType eventType, long at, EventPayload payload) {
+        String newStatus = status;
+        long newStatusAt = statusAt;
+        int newBattery = battery;
+        long newBatteryAt = batteryAt;
+        long newOfflineAt = offlineAt;
+        long newLastCommunication = lastCommunication;
+        long newLastSeenAt = lastSeenAt;
+        long newScheduledAt = maintenanceScheduledAt;
+        long newNextMaintenance = nextMaintenance;
+        long newLastMaintenanceAt = lastMaintenanceAt;
+
+        // Any event other than going offline means the device was heard from
+        if (eventType != EventType.SENSOR_OFFLINE) {
+            newLastSeenAt = Math.max(lastSeenAt, at);
+        }
+
+        if (payload instanceof StatusChangedPayload changed && at >= statusAt) {
+            newStatus = intern(changed.newStatus());
+            newStatusAt = at;
+        } else if (payload instanceof PumpCreatedPayload created && at >= statusAt) {
+            newStatus = intern(created.status());
+            newStatusAt = at;
+        } else if (payload instanceof SensorCreatedPayload created && at >= batteryAt) {
+            newBattery = created.battery();
+            newBatteryAt = at;
+        } else if (payload instanceof BatteryLowPayload low && at >= batteryAt) {
+            newBattery = low.batteryLevel();
+            newBatteryAt = at;
+        } else if (payload instanceof SensorOfflinePayload offline && at >= offlineAt) {
+            newOfflineAt = at;
+            newLastCommunication = toMillis(offline.lastCommunication());
+        } else if (payload instanceof MaintenanceScheduledPayload scheduled && at >= maintenanceScheduledAt) {
+            newScheduledAt = at;
+            newNextMaintenance = toMillis(scheduled.scheduledDate());
+        } else if (eventType == EventType.MAINTENANCE_COMPLETED) {
+            newLastMaintenanceAt = Math.max(lastMaintenanceAt, at);
+        }
+
+        return new EquipmentState(equipmentId, farmId, equipmentType, newStatus, newStatusAt, newBattery, newBatteryAt,
+                newOfflineAt, newLastCommunication, newLastSeenAt, newScheduledAt, newNextMaintenance, newLastMaintenanceAt);
+    }
+
+    /**
+     * Combine two states of the same device, keeping the newer value of each field
+     */
+    public EquipmentState merge(EquipmentState other) {
+        boolean otherStatus = other.statusAt > statusAt;
+        boolean otherBattery = other.batteryAt > batteryAt;
+        boolean otherOffline = other.offlineAt > offlineAt;
+        boolean otherScheduled = other.maintenanceScheduledAt > maintenanceScheduledAt;
+        return new EquipmentState(equipmentId,
+                farmId != null ? farmId : other.farmId,
+                equipmentType != null ? equipmentType : other.equipmentType,
+                otherStatus ? other.status : status,
+                Math.max(statusAt, other.statusAt),
+                otherBattery ? other.battery : battery,
+                Math.max(batteryAt, other.batteryAt),
+                Math.max(offlineAt, other.offlineAt),
+                otherOffline ? other.lastCommunication : lastCommunication,
+                Math.max(lastSeenAt, other.lastSeenAt),
+                Math.max(maintenanceScheduledAt, other.maintenanceScheduledAt),
+                otherScheduled ? other.nextMaintenance : nextMaintenance,
+                Math.max(lastMaintenanceAt, other.lastMaintenanceAt));
+    }
+
+    /**
+     * Offline until the device is heard from again after its last offline event
+     */
+    public boolean offline() {
+        return offlineAt != NONE && offlineAt >= lastSeenAt;
+    }
+
+    /**
+     * Whether the last scheduled maintenance has not been completed yet
+     */
+    public boolean maintenancePending() {
+        return maintenanceScheduledAt != NONE && maintenanceScheduledAt > lastMaintenanceAt;
+    }
+
+    /**
+     * Time of the latest event applied
+     */
+    public long lastEventAt() {
+        return Math.max(lastSeenAt, offlineAt);
+    }
+
+    public static long toMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NONE;
+    }
+
+    public static LocalDateTime toLocalDateTime(long millis) {
+        return millis != NONE ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+
+    // Statuses repeat across devices; keep one copy of each
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+}
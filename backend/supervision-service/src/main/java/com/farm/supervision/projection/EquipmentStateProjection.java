@@ -0,0 +1,345 @@
+package com.farm.supervision.projection;
+
+import com.farm.events.EventSchema;
+import com.farm.events.payload.EquipmentBatchCreatedPayload;
+import com.farm.supervision.config.RabbitMQConfig;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.farm.supervision.dto.EquipmentStateDTO;
+import com.farm.supervision.model.EquipmentEvent;
+import com.farm.supervision.monitoring.ProjectionMetrics;
+import com.farm.supervision.repository.EquipmentStateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory projection of the current state of every device, built from the event stream.
+ * <p>
+ * Each replica only consumes some of the event partitions, so stored state-changing events are
+ * re-published on a fanout exchange and every replica applies all of them from its own
+ * auto-delete queue. {@link EquipmentState} keeps the newest value of each field, so events
+ * may arrive in any order or more than once.
+ * <p>
+ * At startup the projection is rebuilt from the last snapshot plus the events stored since it was
+ * taken (with some overlap), reading the latest event of each type per device in parallel ranges of devices.
+ * The live listener runs during the rebuild, so no event falls between the two. Queries are refused
+ * until the rebuild has finished. After a broker reconnect, events stored while the queue was gone
+ * are read back from the event table the same way.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EquipmentStateProjection implements ConnectionListener {
+
+    private final EquipmentStateRepository stateRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ConnectionFactory connectionFactory;
+    private final ProjectionMetrics projectionMetrics;
+
+    @Value("${supervision.projection.exchange:supervision.equipment-state}")
+    private String exchangeName;
+
+    @Value("${supervision.projection.rebuild-partitions:4}")
+    private int rebuildPartitions;
+
+    @Value("${supervision.projection.replay-overlap:5m}")
+    private Duration replayOverlap;
+
+    @Value("${supervision.projection.rebuild-retry-delay:30s}")
+    private Duration rebuildRetryDelay;
+
+    @Value("${supervision.projection.snapshot-dir:${java.io.tmpdir}/supervision-projection}")
+    private Path snapshotDir;
+
+    private final Map<UUID, EquipmentState> states = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<UUID>> equipmentByFarm = new ConcurrentHashMap<>();
+
+    // Bumped on every change, so unchanged state is not snapshotted again
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong disconnectedAt = new AtomicLong();
+
+    private volatile boolean ready;
+    private volatile long snapshotVersion = -1;
+
+    private ScheduledExecutorService rebuildExecutor;
+
+    @PostConstruct
+    public void init() {
+        rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "equipment-state-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connectionFactory.addConnectionListener(this);
+    }
+
+    /**
+     * Publish a stored event to every replica's projection.
+     * Only events that change the projected state are published.
+     */
+    public void publish(EquipmentEvent event) {
+        if (!EquipmentStateRepository.STATE_EVENT_TYPES.contains(event.getEventType())) {
+            return;
+        }
+        EquipmentEventMessage message = EquipmentEventMessage.builder()
+                .eventId(event.getId())
+                .eventType(event.getEventType())
+                .equipmentId(event.getEquipmentId())
+                .equipmentType(event.getEquipmentType())
+                .farmId(event.getFarmId())
+                .timestamp(event.getTimestamp())
+                .payload(event.getPayload())
+                .build();
+        rabbitTemplate.convertAndSend(exchangeName, "", message, amqpMessage -> {
+            amqpMessage.getMessageProperties().setHeader(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+            return amqpMessage;
+        });
+    }
+
+    /**
+     * Apply events published by any replica
+     */
+    @RabbitListener(queues = "#{@equipmentStateQueue.name}", containerFactory = RabbitMQConfig.EQUIPMENT_STATE_CONTAINER_FACTORY)
+    public void onEvent(EquipmentEventMessage message) {
+        if (message.getEquipmentId() == null || message.getPayload() instanceof EquipmentBatchCreatedPayload) {
+            return;
+        }
+        apply(message.getEquipmentId(), message.getFarmId(), message.getEquipmentType(),
+                EquipmentState.initial(message.getEquipmentId(), message.getFarmId(), message.getEquipmentType())
+                        .apply(message.getEventType(), EquipmentState.toMillis(message.getTimestamp()), message.getPayload()));
+        projectionMetrics.recordUpdate();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Load the snapshot and the events stored since, then start answering queries.
+     * Retried until it succeeds.
+     */
+    private void rebuild() {
+        long started = System.nanoTime();
+        try {
+            EquipmentStateSnapshots.Snapshot snapshot = readSnapshot();
+            LocalDateTime since = null;
+            if (snapshot != null) {
+                snapshot.states().forEach(state ->
+                        apply(state.equipmentId(), state.farmId(), state.equipmentType(), state));
+                since = EquipmentState.toLocalDateTime(snapshot.takenAt()).minus(replayOverlap);
+                log.info("Loaded {} device states from snapshot taken at {}", snapshot.states().size(),
+                        EquipmentState.toLocalDateTime(snapshot.takenAt()));
+            }
+            readEvents(since);
+            ready = true;
+            projectionMetrics.updateReady(true);
+            log.info("Equipment state projection ready with {} devices in {} ms", states.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            log.error("Equipment state rebuild failed, retrying in {}", rebuildRetryDelay, e);
+            rebuildExecutor.schedule(this::rebuild, rebuildRetryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Apply the latest state-changing events stored since a time, reading the ranges of devices in parallel
+     * @param since only events received at or after this time, or null for all
+     */
+    private void readEvents(LocalDateTime since) {
+        long started = System.nanoTime();
+        ExecutorService rangeExecutor = Executors.newFixedThreadPool(rebuildPartitions);
+        try {
+            List<CompletableFuture<Void>> ranges = new ArrayList<>(rebuildPartitions);
+            for (int range = 0; range < rebuildPartitions; range++) {
+                int current = range;
+                ranges.add(CompletableFuture.runAsync(() -> stateRepository.readLatestEvents(current, rebuildPartitions, since,
+                        event -> apply(event.equipmentId(), event.farmId(), event.equipmentType(),
+                                EquipmentState.initial(event.equipmentId(), event.farmId(), event.equipmentType())
+                                        .apply(event.eventType(), EquipmentState.toMillis(event.timestamp()), event.payload()))),
+                        rangeExecutor));
+            }
+            CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            rangeExecutor.shutdown();
+        }
+        projectionMetrics.recordRebuild(Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    /**
+     * Merge a partial state of one device into the projection
+     */
+    private void apply(UUID equipmentId, UUID farmId, String equipmentType, EquipmentState update) {
+        states.merge(equipmentId, update, EquipmentState::merge);
+        if (farmId != null) {
+            equipmentByFarm.computeIfAbsent(farmId, id -> ConcurrentHashMap.newKeySet()).add(equipmentId);
+        }
+        version.incrementAndGet();
+        projectionMetrics.updateSize(states.size());
+    }
+
+    /**
+     * The state queue is auto-delete and goes away with the connection; remember when it did
+     */
+    @Override
+    public void onClose(Connection connection) {
+        disconnectedAt.compareAndSet(EquipmentState.NONE, EquipmentState.toMillis(LocalDateTime.now()));
+    }
+
+    /**
+     * Read back from the event table what was published while the state queue was gone
+     */
+    @Override
+    public void onCreate(Connection connection) {
+        long since = disconnectedAt.getAndSet(EquipmentState.NONE);
+        if (since == EquipmentState.NONE || !ready) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                readEvents(EquipmentState.toLocalDateTime(since).minus(replayOverlap));
+                log.info("Equipment state projection caught up after broker reconnect");
+            } catch (RuntimeException e) {
+                log.error("Equipment state catch-up after broker reconnect failed", e);
+            }
+        });
+    }
+
+    /**
+     * Write a snapshot if the state changed since the last one
+     */
+    @Scheduled(fixedDelayString = "${supervision.projection.snapshot-interval-ms:300000}",
+            initialDelayString = "${supervision.projection.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long current = version.get();
+        if (!ready || current == snapshotVersion) {
+            return;
+        }
+        // received_at is stored as local time; take the watermark the same way
+        long takenAt = EquipmentState.toMillis(LocalDateTime.now());
+        try {
+            EquipmentStateSnapshots.write(snapshotFile(), takenAt, List.copyOf(states.values()));
+            snapshotVersion = current;
+            log.debug("Wrote equipment state snapshot with {} devices", states.size());
+        } catch (IOException e) {
+            log.warn("Could not write equipment state snapshot to {}", snapshotFile(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+        snapshot();
+    }
+
+    /**
+     * Current state of one device
+     */
+    public EquipmentStateDTO getState(UUID equipmentId) {
+        checkReady();
+        EquipmentState state = states.get(equipmentId);
+        if (state == null) {
+            throw new EquipmentStateNotFoundException("No state for equipment: " + equipmentId);
+        }
+        return convertToDTO(state);
+    }
+
+    /**
+     * Current state of every device of a farm, most recently active first
+     */
+    public List<EquipmentStateDTO> getFarmStates(UUID farmId) {
+        checkReady();
+        return equipmentByFarm.getOrDefault(farmId, Set.of()).stream()
+                .map(states::get)
+                .filter(state -> state != null)
+                .sorted(Comparator.comparingLong(EquipmentState::lastEventAt).reversed())
+                .map(this::convertToDTO)
+                .toList();
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new ProjectionNotReadyException("Equipment state is being rebuilt, retry shortly");
+        }
+    }
+
+    private EquipmentStateSnapshots.Snapshot readSnapshot() {
+        try {
+            return EquipmentStateSnapshots.read(snapshotFile());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable equipment state snapshot {}: {}", snapshotFile(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Path snapshotFile() {
+        return snapshotDir.resolve("equipment-state.snapshot");
+    }
+
+    /**
+     * Convert a projected state to DTO
+     */
+    private EquipmentStateDTO convertToDTO(EquipmentState state) {
+        boolean maintenancePending = state.maintenancePending();
+        return EquipmentStateDTO.builder()
+                .equipmentId(state.equipmentId())
+                .farmId(state.farmId())
+                .equipmentType(state.equipmentType())
+                .status(state.status())
+                .battery(state.battery() != EquipmentState.UNKNOWN_BATTERY ? state.battery() : null)
+                .offline(state.offline())
+                .lastCommunication(EquipmentState.toLocalDateTime(state.lastCommunication()))
+                .nextMaintenance(maintenancePending ? EquipmentState.toLocalDateTime(state.nextMaintenance()) : null)
+                .maintenancePending(maintenancePending)
+                .lastMaintenance(EquipmentState.toLocalDateTime(state.lastMaintenanceAt()))
+                .lastEventAt(EquipmentState.toLocalDateTime(state.lastEventAt()))
+                .build();
+    }
+
+    /**
+     * Exception thrown when no state is known for a device
+     */
+    public static class EquipmentStateNotFoundException extends RuntimeException {
+        public EquipmentStateNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exception thrown while the projection is being rebuilt
+     */
+    public static class ProjectionNotReadyException extends RuntimeException {
+        public ProjectionNotReadyException(String message) {
+            super(message);
+        }
+    }
+}
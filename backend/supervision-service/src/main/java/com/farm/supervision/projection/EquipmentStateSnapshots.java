@@ -0,0 +1,114 @@
+package com.farm.supervision.projection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary snapshot file of the equipment state projection.
+ * A snapshot is written to a temporary file and moved into place, so a crash mid-write leaves the
+ * previous snapshot intact.
+ */
+final class EquipmentStateSnapshots {
+
+    private static final int MAGIC = 0x45515350; // "EQSP"
+    private static final int FORMAT_VERSION = 1;
+
+    private EquipmentStateSnapshots() {
+    }
+
+    /**
+     * Snapshot contents
+     * @param takenAt epoch milliseconds at which the states were copied
+     */
+    record Snapshot(long takenAt, List<EquipmentState> states) {
+    }
+
+    static void write(Path file, long takenAt, Collection<EquipmentState> states) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(takenAt);
+            out.writeInt(states.size());
+            for (EquipmentState state : states) {
+                writeUuid(out, state.equipmentId());
+                writeUuid(out, state.farmId());
+                writeString(out, state.equipmentType());
+                writeString(out, state.status());
+                out.writeLong(state.statusAt());
+                out.writeInt(state.battery());
+                out.writeLong(state.batteryAt());
+                out.writeLong(state.offlineAt());
+                out.writeLong(state.lastCommunication());
+                out.writeLong(state.lastSeenAt());
+                out.writeLong(state.maintenanceScheduledAt());
+                out.writeLong(state.nextMaintenance());
+                out.writeLong(state.lastMaintenanceAt());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot
+     * @return null if there is no snapshot file
+     * @throws IOException if the file cannot be read or is not a snapshot of this format
+     */
+    static Snapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not an equipment state snapshot of format " + FORMAT_VERSION + ": " + file);
+            }
+            long takenAt = in.readLong();
+            int count = in.readInt();
+            List<EquipmentState> states = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                states.add(new EquipmentState(readUuid(in), readUuid(in), readString(in), readString(in), in.readLong(),
+                        in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                        in.readLong(), in.readLong()));
+            }
+            return new Snapshot(takenAt, states);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        // Statuses and equipment types repeat across devices; keep one copy of each
+        return in.readUTF().intern();
+    }
+}
@@ -0,0 +1,77 @@
+package com.farm.supervision.repository;
+
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for DeadLetterMessage entity.
+ */
+@Repository
+public interface DeadLetterMessageRepository extends JpaRepository<DeadLetterMessage, UUID> {
+    
+    /**
+     * Page through dead-lettered messages matching the filters, oldest first
+     */
+    @Query("SELECT d FROM DeadLetterMessage d WHERE " +
+           "(:status IS NULL OR d.status = :status) AND " +
+           "(:eventType IS NULL OR d.eventType = :eventType) AND " +
+           "( CAST(:farmId as string) IS NULL OR d.farmId = :farmId) AND " +
+           "(:from IS NULL OR d.deadLetteredAt >= :from) AND " +
+           "(:to IS NULL OR d.deadLetteredAt <= :to) " +
+           "ORDER BY d.deadLetteredAt ASC")
+    Page<DeadLetterMessage> findByFilters(
+        @Param("status") DeadLetterStatus status,
+        @Param("eventType") EventType eventType,
+        @Param("farmId") UUID farmId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        Pageable pageable
+    );
+    
+    /**
+     * Ids of pending messages matching the filters, in the order they were dead-lettered
+     */
+    @Query("SELECT d.id FROM DeadLetterMessage d WHERE d.status = 'PENDING' AND " +
+           "(:eventType IS NULL OR d.eventType = :eventType) AND " +
+           "( CAST(:farmId as string) IS NULL OR d.farmId = :farmId) AND " +
+           "(:from IS NULL OR d.deadLetteredAt >= :from) AND " +
+           "(:to IS NULL OR d.deadLetteredAt <= :to) " +
+           "ORDER BY d.deadLetteredAt ASC")
+    List<UUID> findPendingIds(
+        @Param("eventType") EventType eventType,
+        @Param("farmId") UUID farmId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
+    /**
+     * Of the given ids, the ones still pending, in the order they were dead-lettered
+     */
+    @Query("SELECT d.id FROM DeadLetterMessage d WHERE d.status = 'PENDING' AND d.id IN :ids ORDER BY d.deadLetteredAt ASC")
+    List<UUID> findPendingIdsIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Mark messages as replayed
+     */
+    @Modifying
+    @Query("UPDATE DeadLetterMessage d SET d.status = 'REPLAYED', d.replayedAt = :replayedAt WHERE d.id IN :ids")
+    int markReplayed(@Param("ids") Collection<UUID> ids, @Param("replayedAt") LocalDateTime replayedAt);
+    
+    /**
+     * Count messages by status
+     */
+    long countByStatus(DeadLetterStatus status);
+}
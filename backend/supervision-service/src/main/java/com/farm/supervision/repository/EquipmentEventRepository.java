@@ -3,16 +3,20 @@ package com.farm.supervision.repository;
 import com.farm.supervision.model.EquipmentEvent;
 import com.farm.supervision.model.EventSeverity;
 import com.farm.supervision.model.EventType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for EquipmentEvent entity.
@@ -96,6 +100,34 @@ public interface EquipmentEventRepository extends JpaRepository<EquipmentEvent,
         Pageable pageable
     );
     
+    /**
+     * Stream events matching the filters through a forward-only cursor.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT e FROM EquipmentEvent e WHERE " +
+           "( CAST(:farmId as string) IS NULL OR e.farmId = :farmId) AND " +
+           "( CAST(:equipmentId as string) IS NULL OR e.equipmentId = :equipmentId) AND " +
+           "(:eventType IS NULL OR e.eventType = :eventType) AND " +
+           "(:severity IS NULL OR e.severity = :severity) AND " +
+           "(:startDate IS NULL OR e.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR e.timestamp <= :endDate) AND " +
+           "(:acknowledged IS NULL OR e.acknowledged = :acknowledged) " +
+           "ORDER BY e.timestamp DESC")
+    Stream<EquipmentEvent> streamByFilters(
+        @Param("farmId") UUID farmId,
+        @Param("equipmentId") UUID equipmentId,
+        @Param("eventType") EventType eventType,
+        @Param("severity") EventSeverity severity,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("acknowledged") Boolean acknowledged
+    );
+    
     /**
      * Count events by severity
      */
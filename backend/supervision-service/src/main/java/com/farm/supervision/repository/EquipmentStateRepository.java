@@ -0,0 +1,124 @@
+package com.farm.supervision.repository;
+
+import com.farm.events.payload.EventPayload;
+import com.farm.supervision.model.EventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the events the equipment state projection is rebuilt from.
+ * <p>
+ * Only the latest event of each type per device is read ({@code DISTINCT ON}), since older ones
+ * are overridden by it anyway. The devices are split into ranges by a hash of their id, so that
+ * several ranges can be read in parallel. Splitting the id space itself would put every UUIDv7 id,
+ * whose leading bits are a timestamp, into the same range.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class EquipmentStateRepository {
+
+    /**
+     * Event types that change the projected state
+     */
+    public static final List<EventType> STATE_EVENT_TYPES = List.of(
+            EventType.EQUIPMENT_CREATED, EventType.STATUS_CHANGED, EventType.BATTERY_LOW, EventType.SENSOR_OFFLINE,
+            EventType.MAINTENANCE_SCHEDULED, EventType.MAINTENANCE_COMPLETED);
+
+    /**
+     * Range of a device: the first 28 bits of the MD5 of its id as text, modulo the number of ranges.
+     * Computed the same way by {@link #rangeOf}.
+     */
+    private static final String RANGE_SQL = "('x' || left(md5(equipment_id::text), 7))::bit(28)::int % :ranges = :range";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Latest state-changing event of one type for one device
+     */
+    public record StateEvent(UUID equipmentId, UUID farmId, String equipmentType, EventType eventType,
+                             LocalDateTime timestamp, EventPayload payload) {
+    }
+
+    /**
+     * Read the latest state-changing event of each type for every device in one range
+     * @param range index of the range, from 0 to ranges - 1
+     * @param ranges number of ranges the devices are split into
+     * @param receivedSince only events stored at or after this time, or null for all
+     */
+    public void readLatestEvents(int range, int ranges, LocalDateTime receivedSince, Consumer<StateEvent> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("eventTypes", STATE_EVENT_TYPES.stream().map(Enum::name).toList());
+        StringBuilder sql = new StringBuilder(
+                "SELECT DISTINCT ON (equipment_id, event_type) equipment_id, farm_id, equipment_type, event_type, timestamp, payload " +
+                "FROM equipment_events WHERE event_type IN (:eventTypes)");
+        if (ranges > 1) {
+            sql.append(" AND ").append(RANGE_SQL);
+            params.addValue("range", range).addValue("ranges", ranges);
+        }
+        if (receivedSince != null) {
+            sql.append(" AND received_at >= :receivedSince");
+            params.addValue("receivedSince", receivedSince);
+        }
+        sql.append(" ORDER BY equipment_id, event_type, timestamp DESC");
+
+        jdbcTemplate.query(sql.toString(), params, (RowCallbackHandler) rs -> consumer.accept(toStateEvent(rs)));
+    }
+
+    /**
+     * Range a device is read in, as computed by the query
+     */
+    static int rangeOf(UUID equipmentId, int ranges) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(equipmentId.toString().getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+        int hash = (digest[0] & 0xFF) << 20 | (digest[1] & 0xFF) << 12 | (digest[2] & 0xFF) << 4 | (digest[3] & 0xFF) >>> 4;
+        return hash % ranges;
+    }
+
+    private StateEvent toStateEvent(ResultSet rs) throws SQLException {
+        UUID equipmentId = rs.getObject("equipment_id", UUID.class);
+        return new StateEvent(
+                equipmentId,
+                rs.getObject("farm_id", UUID.class),
+                rs.getString("equipment_type"),
+                EventType.valueOf(rs.getString("event_type")),
+                rs.getObject("timestamp", LocalDateTime.class),
+                readPayload(equipmentId, rs.getString("payload")));
+    }
+
+    /**
+     * Payloads that cannot be read are skipped rather than failing the rebuild
+     */
+    private EventPayload readPayload(UUID equipmentId, String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, EventPayload.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable payload of an event of equipment {}: {}", equipmentId, e.getOriginalMessage());
+            return null;
+        }
+    }
+}
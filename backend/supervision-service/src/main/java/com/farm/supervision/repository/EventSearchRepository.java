@@ -0,0 +1,111 @@
+package com.farm.supervision.repository;
+
+import com.farm.supervision.dto.EventFilterRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over event messages and processing notes.
+ * <p>
+ * Matches against the stored {@code search_vector} column (see {@code db/event-search.sql}) so the
+ * GIN index is used, ranks with {@code ts_rank_cd} and only builds highlights for the returned page.
+ * Queries use web search syntax: words are ANDed, {@code "quoted phrases"}, {@code or} and {@code -word}.
+ * Filters are only added to the SQL when set, so each combination gets its own plan.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventSearchRepository {
+
+    // Must match the text search configuration of the search_vector column
+    private static final String TS_QUERY = "websearch_to_tsquery('english', :query)";
+
+    private static final String HEADLINE_OPTIONS = "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * A matching event with its relevance and highlighted text
+     * @param processingNotesHighlight null when the event has no processing notes
+     */
+    public record SearchHit(UUID id, double rank, String messageHighlight, String processingNotesHighlight) {
+    }
+
+    /**
+     * Find a page of matching events, most relevant first and newest first among equal ranks
+     */
+    public List<SearchHit> search(String query, EventFilterRequest filter, int limit, long offset) {
+        MapSqlParameterSource params = parameters(query, filter)
+                .addValue("limit", limit)
+                .addValue("offset", offset)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+
+        // Highlights are built in the outer query, only for the rows of the page
+        String sql = "SELECT h.id, h.rank, " +
+                "ts_headline('english', coalesce(e.message, ''), " + TS_QUERY + ", :headlineOptions) AS message_highlight, " +
+                "CASE WHEN e.processing_notes IS NULL THEN NULL " +
+                "ELSE ts_headline('english', e.processing_notes, " + TS_QUERY + ", :headlineOptions) END AS notes_highlight " +
+                "FROM (SELECT e.id, e.timestamp, ts_rank_cd(e.search_vector, " + TS_QUERY + ") AS rank " +
+                "FROM equipment_events e " + where(filter) +
+                " ORDER BY rank DESC, e.timestamp DESC LIMIT :limit OFFSET :offset) h " +
+                "JOIN equipment_events e ON e.id = h.id " +
+                "ORDER BY h.rank DESC, h.timestamp DESC";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new SearchHit(
+                rs.getObject("id", UUID.class),
+                rs.getDouble("rank"),
+                rs.getString("message_highlight"),
+                rs.getString("notes_highlight")));
+    }
+
+    /**
+     * Count all matching events
+     */
+    public long count(String query, EventFilterRequest filter) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM equipment_events e " + where(filter),
+                parameters(query, filter), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String where(EventFilterRequest filter) {
+        StringBuilder where = new StringBuilder("WHERE e.search_vector @@ ").append(TS_QUERY);
+        if (filter.getFarmId() != null) {
+            where.append(" AND e.farm_id = :farmId");
+        }
+        if (filter.getEquipmentId() != null) {
+            where.append(" AND e.equipment_id = :equipmentId");
+        }
+        if (filter.getEventType() != null) {
+            where.append(" AND e.event_type = :eventType");
+        }
+        if (filter.getSeverity() != null) {
+            where.append(" AND e.severity = :severity");
+        }
+        if (filter.getStartDate() != null) {
+            where.append(" AND e.timestamp >= :startDate");
+        }
+        if (filter.getEndDate() != null) {
+            where.append(" AND e.timestamp <= :endDate");
+        }
+        if (filter.getAcknowledged() != null) {
+            where.append(" AND e.acknowledged = :acknowledged");
+        }
+        return where.toString();
+    }
+
+    private static MapSqlParameterSource parameters(String query, EventFilterRequest filter) {
+        return new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("farmId", filter.getFarmId())
+                .addValue("equipmentId", filter.getEquipmentId())
+                .addValue("eventType", filter.getEventType() != null ? filter.getEventType().name() : null)
+                .addValue("severity", filter.getSeverity() != null ? filter.getSeverity().name() : null)
+                .addValue("startDate", filter.getStartDate())
+                .addValue("endDate", filter.getEndDate())
+                .addValue("acknowledged", filter.getAcknowledged());
+    }
+}
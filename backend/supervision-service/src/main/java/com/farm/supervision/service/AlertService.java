@@ -1,11 +1,18 @@
 package com.farm.supervision.service;
 
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.SensorAnomalyPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.farm.events.payload.ThresholdViolatedPayload;
 import com.farm.supervision.model.EquipmentEvent;
 import com.farm.supervision.model.EventSeverity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 /**
  * Service for processing and generating alerts from critical events.
  */
@@ -28,6 +35,8 @@ public class AlertService {
             case EQUIPMENT_FAILURE -> handleEquipmentFailureAlert(event);
             case STATUS_CHANGED -> handleStatusChangeAlert(event);
             case MAINTENANCE_SCHEDULED -> handleMaintenanceAlert(event);
+            case THRESHOLD_VIOLATED -> handleThresholdAlert(event);
+            case SENSOR_ANOMALY -> handleSensorAnomalyAlert(event);
             default -> log.info("No specific alert action for event type: {}", event.getEventType());
         }
     }
@@ -50,9 +59,11 @@ public class AlertService {
      * Handle sensor offline alert
      */
     private void handleSensorOfflineAlert(EquipmentEvent event) {
+        Object lastCommunication = event.getPayload() instanceof SensorOfflinePayload offline
+                ? Objects.requireNonNullElse(offline.lastCommunication(), "never")
+                : "unknown";
         log.error("CRITICAL: Sensor {} is offline on farm {}. Last communication: {}",
-                  event.getEquipmentId(), event.getFarmId(), 
-                  event.getPayload().get("lastCommunication"));
+                  event.getEquipmentId(), event.getFarmId(), lastCommunication);
         
         // In production:
         // - Send immediate notification
@@ -77,8 +88,12 @@ public class AlertService {
      * Handle status change alert
      */
     private void handleStatusChangeAlert(EquipmentEvent event) {
-        String oldStatus = (String) event.getPayload().getOrDefault("oldStatus", "UNKNOWN");
-        String newStatus = (String) event.getPayload().getOrDefault("newStatus", "UNKNOWN");
+        String oldStatus = "UNKNOWN";
+        String newStatus = "UNKNOWN";
+        if (event.getPayload() instanceof StatusChangedPayload statusChanged) {
+            oldStatus = statusChanged.oldStatus();
+            newStatus = statusChanged.newStatus();
+        }
         
         log.warn("Equipment {} status changed from {} to {} on farm {}",
                  event.getEquipmentId(), oldStatus, newStatus, event.getFarmId());
@@ -102,15 +117,42 @@ public class AlertService {
         // - Assign maintenance team
     }
     
+    /**
+     * Handle threshold rule violation alert
+     */
+    private void handleThresholdAlert(EquipmentEvent event) {
+        if (event.getPayload() instanceof ThresholdViolatedPayload violated) {
+            log.warn("Rule '{}' violated by sensor {} on farm {}: {} {} {} since {}",
+                     violated.ruleName(), event.getEquipmentId(), event.getFarmId(),
+                     violated.value(), violated.operator(), violated.threshold(), violated.since());
+        } else {
+            log.warn("Threshold rule violated by sensor {} on farm {}", event.getEquipmentId(), event.getFarmId());
+        }
+        
+        // In production:
+        // - Notify the farm's contacts configured for the rule
+        // - Escalate if the rule stays violated
+    }
+    
+    /**
+     * Handle sensor anomaly alert
+     */
+    private void handleSensorAnomalyAlert(EquipmentEvent event) {
+        String anomaly = event.getPayload() instanceof SensorAnomalyPayload detected ? detected.anomaly() : "UNKNOWN";
+        log.warn("Sensor {} on farm {} reported an anomaly: {} - {}",
+                 event.getEquipmentId(), event.getFarmId(), anomaly, event.getMessage());
+        
+        // In production:
+        // - Flag the sensor's readings as suspect on dashboards
+        // - Schedule an inspection if the sensor is stuck or drains its battery
+    }
+    
     /**
      * Extract battery level from event payload
      */
     private Integer extractBatteryLevel(EquipmentEvent event) {
-        Object batteryObj = event.getPayload().get("batteryLevel");
-        if (batteryObj instanceof Integer) {
-            return (Integer) batteryObj;
-        } else if (batteryObj instanceof String) {
-            return Integer.parseInt((String) batteryObj);
+        if (event.getPayload() instanceof BatteryLowPayload batteryLow) {
+            return batteryLow.batteryLevel();
         }
         return null;
     }
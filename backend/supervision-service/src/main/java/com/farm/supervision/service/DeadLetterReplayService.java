@@ -0,0 +1,300 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.dto.DeadLetterReplayJobDTO;
+import com.farm.supervision.dto.DeadLetterReplayJobDTO.Status;
+import com.farm.supervision.dto.DeadLetterReplayRequest;
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.monitoring.DeadLetterMetrics;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service replaying dead-lettered events into the partitioned exchange.
+ * <p>
+ * Replays run in the background one at a time and are paced to a fixed number of messages per second,
+ * so a large backlog does not crowd out live events on the partitions. Replayed messages get a fresh
+ * retry budget; if they fail again they come back to the DLQ as new entries. Each message is marked
+ * replayed once the broker confirmed it; a message the broker did not confirm stays pending.
+ * Jobs are tracked in memory by the replica that runs them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterReplayService {
+    
+    public static final String REPLAYED_FROM_HEADER = "x-replayed-from";
+    
+    /**
+     * Headers describing the previous failure, dropped from replayed messages
+     */
+    private static final Set<String> FAILURE_HEADERS = Set.of(
+            "x-death", "x-first-death-exchange", "x-first-death-queue", "x-first-death-reason",
+            "x-last-death-exchange", "x-last-death-queue", "x-last-death-reason",
+            EventRetryHandler.RETRY_HEADER, EventRetryHandler.PARKED_HEADER,
+            EventRetryHandler.EXCEPTION_TYPE_HEADER, EventRetryHandler.EXCEPTION_MESSAGE_HEADER);
+    
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_TRACKED_JOBS = 50;
+    
+    private final DeadLetterMessageRepository deadLetterRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DeadLetterMetrics deadLetterMetrics;
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "dlq-replay"));
+    
+    private final Map<UUID, ReplayJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, ReplayJob> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    };
+    
+    @Value("${rabbitmq.partitions.exchange:equipment-events.partitioned}")
+    private String partitionExchangeName;
+    
+    @Value("${supervision.dlq.replay.rate-per-second:20}")
+    private int defaultRatePerSecond;
+    
+    @Value("${supervision.dlq.replay.max-rate-per-second:200}")
+    private int maxRatePerSecond;
+    
+    @Value("${rabbitmq.retry.confirm-timeout:5s}")
+    private Duration confirmTimeout;
+    
+    /**
+     * Start replaying the selected pending messages, or only count them for a dry run
+     */
+    public DeadLetterReplayJobDTO replay(DeadLetterReplayRequest request) {
+        int rate = Math.min(request.getRatePerSecond() != null ? request.getRatePerSecond() : defaultRatePerSecond, maxRatePerSecond);
+        List<UUID> ids = request.getIds() != null && !request.getIds().isEmpty()
+                ? deadLetterRepository.findPendingIdsIn(request.getIds())
+                : deadLetterRepository.findPendingIds(request.getEventType(), request.getFarmId(), request.getFrom(), request.getTo());
+        
+        ReplayJob job = new ReplayJob(ids, rate);
+        if (request.isDryRun()) {
+            log.info("Dry run: {} dead letters would be replayed at {}/s", ids.size(), rate);
+            job.status = Status.DRY_RUN;
+            return job.toDTO();
+        }
+        
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        deadLetterMetrics.addReplayRemaining(ids.size());
+        executor.submit(() -> run(job));
+        log.info("Queued replay {} of {} dead letters at {}/s", job.id, ids.size(), rate);
+        return job.toDTO();
+    }
+    
+    /**
+     * Get the progress of a replay
+     */
+    public DeadLetterReplayJobDTO getJob(UUID jobId) {
+        return findJob(jobId).toDTO();
+    }
+    
+    /**
+     * Stop a queued or running replay; messages already published stay replayed
+     */
+    public DeadLetterReplayJobDTO cancelJob(UUID jobId) {
+        ReplayJob job = findJob(jobId);
+        job.cancelled = true;
+        log.info("Cancelling replay {}", jobId);
+        return job.toDTO();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private ReplayJob findJob(UUID jobId) {
+        synchronized (jobs) {
+            ReplayJob job = jobs.get(jobId);
+            if (job == null) {
+                throw new ReplayJobNotFoundException(jobId);
+            }
+            return job;
+        }
+    }
+    
+    private void run(ReplayJob job) {
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long intervalNanos = 1_000_000_000L / job.ratePerSecond;
+        long nextSend = System.nanoTime();
+        
+        try {
+            for (int from = 0; from < job.ids.size() && !job.cancelled; from += BATCH_SIZE) {
+                List<DeadLetterMessage> batch = new ArrayList<>(
+                        deadLetterRepository.findAllById(job.ids.subList(from, Math.min(from + BATCH_SIZE, job.ids.size()))));
+                batch.sort(Comparator.comparing(DeadLetterMessage::getDeadLetteredAt));
+                
+                List<UUID> published = new ArrayList<>(batch.size());
+                for (DeadLetterMessage deadLetter : batch) {
+                    if (job.cancelled) {
+                        break;
+                    }
+                    if (deadLetter.getStatus() != DeadLetterStatus.PENDING) {
+                        // Replayed by another job since this one was queued
+                        job.skipped++;
+                        deadLetterMetrics.recordSkipped(1);
+                        continue;
+                    }
+                    
+                    // Pace to the job's rate; after a stall, continue at the rate rather than in a burst
+                    LockSupport.parkNanos(nextSend - System.nanoTime());
+                    nextSend = Math.max(nextSend + intervalNanos, System.nanoTime());
+                    
+                    try {
+                        publish(deadLetter);
+                        published.add(deadLetter.getId());
+                        job.replayed++;
+                        deadLetterMetrics.recordReplayed();
+                    } catch (AmqpException e) {
+                        job.failed++;
+                        deadLetterMetrics.recordFailed();
+                        log.warn("Could not replay dead letter {}: {}", deadLetter.getId(), e.getMessage());
+                    }
+                }
+                
+                if (!published.isEmpty()) {
+                    LocalDateTime now = LocalDateTime.now();
+                    transactionTemplate.executeWithoutResult(status -> deadLetterRepository.markReplayed(published, now));
+                }
+                // Messages missing from the store since the job was queued
+                int missing = Math.min(BATCH_SIZE, job.ids.size() - from) - batch.size();
+                job.skipped += missing;
+                deadLetterMetrics.recordSkipped(missing);
+            }
+            job.status = job.cancelled ? Status.CANCELLED : Status.COMPLETED;
+        } catch (RuntimeException e) {
+            log.error("Replay {} failed", job.id, e);
+            job.status = Status.FAILED;
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            deadLetterMetrics.addReplayRemaining(-(job.ids.size() - job.replayed - job.skipped - job.failed));
+            log.info("Replay {} {}: {} replayed, {} skipped, {} failed of {}",
+                    job.id, job.status, job.replayed, job.skipped, job.failed, job.ids.size());
+        }
+    }
+    
+    /**
+     * Publish a replayed message and wait for the broker to confirm it, so that a message is only
+     * marked replayed once the broker has it
+     */
+    private void publish(DeadLetterMessage deadLetter) {
+        rabbitTemplate.invoke(operations -> {
+            operations.send(partitionExchangeName, routingKey(deadLetter), toMessage(deadLetter));
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+    }
+    
+    /**
+     * Rebuild the original message, without the headers of its previous failure
+     */
+    private static Message toMessage(DeadLetterMessage deadLetter) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(deadLetter.getContentType());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        if (deadLetter.getHeaders() != null) {
+            deadLetter.getHeaders().forEach((name, value) -> {
+                if (!FAILURE_HEADERS.contains(name)) {
+                    properties.setHeader(name, value);
+                }
+            });
+        }
+        properties.setHeader(REPLAYED_FROM_HEADER, deadLetter.getId().toString());
+        properties.setTimestamp(new Date());
+        return new Message(deadLetter.getBody(), properties);
+    }
+    
+    /**
+     * The partitioned exchange hashes on a header; the routing key only keeps the event type visible
+     */
+    private static String routingKey(DeadLetterMessage deadLetter) {
+        return deadLetter.getEventType() != null
+                ? "equipment." + deadLetter.getEventType().name().toLowerCase()
+                : "equipment.unknown";
+    }
+    
+    /**
+     * Progress of one replay; written by the replay thread, read by requests
+     */
+    private static final class ReplayJob {
+        
+        private final UUID id = UUID.randomUUID();
+        private final List<UUID> ids;
+        private final int ratePerSecond;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile boolean cancelled;
+        private volatile int replayed;
+        private volatile int skipped;
+        private volatile int failed;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        
+        private ReplayJob(List<UUID> ids, int ratePerSecond) {
+            this.ids = ids;
+            this.ratePerSecond = ratePerSecond;
+        }
+        
+        private DeadLetterReplayJobDTO toDTO() {
+            return DeadLetterReplayJobDTO.builder()
+                    .id(status == Status.DRY_RUN ? null : id)
+                    .status(status)
+                    .total(ids.size())
+                    .replayed(replayed)
+                    .skipped(skipped)
+                    .failed(failed)
+                    .ratePerSecond(ratePerSecond)
+                    .estimatedSeconds((ids.size() + ratePerSecond - 1) / ratePerSecond)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+    
+    /**
+     * Custom exception for a replay that is not tracked by this replica
+     */
+    public static class ReplayJobNotFoundException extends RuntimeException {
+        public ReplayJobNotFoundException(UUID jobId) {
+            super("Replay job not found with ID: " + jobId);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.dto.DeadLetterDTO;
+import com.farm.supervision.dto.DeadLetterFilterRequest;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.monitoring.DeadLetterMetrics;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service keeping dead-lettered events inspectable.
+ * <p>
+ * Messages are drained from the DLQ into the database as received, with the reason they failed:
+ * the exception recorded by {@link EventRetryHandler}, or the broker's x-death reason for messages
+ * that were rejected (undecodable) or expired.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class DeadLetterService {
+    
+    private final DeadLetterMessageRepository deadLetterRepository;
+    private final MessageConverter messageConverter;
+    private final ObjectMapper objectMapper;
+    private final DeadLetterMetrics deadLetterMetrics;
+    
+    /**
+     * Store a message from the DLQ. Failing to store it leaves it in the DLQ to be retried.
+     */
+    @RabbitListener(queues = "${rabbitmq.queue.dlq:dlq-equipment-events}", containerFactory = "deadLetterListenerContainerFactory")
+    @Transactional
+    public void storeDeadLetter(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        EquipmentEventMessage event = decode(message);
+        
+        DeadLetterMessage deadLetter = DeadLetterMessage.builder()
+                .eventId(event != null ? event.getEventId() : null)
+                .eventType(event != null ? event.getEventType() : null)
+                .equipmentId(event != null ? event.getEquipmentId() : null)
+                .farmId(event != null ? event.getFarmId() : null)
+                .eventTimestamp(event != null ? event.getTimestamp() : null)
+                .retryCount(properties.getHeader(EventRetryHandler.RETRY_HEADER) instanceof Number retries ? retries.intValue() : 0)
+                .contentType(properties.getContentType())
+                .headers(new HashMap<>(properties.getHeaders()))
+                .body(message.getBody())
+                .deadLetteredAt(LocalDateTime.now())
+                .status(DeadLetterStatus.PENDING)
+                .build();
+        describeFailure(properties, deadLetter);
+        
+        deadLetterRepository.save(deadLetter);
+        deadLetterMetrics.recordStored();
+        log.info("Stored dead-lettered {} event {}: {}", deadLetter.getEventType(), deadLetter.getEventId(), deadLetter.getFailureMessage());
+    }
+    
+    /**
+     * Page through dead-lettered messages, oldest first
+     */
+    public Page<DeadLetterDTO> getDeadLetters(DeadLetterFilterRequest filter, Pageable pageable) {
+        log.debug("Getting dead letters with filter: {}", filter);
+        return deadLetterRepository.findByFilters(
+                filter.getStatus(),
+                filter.getEventType(),
+                filter.getFarmId(),
+                filter.getFrom(),
+                filter.getTo(),
+                pageable
+        ).map(this::convertToDTO);
+    }
+    
+    /**
+     * Get one dead-lettered message with its headers and body
+     */
+    public DeadLetterDTO getDeadLetter(UUID id) {
+        DeadLetterMessage deadLetter = deadLetterRepository.findById(id)
+                .orElseThrow(() -> new DeadLetterNotFoundException(id));
+        DeadLetterDTO dto = convertToDTO(deadLetter);
+        dto.setHeaders(deadLetter.getHeaders());
+        dto.setBody(bodyAsJson(deadLetter));
+        return dto;
+    }
+    
+    /**
+     * Decode a message like the event listener does, or null if it cannot be decoded
+     */
+    private EquipmentEventMessage decode(Message message) {
+        message.getMessageProperties().setInferredArgumentType(EquipmentEventMessage.class);
+        try {
+            return messageConverter.fromMessage(message) instanceof EquipmentEventMessage event ? event : null;
+        } catch (RuntimeException e) {
+            log.debug("Dead-lettered message cannot be decoded: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Fill in why a message was dead-lettered
+     */
+    private static void describeFailure(MessageProperties properties, DeadLetterMessage deadLetter) {
+        Object exceptionType = properties.getHeader(EventRetryHandler.EXCEPTION_TYPE_HEADER);
+        if (exceptionType != null) {
+            deadLetter.setFailureType(exceptionType.toString());
+            deadLetter.setFailureMessage(String.valueOf(properties.<Object>getHeader(EventRetryHandler.EXCEPTION_MESSAGE_HEADER)));
+            return;
+        }
+        List<Map<String, ?>> deaths = properties.getXDeathHeader();
+        if (deaths != null && !deaths.isEmpty()) {
+            // The most recent death comes first
+            Map<String, ?> death = deaths.get(0);
+            deadLetter.setFailureType(String.valueOf(death.get("reason")));
+            deadLetter.setFailureMessage("Dead-lettered from " + death.get("queue") + " (" + death.get("reason") + ")");
+            return;
+        }
+        deadLetter.setFailureType("unknown");
+    }
+    
+    /**
+     * The body as JSON: the decoded event when possible, otherwise the raw text or Base64 bytes
+     */
+    private JsonNode bodyAsJson(DeadLetterMessage deadLetter) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(deadLetter.getContentType());
+        if (deadLetter.getHeaders() != null) {
+            deadLetter.getHeaders().forEach(properties::setHeader);
+        }
+        EquipmentEventMessage event = decode(new Message(deadLetter.getBody(), properties));
+        if (event != null) {
+            return objectMapper.valueToTree(event);
+        }
+        String contentType = deadLetter.getContentType();
+        if (contentType != null && contentType.contains("json")) {
+            return TextNode.valueOf(new String(deadLetter.getBody(), StandardCharsets.UTF_8));
+        }
+        return TextNode.valueOf(Base64.getEncoder().encodeToString(deadLetter.getBody()));
+    }
+    
+    /**
+     * Convert entity to DTO, without headers and body
+     */
+    private DeadLetterDTO convertToDTO(DeadLetterMessage deadLetter) {
+        return DeadLetterDTO.builder()
+                .id(deadLetter.getId())
+                .eventId(deadLetter.getEventId())
+                .eventType(deadLetter.getEventType())
+                .equipmentId(deadLetter.getEquipmentId())
+                .farmId(deadLetter.getFarmId())
+                .eventTimestamp(deadLetter.getEventTimestamp())
+                .failureType(deadLetter.getFailureType())
+                .failureMessage(deadLetter.getFailureMessage())
+                .retryCount(deadLetter.getRetryCount())
+                .contentType(deadLetter.getContentType())
+                .deadLetteredAt(deadLetter.getDeadLetteredAt())
+                .status(deadLetter.getStatus())
+                .replayedAt(deadLetter.getReplayedAt())
+                .build();
+    }
+    
+    /**
+     * Custom exception for a dead letter that does not exist
+     */
+    public static class DeadLetterNotFoundException extends RuntimeException {
+        public DeadLetterNotFoundException(UUID id) {
+            super("Dead letter not found with ID: " + id);
+        }
+    }
+}
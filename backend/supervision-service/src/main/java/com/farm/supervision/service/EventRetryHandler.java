@@ -0,0 +1,194 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.config.EventRetryTiers;
+import com.farm.supervision.config.RabbitMQConfig;
+import com.farm.supervision.monitoring.RetryMetrics;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes events that failed processing to their next retry tier or to the dead letter queue.
+ * <p>
+ * The number of retries already made travels with the message in {@value #RETRY_HEADER}.
+ * Failures that retrying cannot fix (messages that cannot be decoded, bad data, constraint violations)
+ * go straight to the DLQ.
+ * Dead-lettered events carry the failure in {@value #EXCEPTION_TYPE_HEADER} and
+ * {@value #EXCEPTION_MESSAGE_HEADER}.
+ * <p>
+ * While an event of a device waits in a retry tier, later events of that device are parked behind it
+ * in the same tier, marked with {@value #PARKED_HEADER}, so they are stored in the order they were sent.
+ * Parking is tracked in memory by the replica consuming the partition; it lapses if the retried event
+ * is not back within twice its delay plus {@link #PARKING_GRACE}, e.g. after its partition moved to
+ * another replica. Events of a device may then be stored out of order.
+ * <p>
+ * Every copy is published with a publisher confirm, and only returns once the broker has it, so the
+ * caller may ack the original; if the broker does not confirm, the consumer's channel is closed and
+ * the original is redelivered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventRetryHandler {
+
+    public static final String RETRY_HEADER = "x-retry-count";
+    public static final String PARKED_HEADER = "x-parked";
+    public static final String EXCEPTION_TYPE_HEADER = "x-exception-type";
+    public static final String EXCEPTION_MESSAGE_HEADER = "x-exception-message";
+
+    static final Duration PARKING_GRACE = Duration.ofSeconds(30);
+
+    private static final int MAX_EXCEPTION_MESSAGE_LENGTH = 1000;
+
+    private static final MessagePropertiesConverter PROPERTIES_CONVERTER = new DefaultMessagePropertiesConverter();
+
+    private final EventRetryTiers retryTiers;
+    private final RetryMetrics retryMetrics;
+
+    @Value("${rabbitmq.retry.confirm-timeout:5s}")
+    private Duration confirmTimeout;
+
+    // Devices with an event in a retry tier: the tier, and when parking behind it lapses
+    private final Map<UUID, Parking> parked = new ConcurrentHashMap<>();
+
+    private record Parking(int tier, long expiresAt) {
+    }
+
+    /**
+     * Publish a copy of a failed message to its next destination on the consumer's channel.
+     * The caller acks the original afterwards, so a crash in between redelivers it instead of losing it.
+     * @param equipmentId the device of the event, or null if the message could not be decoded
+     */
+    public void handleFailure(Message message, Channel channel, Exception failure, UUID equipmentId) throws IOException {
+        MessageProperties properties = message.getMessageProperties();
+        int retries = retriesOf(properties);
+        boolean retryable = isRetryable(failure);
+
+        if (retryable && retries < retryTiers.maxRetries()) {
+            int tier = retryTiers.tierFor(retries);
+            properties.setHeader(RETRY_HEADER, retries + 1);
+            properties.getHeaders().remove(PARKED_HEADER);
+            publish(channel, "", retryTiers.queueName(tier), message);
+            if (equipmentId != null) {
+                long expiresAt = System.nanoTime() + retryTiers.delay(tier).multipliedBy(2).plus(PARKING_GRACE).toNanos();
+                parked.put(equipmentId, new Parking(tier, expiresAt));
+            }
+            retryMetrics.recordRetry(tier);
+            log.warn("Event processing failed, retry {} of {} in {}: {}",
+                    retries + 1, retryTiers.maxRetries(), retryTiers.label(tier), failure.getMessage());
+        } else {
+            Throwable cause = rootCause(failure);
+            properties.setHeader(EXCEPTION_TYPE_HEADER, cause.getClass().getName());
+            properties.setHeader(EXCEPTION_MESSAGE_HEADER, truncate(String.valueOf(cause.getMessage())));
+            publish(channel, RabbitMQConfig.DEAD_LETTER_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY, message);
+            if (equipmentId != null) {
+                parked.remove(equipmentId);
+            }
+            retryMetrics.recordDeadLettered(retryable ? RetryMetrics.REASON_EXHAUSTED : RetryMetrics.REASON_NOT_RETRYABLE);
+            log.error("Event dead-lettered after {} retries", retries, failure);
+        }
+    }
+
+    /**
+     * Park an event behind an earlier event of the same device that is waiting in a retry tier.
+     * The caller acks the original once this returns true.
+     * @return whether the event was parked; if not, it is to be processed now
+     */
+    public boolean parkBehindRetry(UUID equipmentId, Message message, Channel channel) throws IOException {
+        if (equipmentId == null) {
+            return false;
+        }
+        Parking parking = parked.get(equipmentId);
+        if (parking == null) {
+            return false;
+        }
+        if (System.nanoTime() - parking.expiresAt() > 0) {
+            parked.remove(equipmentId, parking);
+            return false;
+        }
+        message.getMessageProperties().setHeader(PARKED_HEADER, true);
+        publish(channel, "", retryTiers.queueName(parking.tier()), message);
+        log.debug("Event of equipment {} parked behind its retry in {}", equipmentId, retryTiers.label(parking.tier()));
+        return true;
+    }
+
+    /**
+     * Note an event stored; once a retried event is stored, the events parked behind it are processed as they return
+     */
+    public void handleSuccess(UUID equipmentId, Message message) {
+        if (equipmentId != null && retriesOf(message.getMessageProperties()) > 0) {
+            parked.remove(equipmentId);
+        }
+    }
+
+    /**
+     * Retries already made for a message
+     */
+    private static int retriesOf(MessageProperties properties) {
+        Object value = properties.getHeader(RETRY_HEADER);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * Whether a failure may succeed on a later attempt. Everything is retried except bad data,
+     * so transient errors such as a database failover or a lock timeout recover on their own.
+     */
+    private static boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof MessageConversionException || t instanceof DataIntegrityViolationException
+                    || t instanceof IllegalArgumentException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publish on the consumer's channel and wait for the broker to confirm.
+     * Selecting confirm mode again on a channel already in it is harmless.
+     */
+    private void publish(Channel channel, String exchange, String routingKey, Message message) throws IOException {
+        channel.confirmSelect();
+        channel.basicPublish(exchange, routingKey,
+                PROPERTIES_CONVERTER.fromMessageProperties(message.getMessageProperties(), StandardCharsets.UTF_8.name()),
+                message.getBody());
+        try {
+            channel.waitForConfirmsOrDie(confirmTimeout.toMillis());
+        } catch (TimeoutException e) {
+            throw new IOException("Broker did not confirm the event within " + confirmTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // As on a timeout, close the channel so the broker redelivers the original
+            channel.abort();
+            throw new IOException("Interrupted waiting for the broker to confirm the event", e);
+        }
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_EXCEPTION_MESSAGE_LENGTH ? text : text.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
+    }
+}
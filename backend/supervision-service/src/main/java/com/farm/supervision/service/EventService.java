@@ -1,21 +1,39 @@
 package com.farm.supervision.service;
 
+import com.farm.common.export.ExportColumn;
+import com.farm.common.export.ExportFormat;
+import com.farm.common.export.ExportWriter;
 import com.farm.supervision.dto.AcknowledgeEventRequest;
 import com.farm.supervision.dto.EventDTO;
 import com.farm.supervision.dto.EventFilterRequest;
+import com.farm.supervision.dto.EventSearchResultDTO;
 import com.farm.supervision.model.EquipmentEvent;
 import com.farm.supervision.repository.EquipmentEventRepository;
+import com.farm.supervision.repository.EventSearchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing equipment events.
@@ -26,7 +44,30 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class EventService {
     
+    private static final List<ExportColumn<EventDTO>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("id", EventDTO::getId),
+            ExportColumn.of("eventType", EventDTO::getEventType),
+            ExportColumn.of("equipmentId", EventDTO::getEquipmentId),
+            ExportColumn.of("equipmentType", EventDTO::getEquipmentType),
+            ExportColumn.of("farmId", EventDTO::getFarmId),
+            ExportColumn.of("timestamp", EventDTO::getTimestamp),
+            ExportColumn.of("severity", EventDTO::getSeverity),
+            ExportColumn.of("message", EventDTO::getMessage),
+            ExportColumn.of("acknowledged", EventDTO::isAcknowledged),
+            ExportColumn.of("acknowledgedAt", EventDTO::getAcknowledgedAt),
+            ExportColumn.of("acknowledgedBy", EventDTO::getAcknowledgedBy),
+            ExportColumn.of("receivedAt", EventDTO::getReceivedAt),
+            ExportColumn.of("processed", EventDTO::isProcessed),
+            ExportColumn.of("processingNotes", EventDTO::getProcessingNotes)
+    );
+    
+    private static final int MAX_SEARCH_QUERY_LENGTH = 256;
+    
     private final EquipmentEventRepository eventRepository;
+    private final EventSearchRepository searchRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
     
     /**
      * Get all events with filtering and pagination
@@ -61,6 +102,38 @@ public class EventService {
         return events.map(this::convertToDTO);
     }
     
+    /**
+     * Full-text search over event messages and processing notes, combined with the usual filters.
+     * Results are ordered by relevance; the total is only counted when the page does not reveal it.
+     */
+    public Page<EventSearchResultDTO> searchEvents(String query, EventFilterRequest filter, Pageable pageable) {
+        log.debug("Searching events for '{}' with filter: {}", query, filter);
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is limited to " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        
+        List<EventSearchRepository.SearchHit> hits =
+                searchRepository.search(query, filter, pageable.getPageSize(), pageable.getOffset());
+        Map<UUID, EquipmentEvent> events = eventRepository.findAllById(hits.stream().map(EventSearchRepository.SearchHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(EquipmentEvent::getId, Function.identity()));
+        
+        List<EventSearchResultDTO> results = hits.stream()
+                .filter(hit -> events.containsKey(hit.id()))
+                .map(hit -> EventSearchResultDTO.builder()
+                        .event(convertToDTO(events.get(hit.id())))
+                        .rank(hit.rank())
+                        .messageHighlight(hit.messageHighlight())
+                        .processingNotesHighlight(hit.processingNotesHighlight())
+                        .build())
+                .toList();
+        
+        return PageableExecutionUtils.getPage(results, pageable, () -> searchRepository.count(query, filter));
+    }
+    
     /**
      * Get event by ID
      */
@@ -133,6 +206,46 @@ public class EventService {
         return convertToDTO(savedEvent);
     }
     
+    /**
+     * Prepare a streaming export of all events matching the filter.
+     * Events are read through a forward-only cursor once the body is written,
+     * so memory use stays flat regardless of the size of the date range.
+     */
+    public StreamingResponseBody exportEvents(EventFilterRequest filter, ExportFormat format) {
+        log.info("Exporting events as {} with filter: {}", format, filter);
+        return out -> writeEvents(out, filter, format);
+    }
+    
+    private void writeEvents(OutputStream out, EventFilterRequest filter, ExportFormat format) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            long rows = 0;
+            try (Stream<EquipmentEvent> events = eventRepository.streamByFilters(
+                         filter.getFarmId(),
+                         filter.getEquipmentId(),
+                         filter.getEventType(),
+                         filter.getSeverity(),
+                         filter.getStartDate(),
+                         filter.getEndDate(),
+                         filter.getAcknowledged());
+                 ExportWriter<EventDTO> writer = ExportWriter.create(format, out, objectMapper, EventDTO.class, EXPORT_COLUMNS)) {
+                Iterator<EquipmentEvent> iterator = events.iterator();
+                while (iterator.hasNext()) {
+                    EquipmentEvent event = iterator.next();
+                    writer.write(convertToDTO(event));
+                    // Keep the persistence context from growing with the result
+                    entityManager.detach(event);
+                    rows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Event export aborted after " + rows + " rows", e);
+            }
+            log.info("Exported {} events", rows);
+        });
+    }
+    
     /**
      * Convert entity to DTO
      */
@@ -0,0 +1,126 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.config.EventPartitions;
+import com.farm.supervision.monitoring.PartitionMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Spreads the event partitions over the running supervision replicas.
+ * <p>
+ * Replicas are taken from the service registry and sorted by instance id; replica {@code i} of
+ * {@code n} consumes every partition {@code p} with {@code p % n == i}. The assignment is
+ * recomputed on every registry refresh, so partitions move when replicas are added or removed.
+ * Partition queues allow a single active consumer, so during a handover the previous owner keeps
+ * the partition until it cancels and events of a device are never processed concurrently.
+ * A replica that cannot see itself in the registry (starting up, or discovery disabled) consumes
+ * all partitions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionRebalancer {
+
+    /**
+     * Id of the listener container consuming the partition queues
+     */
+    public static final String LISTENER_ID = "equipment-event-partitions";
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final EventPartitions eventPartitions;
+    private final PartitionMetrics partitionMetrics;
+
+    @Value("${spring.application.name}")
+    private String serviceId;
+
+    private Set<Integer> assigned = Set.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebalance();
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryRefresh() {
+        rebalance();
+    }
+
+    /**
+     * Recompute this replica's partitions and start or stop consuming the ones that changed
+     */
+    public synchronized void rebalance() {
+        List<String> replicas = discoveryClient.getInstances(serviceId).stream()
+                .map(ServiceInstance::getInstanceId)
+                .sorted()
+                .toList();
+        Registration self = registration.getIfAvailable();
+        int index = self != null ? replicas.indexOf(self.getInstanceId()) : -1;
+
+        Set<Integer> owned = index < 0
+                ? partitionsOwnedBy(0, 1, eventPartitions.count())
+                : partitionsOwnedBy(index, replicas.size(), eventPartitions.count());
+        if (owned.equals(assigned)) {
+            return;
+        }
+
+        DirectMessageListenerContainer container =
+                (DirectMessageListenerContainer) listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (!container.isRunning()) {
+            if (!owned.isEmpty()) {
+                container.setQueueNames(queueNames(owned));
+                container.start();
+            }
+        } else {
+            Set<Integer> released = new TreeSet<>(assigned);
+            released.removeAll(owned);
+            Set<Integer> acquired = new TreeSet<>(owned);
+            acquired.removeAll(assigned);
+            if (!released.isEmpty()) {
+                container.removeQueueNames(queueNames(released));
+            }
+            if (!acquired.isEmpty()) {
+                container.addQueueNames(queueNames(acquired));
+            }
+        }
+
+        log.info("Consuming event partitions {} as replica {} of {}", owned,
+                index < 0 ? "?" : index + 1, index < 0 ? "?" : replicas.size());
+        assigned = owned;
+        partitionMetrics.updateOwnedPartitions(owned);
+    }
+
+    /**
+     * Partitions owned by one replica under round-robin assignment
+     */
+    static Set<Integer> partitionsOwnedBy(int replicaIndex, int replicaCount, int partitionCount) {
+        Set<Integer> owned = new TreeSet<>();
+        for (int partition = replicaIndex; partition < partitionCount; partition += replicaCount) {
+            owned.add(partition);
+        }
+        return owned;
+    }
+
+    private String[] queueNames(Set<Integer> partitions) {
+        Set<String> names = new LinkedHashSet<>();
+        partitions.forEach(partition -> names.add(eventPartitions.queueName(partition)));
+        return names.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,13 @@
+-- Full-text search over event messages and processing notes (GET /api/events/search).
+-- Runs after Hibernate has created the tables; every statement is idempotent and none may run in a
+-- transaction. Where spring.sql.init is off (production), apply it with scripts/migrate-event-search.sh
+-- ahead of the rollout: adding the column rewrites the table under an exclusive lock.
+
+ALTER TABLE equipment_events ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(message, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(processing_notes, '')), 'B')
+    ) STORED;
+
+-- Built without blocking the inserts of the event consumers
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_event_search_vector ON equipment_events USING gin (search_vector);
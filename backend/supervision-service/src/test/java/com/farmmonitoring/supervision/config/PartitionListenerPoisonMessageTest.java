@@ -0,0 +1,170 @@
+package com.farm.supervision.config;
+
+import com.farm.events.EventSchema;
+import com.farm.supervision.model.EquipmentEvent;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.monitoring.PartitionMetrics;
+import com.farm.supervision.monitoring.RetryMetrics;
+import com.farm.supervision.monitoring.SupervisionMetrics;
+import com.farm.supervision.projection.EquipmentStateProjection;
+import com.farm.supervision.repository.EquipmentEventRepository;
+import com.farm.supervision.service.AlertService;
+import com.farm.supervision.service.EquipmentEventConsumer;
+import com.farm.supervision.service.EventRetryHandler;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A message the partition listener cannot decode must be dead-lettered and acked, not held unacked
+ * in a prefetch slot where enough of them stall the partition. Runs {@link EquipmentEventConsumer}
+ * in a container of the partition factory against a mocked broker channel.
+ */
+@DisplayName("Partition Listener Poison Message Tests")
+class PartitionListenerPoisonMessageTest {
+
+    private static final String QUEUE = "supervision-events.partition-0";
+
+    private final Channel channel = mock(Channel.class);
+    private final EquipmentEventRepository eventRepository = mock(EquipmentEventRepository.class);
+    private final AtomicReference<Consumer> consumer = new AtomicReference<>();
+    private DirectMessageListenerContainer container;
+
+    @BeforeEach
+    void startContainer() throws Exception {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.isOpen()).thenReturn(true);
+        when(connection.createChannel(anyBoolean())).thenReturn(channel);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.queueDeclarePassive(anyString())).thenReturn(mock(AMQP.Queue.DeclareOk.class));
+        when(channel.basicConsume(anyString(), anyBoolean(), anyString(), anyBoolean(), anyBoolean(), anyMap(), any(Consumer.class)))
+                .thenAnswer(invocation -> {
+                    consumer.set(invocation.getArgument(6));
+                    return "consumer-tag";
+                });
+
+        RabbitMQConfig config = new RabbitMQConfig();
+        ReflectionTestUtils.setField(config, "partitionPrefetch", 50);
+        MessageConverter messageConverter = config.messageConverter(Jackson2ObjectMapperBuilder.json().build());
+        DirectRabbitListenerContainerFactory factory = (DirectRabbitListenerContainerFactory) config.rabbitListenerContainerFactory(
+                connectionFactory, mock(PartitionMetrics.class), new MockEnvironment());
+
+        when(eventRepository.save(any(EquipmentEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        EventRetryHandler retryHandler = new EventRetryHandler(
+                new EventRetryTiers("supervision-events.retry-", List.of(Duration.ofSeconds(1)), 3), mock(RetryMetrics.class));
+        ReflectionTestUtils.setField(retryHandler, "confirmTimeout", Duration.ofSeconds(5));
+        EquipmentEventConsumer eventConsumer = new EquipmentEventConsumer(eventRepository, mock(AlertService.class),
+                mock(SimpMessagingTemplate.class), retryHandler, mock(PlatformTransactionManager.class),
+                mock(EquipmentStateProjection.class), mock(SupervisionMetrics.class), messageConverter);
+
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+        endpoint.setId("partitions");
+        endpoint.setQueueNames(QUEUE);
+        endpoint.setBean(eventConsumer);
+        endpoint.setMethod(EquipmentEventConsumer.class.getMethod("consumeEvent", Message.class, Channel.class));
+        endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+
+        container = factory.createListenerContainer(endpoint);
+        container.setShutdownTimeout(100);
+        container.afterPropertiesSet();
+        container.start();
+        verify(channel, timeout(5000)).basicConsume(anyString(), anyBoolean(), anyString(), anyBoolean(), anyBoolean(),
+                anyMap(), any(Consumer.class));
+    }
+
+    @AfterEach
+    void stopContainer() {
+        container.stop();
+    }
+
+    private void deliver(long deliveryTag, String body) throws Exception {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .headers(Map.of(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION))
+                .build();
+        consumer.get().handleDelivery("consumer-tag", new Envelope(deliveryTag, false, "", QUEUE), properties,
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void verifyDeadLettered(long deliveryTag, Class<? extends Exception> failure) throws Exception {
+        verify(channel).basicPublish(eq(RabbitMQConfig.DEAD_LETTER_EXCHANGE), eq(RabbitMQConfig.DEAD_LETTER_ROUTING_KEY),
+                argThat(properties -> failure.getName().equals(
+                        String.valueOf(properties.getHeaders().get(EventRetryHandler.EXCEPTION_TYPE_HEADER)))),
+                any(byte[].class));
+        verify(channel).basicAck(deliveryTag, false);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter and ack a message that is not JSON")
+    void deadLettersMalformedMessage() throws Exception {
+        deliver(1, "{\"eventType\":");
+
+        verifyDeadLettered(1, JsonEOFException.class);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter and ack an event of an unknown type")
+    void deadLettersUnknownEventType() throws Exception {
+        deliver(7, "{\"eventType\":\"NOT_AN_EVENT\"}");
+
+        verifyDeadLettered(7, InvalidFormatException.class);
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep acking once more poison messages arrived than the prefetch holds")
+    void poisonMessagesDoNotStallPartition() throws Exception {
+        for (long deliveryTag = 1; deliveryTag <= 60; deliveryTag++) {
+            deliver(deliveryTag, "not an event");
+        }
+        deliver(61, "{\"eventType\":\"BATTERY_LOW\"}");
+
+        verify(channel, times(61)).basicAck(anyLong(), eq(false));
+        verify(eventRepository).save(argThat(event -> event.getEventType() == EventType.BATTERY_LOW));
+    }
+
+    @Test
+    @DisplayName("Should store a well-formed event and ack it")
+    void storesWellFormedEvent() throws Exception {
+        deliver(3, "{\"eventType\":\"BATTERY_LOW\"}");
+
+        verify(eventRepository).save(argThat(event -> event.getEventType() == EventType.BATTERY_LOW));
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicPublish(anyString(), anyString(), any(), any(byte[].class));
+    }
+}
@@ -0,0 +1,237 @@
+package com.farm.supervision.config;
+
+import com.farm.events.EventSchema;
+import com.farm.events.payload.BatteryLowPayload;
+import com.farm.events.payload.EquipmentBatchCreatedPayload;
+import com.farm.events.payload.EventPayload;
+import com.farm.events.payload.LegacyPayload;
+import com.farm.events.payload.MaintenanceCompletedPayload;
+import com.farm.events.payload.MaintenanceScheduledPayload;
+import com.farm.events.payload.PumpCreatedPayload;
+import com.farm.events.payload.SensorAnomalyPayload;
+import com.farm.events.payload.SensorCreatedPayload;
+import com.farm.events.payload.SensorOfflinePayload;
+import com.farm.events.payload.StatusChangedPayload;
+import com.farm.events.payload.ThresholdClearedPayload;
+import com.farm.events.payload.ThresholdViolatedPayload;
+import com.farm.supervision.dto.EquipmentEventMessage;
+import com.farm.supervision.model.EventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The streaming reader must decode every equipment event exactly as the Jackson bean deserializer
+ * it replaces, which stays the delegate: same values for every event type, payload and timestamp
+ * form, over JSON and Smile, and a {@link MessageConversionException} wherever databind fails.
+ */
+@DisplayName("Streaming Event Message Converter Tests")
+class StreamingEventMessageConverterTest {
+
+    private static final String EVENT_ID = "0190a3c4-5b6e-7a01-8f23-456789abcdef";
+    private static final LocalDateTime SINCE = LocalDateTime.of(2024, 5, 31, 23, 59, 59, 999_000_000);
+
+    // Spring Boot's mapper: java.time support, ISO-8601 timestamps, unknown properties ignored
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper smileMapper = jsonMapper.copyWith(new SmileFactory());
+    private final MessageConverter databind = databindConverter(jsonMapper);
+    private final MessageConverter streaming = new StreamingEventMessageConverter(databind, jsonMapper);
+
+    // The converter chain of RabbitMQConfig without the streaming reader
+    private static MessageConverter databindConverter(ObjectMapper objectMapper) {
+        ContentTypeDelegatingMessageConverter converter =
+                new ContentTypeDelegatingMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, new SmileMessageConverter(objectMapper));
+        return new UpcastingMessageConverter(converter, objectMapper);
+    }
+
+    private List<EventPayload> payloads() throws IOException {
+        UUID ruleId = UUID.fromString("0190a3c4-0000-7000-8000-000000000001");
+        List<EventPayload> payloads = new ArrayList<>(List.of(
+                new SensorCreatedPayload("TEMPERATURE", "T-100", 87),
+                new PumpCreatedPayload("P-1", "ACTIVE", new BigDecimal("50.25")),
+                new EquipmentBatchCreatedPayload(UUID.fromString("0190a3c4-0000-7000-8000-000000000002"), 500, 12L),
+                new EquipmentBatchCreatedPayload(UUID.fromString("0190a3c4-0000-7000-8000-000000000002"), 500, null),
+                new StatusChangedPayload("ACTIVE", "MAINTENANCE"),
+                new MaintenanceScheduledPayload(LocalDateTime.of(2024, 7, 1, 8, 0)),
+                new MaintenanceCompletedPayload("Replaced the seal"),
+                new MaintenanceCompletedPayload(null),
+                new BatteryLowPayload(9),
+                new SensorOfflinePayload(SINCE),
+                new SensorOfflinePayload(null),
+                new ThresholdViolatedPayload(ruleId, "Frost", "LT", 0.5, -1.25, SINCE, true),
+                new ThresholdClearedPayload(ruleId, "Frost", 2.0, SINCE),
+                new SensorAnomalyPayload("SPIKE", 48.5, 21.0, 6.2, SINCE)));
+        payloads.add(jsonMapper.readValue("{\"code\":\"E42\",\"battery\":80}", LegacyPayload.class));
+        payloads.add(null);
+        return payloads;
+    }
+
+    private static EquipmentEventMessage event(EventType type, EventPayload payload) {
+        return EquipmentEventMessage.builder()
+                .eventId(UUID.fromString(EVENT_ID))
+                .eventType(type)
+                .equipmentId(UUID.randomUUID())
+                .equipmentType(type.ordinal() % 2 == 0 ? "SENSOR" : "PUMP")
+                .farmId(UUID.randomUUID())
+                .timestamp(LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123_456_000))
+                .payload(payload)
+                .message(type + " on \"field 3\" été")
+                .build();
+    }
+
+    private static Message message(byte[] body, String contentType) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setHeader(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+        properties.setInferredArgumentType(EquipmentEventMessage.class);
+        return new Message(body, properties);
+    }
+
+    private Message json(String body) {
+        return message(body.getBytes(StandardCharsets.UTF_8), "application/json");
+    }
+
+    // The same document as Smile; ids and timestamps stay strings, as a JSON-encoded tree
+    private Message smile(String body) throws IOException {
+        return message(smileMapper.writeValueAsBytes(jsonMapper.readTree(body)), SmileMessageConverter.CONTENT_TYPE);
+    }
+
+    private Object decode(MessageConverter converter, Message message) {
+        try {
+            return converter.fromMessage(message);
+        } catch (MessageConversionException e) {
+            return MessageConversionException.class;
+        }
+    }
+
+    private void assertSameAsDatabind(Message message, String description) {
+        Object expected = decode(databind, message);
+        assertThat(decode(streaming, message)).as(description).isEqualTo(expected);
+    }
+
+    private void assertSameAsDatabind(String body) throws IOException {
+        assertSameAsDatabind(json(body), "JSON " + body);
+        assertSameAsDatabind(smile(body), "Smile " + body);
+    }
+
+    private static String withTimestamp(String timestamp) {
+        return "{\"eventId\":\"" + EVENT_ID + "\",\"eventType\":\"STATUS_CHANGED\",\"timestamp\":" + timestamp + "}";
+    }
+
+    @Test
+    @DisplayName("Should decode every event type with every payload as databind does, in JSON and Smile")
+    void decodesEveryEventAndPayload() throws IOException {
+        for (EventType type : EventType.values()) {
+            for (EventPayload payload : payloads()) {
+                EquipmentEventMessage event = event(type, payload);
+                String description = type + " with " + payload;
+
+                Message json = message(jsonMapper.writeValueAsBytes(event), "application/json");
+                assertThat(streaming.fromMessage(json)).as("JSON " + description).isEqualTo(event);
+                assertSameAsDatabind(json, "JSON " + description);
+
+                // Smile as the equipment service writes it: ids as 16 raw bytes
+                Message smile = message(smileMapper.writeValueAsBytes(event), SmileMessageConverter.CONTENT_TYPE);
+                assertThat(streaming.fromMessage(smile)).as("Smile " + description).isEqualTo(event);
+                assertSameAsDatabind(smile, "Smile " + description);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should read timestamps with 0 to 9 fractional digits as databind does")
+    void readsFractionalSeconds() throws IOException {
+        String digits = "123456789";
+        for (int length = 0; length <= digits.length(); length++) {
+            String fraction = length == 0 ? "" : "." + digits.substring(0, length);
+            assertSameAsDatabind(withTimestamp("\"2024-06-01T12:30:05" + fraction + "\""));
+            assertSameAsDatabind(withTimestamp("\"2024-06-01T12:30:05" + fraction + "Z\""));
+            assertSameAsDatabind(withTimestamp("\"2024-06-01T12:30:05" + fraction + "+02:00\""));
+        }
+        EquipmentEventMessage nanos = (EquipmentEventMessage) streaming.fromMessage(
+                json(withTimestamp("\"2024-06-01T12:30:05.000000007\"")));
+        assertThat(nanos.getTimestamp()).isEqualTo(LocalDateTime.of(2024, 6, 1, 12, 30, 5, 7));
+    }
+
+    @Test
+    @DisplayName("Should read other timestamp forms, offsets and invalid dates as databind does")
+    void readsOtherTimestamps() throws IOException {
+        for (String timestamp : List.of("\"2024-06-01T12:30\"", "\"2024-06-01T12:30:05.\"", "\"2024-06-01T12:30:05-05:30\"",
+                "\"2024-06-01T12:30:05.5+14:00\"", "\"2024-06-01 12:30:05\"", "\"2024-02-30T12:30:05\"",
+                "\"2024-06-01T24:00:00\"", "\"2024-06-01T12:30:05.1234567890\"", "\"\"", "[2024,6,1,12,30,5]",
+                "[2024,6,1,12,30,5,500000000]", "1717245005000", "true")) {
+            assertSameAsDatabind(withTimestamp(timestamp));
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave null and missing fields null, as databind does")
+    void readsNullFields() throws IOException {
+        assertSameAsDatabind("{}");
+        assertSameAsDatabind("{\"eventId\":null,\"eventType\":null,\"equipmentId\":null,\"equipmentType\":null,"
+                + "\"farmId\":null,\"timestamp\":null,\"payload\":null,\"message\":null}");
+        assertSameAsDatabind("{\"eventType\":\"BATTERY_LOW\",\"payload\":{\"@type\":\"BATTERY_LOW\",\"batteryLevel\":null}}");
+        assertSameAsDatabind("{\"eventType\":\"SENSOR_OFFLINE\",\"payload\":{\"@type\":\"SENSOR_OFFLINE\",\"lastCommunication\":null}}");
+        assertSameAsDatabind("{\"eventType\":\"EQUIPMENT_FAILURE\",\"payload\":{\"code\":null}}");
+    }
+
+    @Test
+    @DisplayName("Should read unexpected values and unknown fields as databind does")
+    void readsUnexpectedValues() throws IOException {
+        for (String body : List.of(
+                "{\"eventType\":\"UNKNOWN\"}",
+                "{\"eventType\":\"battery_low\"}",
+                "{\"eventType\":4}",
+                "{\"eventType\":{\"name\":\"BATTERY_LOW\"}}",
+                "{\"equipmentType\":\"VALVE\"}",
+                "{\"equipmentType\":\"SENSORS\"}",
+                "{\"equipmentType\":7}",
+                "{\"equipmentType\":{\"kind\":\"PUMP\"},\"eventType\":\"BATTERY_LOW\"}",
+                "{\"message\":12.5}",
+                "{\"message\":[\"a\",\"b\"],\"eventType\":\"BATTERY_LOW\"}",
+                "{\"eventId\":\"" + EVENT_ID.toUpperCase() + "\"}",
+                "{\"eventId\":\"0190a3c4-5b6e-7a01-8f23-456789abcdeg\"}",
+                "{\"eventId\":\"0190a3c45b6e7a018f23456789abcdef\"}",
+                "{\"eventId\":\"not-a-uuid\"}",
+                "{\"farmId\":12}",
+                "{\"eventType\":\"BATTERY_LOW\",\"extra\":{\"nested\":[1,{\"eventType\":\"SYSTEM_ALERT\"}]},\"version\":3}",
+                "{\"payload\":{\"@type\":\"UNKNOWN_TYPE\",\"a\":1}}",
+                "{\"payload\":{\"@type\":\"BATTERY_LOW\",\"batteryLevel\":\"low\"}}",
+                "[]",
+                "\"event\"")) {
+            assertSameAsDatabind(body);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail on malformed messages with a conversion exception")
+    void failsOnMalformedMessages() {
+        assertThatThrownBy(() -> streaming.fromMessage(json("{\"eventType\":\"BATTERY_LOW\"")))
+                .isInstanceOf(MessageConversionException.class);
+        assertThatThrownBy(() -> streaming.fromMessage(json("{\"eventType\":\"NOT_AN_EVENT\"}")))
+                .isInstanceOf(MessageConversionException.class);
+    }
+}
@@ -0,0 +1,184 @@
+package com.farm.supervision.controller;
+
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EquipmentEvent;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import com.farm.supervision.repository.EquipmentEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.farm.query.StatementCount.atMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the event, statistics and dead letter read endpoints, against the Testcontainers
+ * PostgreSQL of {@code application-test.yml}. Pages hold more rows than the budget, so loading anything
+ * per row fails the test. Skipped where Docker is not available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Controller Statement Count Tests")
+class ControllerStatementCountTest {
+
+    private static final int EVENTS = 25;
+    private static final int DEAD_LETTERS = 25;
+    // Two critical types out of three: more critical events than the dashboard lists
+    private static final EventType[] TYPES = {
+            EventType.EQUIPMENT_FAILURE, EventType.BATTERY_LOW, EventType.STATUS_CHANGED};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EquipmentEventRepository eventRepository;
+
+    @Autowired
+    private DeadLetterMessageRepository deadLetterRepository;
+
+    private final UUID farmId = UUID.randomUUID();
+    private final UUID equipmentId = UUID.randomUUID();
+    private UUID eventId;
+    private UUID deadLetterId;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAllInBatch();
+        deadLetterRepository.deleteAllInBatch();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            EventType type = TYPES[i % TYPES.length];
+            LocalDateTime timestamp = now.minusMinutes(i * 10L);
+            eventId = eventRepository.save(EquipmentEvent.builder()
+                    .eventType(type)
+                    .equipmentId(equipmentId)
+                    .farmId(farmId)
+                    .timestamp(timestamp)
+                    .message("Pump " + i + " reported " + type)
+                    .severity(EquipmentEvent.determineSeverity(type))
+                    .acknowledged(i % 4 == 0)
+                    .receivedAt(timestamp)
+                    .build()).getId();
+        }
+        for (int i = 0; i < DEAD_LETTERS; i++) {
+            deadLetterId = deadLetterRepository.save(DeadLetterMessage.builder()
+                    .eventType(EventType.EQUIPMENT_FAILURE)
+                    .equipmentId(equipmentId)
+                    .farmId(farmId)
+                    .failureType("MessageConversionException")
+                    .failureMessage("Unreadable payload " + i)
+                    .contentType("application/json")
+                    .body(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8))
+                    .deadLetteredAt(now.minusMinutes(i))
+                    .status(DeadLetterStatus.PENDING)
+                    .build()).getId();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/events - Should read the page and its count only")
+    void getAllEvents() throws Exception {
+        mockMvc.perform(get("/api/events").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/events?farmId= - Should read the filtered page and its count only")
+    void getFilteredEvents() throws Exception {
+        mockMvc.perform(get("/api/events").param("farmId", farmId.toString()).param("acknowledged", "false")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/events/search - Should read the hits, their events and the count only")
+    void searchEvents() throws Exception {
+        mockMvc.perform(get("/api/events/search").param("q", "pump").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/events/{id} - Should read the event only")
+    void getEventById() throws Exception {
+        mockMvc.perform(get("/api/events/{id}", eventId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/events/unacknowledged - Should read the events in one statement")
+    void getUnacknowledgedCriticalEvents() throws Exception {
+        mockMvc.perform(get("/api/events/unacknowledged").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/events/farm/{farmId} - Should read the page and its count only")
+    void getEventsByFarmId() throws Exception {
+        mockMvc.perform(get("/api/events/farm/{farmId}", farmId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/events/equipment/{equipmentId} - Should read the page and its count only")
+    void getEventsByEquipmentId() throws Exception {
+        mockMvc.perform(get("/api/events/equipment/{equipmentId}", equipmentId).param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/statistics/dashboard - Should run a fixed set of statements, whatever the event count")
+    void getDashboardStatistics() throws Exception {
+        // Five counts, two groupings, the critical page and its count, the recent events, the daily counts,
+        // and a page with its count for each of the three periods
+        mockMvc.perform(get("/api/statistics/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recentCriticalEvents.length()").value(10))
+                .andExpect(jsonPath("$.recentEvents.length()").value(10))
+                .andExpect(atMost(17));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/dlq/messages - Should read the page and its count only")
+    void getDeadLetters() throws Exception {
+        mockMvc.perform(get("/api/admin/dlq/messages").param("status", "PENDING").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(20))
+                .andExpect(atMost(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/dlq/messages/{id} - Should read the dead letter only")
+    void getDeadLetter() throws Exception {
+        mockMvc.perform(get("/api/admin/dlq/messages/{id}", deadLetterId))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1));
+    }
+}
@@ -0,0 +1,115 @@
+package com.farm.supervision.monitoring;
+
+import com.farm.supervision.model.EventSeverity;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.monitoring.SupervisionMetrics.Channel;
+import com.farm.supervision.monitoring.SupervisionMetrics.EventQuery;
+import com.farm.supervision.monitoring.SupervisionMetrics.Stage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Supervision Metrics Tests")
+class SupervisionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SupervisionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SupervisionMetrics(registry);
+        metrics.init();
+    }
+
+    private double count(String name, String... tags) {
+        return registry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should register only the latency meters and the gauges at startup")
+    void registersOnlyAlwaysRecordedMeters() {
+        // The simple registry adds a gauge per service level objective of the latency timer, under its own name
+        assertThat(registry.getMeters().stream().map(meter -> meter.getId().getName())
+                .filter(name -> !name.endsWith(".histogram")))
+                .containsExactlyInAnyOrder("supervision.event.latency", "supervision.event.lag",
+                        "supervision.active_alerts", "supervision.unacknowledged_events");
+    }
+
+    @Test
+    @DisplayName("Should count each tag combination in its own counter, registering only those recorded")
+    void countsEachTagCombination() {
+        metrics.recordEventCreated(EventType.EQUIPMENT_FAILURE, EventSeverity.CRITICAL);
+        metrics.recordEventCreated(EventType.EQUIPMENT_FAILURE, EventSeverity.CRITICAL);
+        metrics.recordEventCreated(EventType.BATTERY_LOW, EventSeverity.WARNING);
+        metrics.recordEventAcknowledged(EventType.EQUIPMENT_FAILURE, EventSeverity.CRITICAL);
+        metrics.recordMessageConsumed(EventType.BATTERY_LOW, true);
+        metrics.recordMessageConsumed(EventType.BATTERY_LOW, false);
+        metrics.recordMessageConsumed(EventType.BATTERY_LOW, true);
+        metrics.recordNotificationSent(Channel.ALERTS, true);
+        metrics.recordWebSocketConnection(true);
+
+        assertThat(count("supervision.events.created", "type", "EQUIPMENT_FAILURE", "severity", "CRITICAL")).isEqualTo(2);
+        assertThat(count("supervision.events.created", "type", "BATTERY_LOW", "severity", "WARNING")).isEqualTo(1);
+        assertThat(registry.find("supervision.events.created").counters()).hasSize(2);
+        assertThat(count("supervision.events.acknowledged", "type", "EQUIPMENT_FAILURE", "severity", "CRITICAL"))
+                .isEqualTo(1);
+        assertThat(registry.find("supervision.events.acknowledged").counters()).hasSize(1);
+        assertThat(count("supervision.messages.consumed", "type", "BATTERY_LOW", "success", "true")).isEqualTo(2);
+        assertThat(count("supervision.messages.consumed", "type", "BATTERY_LOW", "success", "false")).isEqualTo(1);
+        assertThat(count("supervision.notifications.sent", "channel", "alerts", "success", "true")).isEqualTo(1);
+        assertThat(registry.find("supervision.notifications.sent").counters()).hasSize(1);
+        assertThat(count("supervision.websocket.connections", "connected", "true")).isEqualTo(1);
+        assertThat(registry.find("supervision.websocket.connections").tags("connected", "false").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep the alert and unacknowledged gauges in step with created and acknowledged events")
+    void tracksGauges() {
+        metrics.recordEventCreated(EventType.EQUIPMENT_FAILURE, EventSeverity.CRITICAL);
+        metrics.recordEventCreated(EventType.SENSOR_OFFLINE, EventSeverity.CRITICAL);
+        metrics.recordEventCreated(EventType.BATTERY_LOW, EventSeverity.WARNING);
+        metrics.recordEventAcknowledged(EventType.EQUIPMENT_FAILURE, EventSeverity.CRITICAL);
+
+        assertThat(registry.get("supervision.active_alerts").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("supervision.unacknowledged_events").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should time event stages and queries by their tags, and keep the last latency")
+    void timesByTags() {
+        LocalDateTime stored = LocalDateTime.of(2024, 5, 1, 12, 0);
+        metrics.recordStage(Stage.PERSIST, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordStage(Stage.PERSIST, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordEventQuery(EventQuery.SEARCH, 12, TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.recordEventQuery(EventQuery.SEARCH, 4, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordEventLatency(stored.minusSeconds(2), stored);
+        // Clock skew: a producer timestamp ahead of the stored time counts as no latency
+        metrics.recordEventLatency(stored.plusSeconds(1), stored);
+
+        Timer persist = registry.get("supervision.event.processing").tag("stage", "persist").timer();
+        assertThat(persist.count()).isEqualTo(2);
+        assertThat(persist.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(8);
+        assertThat(registry.find("supervision.event.processing").timers()).hasSize(1);
+
+        assertThat(count("supervision.event_queries", "filter", "search")).isEqualTo(2);
+        DistributionSummary results = registry.get("supervision.event_query.results").tag("filter", "search").summary();
+        assertThat(results.totalAmount()).isEqualTo(16);
+        assertThat(registry.get("supervision.event_query.duration").tag("filter", "search").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(30);
+        assertThat(registry.find("supervision.event_queries").counters()).hasSize(1);
+
+        Timer latency = registry.get("supervision.event.latency").timer();
+        assertThat(latency.count()).isEqualTo(2);
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2000);
+        assertThat(registry.get("supervision.event.lag").timeGauge().value(TimeUnit.MILLISECONDS)).isZero();
+    }
+}
@@ -0,0 +1,38 @@
+package com.farm.supervision.repository;
+
+import com.farm.common.id.UuidV7Generator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Equipment state repository ranges")
+class EquipmentStateRepositoryTest {
+
+    @Test
+    @DisplayName("spreads UUIDv7 ids evenly over the ranges, though they share their leading timestamp bits")
+    void spreadsUuidV7Ids() {
+        int ranges = 4;
+        int ids = 20_000;
+        int[] counts = new int[ranges];
+        for (int i = 0; i < ids; i++) {
+            counts[EquipmentStateRepository.rangeOf(UuidV7Generator.next(), ranges)]++;
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(ids / ranges * 9 / 10, ids / ranges * 11 / 10);
+        }
+    }
+
+    @Test
+    @DisplayName("computes the range the query does: first 28 bits of the MD5 of the id text")
+    void matchesQueryHash() {
+        // md5('00000000-0000-0000-0000-000000000000') starts with 9f89c84, that is 167287940
+        assertThat(EquipmentStateRepository.rangeOf(new UUID(0, 0), 1000)).isEqualTo(940);
+        // md5('0190a3c4-5b6e-7a01-8f23-456789abcdef') starts with b32f2e8, that is 187888360
+        assertThat(EquipmentStateRepository.rangeOf(UUID.fromString("0190a3c4-5b6e-7a01-8f23-456789abcdef"), 1000))
+                .isEqualTo(360);
+    }
+}
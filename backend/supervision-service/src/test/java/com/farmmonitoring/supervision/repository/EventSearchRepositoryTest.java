@@ -0,0 +1,194 @@
+package com.farm.supervision.repository;
+
+import com.farm.supervision.dto.EventFilterRequest;
+import com.farm.supervision.model.EquipmentEvent;
+import com.farm.supervision.model.EventSeverity;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.repository.EventSearchRepository.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full-text search against the Testcontainers PostgreSQL of {@code application-test.yml}, on the column
+ * and index that {@code db/event-search.sql} adds once Hibernate has created the tables, as at startup.
+ * Skipped where Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EventSearchRepository.class)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Event Search Repository Tests")
+class EventSearchRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private EventSearchRepository searchRepository;
+
+    @Autowired
+    private EquipmentEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final UUID farmId = UUID.randomUUID();
+    private final UUID otherFarmId = UUID.randomUUID();
+    private final EventFilterRequest all = new EventFilterRequest();
+    private UUID pumpFailure;
+    private UUID pumpNotes;
+    private UUID valveFailure;
+    private UUID otherFarmPump;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.deleteAllInBatch();
+        pumpFailure = save(farmId, EventType.EQUIPMENT_FAILURE, "Pump stopped: pressure dropped in the main line",
+                null, NOON, true);
+        pumpNotes = save(farmId, EventType.STATUS_CHANGED, "Status changed to maintenance",
+                "Replaced the pump seal after the pressure alarm", NOON.plusHours(1), false);
+        valveFailure = save(farmId, EventType.EQUIPMENT_FAILURE, "Valve stuck open, no pressure reading",
+                null, NOON.plusHours(2), false);
+        otherFarmPump = save(otherFarmId, EventType.EQUIPMENT_FAILURE, "Pump stopped on the north field",
+                null, NOON.plusHours(3), false);
+        eventRepository.flush();
+    }
+
+    private UUID save(UUID farm, EventType type, String message, String notes, LocalDateTime timestamp,
+                      boolean acknowledged) {
+        return eventRepository.save(EquipmentEvent.builder()
+                .eventType(type)
+                .equipmentId(UUID.randomUUID())
+                .farmId(farm)
+                .timestamp(timestamp)
+                .message(message)
+                .processingNotes(notes)
+                .severity(EquipmentEvent.determineSeverity(type))
+                .acknowledged(acknowledged)
+                .receivedAt(timestamp)
+                .build()).getId();
+    }
+
+    private List<UUID> ids(String query, EventFilterRequest filter) {
+        return searchRepository.search(query, filter, 20, 0).stream().map(SearchHit::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should rank a match in the message above one in the processing notes, and stem words")
+    void ranksMessageAboveNotes() {
+        List<SearchHit> hits = searchRepository.search("pumps", all, 20, 0);
+
+        assertThat(hits).extracting(SearchHit::id).containsExactlyInAnyOrder(pumpFailure, pumpNotes, otherFarmPump);
+        assertThat(hits.get(hits.size() - 1).id()).isEqualTo(pumpNotes);
+        assertThat(hits.get(0).rank()).isGreaterThan(hits.get(hits.size() - 1).rank());
+        assertThat(searchRepository.count("pumps", all)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should order equal ranks newest first")
+    void ordersEqualRanksNewestFirst() {
+        assertThat(ids("stopped", all)).containsExactly(otherFarmPump, pumpFailure);
+    }
+
+    @Test
+    @DisplayName("Should highlight the matched words, with no notes highlight for an event without notes")
+    void highlightsMatches() {
+        SearchHit failure = searchRepository.search("pressure", all, 20, 0).stream()
+                .filter(hit -> hit.id().equals(pumpFailure)).findFirst().orElseThrow();
+        SearchHit notes = searchRepository.search("seal", all, 20, 0).get(0);
+
+        assertThat(failure.messageHighlight()).contains("<mark>pressure</mark>");
+        assertThat(failure.processingNotesHighlight()).isNull();
+        assertThat(notes.id()).isEqualTo(pumpNotes);
+        assertThat(notes.processingNotesHighlight()).contains("<mark>seal</mark>");
+        assertThat(notes.messageHighlight()).doesNotContain("<mark>");
+    }
+
+    @Test
+    @DisplayName("Should accept web search syntax: phrases, or, and excluded words")
+    void acceptsWebSearchSyntax() {
+        assertThat(ids("\"pump stopped\"", all)).containsExactlyInAnyOrder(pumpFailure, otherFarmPump);
+        assertThat(ids("valve or seal", all)).containsExactlyInAnyOrder(valveFailure, pumpNotes);
+        assertThat(ids("pressure -valve", all)).containsExactlyInAnyOrder(pumpFailure, pumpNotes);
+        assertThat(ids("irrigation", all)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply each filter to the search and its count")
+    void appliesFilters() {
+        EventFilterRequest farm = EventFilterRequest.builder().farmId(farmId).build();
+        EventFilterRequest failures = EventFilterRequest.builder().farmId(farmId)
+                .eventType(EventType.EQUIPMENT_FAILURE).severity(EventSeverity.CRITICAL).build();
+        EventFilterRequest window = EventFilterRequest.builder()
+                .startDate(NOON.plusMinutes(30)).endDate(NOON.plusHours(2)).build();
+        EventFilterRequest unacknowledged = EventFilterRequest.builder().acknowledged(false).build();
+        EventFilterRequest otherFarm = EventFilterRequest.builder().farmId(otherFarmId).build();
+
+        assertThat(ids("pump", farm)).containsExactlyInAnyOrder(pumpFailure, pumpNotes);
+        assertThat(ids("pressure", failures)).containsExactlyInAnyOrder(pumpFailure, valveFailure);
+        assertThat(ids("pressure", window)).containsExactlyInAnyOrder(pumpNotes, valveFailure);
+        assertThat(ids("pump", unacknowledged)).containsExactlyInAnyOrder(pumpNotes, otherFarmPump);
+        assertThat(searchRepository.count("pressure", failures)).isEqualTo(2);
+        assertThat(searchRepository.count("pressure", otherFarm)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the requested page of the ranked hits")
+    void pagesHits() {
+        List<UUID> ranked = ids("pump", all);
+
+        assertThat(searchRepository.search("pump", all, 2, 0)).extracting(SearchHit::id)
+                .containsExactlyElementsOf(ranked.subList(0, 2));
+        assertThat(searchRepository.search("pump", all, 2, 2)).extracting(SearchHit::id)
+                .containsExactlyElementsOf(ranked.subList(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should match through the GIN index")
+    void usesIndex() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT count(*) FROM equipment_events e " +
+                "WHERE e.search_vector @@ websearch_to_tsquery('english', 'pump')", String.class);
+
+        assertThat(String.join("\n", plan)).contains("idx_event_search_vector");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should create the column and a valid index again when the migration is applied to an existing table")
+    void migratesExistingTable() {
+        jdbcTemplate.execute("ALTER TABLE equipment_events DROP COLUMN search_vector");
+
+        ResourceDatabasePopulator migration = new ResourceDatabasePopulator(new ClassPathResource("db/event-search.sql"));
+        migration.execute(dataSource);
+        migration.execute(dataSource);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT i.indisvalid FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_event_search_vector'", Boolean.class))
+                .isTrue();
+        assertThat(ids("pressure", all)).containsExactlyInAnyOrder(pumpFailure, pumpNotes, valveFailure);
+    }
+}
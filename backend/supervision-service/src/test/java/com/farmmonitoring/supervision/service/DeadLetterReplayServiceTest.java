@@ -0,0 +1,281 @@
+package com.farm.supervision.service;
+
+import com.farm.events.EventSchema;
+import com.farm.supervision.dto.DeadLetterReplayJobDTO;
+import com.farm.supervision.dto.DeadLetterReplayJobDTO.Status;
+import com.farm.supervision.dto.DeadLetterReplayRequest;
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.monitoring.DeadLetterMetrics;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Dead Letter Replay Service Tests")
+class DeadLetterReplayServiceTest {
+
+    private static final String EXCHANGE = "equipment-events.partitioned";
+    private static final LocalDateTime DEAD_LETTERED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final DeadLetterMessageRepository deadLetterRepository = mock(DeadLetterMessageRepository.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final DeadLetterMetrics deadLetterMetrics = mock(DeadLetterMetrics.class);
+    private final DeadLetterReplayService replayService = new DeadLetterReplayService(
+            deadLetterRepository, rabbitTemplate, mock(PlatformTransactionManager.class), deadLetterMetrics);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(replayService, "partitionExchangeName", EXCHANGE);
+        ReflectionTestUtils.setField(replayService, "defaultRatePerSecond", 1000);
+        ReflectionTestUtils.setField(replayService, "maxRatePerSecond", 1000);
+        ReflectionTestUtils.setField(replayService, "confirmTimeout", Duration.ofSeconds(5));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayService.shutdown();
+    }
+
+    private static DeadLetterMessage deadLetter(int index) {
+        return DeadLetterMessage.builder()
+                .id(UUID.randomUUID())
+                .eventType(EventType.BATTERY_LOW)
+                .farmId(UUID.randomUUID())
+                .contentType("application/json")
+                .headers(Map.of(
+                        EventSchema.PARTITION_KEY_HEADER, UUID.randomUUID().toString(),
+                        EventRetryHandler.RETRY_HEADER, 3,
+                        EventRetryHandler.EXCEPTION_TYPE_HEADER, "org.springframework.dao.QueryTimeoutException",
+                        "x-death", List.of(Map.of("reason", "rejected"))))
+                .body(("{\"eventType\":\"BATTERY_LOW\",\"message\":\"" + index + "\"}").getBytes(StandardCharsets.UTF_8))
+                .deadLetteredAt(DEAD_LETTERED_AT.plusSeconds(index))
+                .status(DeadLetterStatus.PENDING)
+                .build();
+    }
+
+    private List<DeadLetterMessage> pending(int count) {
+        List<DeadLetterMessage> deadLetters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            deadLetters.add(deadLetter(i));
+        }
+        List<UUID> ids = deadLetters.stream().map(DeadLetterMessage::getId).toList();
+        when(deadLetterRepository.findPendingIds(any(), any(), any(), any())).thenReturn(ids);
+        // The store returns rows in any order; the replay sorts them by when they were dead-lettered
+        List<DeadLetterMessage> stored = new ArrayList<>(deadLetters);
+        Collections.reverse(stored);
+        when(deadLetterRepository.findAllById(anyIterable())).thenReturn(stored);
+        return deadLetters;
+    }
+
+    private DeadLetterReplayJobDTO awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        DeadLetterReplayJobDTO job = replayService.getJob(jobId);
+        while (job.getStatus() == Status.QUEUED || job.getStatus() == Status.RUNNING) {
+            assertThat(System.nanoTime()).as("replay %s finished", jobId).isLessThan(deadline);
+            Thread.sleep(10);
+            job = replayService.getJob(jobId);
+        }
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<UUID> markedReplayed() {
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(deadLetterRepository).markReplayed(ids.capture(), any());
+        return ids.getValue();
+    }
+
+    @Test
+    @DisplayName("Should select pending dead letters by the request's filters")
+    void selectsByFilters() {
+        UUID farmId = UUID.randomUUID();
+        LocalDateTime from = DEAD_LETTERED_AT.minusDays(1);
+        LocalDateTime to = DEAD_LETTERED_AT;
+        DeadLetterReplayRequest request = DeadLetterReplayRequest.builder()
+                .eventType(EventType.SENSOR_OFFLINE).farmId(farmId).from(from).to(to).dryRun(true).build();
+        when(deadLetterRepository.findPendingIds(EventType.SENSOR_OFFLINE, farmId, from, to))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(replayService.replay(request).getTotal()).isEqualTo(2);
+        verify(deadLetterRepository, never()).findPendingIdsIn(any());
+    }
+
+    @Test
+    @DisplayName("Should select pending dead letters by id, ignoring the filters")
+    void selectsByIds() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        DeadLetterReplayRequest request = DeadLetterReplayRequest.builder()
+                .ids(ids).eventType(EventType.SENSOR_OFFLINE).dryRun(true).build();
+        when(deadLetterRepository.findPendingIdsIn(ids)).thenReturn(ids.subList(0, 2));
+
+        assertThat(replayService.replay(request).getTotal()).isEqualTo(2);
+        verify(deadLetterRepository, never()).findPendingIds(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should only count the matches of a dry run, and publish nothing")
+    void dryRunPublishesNothing() throws Exception {
+        pending(3);
+
+        DeadLetterReplayJobDTO job = replayService.replay(DeadLetterReplayRequest.builder().dryRun(true).build());
+
+        assertThat(job.getStatus()).isEqualTo(Status.DRY_RUN);
+        assertThat(job.getId()).isNull();
+        assertThat(job.getTotal()).isEqualTo(3);
+        Thread.sleep(100);
+        verifyNoInteractions(rabbitTemplate);
+        verify(deadLetterRepository, never()).findAllById(any());
+        verify(deadLetterRepository, never()).markReplayed(any(), any());
+        verify(deadLetterMetrics, never()).addReplayRemaining(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should publish each message in dead-letter order and wait for its confirm before the next")
+    void publishesAndConfirmsEachMessage() throws Exception {
+        List<DeadLetterMessage> deadLetters = pending(3);
+
+        DeadLetterReplayJobDTO job = awaitFinished(replayService.replay(new DeadLetterReplayRequest()).getId());
+
+        assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(job.getReplayed()).isEqualTo(3);
+        InOrder inOrder = inOrder(operations);
+        for (DeadLetterMessage deadLetter : deadLetters) {
+            inOrder.verify(operations).send(eq(EXCHANGE), eq("equipment.battery_low"),
+                    argThat((Message message) -> deadLetter.getId().toString().equals(
+                            message.getMessageProperties().getHeader(DeadLetterReplayService.REPLAYED_FROM_HEADER))));
+            inOrder.verify(operations).waitForConfirmsOrDie(5000);
+        }
+        assertThat(markedReplayed()).containsExactlyElementsOf(deadLetters.stream().map(DeadLetterMessage::getId).toList());
+        verify(deadLetterMetrics, times(3)).recordReplayed();
+    }
+
+    @Test
+    @DisplayName("Should replay the original message without the headers of its previous failure")
+    void dropsFailureHeaders() throws Exception {
+        DeadLetterMessage deadLetter = pending(1).get(0);
+
+        awaitFinished(replayService.replay(new DeadLetterReplayRequest()).getId());
+
+        ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+        verify(operations).send(eq(EXCHANGE), anyString(), message.capture());
+        assertThat(message.getValue().getBody()).isEqualTo(deadLetter.getBody());
+        assertThat(message.getValue().getMessageProperties().getHeaders())
+                .containsEntry(EventSchema.PARTITION_KEY_HEADER, deadLetter.getHeaders().get(EventSchema.PARTITION_KEY_HEADER))
+                .doesNotContainKeys("x-death", EventRetryHandler.RETRY_HEADER, EventRetryHandler.EXCEPTION_TYPE_HEADER);
+    }
+
+    @Test
+    @DisplayName("Should leave a message the broker did not confirm pending, and go on with the next")
+    void unconfirmedMessageStaysPending() throws Exception {
+        List<DeadLetterMessage> deadLetters = pending(3);
+        doNothing()
+                .doThrow(new AmqpIOException(new IOException("nack")))
+                .doNothing()
+                .when(operations).waitForConfirmsOrDie(anyLong());
+
+        DeadLetterReplayJobDTO job = awaitFinished(replayService.replay(new DeadLetterReplayRequest()).getId());
+
+        assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(job.getReplayed()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(markedReplayed()).containsExactly(deadLetters.get(0).getId(), deadLetters.get(2).getId());
+        verify(deadLetterMetrics).recordFailed();
+    }
+
+    @Test
+    @DisplayName("Should skip messages replayed or deleted since the job was queued")
+    void skipsMessagesNoLongerPending() throws Exception {
+        List<DeadLetterMessage> deadLetters = pending(3);
+        deadLetters.get(1).setStatus(DeadLetterStatus.REPLAYED);
+        // The last one was deleted
+        when(deadLetterRepository.findAllById(anyIterable())).thenReturn(deadLetters.subList(0, 2));
+
+        DeadLetterReplayJobDTO job = awaitFinished(replayService.replay(new DeadLetterReplayRequest()).getId());
+
+        assertThat(job.getReplayed()).isEqualTo(1);
+        assertThat(job.getSkipped()).isEqualTo(2);
+        assertThat(markedReplayed()).containsExactly(deadLetters.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should stop a replay cancelled mid-batch, keeping what was already published")
+    void cancelsMidBatch() throws Exception {
+        List<DeadLetterMessage> deadLetters = pending(5);
+        CountDownLatch firstSent = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            firstSent.countDown();
+            assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).doNothing().when(operations).send(anyString(), anyString(), any(Message.class));
+
+        UUID jobId = replayService.replay(new DeadLetterReplayRequest()).getId();
+        assertThat(firstSent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(replayService.cancelJob(jobId).getStatus()).isEqualTo(Status.RUNNING);
+        cancelled.countDown();
+        DeadLetterReplayJobDTO job = awaitFinished(jobId);
+
+        assertThat(job.getStatus()).isEqualTo(Status.CANCELLED);
+        assertThat(job.getReplayed()).isEqualTo(1);
+        verify(operations, times(1)).send(anyString(), anyString(), any(Message.class));
+        assertThat(markedReplayed()).containsExactly(deadLetters.get(0).getId());
+        // The 4 messages never sent are no longer counted as remaining
+        verify(deadLetterMetrics).addReplayRemaining(5);
+        verify(deadLetterMetrics).addReplayRemaining(-4);
+    }
+
+    @Test
+    @DisplayName("Should forget the oldest jobs once more than 50 are tracked")
+    void evictsOldestJobs() throws Exception {
+        when(deadLetterRepository.findPendingIds(any(), any(), any(), any())).thenReturn(List.of());
+        List<UUID> jobIds = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            jobIds.add(replayService.replay(new DeadLetterReplayRequest()).getId());
+        }
+
+        assertThatThrownBy(() -> replayService.getJob(jobIds.get(0)))
+                .isInstanceOf(DeadLetterReplayService.ReplayJobNotFoundException.class);
+        for (UUID jobId : jobIds.subList(1, 51)) {
+            assertThat(awaitFinished(jobId).getStatus()).isEqualTo(Status.COMPLETED);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not find a job this replica does not track")
+    void unknownJob() {
+        assertThatThrownBy(() -> replayService.cancelJob(UUID.randomUUID()))
+                .isInstanceOf(DeadLetterReplayService.ReplayJobNotFoundException.class);
+    }
+}
@@ -0,0 +1,179 @@
+package com.farm.supervision.service;
+
+import com.farm.events.EventSchema;
+import com.farm.supervision.config.RabbitMQConfig;
+import com.farm.supervision.dto.DeadLetterDTO;
+import com.farm.supervision.dto.DeadLetterFilterRequest;
+import com.farm.supervision.model.DeadLetterMessage;
+import com.farm.supervision.model.DeadLetterStatus;
+import com.farm.supervision.model.EventType;
+import com.farm.supervision.monitoring.DeadLetterMetrics;
+import com.farm.supervision.repository.DeadLetterMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Dead Letter Service Tests")
+class DeadLetterServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final DeadLetterMessageRepository deadLetterRepository = mock(DeadLetterMessageRepository.class);
+    private final DeadLetterMetrics deadLetterMetrics = mock(DeadLetterMetrics.class);
+    private final DeadLetterService deadLetterService = new DeadLetterService(deadLetterRepository,
+            new RabbitMQConfig().messageConverter(objectMapper), objectMapper, deadLetterMetrics);
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID equipmentId = UUID.randomUUID();
+    private final UUID farmId = UUID.randomUUID();
+
+    private String eventJson() {
+        return "{\"eventId\":\"" + eventId + "\",\"eventType\":\"THRESHOLD_VIOLATED\",\"equipmentId\":\"" + equipmentId
+                + "\",\"farmId\":\"" + farmId + "\",\"timestamp\":\"2024-05-01T12:00:00\",\"message\":\"Too hot\"}";
+    }
+
+    private static Message message(String body, String contentType, Map<String, Object> headers) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setHeader(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+        headers.forEach(properties::setHeader);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private DeadLetterMessage stored() {
+        ArgumentCaptor<DeadLetterMessage> deadLetter = ArgumentCaptor.forClass(DeadLetterMessage.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        return deadLetter.getValue();
+    }
+
+    @Test
+    @DisplayName("Should store a dead-lettered event with the failure recorded by the retry handler")
+    void storesEventWithRecordedFailure() {
+        deadLetterService.storeDeadLetter(message(eventJson(), "application/json", Map.of(
+                EventRetryHandler.RETRY_HEADER, 3,
+                EventRetryHandler.EXCEPTION_TYPE_HEADER, "org.springframework.dao.QueryTimeoutException",
+                EventRetryHandler.EXCEPTION_MESSAGE_HEADER, "lock timeout")));
+
+        DeadLetterMessage deadLetter = stored();
+        assertThat(deadLetter.getEventId()).isEqualTo(eventId);
+        assertThat(deadLetter.getEventType()).isEqualTo(EventType.THRESHOLD_VIOLATED);
+        assertThat(deadLetter.getEquipmentId()).isEqualTo(equipmentId);
+        assertThat(deadLetter.getFarmId()).isEqualTo(farmId);
+        assertThat(deadLetter.getEventTimestamp()).isEqualTo(LocalDateTime.of(2024, 5, 1, 12, 0));
+        assertThat(deadLetter.getRetryCount()).isEqualTo(3);
+        assertThat(deadLetter.getFailureType()).isEqualTo("org.springframework.dao.QueryTimeoutException");
+        assertThat(deadLetter.getFailureMessage()).isEqualTo("lock timeout");
+        assertThat(deadLetter.getStatus()).isEqualTo(DeadLetterStatus.PENDING);
+        assertThat(deadLetter.getHeaders()).containsKey(EventRetryHandler.EXCEPTION_TYPE_HEADER);
+        assertThat(deadLetter.getBody()).isEqualTo(eventJson().getBytes(StandardCharsets.UTF_8));
+        verify(deadLetterMetrics).recordStored();
+    }
+
+    @Test
+    @DisplayName("Should store a message that cannot be decoded, with the broker's dead-letter reason")
+    void storesUndecodableMessageWithDeathReason() {
+        deadLetterService.storeDeadLetter(message("{\"eventType\":", "application/json", Map.of(
+                "x-death", List.of(Map.of("reason", "expired", "queue", "supervision-events.partition-3")))));
+
+        DeadLetterMessage deadLetter = stored();
+        assertThat(deadLetter.getEventType()).isNull();
+        assertThat(deadLetter.getEquipmentId()).isNull();
+        assertThat(deadLetter.getRetryCount()).isZero();
+        assertThat(deadLetter.getFailureType()).isEqualTo("expired");
+        assertThat(deadLetter.getFailureMessage()).isEqualTo("Dead-lettered from supervision-events.partition-3 (expired)");
+        assertThat(deadLetter.getBody()).isEqualTo("{\"eventType\":".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should store a message without any failure information as unknown")
+    void storesUnknownFailure() {
+        deadLetterService.storeDeadLetter(message(eventJson(), "application/json", Map.of()));
+
+        assertThat(stored().getFailureType()).isEqualTo("unknown");
+    }
+
+    @Test
+    @DisplayName("Should page dead letters by the given filters, without headers and body")
+    void pagesByFilters() {
+        DeadLetterFilterRequest filter = new DeadLetterFilterRequest();
+        filter.setStatus(DeadLetterStatus.PENDING);
+        filter.setEventType(EventType.SENSOR_OFFLINE);
+        filter.setFarmId(farmId);
+        filter.setFrom(LocalDateTime.of(2024, 5, 1, 0, 0));
+        filter.setTo(LocalDateTime.of(2024, 5, 2, 0, 0));
+        Pageable pageable = PageRequest.of(0, 20);
+        DeadLetterMessage deadLetter = DeadLetterMessage.builder()
+                .id(UUID.randomUUID()).eventType(EventType.SENSOR_OFFLINE).farmId(farmId)
+                .headers(Map.of("x-death", List.of())).body(new byte[] {1})
+                .status(DeadLetterStatus.PENDING).build();
+        when(deadLetterRepository.findByFilters(DeadLetterStatus.PENDING, EventType.SENSOR_OFFLINE, farmId,
+                filter.getFrom(), filter.getTo(), pageable)).thenReturn(new PageImpl<>(List.of(deadLetter)));
+
+        List<DeadLetterDTO> page = deadLetterService.getDeadLetters(filter, pageable).getContent();
+
+        assertThat(page).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(deadLetter.getId());
+            assertThat(dto.getHeaders()).isNull();
+            assertThat(dto.getBody()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should show a dead letter with its headers and its decoded body")
+    void showsDecodedBody() {
+        DeadLetterMessage deadLetter = DeadLetterMessage.builder()
+                .id(UUID.randomUUID()).contentType("application/json")
+                .headers(Map.of(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION))
+                .body(eventJson().getBytes(StandardCharsets.UTF_8)).status(DeadLetterStatus.PENDING).build();
+        when(deadLetterRepository.findById(deadLetter.getId())).thenReturn(Optional.of(deadLetter));
+
+        DeadLetterDTO dto = deadLetterService.getDeadLetter(deadLetter.getId());
+
+        assertThat(dto.getHeaders()).containsEntry(EventSchema.VERSION_HEADER, EventSchema.CURRENT_VERSION);
+        assertThat(dto.getBody().get("eventType").asText()).isEqualTo("THRESHOLD_VIOLATED");
+        assertThat(dto.getBody().get("equipmentId").asText()).isEqualTo(equipmentId.toString());
+    }
+
+    @Test
+    @DisplayName("Should show a body that cannot be decoded as text when JSON, as Base64 otherwise")
+    void showsUndecodableBodyRaw() {
+        DeadLetterMessage json = DeadLetterMessage.builder().id(UUID.randomUUID()).contentType("application/json")
+                .body("{\"eventType\":".getBytes(StandardCharsets.UTF_8)).build();
+        DeadLetterMessage binary = DeadLetterMessage.builder().id(UUID.randomUUID()).contentType("application/octet-stream")
+                .body(new byte[] {0, 1, 2, -1}).build();
+        when(deadLetterRepository.findById(json.getId())).thenReturn(Optional.of(json));
+        when(deadLetterRepository.findById(binary.getId())).thenReturn(Optional.of(binary));
+
+        assertThat(deadLetterService.getDeadLetter(json.getId()).getBody().asText()).isEqualTo("{\"eventType\":");
+        assertThat(deadLetterService.getDeadLetter(binary.getId()).getBody().asText())
+                .isEqualTo(Base64.getEncoder().encodeToString(new byte[] {0, 1, 2, -1}));
+    }
+
+    @Test
+    @DisplayName("Should not find a dead letter that does not exist")
+    void deadLetterNotFound() {
+        when(deadLetterRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> deadLetterService.getDeadLetter(UUID.randomUUID()))
+                .isInstanceOf(DeadLetterService.DeadLetterNotFoundException.class);
+    }
+}
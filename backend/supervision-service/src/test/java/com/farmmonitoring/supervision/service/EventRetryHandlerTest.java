@@ -0,0 +1,220 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.config.EventRetryTiers;
+import com.farm.supervision.config.RabbitMQConfig;
+import com.farm.supervision.monitoring.RetryMetrics;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Event Retry Handler Tests")
+class EventRetryHandlerTest {
+
+    private static final UUID DEVICE = UUID.randomUUID();
+    private static final UUID OTHER_DEVICE = UUID.randomUUID();
+    private static final byte[] BODY = "{\"eventType\":\"BATTERY_LOW\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final EventRetryTiers retryTiers = new EventRetryTiers("supervision-events.retry-",
+            List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60)), 4);
+    private final RetryMetrics retryMetrics = mock(RetryMetrics.class);
+    private final Channel channel = mock(Channel.class);
+    private final EventRetryHandler retryHandler = new EventRetryHandler(retryTiers, retryMetrics);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retryHandler, "confirmTimeout", Duration.ofSeconds(5));
+    }
+
+    private static Message message(Integer retries) {
+        MessageProperties properties = new MessageProperties();
+        if (retries != null) {
+            properties.setHeader(EventRetryHandler.RETRY_HEADER, retries);
+        }
+        return new Message(BODY, properties);
+    }
+
+    private AMQP.BasicProperties published(String exchange, String routingKey) throws Exception {
+        ArgumentCaptor<AMQP.BasicProperties> properties = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(exchange), eq(routingKey), properties.capture(), eq(BODY));
+        return properties.getValue();
+    }
+
+    @Test
+    @DisplayName("Should send a first failure to the first retry tier")
+    void firstFailureGoesToFirstTier() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        assertThat(published("", "supervision-events.retry-1s").getHeaders())
+                .containsEntry(EventRetryHandler.RETRY_HEADER, 1);
+        verify(retryMetrics).recordRetry(0);
+    }
+
+    @Test
+    @DisplayName("Should move each further retry to the next tier, reusing the last one")
+    void laterRetriesMoveUpTiers() throws Exception {
+        retryHandler.handleFailure(message(1), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+        retryHandler.handleFailure(message(3), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        assertThat(published("", "supervision-events.retry-10s").getHeaders())
+                .containsEntry(EventRetryHandler.RETRY_HEADER, 2);
+        assertThat(published("", "supervision-events.retry-60s").getHeaders())
+                .containsEntry(EventRetryHandler.RETRY_HEADER, 4);
+        verify(retryMetrics).recordRetry(1);
+        verify(retryMetrics).recordRetry(2);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an event once its retries are exhausted")
+    void deadLettersAfterMaxRetries() throws Exception {
+        retryHandler.handleFailure(message(4), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        assertThat(published(RabbitMQConfig.DEAD_LETTER_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY).getHeaders())
+                .containsEntry(EventRetryHandler.EXCEPTION_TYPE_HEADER, QueryTimeoutException.class.getName())
+                .containsEntry(EventRetryHandler.EXCEPTION_MESSAGE_HEADER, "lock timeout");
+        verify(retryMetrics).recordDeadLettered(RetryMetrics.REASON_EXHAUSTED);
+        verify(retryMetrics, never()).recordRetry(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter failures that retrying cannot fix straight away, with their root cause")
+    void deadLettersNonRetryableFailures() throws Exception {
+        List<Exception> failures = List.of(
+                new MessageConversionException("bad body", new IllegalStateException("unexpected end of input")),
+                new DataIntegrityViolationException("duplicate key"),
+                new IllegalArgumentException("unknown farm"));
+        for (Exception failure : failures) {
+            reset(channel);
+            retryHandler.handleFailure(message(null), channel, failure, null);
+
+            Throwable rootCause = failure.getCause() != null ? failure.getCause() : failure;
+            assertThat(published(RabbitMQConfig.DEAD_LETTER_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY).getHeaders())
+                    .as(failure.getClass().getSimpleName())
+                    .containsEntry(EventRetryHandler.EXCEPTION_TYPE_HEADER, rootCause.getClass().getName())
+                    .containsEntry(EventRetryHandler.EXCEPTION_MESSAGE_HEADER, rootCause.getMessage());
+        }
+        verify(retryMetrics, times(failures.size())).recordDeadLettered(RetryMetrics.REASON_NOT_RETRYABLE);
+        verify(retryMetrics, never()).recordRetry(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should truncate long exception messages in the dead letter headers")
+    void truncatesExceptionMessage() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new IllegalArgumentException("x".repeat(5000)), DEVICE);
+
+        verify(channel).basicPublish(any(), any(), argThat(properties ->
+                properties.getHeaders().get(EventRetryHandler.EXCEPTION_MESSAGE_HEADER).toString().length() == 1000), any());
+    }
+
+    @Test
+    @DisplayName("Should return only once the broker confirmed the copy")
+    void waitsForConfirmAfterPublishing() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).confirmSelect();
+        inOrder.verify(channel).basicPublish(any(), any(), any(), any());
+        inOrder.verify(channel).waitForConfirmsOrDie(5000);
+    }
+
+    @Test
+    @DisplayName("Should fail, so the original is not acked, when the broker does not confirm the copy")
+    void failsWithoutConfirm() throws Exception {
+        doThrow(new TimeoutException()).when(channel).waitForConfirmsOrDie(anyLong());
+
+        assertThatThrownBy(() -> retryHandler.handleFailure(message(null), channel,
+                new QueryTimeoutException("lock timeout"), DEVICE))
+                .isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("Should park later events of a device behind its event in retry, and no other device's")
+    void parksLaterEventsBehindRetry() throws Exception {
+        assertThat(retryHandler.parkBehindRetry(DEVICE, message(null), channel)).isFalse();
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+        reset(channel);
+
+        assertThat(retryHandler.parkBehindRetry(DEVICE, message(null), channel)).isTrue();
+        assertThat(retryHandler.parkBehindRetry(OTHER_DEVICE, message(null), channel)).isFalse();
+
+        AMQP.BasicProperties parked = published("", "supervision-events.retry-1s");
+        assertThat(parked.getHeaders())
+                .containsEntry(EventRetryHandler.PARKED_HEADER, true)
+                .doesNotContainKey(EventRetryHandler.RETRY_HEADER);
+        verify(channel).waitForConfirmsOrDie(5000);
+        verify(retryMetrics, times(1)).recordRetry(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep events parked in the tier their retried event moved on to")
+    void followsRetriedEventToNextTier() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+        retryHandler.handleFailure(message(1), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+        reset(channel);
+
+        // The event parked in the 1s tier returns before its retried event and is parked again, behind it
+        Message parked = message(null);
+        parked.getMessageProperties().setHeader(EventRetryHandler.PARKED_HEADER, true);
+        assertThat(retryHandler.parkBehindRetry(DEVICE, parked, channel)).isTrue();
+
+        published("", "supervision-events.retry-10s");
+    }
+
+    @Test
+    @DisplayName("Should process parked events once the retried event is stored")
+    void releasesOnceRetriedEventStored() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        // An event stored on its first attempt is not the one the device waits for
+        retryHandler.handleSuccess(DEVICE, message(null));
+        assertThat(retryHandler.parkBehindRetry(DEVICE, message(null), channel)).isTrue();
+
+        retryHandler.handleSuccess(DEVICE, message(1));
+        assertThat(retryHandler.parkBehindRetry(DEVICE, message(null), channel)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should process parked events once the retried event is dead-lettered")
+    void releasesOnceRetriedEventDeadLettered() throws Exception {
+        retryHandler.handleFailure(message(null), channel, new QueryTimeoutException("lock timeout"), DEVICE);
+        retryHandler.handleFailure(message(1), channel, new DataIntegrityViolationException("duplicate key"), DEVICE);
+
+        assertThat(retryHandler.parkBehindRetry(DEVICE, message(null), channel)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should clear the parked marker when a parked event fails and is retried itself")
+    void retriedParkedEventIsNoLongerParked() throws Exception {
+        Message parked = message(null);
+        parked.getMessageProperties().setHeader(EventRetryHandler.PARKED_HEADER, true);
+
+        retryHandler.handleFailure(parked, channel, new QueryTimeoutException("lock timeout"), DEVICE);
+
+        assertThat(published("", "supervision-events.retry-1s").getHeaders())
+                .doesNotContainKey(EventRetryHandler.PARKED_HEADER)
+                .containsEntry(EventRetryHandler.RETRY_HEADER, 1);
+    }
+}
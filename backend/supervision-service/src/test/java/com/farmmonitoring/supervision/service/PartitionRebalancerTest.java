@@ -0,0 +1,121 @@
+package com.farm.supervision.service;
+
+import com.farm.supervision.config.EventPartitions;
+import com.farm.supervision.monitoring.PartitionMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Partition Rebalancer Tests")
+class PartitionRebalancerTest {
+
+    private static final String SERVICE_ID = "supervision-service";
+    private static final String SELF = "supervision-b";
+
+    private final EventPartitions eventPartitions = new EventPartitions("supervision-events.partition-", 8);
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final DirectMessageListenerContainer container = mock(DirectMessageListenerContainer.class);
+    private final PartitionMetrics partitionMetrics = mock(PartitionMetrics.class);
+    private final Registration self = mock(Registration.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<Registration> registration = mock(ObjectProvider.class);
+    private PartitionRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        RabbitListenerEndpointRegistry listenerRegistry = mock(RabbitListenerEndpointRegistry.class);
+        when(listenerRegistry.getListenerContainer(PartitionRebalancer.LISTENER_ID)).thenReturn(container);
+        when(self.getInstanceId()).thenReturn(SELF);
+        when(registration.getIfAvailable()).thenReturn(self);
+        rebalancer = new PartitionRebalancer(listenerRegistry, discoveryClient, registration, eventPartitions,
+                partitionMetrics);
+        ReflectionTestUtils.setField(rebalancer, "serviceId", SERVICE_ID);
+    }
+
+    private void replicas(String... instanceIds) {
+        List<ServiceInstance> instances = Arrays.stream(instanceIds)
+                .map(id -> (ServiceInstance) new DefaultServiceInstance(id, SERVICE_ID, "localhost", 8080, false))
+                .toList();
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(instances);
+    }
+
+    private String[] queues(int... partitions) {
+        return Arrays.stream(partitions).mapToObj(eventPartitions::queueName).toArray(String[]::new);
+    }
+
+    @Test
+    @DisplayName("Should give every partition to exactly one replica, for any number of replicas")
+    void assignsEveryPartitionOnce() {
+        for (int partitionCount : new int[] {1, 8, 16, 17}) {
+            for (int replicaCount = 1; replicaCount <= partitionCount + 2; replicaCount++) {
+                int[] owners = new int[partitionCount];
+                for (int replica = 0; replica < replicaCount; replica++) {
+                    Set<Integer> owned = PartitionRebalancer.partitionsOwnedBy(replica, replicaCount, partitionCount);
+                    owned.forEach(partition -> owners[partition]++);
+                    assertThat(owned.size())
+                            .as("partitions of replica %d of %d, over %d partitions", replica, replicaCount, partitionCount)
+                            .isBetween(partitionCount / replicaCount, partitionCount / replicaCount + 1);
+                }
+                assertThat(owners)
+                        .as("owners of each of %d partitions, over %d replicas", partitionCount, replicaCount)
+                        .containsOnly(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should consume all partitions while this replica is not in the registry")
+    void consumesAllWhenNotRegistered() {
+        replicas("supervision-a", "supervision-c");
+
+        rebalancer.onStartup();
+
+        verify(container).setQueueNames(eventPartitions.queueNames());
+        verify(container).start();
+        verify(partitionMetrics).updateOwnedPartitions(Set.of(0, 1, 2, 3, 4, 5, 6, 7));
+    }
+
+    @Test
+    @DisplayName("Should move partitions on a heartbeat when the replica set changes, and not otherwise")
+    void reassignsOnHeartbeat() {
+        replicas(SELF, "supervision-c");
+        rebalancer.onStartup();
+        verify(container).setQueueNames(queues(0, 2, 4, 6));
+        verify(container).start();
+
+        when(container.isRunning()).thenReturn(true);
+        rebalancer.onRegistryRefresh();
+        verify(container, never()).removeQueueNames(any(String[].class));
+        verify(container, never()).addQueueNames(any(String[].class));
+
+        // A replica sorting first joins: this one becomes replica 2 of 3
+        replicas("supervision-c", "supervision-a", SELF);
+        rebalancer.onRegistryRefresh();
+        verify(container).removeQueueNames(queues(0, 2, 6));
+        verify(container).addQueueNames(queues(1, 7));
+        verify(partitionMetrics).updateOwnedPartitions(Set.of(1, 4, 7));
+
+        // The other replicas leave: this one takes every partition back
+        replicas(SELF);
+        rebalancer.onRegistryRefresh();
+        verify(container).addQueueNames(queues(0, 2, 3, 5, 6));
+        verify(partitionMetrics).updateOwnedPartitions(Set.of(0, 1, 2, 3, 4, 5, 6, 7));
+        verify(container, times(1)).start();
+    }
+}
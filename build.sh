@@ -32,15 +32,15 @@ docker build -t farm-monitoring/api-gateway:latest ./backend/api-gateway
 
 # Build Farmers Service
 echo -e "${YELLOW}Building Farmers Service...${NC}"
-docker build -t farm-monitoring/farmers-service:latest ./backend/farmers-service
+docker build -t farm-monitoring/farmers-service:latest -f ./backend/farmers-service/Dockerfile ./backend
 
 # Build Equipment Service
 echo -e "${YELLOW}Building Equipment Service...${NC}"
-docker build -t farm-monitoring/equipment-service:latest ./backend/equipment-service
+docker build -t farm-monitoring/equipment-service:latest -f ./backend/equipment-service/Dockerfile ./backend
 
 # Build Supervision Service
 echo -e "${YELLOW}Building Supervision Service...${NC}"
-docker build -t farm-monitoring/supervision-service:latest ./backend/supervision-service
+docker build -t farm-monitoring/supervision-service:latest -f ./backend/supervision-service/Dockerfile ./backend
 
 echo -e "\n${YELLOW}Step 2: Building Frontend...${NC}"
 
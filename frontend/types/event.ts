@@ -11,6 +11,9 @@ export enum EventType {
   SENSOR_OFFLINE = 'SENSOR_OFFLINE',
   EQUIPMENT_FAILURE = 'EQUIPMENT_FAILURE',
   SYSTEM_ALERT = 'SYSTEM_ALERT',
+  THRESHOLD_VIOLATED = 'THRESHOLD_VIOLATED',
+  THRESHOLD_CLEARED = 'THRESHOLD_CLEARED',
+  SENSOR_ANOMALY = 'SENSOR_ANOMALY',
 }
 
 export enum EventSeverity {
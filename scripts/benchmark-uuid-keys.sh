@@ -0,0 +1,68 @@
+#!/bin/bash
+
+# Benchmark: insert throughput and primary key index size, random UUIDv4 vs time-ordered UUIDv7
+#
+# Usage: ./scripts/benchmark-uuid-keys.sh [rows]
+#   rows   total rows inserted per table (default 50000000)
+#
+# Connection settings come from the usual PG* variables (PGHOST, PGPORT, PGUSER, PGDATABASE, PGPASSWORD).
+# Run it against a scratch database: it creates and drops the uuid_bench_* tables.
+#
+# Rows are generated client-side for both tables by UuidKeyRows of the benchmarks module, the UUIDv7
+# keys by the services' UuidV7Generator, and streamed in with COPY; build the module first:
+#   cd backend/benchmarks && mvn clean package
+
+set -e
+
+ROWS=${1:-50000000}
+JAR=${BENCHMARKS_JAR:-$(dirname "$0")/../backend/benchmarks/target/benchmarks.jar}
+
+if [ ! -f "$JAR" ]; then
+    echo "Benchmarks jar not found at $JAR: build backend/benchmarks or set BENCHMARKS_JAR" >&2
+    exit 1
+fi
+
+PSQL="psql -X -q -v ON_ERROR_STOP=1"
+
+echo "Preparing benchmark tables..."
+$PSQL <<'SQL'
+DROP TABLE IF EXISTS uuid_bench_v4;
+DROP TABLE IF EXISTS uuid_bench_v7;
+
+-- Same shape as the equipment_events table: uuid key plus a small payload
+CREATE TABLE uuid_bench_v4 (id uuid PRIMARY KEY, equipment_id uuid NOT NULL, created_at timestamp NOT NULL, message varchar(200));
+CREATE TABLE uuid_bench_v7 (id uuid PRIMARY KEY, equipment_id uuid NOT NULL, created_at timestamp NOT NULL, message varchar(200));
+SQL
+
+run() {
+    local table=$1
+    local variant=$2
+    local start end
+
+    $PSQL -c "CHECKPOINT" > /dev/null
+    local wal_start
+    wal_start=$($PSQL -At -c "SELECT pg_current_wal_lsn()")
+
+    start=$(date +%s.%N)
+    java -cp "$JAR" com.farm.benchmarks.UuidKeyRows "$variant" "$ROWS" \
+        | $PSQL -c "\\copy $table FROM PSTDIN WITH (FORMAT csv)"
+    end=$(date +%s.%N)
+
+    $PSQL -At -F ' | ' -c "
+        SELECT '$table',
+               round($ROWS / ($end - $start))::text || ' rows/s',
+               pg_size_pretty(pg_relation_size('${table}_pkey')) || ' pkey',
+               pg_size_pretty(pg_wal_lsn_diff(pg_current_wal_lsn(), '$wal_start')) || ' WAL'"
+}
+
+echo "Inserting $ROWS rows per table..."
+echo "table | throughput | index size | WAL written"
+run uuid_bench_v4 v4
+run uuid_bench_v7 v7
+
+$PSQL <<'SQL'
+DROP TABLE uuid_bench_v4;
+DROP TABLE uuid_bench_v7;
+SQL
+
+echo "Benchmark complete."
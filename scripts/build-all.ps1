@@ -14,13 +14,13 @@ docker build -t farm/api-gateway:latest ./infrastructure/api-gateway
 
 # Backend microservices
 Write-Host "Building Farmers Service..." -ForegroundColor Cyan
-docker build -t farm/farmers-service:latest ./backend/farmers-service
+docker build -t farm/farmers-service:latest -f ./backend/farmers-service/Dockerfile ./backend
 
 Write-Host "Building Equipment Service..." -ForegroundColor Cyan
-docker build -t farm/equipment-service:latest ./backend/equipment-service
+docker build -t farm/equipment-service:latest -f ./backend/equipment-service/Dockerfile ./backend
 
 Write-Host "Building Supervision Service..." -ForegroundColor Cyan
-docker build -t farm/supervision-service:latest ./backend/supervision-service
+docker build -t farm/supervision-service:latest -f ./backend/supervision-service/Dockerfile ./backend
 
 # Frontend
 Write-Host "Building Frontend..." -ForegroundColor Cyan
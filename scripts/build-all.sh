@@ -18,13 +18,13 @@ docker build -t farm/api-gateway:latest ./infrastructure/api-gateway
 
 # Backend microservices
 echo "Building Farmers Service..."
-docker build -t farm/farmers-service:latest ./backend/farmers-service
+docker build -t farm/farmers-service:latest -f ./backend/farmers-service/Dockerfile ./backend
 
 echo "Building Equipment Service..."
-docker build -t farm/equipment-service:latest ./backend/equipment-service
+docker build -t farm/equipment-service:latest -f ./backend/equipment-service/Dockerfile ./backend
 
 echo "Building Supervision Service..."
-docker build -t farm/supervision-service:latest ./backend/supervision-service
+docker build -t farm/supervision-service:latest -f ./backend/supervision-service/Dockerfile ./backend
 
 # Frontend
 echo "Building Frontend..."
@@ -0,0 +1,54 @@
+#!/bin/bash
+
+# Load test: platform threads vs virtual threads at high concurrency
+#
+# Usage: ./scripts/load-test-virtual-threads.sh <base-url> <path> [concurrency] [duration]
+#   e.g. ./scripts/load-test-virtual-threads.sh http://localhost:8082 /api/sensors/farm/<farmId> 5000 60s
+#
+# Run it once against a service started normally and once against the same service started on
+# Java 21 with SPRING_PROFILES_ACTIVE=virtual-threads, then compare the two summaries.
+# Requires `hey` (https://github.com/rakyll/hey), `curl` and `jq`. The actuator metrics endpoint
+# must be exposed. Set FARMER_ID to send the X-Farmer-Id header.
+
+set -e
+
+BASE_URL=${1:?base url required}
+TARGET_PATH=${2:?request path required}
+CONCURRENCY=${3:-5000}
+DURATION=${4:-60s}
+
+metric() {
+    curl -s "$BASE_URL/actuator/metrics/$1${2:+?tag=$2}" | jq -r '.measurements[] | select(.statistic == "VALUE") | .value'
+}
+
+to_mb() {
+    awk -v bytes="$1" 'BEGIN { printf "%.1f MB", bytes / 1048576 }'
+}
+
+HEADERS=()
+if [ -n "$FARMER_ID" ]; then
+    HEADERS=(-H "X-Farmer-Id: $FARMER_ID")
+fi
+
+echo "Warming up..."
+hey -z 10s -c 50 "${HEADERS[@]}" "$BASE_URL$TARGET_PATH" > /dev/null
+
+echo "Running $CONCURRENCY concurrent clients for $DURATION against $TARGET_PATH..."
+hey -z "$DURATION" -c "$CONCURRENCY" "${HEADERS[@]}" "$BASE_URL$TARGET_PATH" > /tmp/load-test-hey.txt &
+HEY_PID=$!
+
+# Sample at the midpoint, while every client is in flight
+sleep $(( ${DURATION%s} / 2 ))
+THREADS_PEAK=$(metric jvm.threads.live)
+HEAP_USED=$(metric jvm.memory.used area:heap)
+NONHEAP_USED=$(metric jvm.memory.used area:nonheap)
+wait $HEY_PID
+
+echo ""
+echo "=== Results ==="
+grep -E "Requests/sec|Average|Slowest" /tmp/load-test-hey.txt
+grep -A8 "Latency distribution" /tmp/load-test-hey.txt | grep -E "50%|90%|99%" || true
+grep -A10 "Status code distribution" /tmp/load-test-hey.txt | grep "\[" || true
+echo "Live JVM threads:  $THREADS_PEAK"
+echo "Heap used:         $(to_mb "$HEAP_USED")"
+echo "Non-heap used:     $(to_mb "$NONHEAP_USED")"
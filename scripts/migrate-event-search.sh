@@ -0,0 +1,42 @@
+#!/bin/bash
+
+# Migration: full-text search column and index of the supervision service (db/event-search.sql)
+#
+# Usage: ./scripts/migrate-event-search.sh
+#
+# Connection settings come from the usual PG* variables (PGHOST, PGPORT, PGUSER, PGDATABASE, PGPASSWORD),
+# for the supervision database. Production runs with spring.sql.init off, so apply this before rolling out
+# a version serving GET /api/events/search. It can be run again at any time.
+#
+# Adding the generated column rewrites equipment_events under an exclusive lock, which stops the event
+# consumers for as long: run it in a quiet period. The statement gives up after LOCK_TIMEOUT (default 10s)
+# rather than queue behind long transactions with every other query queued behind it; just run it again.
+# The index is then built without blocking writes.
+
+set -e
+
+SQL=${EVENT_SEARCH_SQL:-$(dirname "$0")/../backend/supervision-service/src/main/resources/db/event-search.sql}
+
+if [ ! -f "$SQL" ]; then
+    echo "Migration not found at $SQL: set EVENT_SEARCH_SQL" >&2
+    exit 1
+fi
+
+PSQL="psql -X -q -v ON_ERROR_STOP=1"
+
+# A concurrent build that failed leaves an invalid index behind, which CREATE INDEX IF NOT EXISTS would keep
+INVALID=$($PSQL -At -c "SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                         WHERE c.relname = 'idx_event_search_vector' AND NOT i.indisvalid")
+if [ -n "$INVALID" ]; then
+    echo "Dropping the invalid index left by a failed build..."
+    $PSQL -c "DROP INDEX CONCURRENTLY idx_event_search_vector"
+fi
+
+echo "Applying $SQL..."
+PGOPTIONS="-c lock_timeout=${LOCK_TIMEOUT:-10s}" $PSQL -f "$SQL"
+
+$PSQL -At -F ' | ' -c "
+    SELECT 'idx_event_search_vector', pg_size_pretty(pg_relation_size(c.oid)),
+           CASE WHEN i.indisvalid THEN 'valid' ELSE 'INVALID' END
+    FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+    WHERE c.relname = 'idx_event_search_vector'"